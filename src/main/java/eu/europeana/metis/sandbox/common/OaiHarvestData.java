@@ -1,5 +1,7 @@
 package eu.europeana.metis.sandbox.common;
 
+import java.time.Instant;
+
 /**
  * Class to encapsulate the data that is used for oai-pmh harvesting
  */
@@ -9,12 +11,27 @@ public class OaiHarvestData {
     private final String setspec;
     private final String metadataformat;
     private final String oaiIdentifier;
+    private final Instant from;
 
     public OaiHarvestData(String url, String setspec, String metadataformat, String oaiIdentifier) {
+        this(url, setspec, metadataformat, oaiIdentifier, null);
+    }
+
+    /**
+     * Constructor for harvesting only the records that changed since a given date
+     *
+     * @param url the url of the OAI-PMH endpoint
+     * @param setspec the set to harvest
+     * @param metadataformat the metadata format to harvest
+     * @param oaiIdentifier the oai identifier
+     * @param from the datestamp from which on records are harvested, null to harvest all records
+     */
+    public OaiHarvestData(String url, String setspec, String metadataformat, String oaiIdentifier, Instant from) {
         this.url = url;
         this.setspec = setspec;
         this.metadataformat = metadataformat;
         this.oaiIdentifier = oaiIdentifier;
+        this.from = from;
     }
 
     public String getUrl() {
@@ -33,4 +50,8 @@ public class OaiHarvestData {
         return oaiIdentifier;
     }
 
+    public Instant getFrom() {
+        return from;
+    }
+
 }
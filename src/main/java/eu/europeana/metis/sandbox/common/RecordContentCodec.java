@@ -0,0 +1,50 @@
+package eu.europeana.metis.sandbox.common;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * Enum to represent how a stored record content is encoded
+ */
+public enum RecordContentCodec {
+  NONE {
+    @Override
+    public byte[] encode(byte[] content) {
+      return content;
+    }
+
+    @Override
+    public byte[] decode(byte[] storedContent) {
+      return storedContent;
+    }
+  },
+  ZSTD {
+    @Override
+    public byte[] encode(byte[] content) {
+      return Zstd.compress(content, ZSTD_LEVEL);
+    }
+
+    @Override
+    public byte[] decode(byte[] storedContent) {
+      return Zstd.decompress(storedContent, (int) Zstd.getFrameContentSize(storedContent));
+    }
+  };
+
+  // The default level of zstd, which compresses XML several times at a fraction of the cost of the higher levels
+  private static final int ZSTD_LEVEL = 3;
+
+  /**
+   * Encodes a content to store it.
+   *
+   * @param content the content
+   * @return the stored content
+   */
+  public abstract byte[] encode(byte[] content);
+
+  /**
+   * Decodes a stored content.
+   *
+   * @param storedContent the stored content
+   * @return the content
+   */
+  public abstract byte[] decode(byte[] storedContent);
+}
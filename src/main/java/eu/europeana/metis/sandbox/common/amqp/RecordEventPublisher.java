@@ -0,0 +1,169 @@
+package eu.europeana.metis.sandbox.common.amqp;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
+import eu.europeana.metis.sandbox.domain.RecordError;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordLogService;
+import jakarta.annotation.PreDestroy;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes record events without losing them when publishing fails.
+ * <p>
+ * If publisher confirms are enabled on the connection factory, every event is sent mandatory and with correlation data, and
+ * the confirm is handled asynchronously, so publishing does not wait for the broker. An event that is not confirmed, that no
+ * queue was bound for so that the broker returned it, or that could not be sent is published again after a delay, up to the
+ * configured number of retries. The events waiting for a retry are held in memory, at most the configured number of them.
+ * An event that is out of retries, or that does not fit in the retry buffer, is logged as failed at its step, so that the
+ * record still finishes processing. Failures are logged on the retry thread, never on the thread of the connection that
+ * delivers the confirms.
+ */
+@Component
+public class RecordEventPublisher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final RabbitTemplate rabbitTemplate;
+  private final RecordLogService recordLogService;
+  private final int maxRetries;
+  private final long retryDelayMillis;
+  private final Semaphore retryBuffer;
+  private final ScheduledExecutorService retryExecutor;
+  private final boolean confirmsEnabled;
+
+  @Autowired
+  RecordEventPublisher(RabbitTemplate rabbitTemplate, RecordLogService recordLogService,
+      @Value("${sandbox.rabbitmq.publisher.max-retries:3}") int maxRetries,
+      @Value("${sandbox.rabbitmq.publisher.retry-delay-millis:1000}") long retryDelayMillis,
+      @Value("${sandbox.rabbitmq.publisher.retry-buffer-size:10000}") int retryBufferSize) {
+    this(rabbitTemplate, recordLogService, maxRetries, retryDelayMillis, retryBufferSize,
+        Executors.newSingleThreadScheduledExecutor());
+  }
+
+  RecordEventPublisher(RabbitTemplate rabbitTemplate, RecordLogService recordLogService, int maxRetries,
+      long retryDelayMillis, int retryBufferSize, ScheduledExecutorService retryExecutor) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.recordLogService = recordLogService;
+    this.maxRetries = maxRetries;
+    this.retryDelayMillis = retryDelayMillis;
+    this.retryBuffer = new Semaphore(retryBufferSize);
+    this.retryExecutor = retryExecutor;
+    this.confirmsEnabled = rabbitTemplate.getConnectionFactory().isPublisherConfirms();
+    if (confirmsEnabled) {
+      rabbitTemplate.setConfirmCallback(this::confirm);
+      // A returned event is confirmed with the returned message set on its correlation data, and is handled there
+      rabbitTemplate.setMandatory(true);
+      rabbitTemplate.setReturnsCallback(returned -> LOGGER.debug("Event returned by the broker: {} {}",
+          returned.getReplyCode(), returned.getReplyText()));
+    } else {
+      LOGGER.warn("Publisher confirms are not enabled, only events that fail to be sent are retried");
+    }
+  }
+
+  /**
+   * Publishes the event. Failures are retried and finally logged, they are never thrown.
+   *
+   * @param routingKey the routing key
+   * @param recordProcessEvent the event to publish
+   */
+  public void publish(String routingKey, RecordProcessEvent recordProcessEvent) {
+    send(new PendingEvent(routingKey, recordProcessEvent, 0));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    retryExecutor.shutdown();
+  }
+
+  private void send(PendingEvent pendingEvent) {
+    try {
+      if (confirmsEnabled) {
+        rabbitTemplate.convertAndSend(pendingEvent.routingKey, pendingEvent.recordProcessEvent, pendingEvent);
+      } else {
+        rabbitTemplate.convertAndSend(pendingEvent.routingKey, pendingEvent.recordProcessEvent);
+      }
+    } catch (AmqpException e) {
+      handleFailure(pendingEvent, e);
+    }
+  }
+
+  private void confirm(CorrelationData correlationData, boolean ack, String cause) {
+    // Messages published by others through the same template have no or other correlation data
+    if (correlationData instanceof PendingEvent pendingEvent) {
+      if (!ack) {
+        handleFailure(pendingEvent, new AmqpException("Publishing not confirmed by the broker: " + cause));
+      } else if (pendingEvent.getReturned() != null) {
+        handleFailure(pendingEvent, new AmqpException("Publishing returned by the broker as unroutable: "
+            + pendingEvent.getReturned().getReplyText()));
+      }
+    }
+  }
+
+  private void handleFailure(PendingEvent pendingEvent, Exception cause) {
+    if (pendingEvent.attempt < maxRetries && retryBuffer.tryAcquire()) {
+      final int nextAttempt = pendingEvent.attempt + 1;
+      LOGGER.warn("Publishing event of record {} failed, retry {} of {}", pendingEvent.getRecordId(), nextAttempt,
+          maxRetries, cause);
+      try {
+        retryExecutor.schedule(() -> {
+          retryBuffer.release();
+          send(new PendingEvent(pendingEvent.routingKey, pendingEvent.recordProcessEvent, nextAttempt));
+        }, retryDelayMillis * nextAttempt, TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        retryBuffer.release();
+        logFailure(pendingEvent, e);
+      }
+    } else {
+      try {
+        retryExecutor.execute(() -> logFailure(pendingEvent, cause));
+      } catch (RuntimeException e) {
+        logFailure(pendingEvent, cause);
+      }
+    }
+  }
+
+  private void logFailure(PendingEvent pendingEvent, Exception cause) {
+    LOGGER.error("Publishing event of record {} failed, logging it as failed", pendingEvent.getRecordId(), cause);
+    final RecordProcessEvent recordProcessEvent = pendingEvent.recordProcessEvent;
+    final RecordError recordError = new RecordError(
+        new RecordProcessingException(String.valueOf(pendingEvent.getRecordId()), cause));
+    try {
+      recordLogService.logRecordEvent(new RecordProcessEvent(
+          new RecordInfo(recordProcessEvent.getRecord(), List.of(recordError)), recordProcessEvent.getStep(), Status.FAIL));
+    } catch (RuntimeException e) {
+      LOGGER.error("Could not log failed publishing of record {}", pendingEvent.getRecordId(), e);
+    }
+  }
+
+  private static class PendingEvent extends CorrelationData {
+
+    private final String routingKey;
+    private final RecordProcessEvent recordProcessEvent;
+    private final int attempt;
+
+    PendingEvent(String routingKey, RecordProcessEvent recordProcessEvent, int attempt) {
+      this.routingKey = routingKey;
+      this.recordProcessEvent = recordProcessEvent;
+      this.attempt = attempt;
+    }
+
+    Long getRecordId() {
+      return recordProcessEvent.getRecord().getRecordId();
+    }
+  }
+}
@@ -2,25 +2,42 @@ package eu.europeana.metis.sandbox.common.amqp;
 
 import static java.util.Objects.nonNull;
 
+import eu.europeana.metis.sandbox.common.RecordContentCodec;
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordError;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.MessagePropertiesBuilder;
 import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * Implementation of {@link MessageConverter} that can work with {@link RecordProcessEvent}
+ * <p>
+ * Record contents of at least the compression threshold are sent compressed with zstd, the same codec that stores the record
+ * contents, which is signalled by the content encoding of the message. Messages without content encoding are read as
+ * uncompressed and messages with gzip content encoding as gzip compressed, so messages sent by earlier versions are still read
+ * correctly. A compression threshold of zero or less disables compression.
+ * <p>
+ * Record contents that the {@link RecordClaimCheckService} takes are not sent at all. The message then has an empty body and
+ * a claim check header, and the content is read back from the claim check store when the message is converted by the
+ * consumer.
  */
 @Component
 public class RecordMessageConverter implements MessageConverter {
@@ -37,6 +54,23 @@ public class RecordMessageConverter implements MessageConverter {
   protected static final String STATUS = "status";
   protected static final String STEP = "step";
   protected static final String ERRORS = "errors";
+  protected static final String CLAIM_CHECK = "claimCheck";
+  protected static final String ZSTD_ENCODING = "zstd";
+  protected static final String GZIP_ENCODING = "gzip";
+
+  private final RecordClaimCheckService recordClaimCheckService;
+
+  @Value("${sandbox.rabbitmq.compression.threshold-bytes:4096}")
+  private int compressionThreshold;
+
+  /**
+   * Constructor
+   *
+   * @param recordClaimCheckService the service storing the record contents that are not sent in the messages
+   */
+  public RecordMessageConverter(RecordClaimCheckService recordClaimCheckService) {
+    this.recordClaimCheckService = recordClaimCheckService;
+  }
 
   /**
    * Convert an Event to a Message.
@@ -44,7 +78,7 @@ public class RecordMessageConverter implements MessageConverter {
    * @param object            the object to convert
    * @param messageProperties The message properties.
    * @return the Message
-   * @throws MessageConversionException in case object is not of type RecordProcessEvent
+   * @throws MessageConversionException in case object is not of type RecordProcessEvent or its content could not be stored
    */
   @Override
   public Message toMessage(Object object, MessageProperties messageProperties) {
@@ -70,7 +104,21 @@ public class RecordMessageConverter implements MessageConverter {
       properties.setHeader(ERRORS, errorsHeader);
     }
 
-    return MessageBuilder.withBody(recordToProcess.getContent()).andProperties(properties).build();
+    byte[] body = recordToProcess.getContent();
+    if (recordClaimCheckService.shouldCheckIn(recordRecordProcessEvent)) {
+      try {
+        recordClaimCheckService.checkIn(recordRecordProcessEvent);
+      } catch (ServiceException e) {
+        throw new MessageConversionException("Could not store record content", e);
+      }
+      properties.setHeader(CLAIM_CHECK, true);
+      body = new byte[0];
+    } else if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+      body = compress(body);
+      properties.setContentEncoding(ZSTD_ENCODING);
+    }
+
+    return MessageBuilder.withBody(body).andProperties(properties).build();
 
   }
 
@@ -80,13 +128,12 @@ public class RecordMessageConverter implements MessageConverter {
    *
    * @param message the message to convert
    * @return the converted RecordProcessEvent
+   * @throws MessageConversionException in case the content could not be read
    */
   @Override
   public Object fromMessage(Message message) {
 
     MessageProperties properties = message.getMessageProperties();
-    byte[] content = message.getBody();
-
     Long recordId = properties.getHeader(RECORD_ID);
     String europeanaId = properties.getHeader(EUROPEANA_ID);
     String providerId = properties.getHeader(PROVIDER_ID);
@@ -98,6 +145,19 @@ public class RecordMessageConverter implements MessageConverter {
     String status = properties.getHeader(STATUS);
     List<List<Object>> errors = properties.getHeader(ERRORS);
 
+    byte[] content = message.getBody();
+    if (Boolean.TRUE.equals(properties.getHeader(CLAIM_CHECK))) {
+      try {
+        content = recordClaimCheckService.checkOut(recordId, Step.valueOf(step));
+      } catch (ServiceException e) {
+        throw new MessageConversionException("Could not read record content", e);
+      }
+    } else if (ZSTD_ENCODING.equals(properties.getContentEncoding())) {
+      content = decompress(content);
+    } else if (GZIP_ENCODING.equals(properties.getContentEncoding())) {
+      content = decompressGzip(content);
+    }
+
     Record recordToSend = Record.builder().recordId(recordId).europeanaId(europeanaId).providerId(providerId).datasetId(datasetId)
         .datasetName(datasetName).country(Country.valueOf(country)).language(Language.valueOf(language)).content(content).build();
 
@@ -111,4 +171,28 @@ public class RecordMessageConverter implements MessageConverter {
 
     return new RecordProcessEvent(recordInfo, Step.valueOf(step), Status.valueOf(status));
   }
+
+  private static byte[] compress(byte[] content) {
+    try {
+      return RecordContentCodec.ZSTD.encode(content);
+    } catch (RuntimeException e) {
+      throw new MessageConversionException("Could not compress record content", e);
+    }
+  }
+
+  private static byte[] decompress(byte[] content) {
+    try {
+      return RecordContentCodec.ZSTD.decode(content);
+    } catch (RuntimeException e) {
+      throw new MessageConversionException("Could not decompress record content", e);
+    }
+  }
+
+  private static byte[] decompressGzip(byte[] content) {
+    try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(content))) {
+      return inputStream.readAllBytes();
+    } catch (IOException e) {
+      throw new MessageConversionException("Could not decompress record content", e);
+    }
+  }
 }
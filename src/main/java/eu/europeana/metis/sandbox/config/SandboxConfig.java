@@ -27,8 +27,6 @@ import eu.europeana.metis.sandbox.service.validationworkflow.ValidationStep;
 import eu.europeana.metis.sandbox.service.workflow.ExternalValidationService;
 import eu.europeana.metis.sandbox.service.workflow.InternalValidationService;
 import eu.europeana.metis.sandbox.service.workflow.TransformationService;
-import eu.europeana.metis.transformation.service.TransformationException;
-import eu.europeana.metis.transformation.service.XsltTransformer;
 import eu.europeana.metis.utils.apm.ElasticAPMConfiguration;
 import eu.europeana.normalization.NormalizerFactory;
 import eu.europeana.validation.service.ClasspathResourceResolver;
@@ -43,17 +41,14 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
-import javax.xml.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
 import org.springframework.integration.support.locks.LockRegistry;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -84,6 +79,18 @@ class SandboxConfig {
     @Value("${sandbox.dataset.creation.threads.thread-prefix}")
     private String threadPrefix;
 
+    @Value("${sandbox.dataset.harvest.publish.threads.pool-size:4}")
+    private Integer harvestPublishPoolSize;
+
+    @Value("${sandbox.dataset.harvest.publish.threads.thread-prefix:sandbox-harvest-publish-}")
+    private String harvestPublishThreadPrefix;
+
+    @Value("${sandbox.dataset.harvest.oai.threads.pool-size:20}")
+    private Integer oaiRecordFetchPoolSize;
+
+    @Value("${sandbox.dataset.harvest.oai.threads.thread-prefix:sandbox-oai-fetch-}")
+    private String oaiRecordFetchThreadPrefix;
+
     @Value("${sandbox.enrichment.dereference-url}")
     private String dereferenceServiceUrl;
 
@@ -99,11 +106,6 @@ class SandboxConfig {
     @Value("${sandbox.enrichment.enrichment-properties.entity-api-grant-params}")
     private String entityApiGrantParams;
 
-    //TODO: 04-03-2021 We should remove this configuration once
-    //TODO: XsltTransformation allows local files. Ticket MET-3450 was created to fix this issue
-    @Value("${sandbox.validation.edm-sorter-url}")
-    private String edmSorterUrl;
-
     @Value("${sandbox.transformation.xslt-url}")
     private String defaultXsltUrl;
 
@@ -111,29 +113,38 @@ class SandboxConfig {
     private String portalPublishRecordBaseUrl;
 
     @Bean
-    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-    XPathFactory xPathFactory() {
-        return XPathFactory.newDefaultInstance();
+    XsltUrlUpdateService xsltUrlUpdateService(TransformXsltRepository transformXsltRepository,
+                                              LockRegistry lockRegistry, HttpClient httpClient,
+                                              TransformationService transformationService) {
+        return new XsltUrlUpdateServiceImpl(transformXsltRepository, lockRegistry, httpClient, transformationService);
     }
 
     @Bean
-    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-    XsltTransformer xsltEdmSorter() throws TransformationException {
-        return new XsltTransformer(edmSorterUrl);
+    Executor asyncServiceTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setThreadNamePrefix(threadPrefix);
+        executor.initialize();
+        return executor;
     }
 
     @Bean
-    XsltUrlUpdateService xsltUrlUpdateService(TransformXsltRepository transformXsltRepository,
-                                              LockRegistry lockRegistry, HttpClient httpClient) {
-        return new XsltUrlUpdateServiceImpl(transformXsltRepository, lockRegistry, httpClient);
+    Executor harvestPublishTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(harvestPublishPoolSize);
+        executor.setMaxPoolSize(harvestPublishPoolSize);
+        executor.setThreadNamePrefix(harvestPublishThreadPrefix);
+        executor.initialize();
+        return executor;
     }
 
     @Bean
-    Executor asyncServiceTaskExecutor() {
+    Executor oaiRecordFetchTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(corePoolSize);
-        executor.setMaxPoolSize(maxPoolSize);
-        executor.setThreadNamePrefix(threadPrefix);
+        executor.setCorePoolSize(oaiRecordFetchPoolSize);
+        executor.setMaxPoolSize(oaiRecordFetchPoolSize);
+        executor.setThreadNamePrefix(oaiRecordFetchThreadPrefix);
         executor.initialize();
         return executor;
     }
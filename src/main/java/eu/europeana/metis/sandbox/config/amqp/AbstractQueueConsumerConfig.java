@@ -4,6 +4,7 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 /**
  * The type Queue consumer configuration for workflow listeners. Every listener has a
@@ -14,18 +15,24 @@ import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainer
 public abstract class AbstractQueueConsumerConfig {
 
   private final MessageConverter messageConverter;
+  private final ConsumerConcurrencyController consumerConcurrencyController;
 
   /**
    * Instantiates a new Queue consumer configuration.
    *
    * @param messageConverter the message converter
+   * @param consumerConcurrencyController the consumer concurrency controller
    */
-  protected AbstractQueueConsumerConfig(MessageConverter messageConverter) {
+  protected AbstractQueueConsumerConfig(MessageConverter messageConverter,
+      ConsumerConcurrencyController consumerConcurrencyController) {
     this.messageConverter = messageConverter;
+    this.consumerConcurrencyController = consumerConcurrencyController;
   }
 
   /**
-   * Gets simple rabbit listener container factory.
+   * Gets simple rabbit listener container factory. If adaptive concurrency is enabled, the number of consumers and the
+   * prefetch count are adjusted at runtime, from the given concurrency and prefetch count up to the given maximum
+   * concurrency and the maximum prefetch count of the {@link ConsumerConcurrencyController}.
    *
    * @param configurer the configurer
    * @param connectionFactory the connection factory
@@ -43,6 +50,51 @@ public abstract class AbstractQueueConsumerConfig {
     factory.setMaxConcurrentConsumers(maxConcurrentQueueConsumers);
     factory.setPrefetchCount(messagePrefetchCount);
     factory.setMessageConverter(messageConverter);
+    consumerConcurrencyController.manage(factory, concurrentQueueConsumers, maxConcurrentQueueConsumers,
+        messagePrefetchCount);
+    return factory;
+  }
+
+  /**
+   * Gets simple rabbit listener container factory for batch listeners. The listener receives up to the batch size of
+   * messages at once, which are acknowledged together.
+   *
+   * @param configurer the configurer
+   * @param connectionFactory the connection factory
+   * @param concurrentQueueConsumers the concurrent queue consumers
+   * @param maxConcurrentQueueConsumers the maximum concurrent queue consumers
+   * @param messagePrefetchCount the message prefetch count, raised to the batch size if lower
+   * @param batchSize the maximum number of messages per batch
+   * @return the simple rabbit listener container factory
+   */
+  protected SimpleRabbitListenerContainerFactory getSimpleRabbitListenerContainerFactory(
+      SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+      Integer concurrentQueueConsumers, Integer maxConcurrentQueueConsumers, Integer messagePrefetchCount, Integer batchSize) {
+    var factory = getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentQueueConsumers,
+        maxConcurrentQueueConsumers, Math.max(messagePrefetchCount, batchSize));
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchListener(true);
+    factory.setBatchSize(batchSize);
+    return factory;
+  }
+
+  /**
+   * Runs the consumers of the factory on virtual threads if requested. Meant for listeners that spend most of their time
+   * blocked on remote calls, where a consumer on a virtual thread costs far less memory than one on a platform thread, so
+   * that the concurrency can be raised much further.
+   *
+   * @param factory the factory
+   * @param virtualThreads whether to use virtual threads
+   * @param threadNamePrefix the prefix of the consumer thread names
+   * @return the factory
+   */
+  static SimpleRabbitListenerContainerFactory withVirtualThreads(SimpleRabbitListenerContainerFactory factory,
+      boolean virtualThreads, String threadNamePrefix) {
+    if (virtualThreads) {
+      var taskExecutor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+      taskExecutor.setVirtualThreads(true);
+      factory.setTaskExecutor(taskExecutor);
+    }
     return factory;
   }
 }
@@ -0,0 +1,274 @@
+package eu.europeana.metis.sandbox.config.amqp;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adjusts the number of consumers and the prefetch count of the workflow listener containers at runtime.
+ * <p>
+ * Every interval the controller reads, per container, the depth of its queue and the number of messages, the processing
+ * time and the failures since the previous interval. A message fails if the listener invocation fails, or if the listener
+ * reports its record as failed with {@link #reportFailedRecord()}. It then moves the number of consumers by
+ * one between the configured concurrency and max-concurrency of the queue:
+ * <ul>
+ *   <li>down if the error rate is above the maximum, or if the queue is empty;</li>
+ *   <li>up if the queue holds more messages than the consumers prefetch, unless the previous step up did not raise the
+ *   throughput, in which case the step up is reverted and growing pauses for a few intervals;</li>
+ *   <li>unchanged otherwise.</li>
+ * </ul>
+ * That way a CPU bound step stops growing once more consumers stop paying off, while an I/O bound step grows as long as
+ * throughput follows. The prefetch count is set so that every consumer holds about the target buffer time of work, between
+ * the configured prefetch of the queue and the maximum prefetch. A changed prefetch count applies to the consumers started
+ * after the change.
+ * <p>
+ * While enabled, the controller replaces the idle based scaling of the containers. When disabled the containers are left
+ * untouched.
+ */
+@Component
+public class ConsumerConcurrencyController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int GROWTH_PAUSE_INTERVALS = 3;
+  private static final ThreadLocal<ManagedContainer> INVOKED_CONTAINER = new ThreadLocal<>();
+
+  private final AmqpAdmin amqpAdmin;
+  private final boolean enabled;
+  private final int maxPrefetch;
+  private final long targetBufferNanos;
+  private final double maxErrorRate;
+  private final double minThroughputGain;
+  private final LongSupplier nanoClock;
+  private final List<ManagedContainer> managedContainers = new CopyOnWriteArrayList<>();
+
+  @Autowired
+  ConsumerConcurrencyController(AmqpAdmin amqpAdmin,
+      @Value("${sandbox.rabbitmq.adaptive-concurrency.enabled:false}") boolean enabled,
+      @Value("${sandbox.rabbitmq.adaptive-concurrency.max-prefetch:100}") int maxPrefetch,
+      @Value("${sandbox.rabbitmq.adaptive-concurrency.target-buffer-millis:1000}") long targetBufferMillis,
+      @Value("${sandbox.rabbitmq.adaptive-concurrency.max-error-rate:0.1}") double maxErrorRate,
+      @Value("${sandbox.rabbitmq.adaptive-concurrency.min-throughput-gain:0.05}") double minThroughputGain) {
+    this(amqpAdmin, enabled, maxPrefetch, targetBufferMillis, maxErrorRate, minThroughputGain, System::nanoTime);
+  }
+
+  ConsumerConcurrencyController(AmqpAdmin amqpAdmin, boolean enabled, int maxPrefetch, long targetBufferMillis,
+      double maxErrorRate, double minThroughputGain, LongSupplier nanoClock) {
+    this.amqpAdmin = amqpAdmin;
+    this.enabled = enabled;
+    this.maxPrefetch = maxPrefetch;
+    this.targetBufferNanos = TimeUnit.MILLISECONDS.toNanos(targetBufferMillis);
+    this.maxErrorRate = maxErrorRate;
+    this.minThroughputGain = minThroughputGain;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Puts the containers created by the factory under control, if the controller is enabled.
+   *
+   * @param factory the factory, already configured
+   * @param minConsumers the number of consumers to start with and not to go below
+   * @param maxConsumers the number of consumers not to go above
+   * @param minPrefetch the prefetch count to start with and not to go below
+   */
+  public void manage(SimpleRabbitListenerContainerFactory factory, int minConsumers, int maxConsumers, int minPrefetch) {
+    if (!enabled) {
+      return;
+    }
+    final ManagedContainer managedContainer = new ManagedContainer(minConsumers, Math.max(minConsumers, maxConsumers),
+        minPrefetch, Math.max(minPrefetch, maxPrefetch));
+    final Advice[] adviceChain = Optional.ofNullable(factory.getAdviceChain()).orElseGet(() -> new Advice[0]);
+    final Advice[] managedAdviceChain = new Advice[adviceChain.length + 1];
+    managedAdviceChain[0] = managedContainer;
+    System.arraycopy(adviceChain, 0, managedAdviceChain, 1, adviceChain.length);
+    factory.setAdviceChain(managedAdviceChain);
+    factory.setMaxConcurrentConsumers(minConsumers);
+    factory.setContainerCustomizer(managedContainer::setContainer);
+    managedContainers.add(managedContainer);
+  }
+
+  /**
+   * Counts a record that failed in the listener invoked on the current thread as a failed message of the container of
+   * that listener. The listeners catch the failures of single records so that the other records of a batch are processed,
+   * and report them here instead. Does nothing if the current thread is not invoking the listener of a managed container.
+   */
+  public static void reportFailedRecord() {
+    final ManagedContainer managedContainer = INVOKED_CONTAINER.get();
+    if (managedContainer != null) {
+      managedContainer.failedMessages.increment();
+    }
+  }
+
+  /**
+   * Adjusts the managed containers, see {@link ConsumerConcurrencyController}.
+   */
+  @Scheduled(fixedDelayString = "${sandbox.rabbitmq.adaptive-concurrency.interval-millis:10000}")
+  void adjust() {
+    for (ManagedContainer managedContainer : managedContainers) {
+      try {
+        managedContainer.adjust();
+      } catch (RuntimeException e) {
+        LOGGER.warn("Could not adjust the consumers of {}", managedContainer.getQueueNames(), e);
+      }
+    }
+  }
+
+  private long getQueueDepth(String[] queueNames) {
+    return Arrays.stream(queueNames)
+                 .map(amqpAdmin::getQueueInfo)
+                 .filter(Objects::nonNull)
+                 .mapToLong(QueueInformation::getMessageCount)
+                 .sum();
+  }
+
+  private class ManagedContainer implements MethodInterceptor {
+
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder failedMessages = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private volatile SimpleMessageListenerContainer container;
+    private int consumers;
+    private int prefetch;
+    private long lastAdjustment;
+    private double lastThroughput;
+    private boolean grown;
+    private int growthPause;
+
+    ManagedContainer(int minConsumers, int maxConsumers, int minPrefetch, int maxPrefetch) {
+      this.minConsumers = minConsumers;
+      this.maxConsumers = maxConsumers;
+      this.minPrefetch = minPrefetch;
+      this.maxPrefetch = maxPrefetch;
+      this.consumers = minConsumers;
+      this.prefetch = minPrefetch;
+      this.lastAdjustment = nanoClock.getAsLong();
+    }
+
+    void setContainer(SimpleMessageListenerContainer container) {
+      this.container = container;
+    }
+
+    String getQueueNames() {
+      return container == null ? "[]" : Arrays.toString(container.getQueueNames());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      final long start = nanoClock.getAsLong();
+      final ManagedContainer previousContainer = INVOKED_CONTAINER.get();
+      INVOKED_CONTAINER.set(this);
+      boolean failed = true;
+      try {
+        final Object result = invocation.proceed();
+        failed = false;
+        return result;
+      } finally {
+        INVOKED_CONTAINER.set(previousContainer);
+        final int count = countMessages(invocation.getArguments());
+        busyNanos.add(nanoClock.getAsLong() - start);
+        messages.add(count);
+        if (failed) {
+          failedMessages.add(count);
+        }
+      }
+    }
+
+    synchronized void adjust() {
+      final SimpleMessageListenerContainer currentContainer = container;
+      if (currentContainer == null || !currentContainer.isRunning()) {
+        return;
+      }
+      final long now = nanoClock.getAsLong();
+      final long elapsedNanos = Math.max(1, now - lastAdjustment);
+      lastAdjustment = now;
+      final long processed = messages.sumThenReset();
+      // Records reported as failed by an invocation that failed as a whole are counted twice.
+      final long failed = Math.min(processed, failedMessages.sumThenReset());
+      final long busy = busyNanos.sumThenReset();
+
+      final long queueDepth = getQueueDepth(currentContainer.getQueueNames());
+      final double throughput = processed * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+      final double errorRate = processed == 0 ? 0 : (double) failed / processed;
+      final int targetConsumers = clamp(getTargetConsumers(queueDepth, throughput, errorRate), minConsumers, maxConsumers);
+      final int targetPrefetch = processed == 0 ? prefetch
+          : clamp(targetBufferNanos / Math.max(1, busy / processed), minPrefetch, maxPrefetch);
+      lastThroughput = throughput;
+
+      if (targetPrefetch != prefetch) {
+        currentContainer.setPrefetchCount(targetPrefetch);
+        prefetch = targetPrefetch;
+      }
+      if (targetConsumers > consumers) {
+        currentContainer.setMaxConcurrentConsumers(targetConsumers);
+        currentContainer.setConcurrentConsumers(targetConsumers);
+      } else if (targetConsumers < consumers) {
+        currentContainer.setConcurrentConsumers(targetConsumers);
+        currentContainer.setMaxConcurrentConsumers(targetConsumers);
+      }
+      if (targetConsumers != consumers) {
+        LOGGER.info("Consumers of {} from {} to {}, queue depth {}, throughput {}/s, error rate {}, prefetch {}",
+            getQueueNames(), consumers, targetConsumers, queueDepth, String.format("%.1f", throughput),
+            String.format("%.2f", errorRate), prefetch);
+        consumers = targetConsumers;
+      }
+    }
+
+    private int getTargetConsumers(long queueDepth, double throughput, double errorRate) {
+      final boolean lastGrown = grown;
+      grown = false;
+      if (growthPause > 0) {
+        growthPause--;
+      }
+      if (errorRate > maxErrorRate || queueDepth == 0) {
+        return consumers - 1;
+      }
+      if (queueDepth <= (long) consumers * prefetch) {
+        return consumers;
+      }
+      if (lastGrown && throughput < lastThroughput * (1 + minThroughputGain)) {
+        growthPause = GROWTH_PAUSE_INTERVALS;
+        return consumers - 1;
+      }
+      if (growthPause > 0 || consumers >= maxConsumers) {
+        return consumers;
+      }
+      grown = true;
+      return consumers + 1;
+    }
+
+    private static int countMessages(Object[] arguments) {
+      return Arrays.stream(arguments)
+                   .filter(List.class::isInstance)
+                   .map(List.class::cast)
+                   .mapToInt(List::size)
+                   .findFirst()
+                   .orElse(1);
+    }
+
+    private static int clamp(long value, int min, int max) {
+      return (int) Math.min(max, Math.max(min, value));
+    }
+  }
+}
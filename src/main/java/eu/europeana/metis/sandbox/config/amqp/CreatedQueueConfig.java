@@ -23,13 +23,18 @@ public class CreatedQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.created.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.created.batch-size:1}")
+    private int batchSize;
+
     /**
      * Instantiates a new Queue consumer configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public CreatedQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public CreatedQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     /**
@@ -43,6 +48,6 @@ public class CreatedQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory externalValidationFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount, batchSize);
     }
 }
@@ -28,6 +28,9 @@ public class DeBiasReadyQueueConfig {
   @Value("${sandbox.rabbitmq.queues.record.debias.ready.batch-size}")
   private int batchSize;
 
+  @Value("${sandbox.rabbitmq.queues.record.debias.ready.virtual-threads:false}")
+  private boolean virtualThreads;
+
   /**
    * Instantiates a new De bias ready queue config.
    *
@@ -57,7 +60,7 @@ public class DeBiasReadyQueueConfig {
     factory.setConsumerBatchEnabled(true);
     factory.setBatchListener(true);
     factory.setBatchSize(batchSize);
-    return factory;
+    return AbstractQueueConsumerConfig.withVirtualThreads(factory, virtualThreads, "debias-");
 
   }
 }
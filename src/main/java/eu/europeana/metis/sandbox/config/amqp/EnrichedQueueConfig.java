@@ -24,13 +24,21 @@ public class EnrichedQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.enriched.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.enriched.batch-size:1}")
+    private int batchSize;
+
+    @Value("${sandbox.rabbitmq.queues.record.enriched.virtual-threads:false}")
+    private boolean virtualThreads;
+
     /**
      * Instantiates a new Enriched queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public EnrichedQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public EnrichedQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     /**
@@ -44,6 +52,7 @@ public class EnrichedQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory mediaProcessingFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return withVirtualThreads(getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers,
+                maxConsumers, messagePrefetchCount, batchSize), virtualThreads, "media-processing-");
     }
 }
@@ -24,13 +24,21 @@ public class MediaQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.media.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.media.batch-size:1}")
+    private int batchSize;
+
+    @Value("${sandbox.rabbitmq.queues.record.media.virtual-threads:false}")
+    private boolean virtualThreads;
+
     /**
      * Instantiates a new Media queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public MediaQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public MediaQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     /**
@@ -44,6 +52,7 @@ public class MediaQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory publishFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return withVirtualThreads(getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers,
+                maxConsumers, messagePrefetchCount, batchSize), virtualThreads, "publish-");
     }
 }
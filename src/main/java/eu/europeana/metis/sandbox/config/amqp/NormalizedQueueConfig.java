@@ -24,19 +24,28 @@ public class NormalizedQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.normalized.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.normalized.batch-size:1}")
+    private int batchSize;
+
+    @Value("${sandbox.rabbitmq.queues.record.normalized.virtual-threads:false}")
+    private boolean virtualThreads;
+
     /**
      * Instantiates a new Normalized queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public NormalizedQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public NormalizedQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     @Bean
     SimpleRabbitListenerContainerFactory enrichmentFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return withVirtualThreads(getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers,
+                maxConsumers, messagePrefetchCount, batchSize), virtualThreads, "enrichment-");
     }
 }
@@ -24,13 +24,18 @@ public class PublishedQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.published.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.published.batch-size:1}")
+    private int batchSize;
+
     /**
      * Instantiates a new Published queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public PublishedQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public PublishedQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     /**
@@ -44,6 +49,6 @@ public class PublishedQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory closingFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount, batchSize);
     }
 }
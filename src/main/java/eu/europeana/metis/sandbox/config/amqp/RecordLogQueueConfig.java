@@ -24,14 +24,19 @@ class RecordLogQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.log.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.log.batch-size:1}")
+    private int batchSize;
+
     /**
      * Instantiates a new Record log queue configuration.
      *
      * @param messageConverter  the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      * @param amqpConfiguration the amqp configuration
      */
-    public RecordLogQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public RecordLogQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
     /**
      * Record log factory simple rabbit listener container factory.
@@ -44,6 +49,7 @@ class RecordLogQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory recordLogFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount,
+            batchSize);
     }
 }
@@ -23,14 +23,19 @@ public class TransformEdmExternalQueueConfig extends AbstractQueueConsumerConfig
     @Value("${sandbox.rabbitmq.queues.record.transformation.edm.external.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.transformation.edm.external.batch-size:1}")
+    private int batchSize;
+
 
     /**
      * Instantiates a new Transform edm external queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public TransformEdmExternalQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public TransformEdmExternalQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
 
@@ -45,6 +50,6 @@ public class TransformEdmExternalQueueConfig extends AbstractQueueConsumerConfig
     SimpleRabbitListenerContainerFactory transformationEdmExternalFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount, batchSize);
     }
 }
@@ -24,13 +24,18 @@ public class TransformedQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.transformed.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.transformed.batch-size:1}")
+    private int batchSize;
+
     /**
      * Instantiates a new Transformed queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public TransformedQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public TransformedQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     /**
@@ -44,6 +49,6 @@ public class TransformedQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory internalValidationFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount, batchSize);
     }
 }
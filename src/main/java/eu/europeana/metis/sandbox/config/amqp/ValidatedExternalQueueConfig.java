@@ -24,13 +24,18 @@ public class ValidatedExternalQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.validated.external.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.validated.external.batch-size:1}")
+    private int batchSize;
+
     /**
      * Instantiates a new Validated external queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public ValidatedExternalQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public ValidatedExternalQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
     /**
@@ -44,6 +49,6 @@ public class ValidatedExternalQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory transformationFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount, batchSize);
     }
 }
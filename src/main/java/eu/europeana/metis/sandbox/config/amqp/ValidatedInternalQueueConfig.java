@@ -24,14 +24,19 @@ public class ValidatedInternalQueueConfig extends AbstractQueueConsumerConfig {
     @Value("${sandbox.rabbitmq.queues.record.validated.internal.prefetch}")
     private int messagePrefetchCount;
 
+    @Value("${sandbox.rabbitmq.queues.record.validated.internal.batch-size:1}")
+    private int batchSize;
+
 
     /**
      * Instantiates a new Validated internal queue configuration.
      *
      * @param messageConverter the message converter
+     * @param consumerConcurrencyController the consumer concurrency controller
      */
-    public ValidatedInternalQueueConfig(MessageConverter messageConverter) {
-        super(messageConverter);
+    public ValidatedInternalQueueConfig(MessageConverter messageConverter,
+            ConsumerConcurrencyController consumerConcurrencyController) {
+        super(messageConverter, consumerConcurrencyController);
     }
 
 
@@ -46,6 +51,6 @@ public class ValidatedInternalQueueConfig extends AbstractQueueConsumerConfig {
     SimpleRabbitListenerContainerFactory normalizationFactory(
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory) {
-        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount);
+        return getSimpleRabbitListenerContainerFactory(configurer, connectionFactory, concurrentConsumers, maxConsumers, messagePrefetchCount, batchSize);
     }
 }
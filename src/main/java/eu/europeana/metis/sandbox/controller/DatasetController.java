@@ -7,9 +7,11 @@ import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import eu.europeana.indexing.tiers.view.RecordTierCalculationView;
+import eu.europeana.metis.sandbox.common.HarvestProtocol;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
 import eu.europeana.metis.sandbox.common.Step;
 import eu.europeana.metis.sandbox.common.exception.InvalidCompressedFileException;
+import eu.europeana.metis.sandbox.common.exception.InvalidDatasetException;
 import eu.europeana.metis.sandbox.common.exception.NoRecordFoundException;
 import eu.europeana.metis.sandbox.common.exception.XsltProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
@@ -20,9 +22,12 @@ import eu.europeana.metis.sandbox.dto.DatasetInfoDto;
 import eu.europeana.metis.sandbox.dto.ExceptionModelDto;
 import eu.europeana.metis.sandbox.dto.RecordTiersInfoDto;
 import eu.europeana.metis.sandbox.dto.report.ProgressInfoDto;
+import eu.europeana.metis.sandbox.entity.DatasetEntity;
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
 import eu.europeana.metis.sandbox.service.dataset.DatasetLogService;
 import eu.europeana.metis.sandbox.service.dataset.DatasetReportService;
 import eu.europeana.metis.sandbox.service.dataset.DatasetService;
+import eu.europeana.metis.sandbox.service.dataset.HarvestingParameterService;
 import eu.europeana.metis.sandbox.service.record.RecordLogService;
 import eu.europeana.metis.sandbox.service.record.RecordService;
 import eu.europeana.metis.sandbox.service.record.RecordTierCalculationService;
@@ -41,10 +46,12 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
@@ -103,6 +110,7 @@ class DatasetController {
     private final RecordLogService recordLogService;
     private final RecordTierCalculationService recordTierCalculationService;
     private final HarvestPublishService harvestPublishService;
+    private final HarvestingParameterService harvestingParameterService;
     private final UrlValidator urlValidator;
 
     /**
@@ -115,6 +123,7 @@ class DatasetController {
      * @param recordLogService the record log service
      * @param recordTierCalculationService the record tier calculation service
      * @param harvestPublishService the harvest publish service
+     * @param harvestingParameterService the harvesting parameter service
      * @param debiasStateService the debias detect service
      * @param lockRegistry the lock registry
      */
@@ -122,7 +131,8 @@ class DatasetController {
     public DatasetController(DatasetService datasetService, DatasetLogService datasetLogService,
                              DatasetReportService reportService, RecordService recordService,
                              RecordLogService recordLogService, RecordTierCalculationService recordTierCalculationService,
-                             HarvestPublishService harvestPublishService) {
+                             HarvestPublishService harvestPublishService,
+                             HarvestingParameterService harvestingParameterService) {
         this.datasetService = datasetService;
         this.datasetLogService = datasetLogService;
         this.reportService = reportService;
@@ -130,6 +140,7 @@ class DatasetController {
         this.recordLogService = recordLogService;
         this.recordTierCalculationService = recordTierCalculationService;
         this.harvestPublishService = harvestPublishService;
+        this.harvestingParameterService = harvestingParameterService;
         urlValidator = new UrlValidator(VALID_SCHEMES_URL.toArray(new String[0]));
     }
 
@@ -299,6 +310,79 @@ class DatasetController {
         return new DatasetIdDto(createdDatasetId);
     }
 
+    /**
+     * POST API calls for harvesting and processing incrementally the records of the OAI-PMH endpoint of a previous dataset
+     * <p>
+     * Only the records that changed since the previous dataset was created are harvested and processed, the processed records
+     * of the previous dataset that did not change are copied. The new dataset uses the harvesting parameters, country,
+     * language and xslt of the previous dataset. A previous dataset created by a user can only be used by that user.
+     *
+     * @param jwtPrincipal the authenticated JWT principal containing user information
+     * @param datasetName the given name of the dataset to be processed
+     * @param baselineDatasetId the id of the previous dataset harvested from the same OAI-PMH endpoint
+     * @return 202 if it's processed correctly, 4xx or 500 otherwise
+     */
+    @Operation(summary = "Harvest dataset incrementally from OAI-PMH protocol",
+        description = "Process the records of the OAI-PMH endpoint of a previous dataset that changed since")
+    @ApiResponse(responseCode = "202", description = MESSAGE_FOR_PROCESS_DATASET)
+    @ApiResponse(responseCode = "400", description = MESSAGE_FOR_400_CODE)
+    @PostMapping(value = "{name}/harvestOaiPmhIncremental", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DatasetIdDto harvestDatasetOaiPmhIncrementally(
+        @AuthenticationPrincipal Jwt jwtPrincipal,
+        @Parameter(description = "name of the dataset", required = true) @PathVariable(value = "name") String datasetName,
+        @Parameter(description = "id of the previous dataset to compare with", required = true)
+        @RequestParam("baselineDatasetId") String baselineDatasetId) {
+        //Check user id if any. This is temporarily allowed due to api and ui user security.
+        final String userId;
+        if (jwtPrincipal == null) {
+          userId = null;
+        } else {
+          userId = getUserId(jwtPrincipal);
+        }
+        checkArgument(NAME_PATTERN.matcher(datasetName).matches(), MESSAGE_FOR_DATASET_VALID_NAME);
+        final HarvestingParameterEntity baselineHarvestingParameters = getBaselineHarvestingParameters(baselineDatasetId,
+            userId);
+        final DatasetEntity baselineDataset = baselineHarvestingParameters.getDatasetId();
+
+        final String xsltContent = Optional.ofNullable(baselineDataset.getXsltEdmExternalContent()).orElse("");
+        String createdDatasetId = datasetService.createEmptyDataset(datasetName, userId, baselineDataset.getCountry(),
+            baselineDataset.getLanguage(), new ByteArrayInputStream(xsltContent.getBytes(StandardCharsets.UTF_8)));
+        datasetService.setBaselineDataset(createdDatasetId, baselineDatasetId);
+        DatasetMetadata datasetMetadata = DatasetMetadata.builder().withDatasetId(createdDatasetId)
+                .withDatasetName(datasetName).withCountry(baselineDataset.getCountry())
+                .withLanguage(baselineDataset.getLanguage()).build();
+        harvestPublishService.runIncrementalHarvestOaiPmhAsync(datasetMetadata, baselineHarvestingParameters)
+                .exceptionally(e -> datasetLogService.logException(createdDatasetId, e));
+
+        return new DatasetIdDto(createdDatasetId);
+    }
+
+    private HarvestingParameterEntity getBaselineHarvestingParameters(String baselineDatasetId, String userId) {
+        checkArgument(StringUtils.isNumeric(baselineDatasetId), "The baseline dataset id must be a number.");
+        final HarvestingParameterEntity baselineHarvestingParameters =
+            harvestingParameterService.getDatasetHarvestingParameters(baselineDatasetId);
+        if (baselineHarvestingParameters == null) {
+            throw new InvalidDatasetException(baselineDatasetId);
+        }
+        // A dataset created by a user can only be the baseline of the datasets of that user.
+        final String baselineCreatedById = baselineHarvestingParameters.getDatasetId().getCreatedById();
+        checkArgument(StringUtils.isBlank(baselineCreatedById) || baselineCreatedById.equals(userId),
+            "The baseline dataset belongs to another user.");
+        checkArgument(baselineHarvestingParameters.getProtocol() == HarvestProtocol.OAI_PMH,
+            "The baseline dataset must be harvested with OAI-PMH.");
+        // Records of a sample or a truncated baseline that did not change would be missing from the new dataset.
+        checkArgument(Optional.ofNullable(baselineHarvestingParameters.getStepSize()).orElse(1) == 1
+                && !Boolean.TRUE.equals(baselineHarvestingParameters.getDatasetId().getRecordLimitExceeded()),
+            "The baseline dataset must contain all records of the OAI-PMH endpoint.");
+        checkArgument(reportService.getReport(baselineDatasetId).getStatus() == ProgressInfoDto.Status.COMPLETED,
+            "The baseline dataset must be completely processed.");
+        // The unchanged records of the baseline are found by the identifier they were harvested with.
+        checkArgument(recordService.hasHarvestIds(baselineDatasetId),
+            "The baseline dataset was harvested by an earlier version and cannot be used.");
+        return baselineHarvestingParameters;
+    }
+
     private static String getDefaultSetSpecWhenNotAvailable(String setspec) {
         if (setspec != null && setspec.isEmpty()) {
             setspec = null;
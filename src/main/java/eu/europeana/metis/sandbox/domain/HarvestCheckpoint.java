@@ -0,0 +1,72 @@
+package eu.europeana.metis.sandbox.domain;
+
+/**
+ * Progress of a harvest, used to continue an interrupted harvest.
+ * <p>
+ * All records selected before {@link #getPosition()} have been stored and published when the checkpoint is taken.
+ */
+public final class HarvestCheckpoint {
+
+  private final int position;
+  private final int selectedRecords;
+  private final int nextPositionToSelect;
+  private final int admittedRecords;
+
+  /**
+   * Constructor
+   *
+   * @param position the number of harvested entries (records or headers) that have been iterated
+   * @param selectedRecords the number of records selected so far
+   * @param nextPositionToSelect the position of the next entry to select given the step size
+   * @param admittedRecords the number of admitted records of the dataset, without the duplicates that released their
+   * admission
+   */
+  public HarvestCheckpoint(int position, int selectedRecords, int nextPositionToSelect, int admittedRecords) {
+    this.position = position;
+    this.selectedRecords = selectedRecords;
+    this.nextPositionToSelect = nextPositionToSelect;
+    this.admittedRecords = admittedRecords;
+  }
+
+  /**
+   * Gets the number of iterated entries.
+   *
+   * @return the position
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * Gets the number of selected records.
+   *
+   * @return the selected records
+   */
+  public int getSelectedRecords() {
+    return selectedRecords;
+  }
+
+  /**
+   * Gets the position of the next entry to select.
+   *
+   * @return the next position to select
+   */
+  public int getNextPositionToSelect() {
+    return nextPositionToSelect;
+  }
+
+  /**
+   * Gets the number of admitted records of the dataset.
+   *
+   * @return the admitted records
+   */
+  public int getAdmittedRecords() {
+    return admittedRecords;
+  }
+
+  @Override
+  public String toString() {
+    return "HarvestCheckpoint{position=" + position + ", selectedRecords=" + selectedRecords
+        + ", nextPositionToSelect=" + nextPositionToSelect + ", admittedRecords=" + admittedRecords + '}';
+  }
+}
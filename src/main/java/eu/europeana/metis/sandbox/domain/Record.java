@@ -53,6 +53,7 @@ public final class Record {
     return Record.builder()
         .recordId(recordValue.getRecordId())
         .europeanaId(recordValue.getEuropeanaId())
+        .providerId(recordValue.getProviderId())
         .datasetId(recordValue.getDatasetId())
         .datasetName(recordValue.getDatasetName())
         .content(content)
@@ -39,6 +39,10 @@ public class DatasetEntity {
 
   private Boolean recordLimitExceeded;
 
+  private Long admittedRecords = 0L;
+
+  private Integer baselineDatasetId;
+
   /**
    * Constructs a DatasetEntity.
    *
@@ -145,6 +149,22 @@ public class DatasetEntity {
     this.recordLimitExceeded = hasReachedRecordLimit;
   }
 
+  public Long getAdmittedRecords() {
+    return admittedRecords;
+  }
+
+  public void setAdmittedRecords(Long admittedRecords) {
+    this.admittedRecords = admittedRecords;
+  }
+
+  public Integer getBaselineDatasetId() {
+    return baselineDatasetId;
+  }
+
+  public void setBaselineDatasetId(Integer baselineDatasetId) {
+    this.baselineDatasetId = baselineDatasetId;
+  }
+
   public String getXsltEdmExternalContent() {
     return xsltEdmExternalContent;
   }
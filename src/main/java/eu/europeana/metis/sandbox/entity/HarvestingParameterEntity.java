@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
 
 /**
  * Entity to map harvesting_parameters table
@@ -40,6 +41,20 @@ public class HarvestingParameterEntity {
 
     private String metadataFormat;
 
+    private Integer stepSize;
+
+    private Integer checkpointPosition;
+
+    private Integer checkpointSelectedRecords;
+
+    private Integer checkpointNextPosition;
+
+    private Integer checkpointAdmittedRecords;
+
+    private ZonedDateTime checkpointDate;
+
+    private boolean harvestCompleted = true;
+
     /**
      * Parameterized constructor
      * @param datasetId The id of the dataset associated to these harvesting parameters
@@ -128,4 +143,60 @@ public class HarvestingParameterEntity {
     public void setMetadataFormat(String metadataFormat) {
         this.metadataFormat = metadataFormat;
     }
+
+    public Integer getStepSize() {
+        return stepSize;
+    }
+
+    public void setStepSize(Integer stepSize) {
+        this.stepSize = stepSize;
+    }
+
+    public Integer getCheckpointPosition() {
+        return checkpointPosition;
+    }
+
+    public void setCheckpointPosition(Integer checkpointPosition) {
+        this.checkpointPosition = checkpointPosition;
+    }
+
+    public Integer getCheckpointSelectedRecords() {
+        return checkpointSelectedRecords;
+    }
+
+    public void setCheckpointSelectedRecords(Integer checkpointSelectedRecords) {
+        this.checkpointSelectedRecords = checkpointSelectedRecords;
+    }
+
+    public Integer getCheckpointNextPosition() {
+        return checkpointNextPosition;
+    }
+
+    public void setCheckpointNextPosition(Integer checkpointNextPosition) {
+        this.checkpointNextPosition = checkpointNextPosition;
+    }
+
+    public Integer getCheckpointAdmittedRecords() {
+        return checkpointAdmittedRecords;
+    }
+
+    public void setCheckpointAdmittedRecords(Integer checkpointAdmittedRecords) {
+        this.checkpointAdmittedRecords = checkpointAdmittedRecords;
+    }
+
+    public ZonedDateTime getCheckpointDate() {
+        return checkpointDate;
+    }
+
+    public void setCheckpointDate(ZonedDateTime checkpointDate) {
+        this.checkpointDate = checkpointDate;
+    }
+
+    public boolean isHarvestCompleted() {
+        return harvestCompleted;
+    }
+
+    public void setHarvestCompleted(boolean harvestCompleted) {
+        this.harvestCompleted = harvestCompleted;
+    }
 }
@@ -26,6 +26,9 @@ public class RecordEntity {
 
   protected String providerId;
 
+  // The identifier the record was harvested with, which unlike the provider id is never changed afterwards
+  protected String harvestId;
+
   protected String datasetId;
 
   protected String contentTier;
@@ -85,7 +88,7 @@ public class RecordEntity {
   }
 
   /**
-   * Constructor with id parameters. The remaining of the fields will be null
+   * Constructor with id parameters. The harvest id is the given provider id, the remaining of the fields will be null
    *
    * @param providerId the provider id associated to the record
    * @param datasetId the dataset if it belongs to
@@ -93,6 +96,7 @@ public class RecordEntity {
   public RecordEntity(String providerId, String datasetId) {
     this.europeanaId = null;
     this.providerId = providerId;
+    this.harvestId = providerId;
     this.datasetId = datasetId;
     this.contentTier = null;
     this.contentTierBeforeLicenseCorrection = null;
@@ -132,6 +136,14 @@ public class RecordEntity {
     this.providerId = providerId;
   }
 
+  public String getHarvestId() {
+    return harvestId;
+  }
+
+  public void setHarvestId(String harvestId) {
+    this.harvestId = harvestId;
+  }
+
   public String getDatasetId() {
     return datasetId;
   }
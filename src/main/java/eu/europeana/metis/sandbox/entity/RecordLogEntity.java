@@ -1,5 +1,6 @@
 package eu.europeana.metis.sandbox.entity;
 
+import eu.europeana.metis.sandbox.common.RecordContentCodec;
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
 import jakarta.persistence.CascadeType;
@@ -12,6 +13,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import java.nio.charset.StandardCharsets;
+import org.hibernate.annotations.Formula;
 
 /**
  * Entity to map to record_log table
@@ -28,7 +31,14 @@ public class RecordLogEntity {
   @JoinColumn(name = "record_id", referencedColumnName = "id")
   private RecordEntity recordId;
 
-  protected String content;
+  // The content is stored once per hash in record_content, it is read along with the record log but never written by it
+  @Formula("(SELECT record_content.content FROM record_content WHERE record_content.hash = content_hash)")
+  protected byte[] content;
+
+  @Formula("(SELECT record_content.codec FROM record_content WHERE record_content.hash = content_hash)")
+  protected String contentCodec;
+
+  protected String contentHash;
 
   @Enumerated(EnumType.STRING)
   protected Step step;
@@ -44,11 +54,21 @@ public class RecordLogEntity {
    */
 
   public RecordLogEntity(RecordEntity recordId, String content, Step step, Status status) {
+    this(recordId, content.getBytes(StandardCharsets.UTF_8), step, status);
+  }
+
+  /**
+   * Parameterized constructor
+   * @param recordId the record id
+   * @param content the content of the record
+   * @param step the workflow step
+   * @param status the status of the record
+   */
+  public RecordLogEntity(RecordEntity recordId, byte[] content, Step step, Status status) {
     this.recordId = recordId;
     this.content = content;
     this.step = step;
     this.status = status;
-
   }
 
   public RecordLogEntity() {
@@ -88,10 +108,29 @@ public class RecordLogEntity {
   }
 
   public String getContent() {
-    return content;
+    final byte[] contentBytes = getContentBytes();
+    return contentBytes == null ? null : new String(contentBytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the content, decoded if it was read from the database.
+   *
+   * @return the content
+   */
+  public byte[] getContentBytes() {
+    return content == null || contentCodec == null ? content : RecordContentCodec.valueOf(contentCodec).decode(content);
   }
 
   public void setContent(String content) {
-    this.content = content;
+    this.content = content == null ? null : content.getBytes(StandardCharsets.UTF_8);
+    this.contentCodec = null;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
   }
 }
@@ -0,0 +1,8 @@
+package eu.europeana.metis.sandbox.entity.projection;
+
+public interface DatasetBaselineView {
+
+  Integer getDatasetId();
+
+  Integer getBaselineDatasetId();
+}
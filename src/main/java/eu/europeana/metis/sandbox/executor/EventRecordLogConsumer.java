@@ -1,27 +1,46 @@
 package eu.europeana.metis.sandbox.executor;
 
+import static java.lang.String.format;
+
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
 import eu.europeana.metis.sandbox.service.record.RecordLogService;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
 /**
  * Consumes all events
  * <br/>
- * Save events to persistence store
+ * Save events to persistence store in batches, and release the claim checked contents of the records that are not read
+ * anymore. If some events of a batch cannot be saved, the others are saved anyway and the batch fails afterwards, so that it
+ * is retried and eventually dead-lettered. Saving the already saved events again changes nothing.
  */
 @Component
 class EventRecordLogConsumer {
 
   private final RecordLogService recordLogService;
+  private final RecordClaimCheckService recordClaimCheckService;
 
-  public EventRecordLogConsumer(RecordLogService recordLogService) {
+  public EventRecordLogConsumer(RecordLogService recordLogService, RecordClaimCheckService recordClaimCheckService) {
     this.recordLogService = recordLogService;
+    this.recordClaimCheckService = recordClaimCheckService;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.log.queue}", containerFactory = "recordLogFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.log.auto-start:true}")
-  public void logRecord(RecordProcessEvent input) {
-    recordLogService.logRecordEvent(input);
+  public void logRecords(List<RecordProcessEvent> input) {
+    final Set<RecordProcessEvent> failedEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+    failedEvents.addAll(recordLogService.logRecordEvents(input));
+    input.stream()
+         .filter(event -> !failedEvents.contains(event))
+         .forEach(event -> recordClaimCheckService.release(event.getRecord().getRecordId()));
+    if (!failedEvents.isEmpty()) {
+      throw new ServiceException(format("Error saving record logs for %d of %d events. ", failedEvents.size(), input.size()));
+    }
   }
 }
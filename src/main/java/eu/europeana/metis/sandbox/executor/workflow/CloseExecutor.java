@@ -2,12 +2,13 @@ package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import java.lang.invoke.MethodHandles;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
-import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -19,19 +20,23 @@ import org.springframework.stereotype.Component;
 class CloseExecutor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-  private final AmqpTemplate amqpTemplate;
+  private final RecordEventPublisher recordEventPublisher;
 
   @Value("${sandbox.rabbitmq.routing-key.closed}")
   private String routingKey;
 
-  public CloseExecutor(AmqpTemplate amqpTemplate) {
-    this.amqpTemplate = amqpTemplate;
+  public CloseExecutor(RecordEventPublisher recordEventPublisher) {
+    this.recordEventPublisher = recordEventPublisher;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.published.queue}",
       containerFactory = "closingFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.published.auto-start:true}")
-  public void close(RecordProcessEvent input) {
+  public void close(List<RecordProcessEvent> input) {
+    input.forEach(this::close);
+  }
+
+  private void close(RecordProcessEvent input) {
     if (input.getStatus() == Status.FAIL) {
       return;
     }
@@ -41,7 +46,7 @@ class CloseExecutor {
       //which queue receives the message. Queue 'sandbox.record.closed' does not exist. But by checking the config,
       //we see that 'sandbox.record.log' listens to all queues with pattern 'sandbox.record.#', hence the message will
       //go to 'sandbox.record.log' instead to the non-existing `sandbox.record.closed`
-      amqpTemplate.convertAndSend(routingKey, output);
+      recordEventPublisher.publish(routingKey, output);
     } catch (RuntimeException closeException) {
       LOGGER.error("Close executor error", closeException);
     }
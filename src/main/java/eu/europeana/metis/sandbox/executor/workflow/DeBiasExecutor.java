@@ -1,5 +1,6 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.DeBiasProcessService;
 import java.lang.invoke.MethodHandles;
@@ -7,7 +8,6 @@ import java.util.List;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
@@ -23,11 +23,11 @@ class DeBiasExecutor extends StepExecutor {
   /**
    * Instantiates a new De bias executor.
    *
-   * @param amqpTemplate the amqp template
+   * @param recordEventPublisher the record event publisher
    * @param service the service
    */
-  public DeBiasExecutor(AmqpTemplate amqpTemplate, DeBiasProcessService service) {
-    super(amqpTemplate);
+  public DeBiasExecutor(RecordEventPublisher recordEventPublisher, DeBiasProcessService service) {
+    super(recordEventPublisher);
     this.service = service;
   }
 
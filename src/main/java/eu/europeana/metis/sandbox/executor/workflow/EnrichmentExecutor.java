@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.EnrichmentService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,16 +21,16 @@ class EnrichmentExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.enriched.queue}")
   private String routingKey;
 
-  public EnrichmentExecutor(AmqpTemplate amqpTemplate,
+  public EnrichmentExecutor(RecordEventPublisher recordEventPublisher,
       EnrichmentService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.normalized.queue}",
       containerFactory = "enrichmentFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.normalized.auto-start:true}")
-  public void enrich(RecordProcessEvent input) {
-    consume(routingKey, input, Step.ENRICH, () -> service.enrich(input.getRecord()));
+  public void enrich(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.ENRICH, service::enrich);
   }
 }
@@ -1,18 +1,22 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.ExternalValidationService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 /**
  * Consumes created events and performs external validation to the contained record <br/> Publishes
  * the result in the externally validated queue
+ * <br/> Replaced by {@link FusedPipelineExecutor} when fused pipeline execution is enabled
  */
 @Component
+@ConditionalOnProperty(name = "sandbox.rabbitmq.fused-pipeline.enabled", havingValue = "false", matchIfMissing = true)
 class ExternalValidationExecutor extends StepExecutor {
 
   private final ExternalValidationService service;
@@ -20,16 +24,16 @@ class ExternalValidationExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.validated.external.queue}")
   private String routingKey;
 
-  public ExternalValidationExecutor(AmqpTemplate amqpTemplate,
+  public ExternalValidationExecutor(RecordEventPublisher recordEventPublisher,
       ExternalValidationService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = {"${sandbox.rabbitmq.queues.record.created.queue}"},
       containerFactory = "externalValidationFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.created.auto-start:true}")
-  public void validateExternal(RecordProcessEvent input) {
-    consume(routingKey, input, Step.VALIDATE_EXTERNAL, () -> service.validate(input.getRecord()));
+  public void validateExternal(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.VALIDATE_EXTERNAL, service::validate);
   }
 }
@@ -0,0 +1,90 @@
+package eu.europeana.metis.sandbox.executor.workflow;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.workflow.EnrichmentService;
+import eu.europeana.metis.sandbox.service.workflow.ExternalValidationService;
+import eu.europeana.metis.sandbox.service.workflow.IndexingService;
+import eu.europeana.metis.sandbox.service.workflow.InternalValidationService;
+import eu.europeana.metis.sandbox.service.workflow.MediaProcessingService;
+import eu.europeana.metis.sandbox.service.workflow.NormalizationService;
+import eu.europeana.metis.sandbox.service.workflow.TransformationService;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes created events and runs the contained record through all steps from external validation up to closing in memory,
+ * instead of passing it through a queue between every two steps.
+ * <p>
+ * The event of every step is still published, but with a routing key that only the record log queue is bound to, so the
+ * reporting is the same as when every step is executed by its own executor. The record stops at the first step that fails.
+ * <p>
+ * Active only when fused pipeline execution is enabled, in which case it replaces {@link ExternalValidationExecutor} as the
+ * consumer of the created queue.
+ */
+@Component
+@ConditionalOnProperty(name = "sandbox.rabbitmq.fused-pipeline.enabled", havingValue = "true")
+class FusedPipelineExecutor extends StepExecutor {
+
+  private final List<FusedStep> steps;
+
+  @Value("${sandbox.rabbitmq.routing-key.fused:sandbox.record.fused}")
+  private String routingKey;
+
+  @Value("${sandbox.rabbitmq.routing-key.closed}")
+  private String closedRoutingKey;
+
+  public FusedPipelineExecutor(RecordEventPublisher recordEventPublisher,
+      ExternalValidationService externalValidationService,
+      TransformationService transformationService,
+      InternalValidationService internalValidationService,
+      NormalizationService normalizationService,
+      EnrichmentService enrichmentService,
+      MediaProcessingService mediaProcessingService,
+      IndexingService indexingService) {
+    super(recordEventPublisher);
+    this.steps = List.of(
+        new FusedStep(Step.VALIDATE_EXTERNAL, externalValidationService::validate),
+        new FusedStep(Step.TRANSFORM, transformationService::transformToEdmInternal),
+        new FusedStep(Step.VALIDATE_INTERNAL, internalValidationService::validate),
+        new FusedStep(Step.NORMALIZE, normalizationService::normalize),
+        new FusedStep(Step.ENRICH, enrichmentService::enrich),
+        new FusedStep(Step.MEDIA_PROCESS, mediaProcessingService::processMedia),
+        new FusedStep(Step.PUBLISH, indexingService::index));
+  }
+
+  @RabbitListener(queues = {"${sandbox.rabbitmq.queues.record.created.queue}"},
+      containerFactory = "externalValidationFactory",
+      autoStartup = "${sandbox.rabbitmq.queues.record.created.auto-start:true}")
+  public void process(List<RecordProcessEvent> input) {
+    input.forEach(this::process);
+  }
+
+  private void process(RecordProcessEvent input) {
+    if (input.getStatus() == Status.FAIL) {
+      return;
+    }
+    RecordProcessEvent current = input;
+    for (FusedStep fusedStep : steps) {
+      final Record currentRecord = current.getRecord();
+      current = execute(current, fusedStep.step(), () -> fusedStep.function().apply(currentRecord));
+      send(routingKey, current);
+      if (current.getStatus() == Status.FAIL) {
+        return;
+      }
+    }
+    send(closedRoutingKey, new RecordProcessEvent(new RecordInfo(current.getRecord()), Step.CLOSE, Status.SUCCESS));
+  }
+
+  private record FusedStep(Step step, Function<Record, RecordInfo> function) {
+
+  }
+}
@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.InternalValidationService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,16 +21,16 @@ class InternalValidationExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.validated.internal.queue}")
   private String routingKey;
 
-  public InternalValidationExecutor(AmqpTemplate amqpTemplate,
+  public InternalValidationExecutor(RecordEventPublisher recordEventPublisher,
       InternalValidationService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.transformed.queue}",
       containerFactory = "internalValidationFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.transformed.auto-start:true}")
-  public void validateInternal(RecordProcessEvent input) {
-    consume(routingKey, input, Step.VALIDATE_INTERNAL, () -> service.validate(input.getRecord()));
+  public void validateInternal(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.VALIDATE_INTERNAL, service::validate);
   }
 }
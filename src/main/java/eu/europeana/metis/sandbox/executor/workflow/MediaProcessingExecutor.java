@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.MediaProcessingService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,16 +21,16 @@ class MediaProcessingExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.media.queue}")
   private String routingKey;
 
-  public MediaProcessingExecutor(AmqpTemplate amqpTemplate,
+  public MediaProcessingExecutor(RecordEventPublisher recordEventPublisher,
       MediaProcessingService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.enriched.queue}",
       containerFactory = "mediaProcessingFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.enriched.auto-start:true}")
-  public void processMedia(RecordProcessEvent input) {
-    consume(routingKey, input, Step.MEDIA_PROCESS, () -> service.processMedia(input.getRecord()));
+  public void processMedia(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.MEDIA_PROCESS, service::processMedia);
   }
 }
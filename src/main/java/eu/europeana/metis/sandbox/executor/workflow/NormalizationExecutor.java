@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.NormalizationService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,16 +21,16 @@ class NormalizationExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.normalized.queue}")
   private String routingKey;
 
-  public NormalizationExecutor(AmqpTemplate amqpTemplate,
+  public NormalizationExecutor(RecordEventPublisher recordEventPublisher,
       NormalizationService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.validated.internal.queue}",
       containerFactory = "normalizationFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.validated.internal.auto-start:true}")
-  public void normalize(RecordProcessEvent input) {
-    consume(routingKey, input, Step.NORMALIZE, () -> service.normalize(input.getRecord()));
+  public void normalize(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.NORMALIZE, service::normalize);
   }
 }
@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.IndexingService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -21,17 +22,16 @@ class PublishExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.published.queue}")
   private String routingKey;
 
-  public PublishExecutor(AmqpTemplate amqpTemplate,
+  public PublishExecutor(RecordEventPublisher recordEventPublisher,
       IndexingService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.media.queue}",
       containerFactory = "publishFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.media.auto-start:true}")
-  public void publish(RecordProcessEvent input) {
-    consume(routingKey, input, Step.PUBLISH,
-        () -> service.index(input.getRecord()));
+  public void publish(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.PUBLISH, service::index);
   }
 }
@@ -2,16 +2,19 @@ package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
+import eu.europeana.metis.sandbox.config.amqp.ConsumerConcurrencyController;
+import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordError;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import java.lang.invoke.MethodHandles;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.core.AmqpTemplate;
 
 /**
  * Parent class for all consumer steps, generalizes the consumers action
@@ -19,15 +22,15 @@ import org.springframework.amqp.core.AmqpTemplate;
 class StepExecutor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-  private final AmqpTemplate amqpTemplate;
+  private final RecordEventPublisher recordEventPublisher;
 
   /**
    * Instantiates a new Step executor.
    *
-   * @param amqpTemplate the amqp template
+   * @param recordEventPublisher the record event publisher
    */
-  StepExecutor(AmqpTemplate amqpTemplate) {
-    this.amqpTemplate = amqpTemplate;
+  StepExecutor(RecordEventPublisher recordEventPublisher) {
+    this.recordEventPublisher = recordEventPublisher;
   }
 
   /**
@@ -43,7 +46,32 @@ class StepExecutor {
     if (input.getStatus() == Status.FAIL) {
       return;
     }
+    send(routingKey, execute(input, step, recordInfoSupplier));
+  }
 
+  /**
+   * Consume a batch of events. Every event is executed and published on its own, so a record that fails does not affect the
+   * other records of the batch.
+   *
+   * @param routingKey the routing key
+   * @param inputs the inputs
+   * @param step the step
+   * @param recordProcessor the function executing the step on a record
+   */
+  public void consume(String routingKey, List<RecordProcessEvent> inputs, Step step,
+      Function<Record, RecordInfo> recordProcessor) {
+    inputs.forEach(input -> consume(routingKey, input, step, () -> recordProcessor.apply(input.getRecord())));
+  }
+
+  /**
+   * Executes the step on the record of the input event without publishing the result.
+   *
+   * @param input the input
+   * @param step the step
+   * @param recordInfoSupplier the record info supplier
+   * @return the output event, with status {@link Status#FAIL} if the step failed
+   */
+  RecordProcessEvent execute(RecordProcessEvent input, Step step, Supplier<RecordInfo> recordInfoSupplier) {
     RecordProcessEvent output;
     try {
       var recordInfo = recordInfoSupplier.get();
@@ -55,8 +83,19 @@ class StepExecutor {
       //Also catch runtime exceptions to avoid losing the message or thread
       output = createFailEvent(input, step, new RecordProcessingException(Long.toString(input.getRecord().getRecordId()), ex));
     }
+    return output;
+  }
+
+  /**
+   * Publishes the event, logging instead of throwing if publishing fails. Events that are not confirmed by the broker are
+   * retried by the {@link RecordEventPublisher}, and logged as failed once they are out of retries.
+   *
+   * @param routingKey the routing key
+   * @param output the event to publish
+   */
+  void send(String routingKey, RecordProcessEvent output) {
     try {
-      amqpTemplate.convertAndSend(routingKey, output);
+      recordEventPublisher.publish(routingKey, output);
     } catch (RuntimeException rabbitException) {
       LOGGER.error("Queue step execution error", rabbitException);
     }
@@ -68,6 +107,7 @@ class StepExecutor {
     final RecordProcessEvent output = new RecordProcessEvent(new RecordInfo(input.getRecord(), List.of(recordError)), step,
         Status.FAIL);
     LOGGER.error("Exception while performing step: [{}]. ", stepName, ex);
+    ConsumerConcurrencyController.reportFailedRecord();
     return output;
   }
 }
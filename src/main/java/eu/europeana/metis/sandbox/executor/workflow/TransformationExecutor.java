@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.TransformationService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,16 +21,16 @@ class TransformationExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.transformed.queue}")
   private String routingKey;
 
-  public TransformationExecutor(AmqpTemplate amqpTemplate,
+  public TransformationExecutor(RecordEventPublisher recordEventPublisher,
       TransformationService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.validated.external.queue}",
       containerFactory = "transformationFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.validated.external.auto-start:true}")
-  public void transform(RecordProcessEvent input) {
-    consume(routingKey, input, Step.TRANSFORM, () -> service.transformToEdmInternal(input.getRecord()));
+  public void transform(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.TRANSFORM, service::transformToEdmInternal);
   }
 }
@@ -1,9 +1,10 @@
 package eu.europeana.metis.sandbox.executor.workflow;
 
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.TransformationService;
-import org.springframework.amqp.core.AmqpTemplate;
+import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -20,18 +21,17 @@ class TransformationToEdmExternalExecutor extends StepExecutor {
   @Value("${sandbox.rabbitmq.queues.record.created.queue}")
   private String routingKey;
 
-  public TransformationToEdmExternalExecutor(AmqpTemplate amqpTemplate,
+  public TransformationToEdmExternalExecutor(RecordEventPublisher recordEventPublisher,
       TransformationService service) {
-    super(amqpTemplate);
+    super(recordEventPublisher);
     this.service = service;
   }
 
   @RabbitListener(queues = "${sandbox.rabbitmq.queues.record.transformation.edm.external.queue}",
       containerFactory = "transformationEdmExternalFactory",
       autoStartup = "${sandbox.rabbitmq.queues.record.transformation.edm.external.auto-start:true}")
-  public void transformationToEdmExternal(RecordProcessEvent input) {
-    consume(routingKey, input, Step.TRANSFORM_TO_EDM_EXTERNAL,
-        () -> service.transform(input.getRecord()));
+  public void transformationToEdmExternal(List<RecordProcessEvent> input) {
+    consume(routingKey, input, Step.TRANSFORM_TO_EDM_EXTERNAL, service::transform);
   }
 
 }
@@ -0,0 +1,69 @@
+package eu.europeana.metis.sandbox.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Jdbc repository for {@link DatasetRepository}
+ */
+@Repository
+public class DatasetJdbcRepository {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor with required parameters.
+   *
+   * @param jdbcTemplate the jdbc template
+   */
+  public DatasetJdbcRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Admits one more record to the dataset if it holds less than the maximum number of records.
+   * <p>
+   * The check and the increment are a single statement on the dataset row, so concurrent callers, also on other nodes, never
+   * admit more than the maximum number of records.
+   *
+   * @param datasetId the id of the dataset
+   * @param maxRecords the maximum number of records of the dataset
+   * @return the number of admitted records including this one, 0 if the record is not admitted
+   */
+  public long admitRecord(int datasetId, long maxRecords) {
+    final Long admittedRecords = jdbcTemplate.query(
+        "UPDATE dataset SET admitted_records = admitted_records + 1 WHERE dataset_id = ? AND admitted_records < ? "
+            + "RETURNING admitted_records",
+        resultSet -> resultSet.next() ? resultSet.getLong(1) : null, datasetId, maxRecords);
+    LOGGER.debug("Admitted records of dataset {} after admission: {}", datasetId, admittedRecords);
+    return Optional.ofNullable(admittedRecords).orElse(0L);
+  }
+
+  /**
+   * Adds to the number of records of the dataset that finished processing.
+   *
+   * @param datasetId the id of the dataset
+   * @param finishedRecords the number of records that finished processing
+   */
+  public void addFinishedRecords(int datasetId, long finishedRecords) {
+    jdbcTemplate.update("UPDATE dataset SET finished_records = finished_records + ? WHERE dataset_id = ?",
+        finishedRecords, datasetId);
+  }
+
+  /**
+   * Gets the number of records of the dataset that finished processing.
+   *
+   * @param datasetId the id of the dataset
+   * @return the number of finished records, 0 if the dataset does not exist
+   */
+  public long getFinishedRecords(int datasetId) {
+    final Long finishedRecords = jdbcTemplate.query("SELECT finished_records FROM dataset WHERE dataset_id = ?",
+        resultSet -> resultSet.next() ? resultSet.getLong(1) : null, datasetId);
+    return Optional.ofNullable(finishedRecords).orElse(0L);
+  }
+}
@@ -1,6 +1,7 @@
 package eu.europeana.metis.sandbox.repository;
 
 import eu.europeana.metis.sandbox.entity.DatasetEntity;
+import eu.europeana.metis.sandbox.entity.projection.DatasetBaselineView;
 import eu.europeana.metis.sandbox.entity.projection.DatasetIdView;
 
 import eu.europeana.metis.sandbox.dto.DatasetInfoDto;
@@ -28,6 +29,14 @@ public interface DatasetRepository extends JpaRepository<DatasetEntity, Integer>
    */
   List<DatasetIdView> getByCreatedDateBefore(ZonedDateTime date);
 
+  /**
+   * Get the datasets harvested incrementally against a baseline dataset
+   *
+   * @return list of dataset ids with the id of their baseline dataset
+   * @see DatasetBaselineView
+   */
+  List<DatasetBaselineView> getByBaselineDatasetIdIsNotNull();
+
   /**
    * Gets by created by id.
    *
@@ -47,13 +56,54 @@ public interface DatasetRepository extends JpaRepository<DatasetEntity, Integer>
   void updateRecordsQuantity(int datasetId, Long quantity);
 
   /**
-   * Sets to true the boolean recordLimitExceeded
+   * Updates the value of recordQuantity to the number of admitted records of the given dataset
+   *
+   * @param datasetId The id of the dataset to update to
+   */
+  @Modifying
+  @Query("UPDATE DatasetEntity dataset SET dataset.recordsQuantity = dataset.admittedRecords WHERE dataset.datasetId = ?1")
+  void updateRecordsQuantityToAdmittedRecords(int datasetId);
+
+  /**
+   * Sets to true the boolean recordLimitExceeded, if it is not set yet
    *
    * @param datasetId The id of the dataset to update this into
+   * @return The number of updated datasets, 1 only for the call that set it
+   */
+  @Modifying
+  @Query("UPDATE DatasetEntity dataset SET dataset.recordLimitExceeded = true WHERE dataset.datasetId = ?1 "
+      + "AND (dataset.recordLimitExceeded IS NULL OR dataset.recordLimitExceeded = false)")
+  int setRecordLimitExceeded(int datasetId);
+
+  /**
+   * Releases a record admitted to the given dataset that will not be processed
+   *
+   * @param datasetId The id of the dataset to release the record from
+   */
+  @Modifying
+  @Query("UPDATE DatasetEntity dataset SET dataset.admittedRecords = dataset.admittedRecords - 1 "
+      + "WHERE dataset.datasetId = ?1 AND dataset.admittedRecords > 0")
+  void releaseAdmittedRecord(int datasetId);
+
+  /**
+   * Sets the number of admitted records of the given dataset
+   *
+   * @param datasetId The id of the dataset to update to
+   * @param admittedRecords The new number of admitted records
+   */
+  @Modifying
+  @Query("UPDATE DatasetEntity dataset SET dataset.admittedRecords = ?2 WHERE dataset.datasetId = ?1")
+  void updateAdmittedRecords(int datasetId, long admittedRecords);
+
+  /**
+   * Sets the baseline dataset the given dataset is harvested incrementally against
+   *
+   * @param datasetId The id of the dataset to update to
+   * @param baselineDatasetId The id of the baseline dataset
    */
   @Modifying
-  @Query("UPDATE DatasetEntity dataset SET dataset.recordLimitExceeded = true WHERE dataset.datasetId = ?1")
-  void setRecordLimitExceeded(int datasetId);
+  @Query("UPDATE DatasetEntity dataset SET dataset.baselineDatasetId = ?2 WHERE dataset.datasetId = ?1")
+  void updateBaselineDatasetId(int datasetId, int baselineDatasetId);
 
   /**
    * A boolean type of query to check if dataset has xslt content
@@ -1,6 +1,8 @@
 package eu.europeana.metis.sandbox.repository;
 
 import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -36,4 +38,73 @@ public interface HarvestingParameterRepository extends JpaRepository<HarvestingP
   @Query("DELETE FROM HarvestingParameterEntity hpe WHERE EXISTS (SELECT 1 FROM DatasetEntity dte "
       + "WHERE dte.datasetId = hpe.datasetId.datasetId AND hpe.datasetId.datasetId = ?1)")
   void deleteByDatasetIdDatasetId(Integer datasetId);
+
+  /**
+   * Marks the harvest of the dataset as started, with the given step size and no progress yet
+   *
+   * @param datasetId The dataset id associated to the entity
+   * @param stepSize The step size of the harvest
+   */
+  @Modifying
+  @Query("UPDATE HarvestingParameterEntity hpe SET hpe.stepSize = ?2, hpe.checkpointPosition = NULL, "
+      + "hpe.checkpointSelectedRecords = NULL, hpe.checkpointNextPosition = NULL, hpe.checkpointAdmittedRecords = NULL, "
+      + "hpe.checkpointDate = CURRENT_TIMESTAMP, "
+      + "hpe.harvestCompleted = false WHERE hpe.datasetId.datasetId = ?1")
+  void startHarvest(Integer datasetId, Integer stepSize);
+
+  /**
+   * Saves the progress of the harvest of the dataset
+   *
+   * @param datasetId The dataset id associated to the entity
+   * @param position The number of iterated entries
+   * @param selectedRecords The number of selected records
+   * @param nextPosition The position of the next entry to select
+   * @param admittedRecords The number of admitted records of the dataset
+   */
+  @Modifying
+  @Query("UPDATE HarvestingParameterEntity hpe SET hpe.checkpointPosition = ?2, hpe.checkpointSelectedRecords = ?3, "
+      + "hpe.checkpointNextPosition = ?4, hpe.checkpointAdmittedRecords = ?5, hpe.checkpointDate = CURRENT_TIMESTAMP "
+      + "WHERE hpe.datasetId.datasetId = ?1 AND hpe.harvestCompleted = false")
+  void updateCheckpoint(Integer datasetId, Integer position, Integer selectedRecords, Integer nextPosition,
+      Integer admittedRecords);
+
+  /**
+   * Marks the harvest of the dataset as completed, it will not be resumed
+   *
+   * @param datasetId The dataset id associated to the entity
+   */
+  @Modifying
+  @Query("UPDATE HarvestingParameterEntity hpe SET hpe.harvestCompleted = true WHERE hpe.datasetId.datasetId = ?1")
+  void completeHarvest(Integer datasetId);
+
+  /**
+   * Reports that the harvests of the datasets are still running, independently of their progress
+   *
+   * @param datasetIds The dataset ids associated to the entities
+   */
+  @Modifying
+  @Query("UPDATE HarvestingParameterEntity hpe SET hpe.checkpointDate = CURRENT_TIMESTAMP "
+      + "WHERE hpe.datasetId.datasetId IN ?1 AND hpe.harvestCompleted = false")
+  void touchHarvests(Collection<Integer> datasetIds);
+
+  /**
+   * Gets the harvests that are not completed and did not report progress since the given date
+   *
+   * @param checkpointDate The date before which the last progress must have been reported
+   * @return The entities of the interrupted harvests
+   */
+  @Query("SELECT hpe FROM HarvestingParameterEntity hpe WHERE hpe.harvestCompleted = false AND hpe.checkpointDate < ?1")
+  List<HarvestingParameterEntity> findInterruptedHarvests(ZonedDateTime checkpointDate);
+
+  /**
+   * Claims an interrupted harvest, only one caller can claim it as the claim reports progress
+   *
+   * @param id The id of the entity
+   * @param checkpointDate The date before which the last progress must have been reported
+   * @return The number of claimed entities, 1 if the claim succeeded
+   */
+  @Modifying
+  @Query("UPDATE HarvestingParameterEntity hpe SET hpe.checkpointDate = CURRENT_TIMESTAMP "
+      + "WHERE hpe.id = ?1 AND hpe.harvestCompleted = false AND hpe.checkpointDate < ?2")
+  int claimInterruptedHarvest(Long id, ZonedDateTime checkpointDate);
 }
@@ -0,0 +1,77 @@
+package eu.europeana.metis.sandbox.repository;
+
+import eu.europeana.metis.sandbox.common.Step;
+import java.lang.invoke.MethodHandles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Jdbc repository for the record contents that are sent by reference instead of in the queue messages
+ */
+@Repository
+public class RecordClaimCheckJdbcRepository {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor with required parameters.
+   *
+   * @param jdbcTemplate the jdbc template
+   */
+  public RecordClaimCheckJdbcRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Stores the content of a record at a step, replacing the content stored before for the same record and step.
+   *
+   * @param recordId the id of the record
+   * @param step the step that produced the content
+   * @param content the content
+   */
+  public void save(long recordId, Step step, byte[] content) {
+    jdbcTemplate.update("INSERT INTO record_claim_check (record_id, step, content) VALUES (?, ?, ?) "
+        + "ON CONFLICT (record_id, step) DO UPDATE SET content = EXCLUDED.content", recordId, step.name(), content);
+  }
+
+  /**
+   * Gets the content of a record at a step.
+   *
+   * @param recordId the id of the record
+   * @param step the step that produced the content
+   * @return the content, null if no content is stored
+   */
+  public byte[] findContent(long recordId, Step step) {
+    return jdbcTemplate.query("SELECT content FROM record_claim_check WHERE record_id = ? AND step = ?",
+        resultSet -> resultSet.next() ? resultSet.getBytes(1) : null, recordId, step.name());
+  }
+
+  /**
+   * Deletes the contents of a record that are not read anymore. Once a record is closed or failed, all its queue messages
+   * have been consumed by the step executors, so the content of a step is not read anymore once the step is logged.
+   *
+   * @param recordId the id of the record
+   * @return the number of contents deleted
+   */
+  public int deleteLoggedOfFinishedRecord(long recordId) {
+    final int deleted = jdbcTemplate.update("DELETE FROM record_claim_check claim WHERE claim.record_id = ? "
+        + "AND EXISTS (SELECT 1 FROM record_log log WHERE log.record_id = claim.record_id "
+        + "AND (log.step = 'CLOSE' OR log.status = 'FAIL')) "
+        + "AND EXISTS (SELECT 1 FROM record_log log WHERE log.record_id = claim.record_id AND log.step = claim.step)", recordId);
+    LOGGER.debug("Deleted {} claim checked contents of record {}", deleted, recordId);
+    return deleted;
+  }
+
+  /**
+   * Deletes the contents of all records of a dataset.
+   *
+   * @param datasetId the id of the dataset
+   */
+  public void deleteByDatasetId(String datasetId) {
+    jdbcTemplate.update("DELETE FROM record_claim_check claim USING record rec "
+        + "WHERE claim.record_id = rec.id AND rec.dataset_id = ?", datasetId);
+  }
+}
@@ -0,0 +1,165 @@
+package eu.europeana.metis.sandbox.repository;
+
+import eu.europeana.metis.sandbox.common.RecordContentCodec;
+import java.lang.invoke.MethodHandles;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Jdbc repository for the record contents of the record logs. Every content is stored once under its SHA-256 hash, however
+ * many record logs of however many datasets refer to it. Contents are stored compressed with zstd, unless that does not make
+ * them smaller, together with the codec that decodes them.
+ */
+@Repository
+public class RecordContentJdbcRepository {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_ROWS_PER_INSERT = 1000;
+  private static final int MAX_ROWS_PER_DELETE = 1000;
+  private static final int MAX_FAILED_DELETES = 3;
+  private static final String FOREIGN_KEY_VIOLATION = "23503";
+  private static final String CONTENT_REFERENCE = "content_hash";
+  // Locks the selected contents, skipping the ones locked by record logs being inserted that refer to them
+  private static final String DELETE_UNREFERENCED_BATCH = "DELETE FROM record_content WHERE hash IN "
+      + "(SELECT content.hash FROM record_content content WHERE NOT EXISTS "
+      + "(SELECT 1 FROM record_log log WHERE log.content_hash = content.hash) "
+      + "LIMIT ? FOR UPDATE OF content SKIP LOCKED)";
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor with required parameters.
+   *
+   * @param jdbcTemplate the jdbc template
+   */
+  public RecordContentJdbcRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Stores a content unless it is stored already.
+   *
+   * @param content the content
+   * @return the hash of the content, to refer to it
+   */
+  public String save(byte[] content) {
+    return saveAll(List.of(content)).getFirst();
+  }
+
+  /**
+   * Stores contents in bulk, except the ones that are stored already. Contents are inserted in the order of their hashes, so
+   * that concurrent callers storing the same new contents wait for each other instead of deadlocking.
+   *
+   * @param contents the contents
+   * @return the hashes of the contents, in the order of the contents
+   */
+  public List<String> saveAll(List<byte[]> contents) {
+    final List<String> hashes = contents.stream().map(RecordContentJdbcRepository::hash).toList();
+    final Map<String, byte[]> contentsByHash = new TreeMap<>();
+    for (int i = 0; i < contents.size(); i++) {
+      contentsByHash.putIfAbsent(hashes.get(i), contents.get(i));
+    }
+    final List<Map.Entry<String, byte[]>> rows = List.copyOf(contentsByHash.entrySet());
+    int inserted = 0;
+    for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_INSERT) {
+      inserted += jdbcTemplate.update(insertContentsIfNotStored(rows.subList(from,
+          Math.min(from + MAX_ROWS_PER_INSERT, rows.size()))));
+    }
+    LOGGER.debug("Stored {} of {} distinct record contents", inserted, rows.size());
+    return hashes;
+  }
+
+  /**
+   * Deletes the contents that no record log refers to anymore, in batches that are committed one by one.
+   * <p>
+   * Contents that a record log being inserted refers to are locked by that insert, and skipped. A content stored for a record
+   * log that is not inserted yet can be deleted however, after which inserting that record log fails on its reference to the
+   * content (see {@link #isContentMissing(DataAccessException)}) and needs to store the content again. The other way round, a
+   * batch fails if a record log referring to one of its contents is inserted meanwhile, and is then selected again.
+   *
+   * @return the number of contents deleted
+   * @throws DataIntegrityViolationException if batches keep failing
+   */
+  public int deleteUnreferenced() {
+    int deleted = 0;
+    int failedBatches = 0;
+    int deletedInBatch;
+    do {
+      try {
+        deletedInBatch = jdbcTemplate.update(DELETE_UNREFERENCED_BATCH, MAX_ROWS_PER_DELETE);
+        deleted += deletedInBatch;
+      } catch (DataIntegrityViolationException e) {
+        failedBatches++;
+        if (failedBatches >= MAX_FAILED_DELETES) {
+          throw e;
+        }
+        LOGGER.debug("Deleting a batch of unreferenced record contents failed, selecting it again", e);
+        deletedInBatch = MAX_ROWS_PER_DELETE;
+      }
+    } while (deletedInBatch == MAX_ROWS_PER_DELETE);
+    LOGGER.debug("Deleted {} unreferenced record contents", deleted);
+    return deleted;
+  }
+
+  /**
+   * Checks whether an insert failed because a record log refers to a content that is not stored, which happens when
+   * {@link #deleteUnreferenced()} deleted the content before the record log was inserted. Storing the content again and
+   * repeating the insert in a new transaction then succeeds.
+   *
+   * @param exception the exception of the insert
+   * @return true if the exception is a violation of the reference of a record log to its content
+   */
+  public static boolean isContentMissing(DataAccessException exception) {
+    if (!(exception instanceof DataIntegrityViolationException)) {
+      return false;
+    }
+    for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException && FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState())) {
+        return sqlException.getMessage() != null && sqlException.getMessage().contains(CONTENT_REFERENCE);
+      }
+    }
+    return false;
+  }
+
+  private static String hash(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  @NotNull
+  private PreparedStatementCreator insertContentsIfNotStored(List<Map.Entry<String, byte[]>> rows) {
+    return connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          "INSERT INTO record_content (hash, codec, content) VALUES "
+              + String.join(", ", Collections.nCopies(rows.size(), "(?, ?, ?)"))
+              + " ON CONFLICT (hash) DO NOTHING");
+      int parameterIndex = 1;
+      for (Map.Entry<String, byte[]> row : rows) {
+        final byte[] compressedContent = RecordContentCodec.ZSTD.encode(row.getValue());
+        final RecordContentCodec codec = compressedContent.length < row.getValue().length ? RecordContentCodec.ZSTD
+            : RecordContentCodec.NONE;
+        statement.setString(parameterIndex++, row.getKey());
+        statement.setString(parameterIndex++, codec.name());
+        statement.setBytes(parameterIndex++, codec == RecordContentCodec.ZSTD ? compressedContent : row.getValue());
+      }
+      return statement;
+    };
+  }
+}
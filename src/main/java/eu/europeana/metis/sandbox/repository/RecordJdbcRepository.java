@@ -1,7 +1,13 @@
 package eu.europeana.metis.sandbox.repository;
 
+import eu.europeana.metis.sandbox.entity.RecordEntity;
 import java.lang.invoke.MethodHandles;
 import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.postgresql.util.PSQLException;
 import org.slf4j.Logger;
@@ -17,6 +23,7 @@ import org.springframework.stereotype.Repository;
 public class RecordJdbcRepository {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_ROWS_PER_INSERT = 1000;
   private final JdbcTemplate jdbcTemplate;
 
   /**
@@ -55,6 +62,126 @@ public class RecordJdbcRepository {
     return result;
   }
 
+  /**
+   * Insert records in bulk. Ids are reserved in one block from the record sequence and set on the given entities before
+   * the rows are written with multi-row inserts. Records that conflict with an existing record (same provider id, harvest id
+   * or europeana id in the dataset) are not inserted.
+   *
+   * @param recordEntities the records to insert, only the europeana id, provider id, harvest id and dataset id are written
+   * @return the ids of the records that were inserted
+   */
+  public Set<Long> insertRecords(List<RecordEntity> recordEntities) {
+    if (recordEntities.isEmpty()) {
+      return Collections.emptySet();
+    }
+    final List<Long> reservedIds = jdbcTemplate.queryForList(
+        "SELECT nextval('record_id_seq') FROM generate_series(1, ?)", Long.class, recordEntities.size());
+    for (int i = 0; i < recordEntities.size(); i++) {
+      recordEntities.get(i).setId(reservedIds.get(i));
+    }
+
+    final Set<Long> insertedIds = new HashSet<>();
+    for (int from = 0; from < recordEntities.size(); from += MAX_ROWS_PER_INSERT) {
+      final List<RecordEntity> rows = recordEntities.subList(from,
+          Math.min(from + MAX_ROWS_PER_INSERT, recordEntities.size()));
+      insertedIds.addAll(jdbcTemplate.query(insertRecordsIfNoConflict(rows), (resultSet, rowNumber) -> resultSet.getLong(1)));
+    }
+    LOGGER.debug("Inserted {} of {} records", insertedIds.size(), recordEntities.size());
+    return insertedIds;
+  }
+
+  /**
+   * Copies the records of a baseline dataset that finished processing into another dataset, together with their record logs
+   * and record error logs. The copied record logs refer to the same stored contents. A record finished processing if it was
+   * closed or if it failed after it was harvested. Records are matched on the identifier they were harvested with, as their
+   * provider id is replaced during processing. Records of which the target dataset already holds a record with the same
+   * harvest id are not copied, nor are records harvested before the harvest id was kept.
+   *
+   * @param baselineDatasetId the dataset to copy the records from
+   * @param datasetId the dataset to copy the records to
+   * @param excludedHarvestIds the harvest ids of records not to copy
+   * @param maxRecords the maximum number of records to copy
+   * @return the number of records copied and the number of records that could be copied
+   */
+  public CopiedRecords copyProcessedRecords(String baselineDatasetId, String datasetId,
+      Collection<String> excludedHarvestIds, long maxRecords) {
+    final CopiedRecords copiedRecords = jdbcTemplate.query(copyProcessedRecordsIfNotPresent(baselineDatasetId, datasetId,
+            excludedHarvestIds, maxRecords),
+        resultSet -> resultSet.next() ? new CopiedRecords(resultSet.getLong(1), resultSet.getLong(2)) : null);
+    LOGGER.debug("Copied records from dataset {} to dataset {}: {}", baselineDatasetId, datasetId, copiedRecords);
+    return copiedRecords;
+  }
+
+  @NotNull
+  private PreparedStatementCreator copyProcessedRecordsIfNotPresent(String baselineDatasetId, String datasetId,
+      Collection<String> excludedHarvestIds, long maxRecords) {
+    return connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          "WITH candidates AS ("
+              + "SELECT rec.* FROM record rec WHERE rec.dataset_id = ? "
+              + "AND EXISTS (SELECT 1 FROM record_log log WHERE log.record_id = rec.id "
+              + "AND (log.step = 'CLOSE' OR (log.status = 'FAIL' AND log.step NOT IN ('HARVEST_OAI_PMH', 'HARVEST_FILE')))) "
+              + "AND rec.harvest_id IS NOT NULL "
+              + "AND NOT EXISTS (SELECT 1 FROM record other WHERE other.dataset_id = ? AND other.harvest_id = rec.harvest_id) "
+              + "AND rec.harvest_id <> ALL (?)), "
+              + "copied AS ("
+              + "INSERT INTO record (europeana_id, provider_id, harvest_id, dataset_id, content_tier, "
+              + "content_tier_before_license_correction, metadata_tier, metadata_tier_language, metadata_tier_enabling_elements, "
+              + "metadata_tier_contextual_classes, license) "
+              + "SELECT europeana_id, provider_id, harvest_id, ?, content_tier, content_tier_before_license_correction, "
+              + "metadata_tier, metadata_tier_language, metadata_tier_enabling_elements, metadata_tier_contextual_classes, license "
+              + "FROM candidates ORDER BY id LIMIT ? "
+              + "ON CONFLICT DO NOTHING "
+              + "RETURNING id, harvest_id), "
+              + "copied_logs AS ("
+              + "INSERT INTO record_log (record_id, step, status, content_hash) "
+              + "SELECT copied.id, log.step, log.status, log.content_hash FROM copied "
+              + "JOIN candidates ON candidates.harvest_id = copied.harvest_id "
+              + "JOIN record_log log ON log.record_id = candidates.id), "
+              + "copied_error_logs AS ("
+              + "INSERT INTO record_error_log (record_id, step, status, message, stack_trace) "
+              + "SELECT copied.id, error.step, error.status, error.message, error.stack_trace FROM copied "
+              + "JOIN candidates ON candidates.harvest_id = copied.harvest_id "
+              + "JOIN record_error_log error ON error.record_id = candidates.id) "
+              + "SELECT (SELECT count(*) FROM copied), (SELECT count(*) FROM candidates)");
+      statement.setString(1, baselineDatasetId);
+      statement.setString(2, datasetId);
+      statement.setArray(3, connection.createArrayOf("varchar", excludedHarvestIds.toArray()));
+      statement.setString(4, datasetId);
+      statement.setLong(5, maxRecords);
+      return statement;
+    };
+  }
+
+  /**
+   * The result of copying records from one dataset to another.
+   *
+   * @param copied the number of records copied
+   * @param available the number of records that could be copied
+   */
+  public record CopiedRecords(long copied, long available) {
+
+  }
+
+  @NotNull
+  private PreparedStatementCreator insertRecordsIfNoConflict(List<RecordEntity> rows) {
+    return connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          "INSERT INTO record (id, europeana_id, provider_id, harvest_id, dataset_id) VALUES "
+              + String.join(", ", Collections.nCopies(rows.size(), "(?, ?, ?, ?, ?)"))
+              + " ON CONFLICT DO NOTHING RETURNING id");
+      int parameterIndex = 1;
+      for (RecordEntity row : rows) {
+        statement.setLong(parameterIndex++, row.getId());
+        statement.setString(parameterIndex++, row.getEuropeanaId());
+        statement.setString(parameterIndex++, row.getProviderId());
+        statement.setString(parameterIndex++, row.getHarvestId());
+        statement.setString(parameterIndex++, row.getDatasetId());
+      }
+      return statement;
+    };
+  }
+
   @NotNull
   private PreparedStatementCreator updateRecordIfNoConflict(long recordId, String europeanaId, String providerId,
       String datasetId) {
@@ -0,0 +1,122 @@
+package eu.europeana.metis.sandbox.repository;
+
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.entity.RecordErrorLogEntity;
+import eu.europeana.metis.sandbox.entity.RecordLogEntity;
+import java.lang.invoke.MethodHandles;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Jdbc repository for {@link RecordLogRepository} and {@link RecordErrorLogRepository}
+ */
+@Repository
+public class RecordLogJdbcRepository {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_ROWS_PER_INSERT = 1000;
+  private final JdbcTemplate jdbcTemplate;
+  private final RecordContentJdbcRepository recordContentJdbcRepository;
+
+  /**
+   * Constructor with required parameters.
+   *
+   * @param jdbcTemplate the jdbc template
+   * @param recordContentJdbcRepository the record content jdbc repository
+   */
+  public RecordLogJdbcRepository(JdbcTemplate jdbcTemplate, RecordContentJdbcRepository recordContentJdbcRepository) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.recordContentJdbcRepository = recordContentJdbcRepository;
+  }
+
+  /**
+   * Insert record logs and record error logs in bulk, in one transaction, storing the contents of the record logs that are
+   * not stored yet. Record logs of a record and step that is already
+   * logged are not inserted, and neither are the record error logs of that record and step, so that inserting the same logs
+   * again changes nothing.
+   *
+   * @param recordLogs the record logs to insert, the record needs only its id
+   * @param recordErrorLogs the record error logs to insert, the record needs only its id
+   * @return the record logs that were inserted
+   */
+  @Transactional
+  public List<RecordLogEntity> insertRecordLogs(List<RecordLogEntity> recordLogs, List<RecordErrorLogEntity> recordErrorLogs) {
+    final List<String> contentHashes = recordContentJdbcRepository.saveAll(
+        recordLogs.stream().map(RecordLogEntity::getContentBytes).toList());
+    for (int i = 0; i < recordLogs.size(); i++) {
+      recordLogs.get(i).setContentHash(contentHashes.get(i));
+    }
+    final Set<LoggedStep> insertedSteps = new HashSet<>();
+    for (int from = 0; from < recordLogs.size(); from += MAX_ROWS_PER_INSERT) {
+      final List<RecordLogEntity> rows = recordLogs.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, recordLogs.size()));
+      insertedSteps.addAll(jdbcTemplate.query(insertRecordLogsIfNotLogged(rows),
+          (resultSet, rowNumber) -> new LoggedStep(resultSet.getLong(1), Step.valueOf(resultSet.getString(2)))));
+    }
+    final List<RecordLogEntity> insertedRecordLogs = recordLogs.stream()
+                                                               .filter(log -> insertedSteps.contains(
+                                                                   new LoggedStep(log.getRecordId().getId(), log.getStep())))
+                                                               .toList();
+    final List<RecordErrorLogEntity> insertedRecordErrorLogs = recordErrorLogs.stream()
+                                                                              .filter(error -> insertedSteps.contains(
+                                                                                  new LoggedStep(error.getRecordId().getId(),
+                                                                                      error.getStep())))
+                                                                              .toList();
+    for (int from = 0; from < insertedRecordErrorLogs.size(); from += MAX_ROWS_PER_INSERT) {
+      jdbcTemplate.update(insertRecordErrorLogs(insertedRecordErrorLogs.subList(from,
+          Math.min(from + MAX_ROWS_PER_INSERT, insertedRecordErrorLogs.size()))));
+    }
+    LOGGER.debug("Inserted {} of {} record logs and {} of {} record error logs", insertedRecordLogs.size(), recordLogs.size(),
+        insertedRecordErrorLogs.size(), recordErrorLogs.size());
+    return insertedRecordLogs;
+  }
+
+  private record LoggedStep(long recordId, Step step) {
+
+  }
+
+  @NotNull
+  private PreparedStatementCreator insertRecordLogsIfNotLogged(List<RecordLogEntity> rows) {
+    return connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          "INSERT INTO record_log (record_id, step, status, content_hash) VALUES "
+              + String.join(", ", Collections.nCopies(rows.size(), "(?, ?, ?, ?)"))
+              + " ON CONFLICT (record_id, step) DO NOTHING RETURNING record_id, step");
+      int parameterIndex = 1;
+      for (RecordLogEntity row : rows) {
+        statement.setLong(parameterIndex++, row.getRecordId().getId());
+        statement.setString(parameterIndex++, row.getStep().name());
+        statement.setString(parameterIndex++, row.getStatus().name());
+        statement.setString(parameterIndex++, row.getContentHash());
+      }
+      return statement;
+    };
+  }
+
+  @NotNull
+  private PreparedStatementCreator insertRecordErrorLogs(List<RecordErrorLogEntity> rows) {
+    return connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          "INSERT INTO record_error_log (record_id, step, status, message, stack_trace) VALUES "
+              + String.join(", ", Collections.nCopies(rows.size(), "(?, ?, ?, ?, ?)")));
+      int parameterIndex = 1;
+      for (RecordErrorLogEntity row : rows) {
+        statement.setLong(parameterIndex++, row.getRecordId().getId());
+        statement.setString(parameterIndex++, row.getStep().name());
+        statement.setString(parameterIndex++, row.getStatus().name());
+        statement.setString(parameterIndex++, row.getMessage());
+        statement.setString(parameterIndex++, row.getStackTrace());
+      }
+      return statement;
+    };
+  }
+}
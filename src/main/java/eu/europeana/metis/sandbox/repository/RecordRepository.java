@@ -56,6 +56,24 @@ public interface RecordRepository extends JpaRepository<RecordEntity, Long> {
   @Query("SELECT re FROM RecordEntity re WHERE re.providerId = ?1 AND re.datasetId = ?2")
   RecordEntity findByProviderIdAndDatasetId(String providerId, String datasetId);
 
+  /**
+   * Find record by the identifier it was harvested with, which is kept when its provider id is replaced
+   *
+   * @param harvestId the harvest id value to search
+   * @param datasetId the dataset id value to search
+   */
+  @Query("SELECT re FROM RecordEntity re WHERE re.harvestId = ?1 AND re.datasetId = ?2")
+  RecordEntity findByHarvestIdAndDatasetId(String harvestId, String datasetId);
+
+  /**
+   * Checks if the dataset has records without the identifier they were harvested with, which are the records harvested
+   * before that identifier was kept
+   *
+   * @param datasetId the dataset id value to search
+   * @return true if the dataset has records without harvest id
+   */
+  boolean existsByDatasetIdAndHarvestIdIsNull(String datasetId);
+
   /**
    * Find record by europeana id
    *
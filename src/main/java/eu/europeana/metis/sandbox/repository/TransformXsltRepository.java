@@ -3,7 +3,17 @@ package eu.europeana.metis.sandbox.repository;
 import eu.europeana.metis.sandbox.entity.TransformXsltEntity;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface TransformXsltRepository extends JpaRepository<TransformXsltEntity, Integer> {
   Optional<TransformXsltEntity> findFirstByIdIsNotNullOrderByIdAsc();
+
+  /**
+   * Get the hash of the default transform xslt, so that a changed xslt can be noticed without reading it
+   *
+   * @return the hex encoded SHA-256 of the UTF-8 bytes of the xslt, or empty if there is no xslt
+   */
+  @Query(value = "SELECT encode(sha256(convert_to(transform_xslt, 'UTF8')), 'hex') "
+      + "FROM default_transform_xslt ORDER BY id LIMIT 1", nativeQuery = true)
+  Optional<String> findFirstTransformXsltHash();
 }
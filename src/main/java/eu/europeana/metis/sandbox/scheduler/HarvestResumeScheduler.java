@@ -0,0 +1,81 @@
+package eu.europeana.metis.sandbox.scheduler;
+
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
+import eu.europeana.metis.sandbox.service.dataset.HarvestingParameterService;
+import eu.europeana.metis.sandbox.service.workflow.HarvestPublishService;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedule to resume OAI-PMH harvests that were interrupted, for example by a restart of the node that ran them.
+ * <p>
+ * A harvest is considered interrupted when it did not report progress for the configured number of minutes. Each interrupted
+ * harvest is claimed by only one node, which resumes it from its last checkpoint. The harvests running on this node report
+ * that they are alive on a separate schedule, so that a harvest that waits, for example for its records to be processed, is
+ * not claimed again.
+ */
+@Component
+@EnableScheduling
+class HarvestResumeScheduler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Value("${sandbox.dataset.harvest.checkpoint.stale-after-minutes:10}")
+  private int staleAfterMinutes;
+
+  private final HarvestingParameterService harvestingParameterService;
+  private final HarvestPublishService harvestPublishService;
+
+  HarvestResumeScheduler(HarvestingParameterService harvestingParameterService,
+      HarvestPublishService harvestPublishService) {
+    this.harvestingParameterService = harvestingParameterService;
+    this.harvestPublishService = harvestPublishService;
+  }
+
+  /**
+   * Task to execute on specified frequency. Executes every five minutes if frequency is not specified
+   * <br />
+   * To disable schedule use "-" cron value
+   *
+   * @see Scheduled
+   */
+  @Scheduled(cron = "${sandbox.dataset.harvest.checkpoint.resume-frequency:0 */5 * * * *}")
+  void resumeInterruptedHarvests() {
+    final List<HarvestingParameterEntity> interruptedHarvests = harvestingParameterService.claimInterruptedHarvests(
+        Duration.ofMinutes(staleAfterMinutes), Set.copyOf(harvestPublishService.getRunningHarvests()));
+    for (HarvestingParameterEntity interruptedHarvest : interruptedHarvests) {
+      LOGGER.info("Resuming interrupted harvest of dataset {}", interruptedHarvest.getDatasetId().getDatasetId());
+      harvestPublishService.resumeHarvestOaiPmhAsync(interruptedHarvest);
+    }
+  }
+
+  /**
+   * Reports the harvests running on this node as alive. Executes every minute if the interval is not specified, which must be
+   * well below the stale threshold.
+   *
+   * @see Scheduled
+   */
+  @Scheduled(fixedDelayString = "${sandbox.dataset.harvest.checkpoint.heartbeat-interval-millis:60000}")
+  void reportRunningHarvests() {
+    final Set<String> runningHarvests = Set.copyOf(harvestPublishService.getRunningHarvests());
+    if (!runningHarvests.isEmpty()) {
+      harvestingParameterService.touchHarvests(runningHarvests);
+    }
+  }
+
+  @EventListener
+  void init(ApplicationReadyEvent readyEvent) {
+    //Run this on startup so that harvests interrupted by a restart continue right away
+    resumeInterruptedHarvests();
+  }
+}
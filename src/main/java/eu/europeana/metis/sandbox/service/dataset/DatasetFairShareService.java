@@ -0,0 +1,34 @@
+package eu.europeana.metis.sandbox.service.dataset;
+
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+
+/**
+ * Service that shares the workflow queues fairly between datasets. Every dataset may have a limited number of records
+ * published but not finished yet, so that the records of a small dataset never wait behind all the records of a large one.
+ */
+public interface DatasetFairShareService {
+
+  /**
+   * Blocks until the dataset may publish one more record and counts that record as in flight.
+   * <p>
+   * Must be called by the harvesting thread of the dataset, never by a thread shared with other datasets.
+   *
+   * @param datasetId the dataset id
+   * @param beforeWaiting run once before blocking, to publish the records the caller holds back so that they can finish
+   */
+  void awaitTurn(String datasetId, Runnable beforeWaiting);
+
+  /**
+   * Gives back the turn of a record that will not be published, for example because it failed to be harvested.
+   *
+   * @param datasetId the dataset id
+   */
+  void releaseTurn(String datasetId);
+
+  /**
+   * Counts the record of the event as finished, if the event is the last one of the record in the workflow.
+   *
+   * @param recordProcessEvent the logged event
+   */
+  void recordLogged(RecordProcessEvent recordProcessEvent);
+}
@@ -0,0 +1,194 @@
+package eu.europeana.metis.sandbox.service.dataset;
+
+import com.google.common.cache.CacheBuilder;
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.repository.DatasetJdbcRepository;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Limits the records of every dataset that are published but not finished yet.
+ * <p>
+ * The number of finished records of a dataset is kept in the database, so that records finishing on any node count. Records
+ * finishing on this node are counted in memory and added to the database every check interval. A harvest counts the records
+ * it publishes itself and compares them with the records finished since its first publication. While the difference is at
+ * the maximum, publishing waits and the finished records are read again at most once per check interval. Records that are
+ * not published after all give their turn back.
+ * <p>
+ * Records that never finish, for example because their message was dead-lettered, stay counted as in flight. If a dataset
+ * waits longer than the maximum wait, it is not limited anymore, so that such records cannot stall a harvest. A maximum of
+ * zero or less disables the limit.
+ */
+@Service
+class DatasetFairShareServiceImpl implements DatasetFairShareService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final Set<Step> HARVEST_STEPS = Set.of(Step.HARVEST_OAI_PMH, Step.HARVEST_FILE);
+
+  private final DatasetJdbcRepository datasetJdbcRepository;
+  private final long maxInFlight;
+  private final long checkIntervalMillis;
+  private final long maxWaitMillis;
+  private final LongSupplier clock;
+  // Harvests that stopped publishing are forgotten after a while
+  private final Map<String, DatasetShare> datasetShares = CacheBuilder.newBuilder()
+                                                                      .expireAfterAccess(1, TimeUnit.HOURS)
+                                                                      .<String, DatasetShare>build()
+                                                                      .asMap();
+  private final Map<String, Long> unsavedFinishedRecords = new ConcurrentHashMap<>();
+
+  @Autowired
+  DatasetFairShareServiceImpl(DatasetJdbcRepository datasetJdbcRepository,
+      @Value("${sandbox.dataset.fair-share.max-in-flight:2000}") long maxInFlight,
+      @Value("${sandbox.dataset.fair-share.check-interval-millis:1000}") long checkIntervalMillis,
+      @Value("${sandbox.dataset.fair-share.max-wait-millis:240000}") long maxWaitMillis) {
+    this(datasetJdbcRepository, maxInFlight, checkIntervalMillis, maxWaitMillis, System::currentTimeMillis);
+  }
+
+  DatasetFairShareServiceImpl(DatasetJdbcRepository datasetJdbcRepository, long maxInFlight, long checkIntervalMillis,
+      long maxWaitMillis, LongSupplier clock) {
+    this.datasetJdbcRepository = datasetJdbcRepository;
+    this.maxInFlight = maxInFlight;
+    this.checkIntervalMillis = Math.max(1, checkIntervalMillis);
+    this.maxWaitMillis = maxWaitMillis;
+    this.clock = clock;
+  }
+
+  @Override
+  public void awaitTurn(String datasetId, Runnable beforeWaiting) {
+    if (maxInFlight <= 0) {
+      return;
+    }
+    final DatasetShare datasetShare = datasetShares.computeIfAbsent(datasetId, DatasetShare::new);
+    if (datasetShare.tryPublish()) {
+      return;
+    }
+    beforeWaiting.run();
+    final long waitUntil = clock.getAsLong() + maxWaitMillis;
+    while (!datasetShare.tryPublish()) {
+      if (clock.getAsLong() >= waitUntil) {
+        LOGGER.warn("Dataset {} waited more than {} ms for its records to finish, it is not limited anymore", datasetId,
+            maxWaitMillis);
+        datasetShare.stopLimiting();
+      } else {
+        try {
+          Thread.sleep(checkIntervalMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          LOGGER.warn("Interrupted while waiting for records of dataset {} to finish", datasetId);
+          return;
+        }
+      }
+    }
+  }
+
+  @Override
+  public void releaseTurn(String datasetId) {
+    if (maxInFlight <= 0) {
+      return;
+    }
+    final DatasetShare datasetShare = datasetShares.get(datasetId);
+    if (datasetShare != null) {
+      datasetShare.release();
+    }
+  }
+
+  @Override
+  public void recordLogged(RecordProcessEvent recordProcessEvent) {
+    if (maxInFlight > 0 && isLastEvent(recordProcessEvent)) {
+      unsavedFinishedRecords.merge(recordProcessEvent.getRecord().getDatasetId(), 1L, Long::sum);
+    }
+  }
+
+  /**
+   * Adds the records that finished on this node since the previous call to the database.
+   */
+  @Scheduled(fixedDelayString = "${sandbox.dataset.fair-share.check-interval-millis:1000}")
+  void saveFinishedRecords() {
+    for (String datasetId : unsavedFinishedRecords.keySet()) {
+      final Long finishedRecords = unsavedFinishedRecords.remove(datasetId);
+      if (finishedRecords == null) {
+        continue;
+      }
+      try {
+        datasetJdbcRepository.addFinishedRecords(Integer.parseInt(datasetId), finishedRecords);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Could not save the finished records of dataset {}, retrying later", datasetId, e);
+        unsavedFinishedRecords.merge(datasetId, finishedRecords, Long::sum);
+      }
+    }
+  }
+
+  private static boolean isLastEvent(RecordProcessEvent recordProcessEvent) {
+    final Step step = recordProcessEvent.getStep();
+    return step == Step.CLOSE || (recordProcessEvent.getStatus() == Status.FAIL && step != Step.DEBIAS
+        && !HARVEST_STEPS.contains(step));
+  }
+
+  private class DatasetShare {
+
+    private final String datasetId;
+    private boolean limited = true;
+    private long publishedRecords;
+    private long finishedRecordsBefore = -1;
+    private long finishedRecords;
+    private long lastCheck = Long.MIN_VALUE;
+
+    DatasetShare(String datasetId) {
+      this.datasetId = datasetId;
+    }
+
+    synchronized boolean tryPublish() {
+      if (limited && publishedRecords - finishedRecords >= maxInFlight) {
+        readFinishedRecords();
+      }
+      if (limited && publishedRecords - finishedRecords >= maxInFlight) {
+        return false;
+      }
+      if (finishedRecordsBefore < 0) {
+        readFinishedRecords();
+      }
+      publishedRecords++;
+      return true;
+    }
+
+    synchronized void release() {
+      publishedRecords = Math.max(0, publishedRecords - 1);
+    }
+
+    synchronized void stopLimiting() {
+      limited = false;
+    }
+
+    private void readFinishedRecords() {
+      final long now = clock.getAsLong();
+      if (finishedRecordsBefore >= 0 && lastCheck != Long.MIN_VALUE && now - lastCheck < checkIntervalMillis) {
+        return;
+      }
+      lastCheck = now;
+      try {
+        final long savedFinishedRecords = datasetJdbcRepository.getFinishedRecords(Integer.parseInt(datasetId));
+        if (finishedRecordsBefore < 0) {
+          finishedRecordsBefore = savedFinishedRecords;
+        }
+        finishedRecords = savedFinishedRecords - finishedRecordsBefore;
+      } catch (RuntimeException e) {
+        LOGGER.warn("Could not read the finished records of dataset {}, publishing is not limited", datasetId, e);
+        finishedRecordsBefore = Math.max(finishedRecordsBefore, 0);
+        finishedRecords = publishedRecords;
+      }
+    }
+  }
+}
@@ -2,18 +2,18 @@ package eu.europeana.metis.sandbox.service.dataset;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toSet;
 
 import eu.europeana.metis.sandbox.domain.Dataset;
 import eu.europeana.metis.sandbox.domain.DatasetMetadata;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.entity.RecordEntity;
-import eu.europeana.metis.sandbox.repository.RecordRepository;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository;
 import java.io.ByteArrayInputStream;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,11 +24,11 @@ class DatasetGeneratorServiceImpl implements DatasetGeneratorService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final RecordRepository recordRepository;
+  private final RecordJdbcRepository recordJdbcRepository;
 
   public DatasetGeneratorServiceImpl(
-      RecordRepository recordRepository) {
-    this.recordRepository = recordRepository;
+      RecordJdbcRepository recordJdbcRepository) {
+    this.recordJdbcRepository = recordJdbcRepository;
   }
 
   @Override
@@ -49,32 +49,36 @@ class DatasetGeneratorServiceImpl implements DatasetGeneratorService {
   }
 
   private Set<Record> processRecordsAndRemoveDuplicates(DatasetMetadata datasetMetadata, List<ByteArrayInputStream> records) {
-    return records.stream()
-            .map(ByteArrayInputStream::readAllBytes)
-            .map(recordItem -> getOptionalRecordFromProcessorService(datasetMetadata, recordItem))
-            .flatMap(Optional::stream)
-            .collect(toSet());
-  }
-
-
-  private Optional<Record> getOptionalRecordFromProcessorService(DatasetMetadata datasetMetadata, byte[] recordContent) {
+    final List<byte[]> recordContents = records.stream().map(ByteArrayInputStream::readAllBytes).toList();
+    final List<RecordEntity> recordEntities = recordContents.stream()
+                                                            .map(recordContent -> new RecordEntity.RecordEntityBuilder()
+                                                                .setDatasetId(datasetMetadata.getDatasetId())
+                                                                .build())
+                                                            .toList();
+    final Set<Long> insertedIds;
     try {
-      final RecordEntity recordEntity = recordRepository.save(new RecordEntity.RecordEntityBuilder()
-              .setDatasetId(datasetMetadata.getDatasetId())
-              .build());
-      final Long recordId = recordEntity.getId();
-      return Optional.of(Record.builder()
-                               .recordId(recordId)
-                               .datasetId(datasetMetadata.getDatasetId())
-                               .datasetName(datasetMetadata.getDatasetName())
-                               .country(datasetMetadata.getCountry())
-                               .language(datasetMetadata.getLanguage())
-                               .content(recordContent)
-                               .build());
-    } catch (RuntimeException processorServiceException) {
-      LOGGER.error("Failed to get record from processor service {} :: {} ", new String(recordContent, StandardCharsets.UTF_8),
-              processorServiceException);
-      return Optional.empty();
+      insertedIds = recordJdbcRepository.insertRecords(recordEntities);
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to save records of dataset {}", datasetMetadata.getDatasetId(), e);
+      return Collections.emptySet();
+    }
+
+    final Set<Record> processedRecords = new HashSet<>();
+    for (int i = 0; i < recordEntities.size(); i++) {
+      final Long recordId = recordEntities.get(i).getId();
+      if (insertedIds.contains(recordId)) {
+        processedRecords.add(Record.builder()
+                                   .recordId(recordId)
+                                   .datasetId(datasetMetadata.getDatasetId())
+                                   .datasetName(datasetMetadata.getDatasetName())
+                                   .country(datasetMetadata.getCountry())
+                                   .language(datasetMetadata.getLanguage())
+                                   .content(recordContents.get(i))
+                                   .build());
+      } else {
+        LOGGER.error("Failed to save record {}", new String(recordContents.get(i), StandardCharsets.UTF_8));
+      }
     }
+    return processedRecords;
   }
 }
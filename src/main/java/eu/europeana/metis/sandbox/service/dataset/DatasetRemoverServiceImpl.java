@@ -3,13 +3,17 @@ package eu.europeana.metis.sandbox.service.dataset;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.service.debias.DeBiasStateService;
 import eu.europeana.metis.sandbox.service.problempatterns.ProblemPatternDataRemover;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
 import eu.europeana.metis.sandbox.service.record.RecordLogService;
 import eu.europeana.metis.sandbox.service.record.RecordService;
 import eu.europeana.metis.sandbox.service.util.ThumbnailStoreService;
 import eu.europeana.metis.sandbox.service.util.VacuumService;
 import eu.europeana.metis.sandbox.service.workflow.IndexingService;
+import eu.europeana.metis.sandbox.service.workflow.TransformationService;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -28,10 +32,12 @@ class DatasetRemoverServiceImpl implements DatasetRemoverService {
   private final IndexingService indexingService;
   private final ThumbnailStoreService thumbnailStoreService;
   private final RecordService recordService;
+  private final RecordClaimCheckService recordClaimCheckService;
   private final ProblemPatternDataRemover problemPatternDataRemover;
   private final HarvestingParameterService harvestingParameterService;
   private final DeBiasStateService debiasStateService;
   private final VacuumService vacuumService;
+  private final TransformationService transformationService;
 
   /**
    * Instantiates a new Dataset remover service.
@@ -42,10 +48,12 @@ class DatasetRemoverServiceImpl implements DatasetRemoverService {
    * @param indexingService the indexing service
    * @param thumbnailStoreService the thumbnail store service
    * @param recordService the record service
+   * @param recordClaimCheckService the record claim check service
    * @param problemPatternDataRemover the problem pattern data remover
    * @param harvestingParameterService the harvesting parameter service
    * @param debiasStateService the debias state service
    * @param vacuumService the vacuum service
+   * @param transformationService the transformation service
    */
   DatasetRemoverServiceImpl(
           DatasetService datasetService,
@@ -54,27 +62,31 @@ class DatasetRemoverServiceImpl implements DatasetRemoverService {
           IndexingService indexingService,
           ThumbnailStoreService thumbnailStoreService,
           RecordService recordService,
+          RecordClaimCheckService recordClaimCheckService,
           ProblemPatternDataRemover problemPatternDataRemover,
           HarvestingParameterService harvestingParameterService,
           DeBiasStateService debiasStateService,
-          VacuumService vacuumService) {
+          VacuumService vacuumService,
+          TransformationService transformationService) {
     this.datasetService = datasetService;
     this.datasetLogService = datasetLogService;
     this.recordLogService = recordLogService;
     this.indexingService = indexingService;
     this.thumbnailStoreService = thumbnailStoreService;
     this.recordService = recordService;
+    this.recordClaimCheckService = recordClaimCheckService;
     this.problemPatternDataRemover = problemPatternDataRemover;
     this.harvestingParameterService = harvestingParameterService;
     this.debiasStateService = debiasStateService;
     this.vacuumService = vacuumService;
+    this.transformationService = transformationService;
   }
 
   @Override
   public void remove(int days) {
     try {
       // get old dataset ids
-      List<String> datasets = datasetService.getDatasetIdsCreatedBefore(days);
+      List<String> datasets = keepBaselineDatasets(datasetService.getDatasetIdsCreatedBefore(days));
 
       LOGGER.info("Datasets to remove {} ", datasets);
 
@@ -91,6 +103,8 @@ class DatasetRemoverServiceImpl implements DatasetRemoverService {
           recordLogService.remove(dataset);
           LOGGER.info("Remove debias report with id: [{}]", dataset);
           debiasStateService.cleanDeBiasReport(Integer.valueOf(dataset));
+          LOGGER.info("Remove claim checked record contents for dataset id: [{}]", dataset);
+          recordClaimCheckService.remove(dataset);
           LOGGER.info("Remove records for dataset id: [{}]", dataset);
           recordService.remove(dataset);
           LOGGER.info("Remove logs for dataset id: [{}]", dataset);
@@ -101,14 +115,46 @@ class DatasetRemoverServiceImpl implements DatasetRemoverService {
           problemPatternDataRemover.removeProblemPatternDataFromDatasetId(dataset);
           LOGGER.info("Remove dataset with id: [{}]", dataset);
           datasetService.remove(dataset);
+          LOGGER.info("Evict cached xslt of dataset with id: [{}]", dataset);
+          transformationService.evictDatasetXslt(dataset);
         } catch (ServiceException e) {
           LOGGER.error("Failed to remove dataset [{}] ", dataset, e);
         }
       });
+      try {
+        // record contents can be shared between datasets, so they are removed once no record log refers to them anymore
+        LOGGER.info("Remove unreferenced record contents");
+        recordLogService.removeUnreferencedContents();
+      } catch (ServiceException e) {
+        LOGGER.error("Failed to remove unreferenced record contents", e);
+      }
       LOGGER.info("Data removal completed, performing vacuum cleaning...");
       vacuumService.vacuum();
     } catch (RuntimeException exception) {
       LOGGER.error("General failure to remove dataset", exception);
     }
   }
+
+  /**
+   * Records copied into a dataset harvested incrementally keep referring to the index and thumbnails of its baseline
+   * dataset, so a baseline dataset is kept as long as a dataset that is kept refers to it.
+   *
+   * @param datasets the ids of the datasets to remove
+   * @return the ids of the datasets to remove that are not a baseline of a dataset that is kept
+   */
+  private List<String> keepBaselineDatasets(List<String> datasets) {
+    final Map<String, String> baselineDatasetIds = datasetService.getBaselineDatasetIds();
+    final List<String> datasetsToRemove = new ArrayList<>(datasets);
+    boolean baselineKept;
+    do {
+      baselineKept = false;
+      for (Map.Entry<String, String> entry : baselineDatasetIds.entrySet()) {
+        if (!datasetsToRemove.contains(entry.getKey()) && datasetsToRemove.remove(entry.getValue())) {
+          LOGGER.info("Keep dataset id: [{}] as the baseline of dataset id: [{}]", entry.getValue(), entry.getKey());
+          baselineKept = true;
+        }
+      }
+    } while (baselineKept);
+    return datasetsToRemove;
+  }
 }
@@ -9,6 +9,7 @@ import eu.europeana.metis.sandbox.dto.DatasetInfoDto;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface representing services related to datasets, including creation, retrieval,
@@ -43,6 +44,15 @@ public interface DatasetService {
    */
   List<String> getDatasetIdsCreatedBefore(int days);
 
+  /**
+   * Get the datasets harvested incrementally against a baseline dataset
+   *
+   * @return the ids of the baseline datasets mapped by the ids of the datasets harvested against them
+   * @throws ServiceException if any unhandled exception happens, exception will contain original
+   *                          exception
+   */
+  Map<String, String> getBaselineDatasetIds();
+
   /**
    * Get datasets created by a specific user
    * @param creatorId the creator id
@@ -66,11 +76,56 @@ public interface DatasetService {
    */
   void updateNumberOfTotalRecord(String datasetId, Long numberOfRecords);
 
+  /**
+   * Updates the value of recordQuantity in the database to the number of records admitted to the given dataset
+   * @param datasetId The id of the dataset to update to
+   */
+  void updateNumberOfTotalRecordToAdmitted(String datasetId);
+
   /**
    * Sets to true the boolean recordLimitExceeded in the database
    * @param datasetId The id of the dataset to update this into
+   * @return true if this call set it, false if it was already set
+   */
+  boolean setRecordLimitExceeded(String datasetId);
+
+  /**
+   * Admits a record to the dataset in the database, safe to call concurrently from several harvest workers and nodes
+   * @param datasetId The id of the dataset to admit the record into
+   * @param maxRecords The maximum number of records of the dataset
+   * @return the number of records admitted to the dataset including this one, 0 if the record is not admitted because the
+   * dataset already holds the maximum number of records
+   */
+  long admitRecord(String datasetId, int maxRecords);
+
+  /**
+   * Releases a record admitted to the dataset in the database, for a record that will not be processed
+   * @param datasetId The id of the dataset to release the record from
+   */
+  void releaseAdmittedRecord(String datasetId);
+
+  /**
+   * Returns the number of records admitted to the dataset in the database
+   * @param datasetId The id of the dataset
+   * @return the number of admitted records
+   */
+  long getAdmittedRecords(String datasetId);
+
+  /**
+   * Sets the number of records admitted to the dataset in the database, used to resume an interrupted harvest
+   * or after records were copied into the dataset
+   * @param datasetId The id of the dataset to update to
+   * @param admittedRecords The number of admitted records
+   */
+  void resetAdmittedRecords(String datasetId, long admittedRecords);
+
+  /**
+   * Sets the baseline dataset the dataset is harvested incrementally against, which must then be kept as long as
+   * the dataset exists since the copied records refer to its data
+   * @param datasetId The id of the dataset to update to
+   * @param baselineDatasetId The id of the baseline dataset
    */
-  void setRecordLimitExceeded(String datasetId);
+  void setBaselineDataset(String datasetId, String baselineDatasetId);
 
   /**
    * A boolean type of query to check if dataset has xslt content in the database
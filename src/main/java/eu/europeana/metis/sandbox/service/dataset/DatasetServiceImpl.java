@@ -15,7 +15,9 @@ import eu.europeana.metis.sandbox.dto.HttpHarvestingDto;
 import eu.europeana.metis.sandbox.dto.OAIPmhHarvestingDto;
 import eu.europeana.metis.sandbox.entity.DatasetEntity;
 import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
+import eu.europeana.metis.sandbox.entity.projection.DatasetBaselineView;
 import eu.europeana.metis.sandbox.entity.projection.DatasetIdView;
+import eu.europeana.metis.sandbox.repository.DatasetJdbcRepository;
 import eu.europeana.metis.sandbox.repository.DatasetRepository;
 import eu.europeana.metis.sandbox.repository.HarvestingParameterRepository;
 import java.io.IOException;
@@ -24,6 +26,8 @@ import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,12 +36,15 @@ class DatasetServiceImpl implements DatasetService {
 
   private final HarvestingParameterRepository harvestingParameterRepository;
   private final DatasetRepository datasetRepository;
+  private final DatasetJdbcRepository datasetJdbcRepository;
   private final HarvestingParameterService harvestingParameterService;
 
   public DatasetServiceImpl(DatasetRepository datasetRepository,
+      DatasetJdbcRepository datasetJdbcRepository,
       HarvestingParameterRepository harvestingParameterRepository,
       HarvestingParameterService harvestingParameterService) {
     this.datasetRepository = datasetRepository;
+    this.datasetJdbcRepository = datasetJdbcRepository;
     this.harvestingParameterService = harvestingParameterService;
     this.harvestingParameterRepository = harvestingParameterRepository;
   }
@@ -72,6 +79,17 @@ class DatasetServiceImpl implements DatasetService {
     }
   }
 
+  @Override
+  public Map<String, String> getBaselineDatasetIds() {
+    try {
+      return datasetRepository.getByBaselineDatasetIdIsNotNull().stream()
+                              .collect(Collectors.toMap(view -> view.getDatasetId().toString(),
+                                  view -> view.getBaselineDatasetId().toString()));
+    } catch (RuntimeException e) {
+      throw new ServiceException("Error getting the baseline datasets. ", e);
+    }
+  }
+
   /**
    * Get datasets created by a specific user
    */
@@ -125,8 +143,44 @@ class DatasetServiceImpl implements DatasetService {
 
   @Override
   @Transactional
-  public void setRecordLimitExceeded(String datasetId) {
-    datasetRepository.setRecordLimitExceeded(Integer.parseInt(datasetId));
+  public void updateNumberOfTotalRecordToAdmitted(String datasetId) {
+    datasetRepository.updateRecordsQuantityToAdmittedRecords(Integer.parseInt(datasetId));
+  }
+
+  @Override
+  @Transactional
+  public boolean setRecordLimitExceeded(String datasetId) {
+    return datasetRepository.setRecordLimitExceeded(Integer.parseInt(datasetId)) == 1;
+  }
+
+  @Override
+  public long admitRecord(String datasetId, int maxRecords) {
+    return datasetJdbcRepository.admitRecord(Integer.parseInt(datasetId), maxRecords);
+  }
+
+  @Override
+  @Transactional
+  public void releaseAdmittedRecord(String datasetId) {
+    datasetRepository.releaseAdmittedRecord(Integer.parseInt(datasetId));
+  }
+
+  @Override
+  public long getAdmittedRecords(String datasetId) {
+    return datasetRepository.findById(Integer.valueOf(datasetId))
+                            .map(DatasetEntity::getAdmittedRecords)
+                            .orElseThrow(() -> new InvalidDatasetException(datasetId));
+  }
+
+  @Override
+  @Transactional
+  public void resetAdmittedRecords(String datasetId, long admittedRecords) {
+    datasetRepository.updateAdmittedRecords(Integer.parseInt(datasetId), admittedRecords);
+  }
+
+  @Override
+  @Transactional
+  public void setBaselineDataset(String datasetId, String baselineDatasetId) {
+    datasetRepository.updateBaselineDatasetId(Integer.parseInt(datasetId), Integer.parseInt(baselineDatasetId));
   }
 
   @Override
@@ -1,7 +1,11 @@
 package eu.europeana.metis.sandbox.service.dataset;
 
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.dto.HarvestingParametricDto;
 import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface class of HarvestingParameters service
@@ -28,4 +32,40 @@ public interface HarvestingParameterService {
      * @param datasetId The id of the dataset
      */
     void remove(String datasetId);
+
+    /**
+     * Marks the harvest of the dataset as started, so that it can be resumed if it gets interrupted
+     * @param datasetId The id of the dataset
+     * @param stepSize The step size of the harvest
+     */
+    void startHarvest(String datasetId, Integer stepSize);
+
+    /**
+     * Saves the progress of the harvest of the dataset
+     * @param datasetId The id of the dataset
+     * @param harvestCheckpoint The progress of the harvest
+     */
+    void saveHarvestCheckpoint(String datasetId, HarvestCheckpoint harvestCheckpoint);
+
+    /**
+     * Marks the harvest of the dataset as completed, it will not be resumed
+     * @param datasetId The id of the dataset
+     */
+    void completeHarvest(String datasetId);
+
+    /**
+     * Reports that the harvests of the datasets are still running, so that they are not considered interrupted while they
+     * make no progress
+     * @param datasetIds The ids of the datasets
+     */
+    void touchHarvests(Collection<String> datasetIds);
+
+    /**
+     * Claims the harvests that are not completed and did not report progress for the given duration. A harvest can only be
+     * claimed by one caller, also across nodes.
+     * @param staleAfter The duration without progress after which a harvest is considered interrupted
+     * @param excludedDatasetIds The ids of the datasets of which the harvests are not claimed
+     * @return The entities of the claimed harvests
+     */
+    List<HarvestingParameterEntity> claimInterruptedHarvests(Duration staleAfter, Collection<String> excludedDatasetIds);
 }
@@ -7,6 +7,7 @@ import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.dto.FileHarvestingDto;
 import eu.europeana.metis.sandbox.dto.HarvestingParametricDto;
 import eu.europeana.metis.sandbox.dto.HttpHarvestingDto;
@@ -15,6 +16,10 @@ import eu.europeana.metis.sandbox.entity.DatasetEntity;
 import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
 import eu.europeana.metis.sandbox.repository.DatasetRepository;
 import eu.europeana.metis.sandbox.repository.HarvestingParameterRepository;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -69,6 +74,53 @@ public class HarvestingParameterServiceImpl implements HarvestingParameterServic
         }
     }
 
+    @Override
+    @Transactional
+    public void startHarvest(String datasetId, Integer stepSize) {
+        requireNonNull(datasetId, "Dataset id must not be null");
+        harvestingParameterRepository.startHarvest(Integer.parseInt(datasetId), stepSize);
+    }
+
+    @Override
+    @Transactional
+    public void saveHarvestCheckpoint(String datasetId, HarvestCheckpoint harvestCheckpoint) {
+        requireNonNull(datasetId, "Dataset id must not be null");
+        requireNonNull(harvestCheckpoint, "Harvest checkpoint must not be null");
+        harvestingParameterRepository.updateCheckpoint(Integer.parseInt(datasetId), harvestCheckpoint.getPosition(),
+            harvestCheckpoint.getSelectedRecords(), harvestCheckpoint.getNextPositionToSelect(),
+            harvestCheckpoint.getAdmittedRecords());
+    }
+
+    @Override
+    @Transactional
+    public void completeHarvest(String datasetId) {
+        requireNonNull(datasetId, "Dataset id must not be null");
+        harvestingParameterRepository.completeHarvest(Integer.parseInt(datasetId));
+    }
+
+    @Override
+    @Transactional
+    public void touchHarvests(Collection<String> datasetIds) {
+        requireNonNull(datasetIds, "Dataset ids must not be null");
+        if (!datasetIds.isEmpty()) {
+            harvestingParameterRepository.touchHarvests(datasetIds.stream().map(Integer::parseInt).toList());
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<HarvestingParameterEntity> claimInterruptedHarvests(Duration staleAfter,
+                                                                    Collection<String> excludedDatasetIds) {
+        final ZonedDateTime checkpointDate = ZonedDateTime.now().minus(staleAfter);
+        return harvestingParameterRepository.findInterruptedHarvests(checkpointDate).stream()
+                                            .filter(entity -> entity.getProtocol() == OAI_PMH)
+                                            .filter(entity -> !excludedDatasetIds.contains(
+                                                String.valueOf(entity.getDatasetId().getDatasetId())))
+                                            .filter(entity -> harvestingParameterRepository.claimInterruptedHarvest(
+                                                entity.getId(), checkpointDate) == 1)
+                                            .toList();
+    }
+
     private HarvestingParameterEntity createEntityToSave(String datasetId, HarvestingParametricDto harvestingParametricDto){
 
         DatasetEntity datasetEntity = datasetRepository.findById(Integer.parseInt(datasetId)).orElseThrow();
@@ -0,0 +1,118 @@
+package eu.europeana.metis.sandbox.service.dataset;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Slows down publishing into queues that are filling up faster than they are consumed.
+ * <p>
+ * Publishing into a queue is paused once its depth reaches the high-water mark and resumes once the depth dropped to the
+ * low-water mark. The depth of a queue is read from the broker at most once per check interval, shared by all publishing
+ * threads. A high-water mark of zero or less disables the back-pressure.
+ */
+@Component
+class QueueBackPressure {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final AmqpAdmin amqpAdmin;
+  private final long highWaterMark;
+  private final long lowWaterMark;
+  private final long checkIntervalMillis;
+  private final LongSupplier clock;
+  private final Map<String, QueueState> queueStates = new ConcurrentHashMap<>();
+
+  @Autowired
+  QueueBackPressure(AmqpAdmin amqpAdmin,
+      @Value("${sandbox.rabbitmq.back-pressure.high-water-mark:50000}") long highWaterMark,
+      @Value("${sandbox.rabbitmq.back-pressure.low-water-mark:25000}") long lowWaterMark,
+      @Value("${sandbox.rabbitmq.back-pressure.check-interval-millis:1000}") long checkIntervalMillis) {
+    this(amqpAdmin, highWaterMark, lowWaterMark, checkIntervalMillis, System::currentTimeMillis);
+  }
+
+  QueueBackPressure(AmqpAdmin amqpAdmin, long highWaterMark, long lowWaterMark, long checkIntervalMillis,
+      LongSupplier clock) {
+    this.amqpAdmin = amqpAdmin;
+    this.highWaterMark = highWaterMark;
+    this.lowWaterMark = Math.min(lowWaterMark, highWaterMark);
+    this.checkIntervalMillis = Math.max(1, checkIntervalMillis);
+    this.clock = clock;
+  }
+
+  /**
+   * Blocks while publishing into the given queue is paused.
+   * <p>
+   * If the thread is interrupted while waiting, the interrupt flag is restored and the method returns, so that the message
+   * is still published.
+   *
+   * @param queue the queue to publish into
+   */
+  void awaitCapacity(String queue) {
+    if (highWaterMark <= 0) {
+      return;
+    }
+    final QueueState queueState = queueStates.computeIfAbsent(queue, QueueState::new);
+    while (queueState.isPaused()) {
+      try {
+        Thread.sleep(checkIntervalMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOGGER.warn("Interrupted while waiting for queue {} to drain", queue);
+        return;
+      }
+    }
+  }
+
+  private long getQueueDepth(String queue) {
+    final QueueInformation queueInformation = amqpAdmin.getQueueInfo(queue);
+    if (queueInformation == null) {
+      LOGGER.error("No such queue {} exists", queue);
+    }
+    return Optional.ofNullable(queueInformation).map(QueueInformation::getMessageCount).orElse(0);
+  }
+
+  private class QueueState {
+
+    private final String queue;
+    private boolean paused;
+    private long lastCheck = Long.MIN_VALUE;
+
+    QueueState(String queue) {
+      this.queue = queue;
+    }
+
+    synchronized boolean isPaused() {
+      final long now = clock.getAsLong();
+      if (lastCheck != Long.MIN_VALUE && now - lastCheck < checkIntervalMillis) {
+        return paused;
+      }
+      lastCheck = now;
+      final long queueDepth;
+      try {
+        queueDepth = getQueueDepth(queue);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Could not read the depth of queue {}, publishing is not paused", queue, e);
+        paused = false;
+        return false;
+      }
+      if (!paused && queueDepth >= highWaterMark) {
+        LOGGER.warn("Queue {} holds {} messages, pausing publishing until it holds {}", queue, queueDepth, lowWaterMark);
+        paused = true;
+      } else if (paused && queueDepth <= lowWaterMark) {
+        LOGGER.info("Queue {} holds {} messages, resuming publishing", queue, queueDepth);
+        paused = false;
+      }
+      return paused;
+    }
+  }
+}
@@ -20,18 +20,22 @@ class RecordPublishServiceImpl implements RecordPublishService {
   private final AmqpTemplate amqpTemplate;
   private final String createdQueue;
   private final String transformationToEdmExternalQueue;
+  private final QueueBackPressure queueBackPressure;
 
   public RecordPublishServiceImpl(
       AmqpTemplate amqpTemplate,
       @Qualifier("createdQueue") String createdQueue,
-      @Qualifier("transformationToEdmExternalQueue") String transformationToEdmExternalQueue) {
+      @Qualifier("transformationToEdmExternalQueue") String transformationToEdmExternalQueue,
+      QueueBackPressure queueBackPressure) {
     this.amqpTemplate = amqpTemplate;
     this.createdQueue = createdQueue;
     this.transformationToEdmExternalQueue = transformationToEdmExternalQueue;
+    this.queueBackPressure = queueBackPressure;
   }
 
   @Override
   public void publishToHarvestQueue(RecordInfo recordInfo, Step step) {
+    queueBackPressure.awaitCapacity(createdQueue);
     try {
       amqpTemplate.convertAndSend(createdQueue,
           new RecordProcessEvent(recordInfo, step, Status.SUCCESS));
@@ -42,6 +46,7 @@ class RecordPublishServiceImpl implements RecordPublishService {
 
   @Override
   public void publishToTransformationToEdmExternalQueue(RecordInfo recordInfo, Step step) {
+    queueBackPressure.awaitCapacity(transformationToEdmExternalQueue);
     try {
       amqpTemplate.convertAndSend(transformationToEdmExternalQueue,
           new RecordProcessEvent(recordInfo, step, Status.SUCCESS));
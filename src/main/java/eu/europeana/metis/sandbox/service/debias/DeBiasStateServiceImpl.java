@@ -18,7 +18,6 @@ import eu.europeana.metis.sandbox.repository.debias.RecordDeBiasDetailRepository
 import eu.europeana.metis.sandbox.repository.debias.RecordDeBiasMainRepository;
 import eu.europeana.metis.sandbox.service.workflow.DeBiasProcessServiceImpl.DeBiasReportRow;
 import java.lang.invoke.MethodHandles;
-import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -165,7 +164,7 @@ public class DeBiasStateServiceImpl implements DeBiasStateService {
                                       .datasetName(dataset.getDatasetId().getDatasetName())
                                       .country(dataset.getDatasetId().getCountry())
                                       .language(dataset.getDatasetId().getLanguage())
-                                      .content(r.getContent().getBytes(StandardCharsets.UTF_8))
+                                      .content(r.getContentBytes())
                                       .build(), new ArrayList<>());
                                 }
                             )
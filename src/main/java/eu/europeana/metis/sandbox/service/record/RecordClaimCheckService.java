@@ -0,0 +1,55 @@
+package eu.europeana.metis.sandbox.service.record;
+
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+
+/**
+ * Service that keeps large record contents out of the queue messages. The content is stored once and the message only
+ * refers to it by the record id and step, which the consumer uses to get the content back.
+ */
+public interface RecordClaimCheckService {
+
+  /**
+   * Checks whether the content of the event should be stored instead of sent in the message. Contents below the configured
+   * threshold, failed events and DeBias events are always sent in the message.
+   *
+   * @param recordProcessEvent the event to send
+   * @return true if the content should be stored
+   */
+  boolean shouldCheckIn(RecordProcessEvent recordProcessEvent);
+
+  /**
+   * Stores the content of the event.
+   *
+   * @param recordProcessEvent must not be null
+   * @throws ServiceException if storing the content fails
+   */
+  void checkIn(RecordProcessEvent recordProcessEvent);
+
+  /**
+   * Gets the stored content of a record at a step.
+   *
+   * @param recordId the id of the record
+   * @param step the step of the event the content was stored for
+   * @return the content
+   * @throws ServiceException if no content is stored or getting it fails
+   */
+  byte[] checkOut(Long recordId, Step step);
+
+  /**
+   * Removes the stored contents of a record that are not read anymore, which are those of the logged steps once the record
+   * is closed or failed.
+   *
+   * @param recordId the id of the record
+   */
+  void release(Long recordId);
+
+  /**
+   * Removes the stored contents of all records of a dataset.
+   *
+   * @param datasetId must not be null
+   * @throws ServiceException if removing the contents fails
+   */
+  void remove(String datasetId);
+}
@@ -0,0 +1,85 @@
+package eu.europeana.metis.sandbox.service.record;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.repository.RecordClaimCheckJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stores the claim checked record contents in the database.
+ * <p>
+ * A threshold of zero or less disables claim checks. Failed events and DeBias events always carry their content, so that
+ * every stored content is read by exactly the record log and the next step, and can be removed once the record is closed or
+ * failed.
+ */
+@Service
+class RecordClaimCheckServiceImpl implements RecordClaimCheckService {
+
+  private final RecordClaimCheckJdbcRepository recordClaimCheckJdbcRepository;
+
+  @Value("${sandbox.rabbitmq.claim-check.threshold-bytes:0}")
+  private int claimCheckThreshold;
+
+  public RecordClaimCheckServiceImpl(RecordClaimCheckJdbcRepository recordClaimCheckJdbcRepository) {
+    this.recordClaimCheckJdbcRepository = recordClaimCheckJdbcRepository;
+  }
+
+  @Override
+  public boolean shouldCheckIn(RecordProcessEvent recordProcessEvent) {
+    return claimCheckThreshold > 0
+        && recordProcessEvent.getStatus() != Status.FAIL
+        && recordProcessEvent.getStep() != Step.DEBIAS
+        && recordProcessEvent.getRecord().getContent().length >= claimCheckThreshold;
+  }
+
+  @Override
+  public void checkIn(RecordProcessEvent recordProcessEvent) {
+    requireNonNull(recordProcessEvent, "Event must not be null");
+    final Record recordToStore = recordProcessEvent.getRecord();
+    try {
+      recordClaimCheckJdbcRepository.save(recordToStore.getRecordId(), recordProcessEvent.getStep(),
+          recordToStore.getContent());
+    } catch (RuntimeException e) {
+      throw new ServiceException(format("Error storing content of record: [%s] at step: [%s]. ",
+          recordToStore.getRecordId(), recordProcessEvent.getStep()), e);
+    }
+  }
+
+  @Override
+  public byte[] checkOut(Long recordId, Step step) {
+    final byte[] content;
+    try {
+      content = recordClaimCheckJdbcRepository.findContent(recordId, step);
+    } catch (RuntimeException e) {
+      throw new ServiceException(format("Error getting content of record: [%s] at step: [%s]. ", recordId, step), e);
+    }
+    if (content == null) {
+      throw new ServiceException(format("No content stored for record: [%s] at step: [%s]. ", recordId, step));
+    }
+    return content;
+  }
+
+  @Override
+  public void release(Long recordId) {
+    if (claimCheckThreshold > 0) {
+      recordClaimCheckJdbcRepository.deleteLoggedOfFinishedRecord(recordId);
+    }
+  }
+
+  @Override
+  public void remove(String datasetId) {
+    requireNonNull(datasetId, "Dataset id must not be null");
+    try {
+      recordClaimCheckJdbcRepository.deleteByDatasetId(datasetId);
+    } catch (RuntimeException e) {
+      throw new ServiceException(format("Error removing claim checked contents for dataset id: [%s]. ", datasetId), e);
+    }
+  }
+}
@@ -6,6 +6,7 @@ import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.entity.RecordErrorLogEntity;
 import eu.europeana.metis.sandbox.entity.RecordLogEntity;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -14,7 +15,8 @@ import java.util.Set;
 public interface RecordLogService {
 
   /**
-   * Persist the record event to keep it as a log
+   * Persist the record event to keep it as a log. An event of a record and step that is already logged is skipped, so that
+   * logging the same event again changes nothing.
    *
    * @param recordRecordProcessEvent must not be null
    * @throws NullPointerException if event record is null
@@ -23,6 +25,19 @@ public interface RecordLogService {
    */
   void logRecordEvent(RecordProcessEvent recordRecordProcessEvent);
 
+  /**
+   * Persist the record events in bulk to keep them as logs. Events of a record and step that is already logged are skipped,
+   * so that logging the same events again changes nothing.
+   * <p>
+   * The events are persisted in one transaction. If that fails, the events are split in halves that are persisted
+   * separately, down to single events, so that one failing event does not prevent the others from being logged.
+   *
+   * @param recordProcessEvents must not be null
+   * @return the events that could not be persisted
+   * @throws NullPointerException if the events are null
+   */
+  List<RecordProcessEvent> logRecordEvents(List<RecordProcessEvent> recordProcessEvents);
+
   /**
    * Gets provider record string.
    *
@@ -72,4 +87,11 @@ public interface RecordLogService {
    * @throws ServiceException     if there is an issue removing the dataset
    */
   void remove(String datasetId);
+
+  /**
+   * Remove the record contents that no record log refers to anymore, for example after removing datasets
+   *
+   * @throws ServiceException if there is an issue removing the contents
+   */
+  void removeUnreferencedContents();
 }
@@ -10,11 +10,20 @@ import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.entity.RecordEntity;
 import eu.europeana.metis.sandbox.entity.RecordErrorLogEntity;
 import eu.europeana.metis.sandbox.entity.RecordLogEntity;
+import eu.europeana.metis.sandbox.repository.RecordContentJdbcRepository;
 import eu.europeana.metis.sandbox.repository.RecordErrorLogRepository;
+import eu.europeana.metis.sandbox.repository.RecordLogJdbcRepository;
 import eu.europeana.metis.sandbox.repository.RecordLogRepository;
-import eu.europeana.metis.sandbox.repository.RecordRepository;
-import java.nio.charset.StandardCharsets;
+import eu.europeana.metis.sandbox.service.dataset.DatasetFairShareService;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,27 +31,35 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 class RecordLogServiceImpl implements RecordLogService {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_INSERT_ATTEMPTS = 3;
+
   private final RecordLogRepository recordLogRepository;
+  private final RecordLogJdbcRepository recordLogJdbcRepository;
+  private final RecordContentJdbcRepository recordContentJdbcRepository;
   private final RecordErrorLogRepository recordErrorLogRepository;
-  private final RecordRepository recordRepository;
+  private final DatasetFairShareService datasetFairShareService;
 
   public RecordLogServiceImpl(RecordLogRepository recordLogRepository,
+      RecordLogJdbcRepository recordLogJdbcRepository,
+      RecordContentJdbcRepository recordContentJdbcRepository,
       RecordErrorLogRepository recordErrorLogRepository,
-      RecordRepository recordRepository) {
+      DatasetFairShareService datasetFairShareService) {
     this.recordLogRepository = recordLogRepository;
+    this.recordLogJdbcRepository = recordLogJdbcRepository;
+    this.recordContentJdbcRepository = recordContentJdbcRepository;
     this.recordErrorLogRepository = recordErrorLogRepository;
-    this.recordRepository = recordRepository;
+    this.datasetFairShareService = datasetFairShareService;
   }
 
   @Override
-  @Transactional
   public void logRecordEvent(RecordProcessEvent recordRecordProcessEvent) {
     var recordToLog = recordRecordProcessEvent.getRecord();
     var recordErrors = recordRecordProcessEvent.getRecordErrors();
 
-    RecordEntity recordEntity = recordRepository.getReferenceById(recordToLog.getRecordId());
-    var recordLogEntity = new RecordLogEntity(recordEntity, new String(
-        recordRecordProcessEvent.getRecord().getContent(), StandardCharsets.UTF_8),
+    final RecordEntity recordEntity = new RecordEntity();
+    recordEntity.setId(recordToLog.getRecordId());
+    var recordLogEntity = new RecordLogEntity(recordEntity, recordRecordProcessEvent.getRecord().getContent(),
         recordRecordProcessEvent.getStep(), recordRecordProcessEvent.getStatus());
     var recordErrorLogEntities = recordErrors.stream()
                                              .map(error -> new RecordErrorLogEntity(recordEntity,
@@ -50,13 +67,80 @@ class RecordLogServiceImpl implements RecordLogService {
                                                  error.getMessage(),
                                                  error.getStackTrace()))
                                              .toList();
+    final List<RecordLogEntity> insertedRecordLogEntities;
     try {
-      recordLogRepository.save(recordLogEntity);
-      recordErrorLogRepository.saveAll(recordErrorLogEntities);
+      insertedRecordLogEntities = insertRecordLogs(List.of(recordLogEntity), recordErrorLogEntities);
     } catch (RuntimeException e) {
       throw new ServiceException(
           format("Error saving record log for record: [%s]. ", recordToLog.getProviderId()), e);
     }
+    if (!insertedRecordLogEntities.isEmpty()) {
+      datasetFairShareService.recordLogged(recordRecordProcessEvent);
+    }
+  }
+
+  @Override
+  public List<RecordProcessEvent> logRecordEvents(List<RecordProcessEvent> recordProcessEvents) {
+    requireNonNull(recordProcessEvents, "Events must not be null");
+    final List<RecordProcessEvent> failedEvents = new ArrayList<>();
+    logRecordEvents(recordProcessEvents, failedEvents);
+    return failedEvents;
+  }
+
+  private void logRecordEvents(List<RecordProcessEvent> recordProcessEvents, List<RecordProcessEvent> failedEvents) {
+    if (recordProcessEvents.isEmpty()) {
+      return;
+    }
+    final Map<RecordLogEntity, RecordProcessEvent> eventsByRecordLog = new IdentityHashMap<>();
+    final List<RecordLogEntity> recordLogEntities = new ArrayList<>();
+    final List<RecordErrorLogEntity> recordErrorLogEntities = new ArrayList<>();
+    for (RecordProcessEvent recordProcessEvent : recordProcessEvents) {
+      final RecordEntity recordEntity = new RecordEntity();
+      recordEntity.setId(recordProcessEvent.getRecord().getRecordId());
+      final RecordLogEntity recordLogEntity = new RecordLogEntity(recordEntity, recordProcessEvent.getRecord().getContent(),
+          recordProcessEvent.getStep(), recordProcessEvent.getStatus());
+      eventsByRecordLog.put(recordLogEntity, recordProcessEvent);
+      recordLogEntities.add(recordLogEntity);
+      recordProcessEvent.getRecordErrors().stream()
+                        .map(error -> new RecordErrorLogEntity(recordEntity, recordProcessEvent.getStep(),
+                            recordProcessEvent.getStatus(), error.getMessage(), error.getStackTrace()))
+                        .forEach(recordErrorLogEntities::add);
+    }
+    final List<RecordLogEntity> insertedRecordLogEntities;
+    try {
+      insertedRecordLogEntities = insertRecordLogs(recordLogEntities, recordErrorLogEntities);
+    } catch (RuntimeException e) {
+      if (recordProcessEvents.size() == 1) {
+        LOGGER.error("Error saving record log for record: [{}] at step: [{}]",
+            recordProcessEvents.getFirst().getRecord().getProviderId(), recordProcessEvents.getFirst().getStep(), e);
+        failedEvents.add(recordProcessEvents.getFirst());
+      } else {
+        final int half = recordProcessEvents.size() / 2;
+        logRecordEvents(recordProcessEvents.subList(0, half), failedEvents);
+        logRecordEvents(recordProcessEvents.subList(half, recordProcessEvents.size()), failedEvents);
+      }
+      return;
+    }
+    insertedRecordLogEntities.forEach(
+        recordLogEntity -> datasetFairShareService.recordLogged(eventsByRecordLog.get(recordLogEntity)));
+  }
+
+  /**
+   * Inserts the record logs in a transaction of their own, again if a content they refer to was deleted as unreferenced
+   * meanwhile, as the insert stores it again.
+   */
+  private List<RecordLogEntity> insertRecordLogs(List<RecordLogEntity> recordLogEntities,
+      List<RecordErrorLogEntity> recordErrorLogEntities) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return recordLogJdbcRepository.insertRecordLogs(recordLogEntities, recordErrorLogEntities);
+      } catch (DataAccessException e) {
+        if (attempt >= MAX_INSERT_ATTEMPTS || !RecordContentJdbcRepository.isContentMissing(e)) {
+          throw e;
+        }
+        LOGGER.debug("Record content was removed before the record logs referring to it were inserted, inserting again", e);
+      }
+    }
   }
 
   @Override
@@ -105,4 +189,13 @@ class RecordLogServiceImpl implements RecordLogService {
           format("Error removing records for dataset id: [%s]. ", datasetId), e);
     }
   }
+
+  @Override
+  public void removeUnreferencedContents() {
+    try {
+      recordContentJdbcRepository.deleteUnreferenced();
+    } catch (RuntimeException e) {
+      throw new ServiceException("Error removing unreferenced record contents. ", e);
+    }
+  }
 }
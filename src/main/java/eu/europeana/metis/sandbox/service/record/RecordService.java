@@ -31,6 +31,15 @@ public interface RecordService {
    */
   void setTierResults(Record recordToUpdate, TierResults tierResults);
 
+  /**
+   * Checks if the records of a dataset can be matched with the records of a new harvest by the identifier they were
+   * harvested with, which is not known for the records harvested before it was kept
+   *
+   * @param datasetId The id of the dataset
+   * @return true if every record of the dataset has the identifier it was harvested with
+   */
+  boolean hasHarvestIds(String datasetId);
+
   /**
    * Deletes all records that are associated to a given dataset id
    * @param datasetId The id of the dataset
@@ -84,6 +84,11 @@ public class RecordServiceImpl implements RecordService {
         tierResults.getLicenseType().toString());
   }
 
+  @Override
+  public boolean hasHarvestIds(String datasetId) {
+    return !recordRepository.existsByDatasetIdAndHarvestIdIsNull(datasetId);
+  }
+
   @Override
   @Transactional
   public void remove(String datasetId) {
@@ -37,6 +37,7 @@ public class VacuumService {
         "problem_patterns.dataset_problem_pattern",
         "problem_patterns.execution_point",
         "public.record_log",
+        "public.record_content",
         "public.record_error_log",
         "public.record",
         "public.harvesting_parameter",
@@ -4,34 +4,37 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import eu.europeana.metis.sandbox.common.exception.RecordParsingException;
 import java.io.ByteArrayInputStream;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-import org.springframework.beans.factory.ObjectFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.springframework.stereotype.Service;
-import org.xml.sax.InputSource;
 
+/**
+ * Reads the record id with a streaming parser, that stops at the first edm:ProvidedCHO with an rdf:about and builds no tree.
+ * <p>
+ * The result is the same as the string value of the XPath
+ * {@code //*[namespace-uri()='http://www.europeana.eu/schemas/edm/' and local-name()='ProvidedCHO']/@*[namespace-uri()='http://www.w3.org/1999/02/22-rdf-syntax-ns#' and local-name()='about']},
+ * which is the first such attribute in document order. Unlike evaluating that XPath, the content after the attribute is not
+ * read, so it is not checked to be well-formed. DTDs are not processed.
+ */
 @Service
 class XmlRecordProcessorServiceImpl implements XmlRecordProcessorService {
 
-  private static final String RECORD_ID_EXPRESSION = "//*[namespace-uri()=\"http://www.europeana.eu/schemas/edm/\" and local-name()='ProvidedCHO']/@*[namespace-uri()=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" and local-name()='about']";
+  private static final String EDM_NAMESPACE = "http://www.europeana.eu/schemas/edm/";
+  private static final String RDF_NAMESPACE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+  private static final String PROVIDED_CHO = "ProvidedCHO";
+  private static final String ABOUT = "about";
 
-  private final ObjectFactory<XPathFactory> objectFactory;
-
-  public XmlRecordProcessorServiceImpl(
-      ObjectFactory<XPathFactory> objectFactory) {
-    this.objectFactory = objectFactory;
-  }
+  // Configured once, creating readers is thread safe
+  private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
 
   @Override
   public String getProviderId(byte[] recordContent) {
-    var xpathFactory = getXPathFactory();
-    var xpath = xpathFactory.newXPath();
-    var source = new InputSource(new ByteArrayInputStream(recordContent));
-    String recordId;
-
+    final String recordId;
     try {
-      recordId = xpath.evaluate(RECORD_ID_EXPRESSION, source);
-    } catch (XPathExpressionException e) {
+      recordId = readProviderId(recordContent);
+    } catch (XMLStreamException e) {
       throw new RecordParsingException(e);
     }
 
@@ -42,7 +45,29 @@ class XmlRecordProcessorServiceImpl implements XmlRecordProcessorService {
     return recordId;
   }
 
-  private XPathFactory getXPathFactory() {
-    return objectFactory.getObject();
+  private static String readProviderId(byte[] recordContent) throws XMLStreamException {
+    final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(recordContent));
+    try {
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT && PROVIDED_CHO.equals(reader.getLocalName())
+            && EDM_NAMESPACE.equals(reader.getNamespaceURI())) {
+          final String about = reader.getAttributeValue(RDF_NAMESPACE, ABOUT);
+          if (about != null) {
+            return about;
+          }
+        }
+      }
+      return null;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+    xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return xmlInputFactory;
   }
 }
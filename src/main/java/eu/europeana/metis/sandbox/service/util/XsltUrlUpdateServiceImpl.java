@@ -2,6 +2,7 @@ package eu.europeana.metis.sandbox.service.util;
 
 import eu.europeana.metis.sandbox.entity.TransformXsltEntity;
 import eu.europeana.metis.sandbox.repository.TransformXsltRepository;
+import eu.europeana.metis.sandbox.service.workflow.TransformationService;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -26,11 +27,15 @@ public class XsltUrlUpdateServiceImpl implements XsltUrlUpdateService {
 
   private final HttpClient httpClient;
 
+  private final TransformationService transformationService;
+
   public XsltUrlUpdateServiceImpl(
-      TransformXsltRepository transformXsltRepository, LockRegistry lockRegistry, HttpClient httpClient) {
+      TransformXsltRepository transformXsltRepository, LockRegistry lockRegistry, HttpClient httpClient,
+      TransformationService transformationService) {
     this.transformXsltRepository = transformXsltRepository;
     this.lockRegistry = lockRegistry;
     this.httpClient = httpClient;
+    this.transformationService = transformationService;
   }
 
   @Override
@@ -74,6 +79,8 @@ public class XsltUrlUpdateServiceImpl implements XsltUrlUpdateService {
       } else {
         transformXsltRepository.save(new TransformXsltEntity(newTransformXslt));
       }
+      // Other nodes notice the new version when they check the default xslt for changes
+      transformationService.refreshDefaultXslt();
     } catch (RuntimeException e) {
       LOGGER.error("Failed to persist default transform XSLT from URL: {} \n{}", newTransformXslt, e);
     } finally {
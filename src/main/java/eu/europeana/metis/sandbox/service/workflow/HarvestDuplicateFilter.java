@@ -0,0 +1,50 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Detects records of a single harvest whose content is byte-identical to a record harvested before.
+ * <p>
+ * Only a 128-bit digest of the content of each record is kept, and at most {@code capacity} digests, which keeps the memory
+ * used by a harvest bounded by the maximum number of records of a dataset. Records beyond the capacity are never reported as
+ * duplicates.
+ */
+class HarvestDuplicateFilter {
+
+  private static final HashFunction CONTENT_HASH = Hashing.murmur3_128();
+
+  private final int capacity;
+  private final Set<HashCode> contentHashes = new HashSet<>();
+
+  /**
+   * Constructor
+   *
+   * @param capacity the maximum number of content digests to keep
+   */
+  HarvestDuplicateFilter(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Checks whether the content was seen before in this harvest, and remembers it otherwise.
+   *
+   * @param content the content of the record
+   * @return true if the same content was seen before
+   */
+  boolean isDuplicate(byte[] content) {
+    final HashCode contentHash = CONTENT_HASH.hashBytes(content);
+    synchronized (contentHashes) {
+      if (contentHashes.contains(contentHash)) {
+        return true;
+      }
+      if (contentHashes.size() < capacity) {
+        contentHashes.add(contentHash);
+      }
+      return false;
+    }
+  }
+}
@@ -3,9 +3,11 @@ package eu.europeana.metis.sandbox.service.workflow;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.domain.DatasetMetadata;
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
 import eu.europeana.metis.utils.CompressedFileExtension;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 public interface HarvestPublishService {
@@ -43,4 +45,31 @@ public interface HarvestPublishService {
      * @return {@link CompletableFuture} of the process
      */
     CompletableFuture<Void> runHarvestOaiPmhAsync(DatasetMetadata datasetMetadata, OaiHarvestData oaiHarvestData);
+
+    /**
+     * Async incremental OAI-PMH harvest against a baseline dataset. Only the records that changed since the baseline dataset
+     * was created are harvested and sent to the 'harvestOai' queue, the processed records of the baseline dataset that did not
+     * change are copied
+     *
+     * @param datasetMetadata              the object that encapsulates all data related to the dataset
+     * @param baselineHarvestingParameters the harvesting parameters of the baseline dataset
+     * @return {@link CompletableFuture} of the process
+     */
+    CompletableFuture<Void> runIncrementalHarvestOaiPmhAsync(DatasetMetadata datasetMetadata,
+        HarvestingParameterEntity baselineHarvestingParameters);
+
+    /**
+     * Async resume of an interrupted OAI-PMH harvest from its last checkpoint
+     *
+     * @param harvestingParameterEntity the harvesting parameters, including the checkpoint, of the interrupted harvest
+     * @return {@link CompletableFuture} of the process
+     */
+    CompletableFuture<Void> resumeHarvestOaiPmhAsync(HarvestingParameterEntity harvestingParameterEntity);
+
+    /**
+     * Gets the datasets of which an OAI-PMH harvest is running, or waiting to run, on this node
+     *
+     * @return the ids of the datasets
+     */
+    Set<String> getRunningHarvests();
 }
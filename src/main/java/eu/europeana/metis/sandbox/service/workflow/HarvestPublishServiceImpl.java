@@ -4,10 +4,13 @@ import eu.europeana.metis.harvesting.HarvesterException;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.domain.DatasetMetadata;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.dto.FileHarvestingDto;
 import eu.europeana.metis.sandbox.dto.HttpHarvestingDto;
 import eu.europeana.metis.sandbox.dto.OAIPmhHarvestingDto;
+import eu.europeana.metis.sandbox.entity.DatasetEntity;
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
 import eu.europeana.metis.sandbox.service.dataset.HarvestingParameterService;
 import eu.europeana.metis.utils.CompressedFileExtension;
 import java.io.IOException;
@@ -16,7 +19,11 @@ import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +46,7 @@ public class HarvestPublishServiceImpl implements HarvestPublishService {
   private final HarvestService harvestService;
   private final Executor asyncServiceTaskExecutor;
   private final HarvestingParameterService harvestingParameterService;
+  private final Set<String> runningHarvests = ConcurrentHashMap.newKeySet();
 
   /**
    * Constructor for HarvestPublishServiceImpl.
@@ -116,9 +124,78 @@ public class HarvestPublishServiceImpl implements HarvestPublishService {
     harvestingParameterService.createDatasetHarvestingParameters(datasetMetadata.getDatasetId(),
         new OAIPmhHarvestingDto(oaiHarvestData.getUrl(), oaiHarvestData.getSetspec(),
             oaiHarvestData.getMetadataformat()));
-    return CompletableFuture.runAsync(
-        () -> harvestService.harvestFromOaiPmh(datasetMetadata.getDatasetId(), recordDataEncapsulated, oaiHarvestData,
-            datasetMetadata.getStepSize()), asyncServiceTaskExecutor);
+    harvestingParameterService.startHarvest(datasetMetadata.getDatasetId(), datasetMetadata.getStepSize());
+    return runHarvestOaiPmhAsync(datasetMetadata.getDatasetId(), recordDataEncapsulated, oaiHarvestData,
+        datasetMetadata.getStepSize(), null);
+  }
+
+  @Override
+  public CompletableFuture<Void> runIncrementalHarvestOaiPmhAsync(DatasetMetadata datasetMetadata,
+      HarvestingParameterEntity baselineHarvestingParameters) {
+    final String datasetId = datasetMetadata.getDatasetId();
+    final DatasetEntity baselineDataset = baselineHarvestingParameters.getDatasetId();
+    final Record.RecordBuilder recordDataEncapsulated = Record.builder()
+                                                              .country(datasetMetadata.getCountry())
+                                                              .language(datasetMetadata.getLanguage())
+                                                              .datasetName(datasetMetadata.getDatasetName())
+                                                              .datasetId(datasetId);
+    harvestingParameterService.createDatasetHarvestingParameters(datasetId,
+        new OAIPmhHarvestingDto(baselineHarvestingParameters.getUrl(), baselineHarvestingParameters.getSetSpec(),
+            baselineHarvestingParameters.getMetadataFormat()));
+    // Not all endpoints support datestamps with time granularity, so the harvest starts at the day of the baseline.
+    final OaiHarvestData oaiHarvestData = new OaiHarvestData(baselineHarvestingParameters.getUrl(),
+        baselineHarvestingParameters.getSetSpec(), baselineHarvestingParameters.getMetadataFormat(), "",
+        baselineDataset.getCreatedDate().toInstant().truncatedTo(ChronoUnit.DAYS));
+    // The harvest is not checkpointed: resuming it would lose the records deleted since the baseline.
+    return CompletableFuture.runAsync(() -> harvestService.harvestFromOaiPmhIncrementally(datasetId,
+        recordDataEncapsulated, oaiHarvestData, String.valueOf(baselineDataset.getDatasetId())), asyncServiceTaskExecutor);
+  }
+
+  @Override
+  public CompletableFuture<Void> resumeHarvestOaiPmhAsync(HarvestingParameterEntity harvestingParameterEntity) {
+    final DatasetEntity datasetEntity = harvestingParameterEntity.getDatasetId();
+    final String datasetId = String.valueOf(datasetEntity.getDatasetId());
+    final Record.RecordBuilder recordDataEncapsulated = Record.builder()
+                                                              .country(datasetEntity.getCountry())
+                                                              .language(datasetEntity.getLanguage())
+                                                              .datasetName(datasetEntity.getDatasetName())
+                                                              .datasetId(datasetId);
+    final OaiHarvestData oaiHarvestData = new OaiHarvestData(harvestingParameterEntity.getUrl(),
+        harvestingParameterEntity.getSetSpec(), harvestingParameterEntity.getMetadataFormat(), null);
+    final Integer stepSize = harvestingParameterEntity.getStepSize();
+    // Without a checkpoint the harvest starts over, records written by the interrupted harvest are published again.
+    final HarvestCheckpoint resumeFrom = harvestingParameterEntity.getCheckpointPosition() == null
+        ? new HarvestCheckpoint(0, 0, (stepSize == null ? 1 : stepSize) - 1, 0)
+        : new HarvestCheckpoint(harvestingParameterEntity.getCheckpointPosition(),
+            harvestingParameterEntity.getCheckpointSelectedRecords(),
+            harvestingParameterEntity.getCheckpointNextPosition(),
+            harvestingParameterEntity.getCheckpointAdmittedRecords());
+    return runHarvestOaiPmhAsync(datasetId, recordDataEncapsulated, oaiHarvestData, stepSize, resumeFrom);
+  }
+
+  @Override
+  public Set<String> getRunningHarvests() {
+    return Collections.unmodifiableSet(runningHarvests);
+  }
+
+  private CompletableFuture<Void> runHarvestOaiPmhAsync(String datasetId, Record.RecordBuilder recordDataEncapsulated,
+      OaiHarvestData oaiHarvestData, Integer stepSize, HarvestCheckpoint resumeFrom) {
+    // Registered before it is queued, so that the harvest is kept alive while it waits for a thread.
+    runningHarvests.add(datasetId);
+    try {
+      return CompletableFuture.runAsync(() -> {
+        try {
+          harvestService.harvestFromOaiPmh(datasetId, recordDataEncapsulated, oaiHarvestData, stepSize, resumeFrom,
+              checkpoint -> harvestingParameterService.saveHarvestCheckpoint(datasetId, checkpoint));
+        } finally {
+          harvestingParameterService.completeHarvest(datasetId);
+          runningHarvests.remove(datasetId);
+        }
+      }, asyncServiceTaskExecutor);
+    } catch (RuntimeException e) {
+      runningHarvests.remove(datasetId);
+      throw e;
+    }
   }
 }
 
@@ -0,0 +1,105 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded window of in-flight record publications for a single harvest.
+ * <p>
+ * Harvested records are handed over to the publisher as soon as they are available. At most {@code windowSize} records are
+ * waiting to be published at any time, the harvesting thread blocks when the window is full. This keeps the memory used by a
+ * harvest independent of the size of the dataset.
+ */
+class HarvestPublishWindow implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final Executor executor;
+  private final Consumer<RecordInfo> publisher;
+  private final Semaphore permits;
+  private final int windowSize;
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+  /**
+   * Constructor
+   *
+   * @param executor the executor that performs the publications
+   * @param publisher the action that publishes a single record
+   * @param windowSize the maximum number of records in flight
+   */
+  HarvestPublishWindow(Executor executor, Consumer<RecordInfo> publisher, int windowSize) {
+    this.executor = executor;
+    this.publisher = publisher;
+    this.windowSize = Math.max(1, windowSize);
+    this.permits = new Semaphore(this.windowSize);
+  }
+
+  /**
+   * Submit a record for publication, blocks while the window is full.
+   *
+   * @param recordInfo the record to publish
+   */
+  void publish(RecordInfo recordInfo) {
+    acquire(1);
+    try {
+      executor.execute(() -> {
+        try {
+          publisher.accept(recordInfo);
+        } catch (RuntimeException e) {
+          LOGGER.error("Error publishing harvested record: {}", recordInfo.getRecordValue().getRecordId(), e);
+          failure.compareAndSet(null, e);
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Throws if any of the publications of this window failed
+   *
+   * @param exceptionMessage the message of the exception to throw
+   * @throws ServiceException wrapping the first failure encountered
+   */
+  void verifyPublished(String exceptionMessage) {
+    final RuntimeException firstFailure = failure.get();
+    if (firstFailure != null) {
+      throw new ServiceException(exceptionMessage, firstFailure);
+    }
+  }
+
+  /**
+   * Waits for all in-flight publications to complete. The window can still be used afterwards.
+   */
+  void awaitPublished() {
+    acquire(windowSize);
+    permits.release(windowSize);
+  }
+
+  /**
+   * Waits for all in-flight publications to complete.
+   */
+  @Override
+  public void close() {
+    awaitPublished();
+  }
+
+  private void acquire(int numberOfPermits) {
+    try {
+      permits.acquire(numberOfPermits);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException("Interrupted while publishing harvested records", e);
+    }
+  }
+}
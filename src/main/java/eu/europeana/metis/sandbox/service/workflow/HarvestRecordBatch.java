@@ -0,0 +1,163 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import eu.europeana.metis.sandbox.entity.RecordEntity;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects harvested records of a single harvest and writes their record rows in bulk.
+ * <p>
+ * Records are handed over to the ingested handler, with their final record id, once the batch they belong to is written.
+ * Records that could not be written are handed over to the failure handler. A record that already exists in the dataset is
+ * handed over to the ingested handler with its existing record id if the existing record resolver knows it, which is used to
+ * resume an interrupted harvest. If a duplicate filter is set, records with the content of a record added before are handed
+ * over to the duplicate handler and not written.
+ */
+class HarvestRecordBatch implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final RecordJdbcRepository recordJdbcRepository;
+  private final String datasetId;
+  private final int batchSize;
+  private final IngestedRecordHandler ingestedHandler;
+  private final BiConsumer<String, RuntimeException> failureHandler;
+  private final Function<String, Long> existingRecordResolver;
+  private final List<HarvestedRecord> pendingRecords = new ArrayList<>();
+  private HarvestDuplicateFilter duplicateFilter;
+  private Consumer<String> duplicateHandler;
+
+  /**
+   * Constructor
+   *
+   * @param recordJdbcRepository the repository that writes the record rows
+   * @param datasetId the dataset the records belong to
+   * @param batchSize the number of records written at once
+   * @param ingestedHandler handles a record once it is written
+   * @param failureHandler handles the provider id of a record that could not be written or handled
+   */
+  HarvestRecordBatch(RecordJdbcRepository recordJdbcRepository, String datasetId, int batchSize,
+      IngestedRecordHandler ingestedHandler, BiConsumer<String, RuntimeException> failureHandler) {
+    this(recordJdbcRepository, datasetId, batchSize, ingestedHandler, failureHandler, providerId -> null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param recordJdbcRepository the repository that writes the record rows
+   * @param datasetId the dataset the records belong to
+   * @param batchSize the number of records written at once
+   * @param ingestedHandler handles a record once it is written
+   * @param failureHandler handles the provider id of a record that could not be written or handled
+   * @param existingRecordResolver gets the record id of an already existing record by provider id, null if unknown
+   */
+  HarvestRecordBatch(RecordJdbcRepository recordJdbcRepository, String datasetId, int batchSize,
+      IngestedRecordHandler ingestedHandler, BiConsumer<String, RuntimeException> failureHandler,
+      Function<String, Long> existingRecordResolver) {
+    this.existingRecordResolver = existingRecordResolver;
+    this.recordJdbcRepository = recordJdbcRepository;
+    this.datasetId = datasetId;
+    this.batchSize = Math.max(1, batchSize);
+    this.ingestedHandler = ingestedHandler;
+    this.failureHandler = failureHandler;
+  }
+
+  /**
+   * Sets the filter that detects records with duplicate content.
+   *
+   * @param duplicateFilter the duplicate filter
+   * @param duplicateHandler handles the provider id of a record with duplicate content
+   * @return this batch
+   */
+  synchronized HarvestRecordBatch filterDuplicates(HarvestDuplicateFilter duplicateFilter,
+      Consumer<String> duplicateHandler) {
+    this.duplicateFilter = duplicateFilter;
+    this.duplicateHandler = duplicateHandler;
+    return this;
+  }
+
+  /**
+   * Adds a harvested record, writes the batch when it is full.
+   *
+   * @param providerId the provider id of the record
+   * @param content the content of the record
+   */
+  synchronized void add(String providerId, byte[] content) {
+    if (duplicateFilter != null && duplicateFilter.isDuplicate(content)) {
+      duplicateHandler.accept(providerId);
+      return;
+    }
+    pendingRecords.add(new HarvestedRecord(providerId, content));
+    if (pendingRecords.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the pending records.
+   */
+  synchronized void flush() {
+    if (pendingRecords.isEmpty()) {
+      return;
+    }
+    final List<HarvestedRecord> batch = List.copyOf(pendingRecords);
+    pendingRecords.clear();
+
+    final List<RecordEntity> recordEntities = batch.stream()
+                                                   .map(harvestedRecord -> new RecordEntity(harvestedRecord.providerId(), datasetId))
+                                                   .toList();
+    final Set<Long> insertedIds;
+    try {
+      insertedIds = recordJdbcRepository.insertRecords(recordEntities);
+    } catch (RuntimeException e) {
+      LOGGER.error("Error writing {} harvested records of dataset {}", batch.size(), datasetId, e);
+      batch.forEach(harvestedRecord -> failureHandler.accept(harvestedRecord.providerId(), e));
+      return;
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      final HarvestedRecord harvestedRecord = batch.get(i);
+      final Long reservedId = recordEntities.get(i).getId();
+      try {
+        final Long recordId = insertedIds.contains(reservedId) ? reservedId
+            : existingRecordResolver.apply(harvestedRecord.providerId());
+        if (recordId == null) {
+          throw new IllegalStateException(
+              "Record " + harvestedRecord.providerId() + " already exists in dataset " + datasetId);
+        }
+        ingestedHandler.handle(recordId, harvestedRecord.providerId(), harvestedRecord.content());
+      } catch (RuntimeException e) {
+        failureHandler.accept(harvestedRecord.providerId(), e);
+      }
+    }
+  }
+
+  /**
+   * Writes the remaining pending records.
+   */
+  @Override
+  public void close() {
+    flush();
+  }
+
+  /**
+   * Handles a record whose row is written.
+   */
+  @FunctionalInterface
+  interface IngestedRecordHandler {
+
+    void handle(Long recordId, String providerId, byte[] content);
+  }
+
+  private record HarvestedRecord(String providerId, byte[] content) {
+
+  }
+}
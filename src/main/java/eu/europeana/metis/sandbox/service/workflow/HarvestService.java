@@ -2,10 +2,12 @@ package eu.europeana.metis.sandbox.service.workflow;
 
 import eu.europeana.metis.harvesting.HarvesterException;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.utils.CompressedFileExtension;
 
 import java.io.InputStream;
+import java.util.function.Consumer;
 
 
 public interface HarvestService {
@@ -21,6 +23,35 @@ public interface HarvestService {
     void harvestFromOaiPmh(String datasetId, Record.RecordBuilder recordDataEncapsulated,
         OaiHarvestData oaiHarvestData, Integer stepSize);
 
+    /**
+     * Harvest the given OAI endpoint with the given datasetId, data for the records and OAI-PMH data, continuing from the
+     * given checkpoint and reporting the progress of the harvest regularly
+     *
+     * @param datasetId              The id of the dataset to be harvested
+     * @param recordDataEncapsulated The encapsulation of data to be used to harvest each record
+     * @param oaiHarvestData         The object that encapsulate the necessary data for harvesting
+     * @param stepSize               The step size to apply in the record selection
+     * @param resumeFrom             The checkpoint of an interrupted harvest to continue from, or null to start from the
+     *                               beginning
+     * @param checkpointHandler      Receives the progress of the harvest, all records selected before a checkpoint are stored
+     *                               and published when it is received
+     */
+    void harvestFromOaiPmh(String datasetId, Record.RecordBuilder recordDataEncapsulated,
+        OaiHarvestData oaiHarvestData, Integer stepSize, HarvestCheckpoint resumeFrom,
+        Consumer<HarvestCheckpoint> checkpointHandler);
+
+    /**
+     * Harvest the records of the given OAI endpoint that changed since the date given in the OAI-PMH data, and copy the
+     * processed records of a baseline dataset harvested from the same endpoint that did not change
+     *
+     * @param datasetId              The id of the dataset to be harvested
+     * @param recordDataEncapsulated The encapsulation of data to be used to harvest each record
+     * @param oaiHarvestData         The object that encapsulate the necessary data for harvesting
+     * @param baselineDatasetId      The id of the dataset to copy the records that did not change from
+     */
+    void harvestFromOaiPmhIncrementally(String datasetId, Record.RecordBuilder recordDataEncapsulated,
+        OaiHarvestData oaiHarvestData, String baselineDatasetId);
+
     /**
      * Harvest the input stream {@link InputStream} with the given datasetId and data of the records
      *
@@ -9,12 +9,12 @@ import eu.europeana.metis.harvesting.oaipmh.OaiHarvest;
 import eu.europeana.metis.harvesting.oaipmh.OaiHarvester;
 import eu.europeana.metis.harvesting.oaipmh.OaiRecord;
 import eu.europeana.metis.harvesting.oaipmh.OaiRecordHeader;
-import eu.europeana.metis.harvesting.oaipmh.OaiRepository;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.exception.StepIsTooBigException;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.Record.RecordBuilder;
 import eu.europeana.metis.sandbox.domain.RecordError;
@@ -22,9 +22,14 @@ import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.entity.RecordEntity;
 import eu.europeana.metis.sandbox.entity.RecordErrorLogEntity;
 import eu.europeana.metis.sandbox.entity.RecordLogEntity;
+import eu.europeana.metis.sandbox.repository.RecordContentJdbcRepository;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository.CopiedRecords;
 import eu.europeana.metis.sandbox.repository.RecordRepository;
+import eu.europeana.metis.sandbox.service.dataset.DatasetFairShareService;
 import eu.europeana.metis.sandbox.service.dataset.DatasetService;
 import eu.europeana.metis.sandbox.service.dataset.RecordPublishService;
+import eu.europeana.metis.sandbox.service.workflow.OaiRecordFetcher.FetchSession;
 import eu.europeana.metis.utils.CompressedFileExtension;
 import jakarta.validation.constraints.NotNull;
 import java.io.IOException;
@@ -32,12 +37,17 @@ import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import org.apache.commons.io.IOUtils;
@@ -46,7 +56,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -54,115 +66,233 @@ public class HarvestServiceImpl implements HarvestService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private static final int DEFAULT_STEP_SIZE = 1;
+  private static final long CHECKPOINT_PERIOD_NANOS = Duration.ofMinutes(1).toNanos();
+  private static final int MAX_SAVE_ATTEMPTS = 3;
 
   private final HttpHarvester httpHarvester;
   private final OaiHarvester oaiHarvester;
   private final RecordPublishService recordPublishService;
   private final DatasetService datasetService;
+  private final DatasetFairShareService datasetFairShareService;
   private final int maxRecords;
   private final RecordRepository recordRepository;
+  private final RecordJdbcRepository recordJdbcRepository;
+  private final RecordContentJdbcRepository recordContentJdbcRepository;
+  private final int ingestionBatchSize;
+  private final int checkpointInterval;
+  private final OaiRecordFetcher oaiRecordFetcher;
+  private final boolean listRecordsEnabled;
+  private final Executor harvestPublishTaskExecutor;
+  private final int publishWindowSize;
 
   @Autowired
   public HarvestServiceImpl(HttpHarvester httpHarvester,
       OaiHarvester oaiHarvester,
       RecordPublishService recordPublishService,
       DatasetService datasetService,
+      DatasetFairShareService datasetFairShareService,
       @Value("${sandbox.dataset.max-size}") int maxRecords,
-      RecordRepository recordRepository) {
+      RecordRepository recordRepository,
+      RecordJdbcRepository recordJdbcRepository,
+      RecordContentJdbcRepository recordContentJdbcRepository,
+      @Value("${sandbox.dataset.harvest.ingestion.batch-size:100}") int ingestionBatchSize,
+      @Value("${sandbox.dataset.harvest.checkpoint.interval:500}") int checkpointInterval,
+      OaiRecordFetcher oaiRecordFetcher,
+      @Value("${sandbox.dataset.harvest.oai.list-records:true}") boolean listRecordsEnabled,
+      @Qualifier("harvestPublishTaskExecutor") Executor harvestPublishTaskExecutor,
+      @Value("${sandbox.dataset.harvest.publish.window-size:200}") int publishWindowSize) {
     this.httpHarvester = httpHarvester;
     this.recordPublishService = recordPublishService;
     this.datasetService = datasetService;
+    this.datasetFairShareService = datasetFairShareService;
     this.recordRepository = recordRepository;
+    this.recordJdbcRepository = recordJdbcRepository;
+    this.recordContentJdbcRepository = recordContentJdbcRepository;
+    this.ingestionBatchSize = ingestionBatchSize;
+    this.checkpointInterval = Math.max(1, checkpointInterval);
     this.oaiHarvester = oaiHarvester;
     this.maxRecords = maxRecords;
+    this.oaiRecordFetcher = oaiRecordFetcher;
+    this.listRecordsEnabled = listRecordsEnabled;
+    this.harvestPublishTaskExecutor = harvestPublishTaskExecutor;
+    this.publishWindowSize = publishWindowSize;
   }
 
   @Override
-  public void harvestFromOaiPmh(String datasetId, RecordBuilder recordDataEncapsulated, OaiHarvestData oaiHarvestData, Integer stepSize) {
-    publishHarvestedRecords(harvestOaiIdentifiers(datasetId, recordDataEncapsulated, oaiHarvestData, stepSize),
-        datasetId,
-        "Error harvesting OAI-PMH records",
-        Step.HARVEST_OAI_PMH);
+  public void harvestFromOaiPmh(String datasetId, RecordBuilder recordDataEncapsulated,
+      @NotNull OaiHarvestData oaiHarvestData, Integer stepSize) {
+    harvestFromOaiPmh(datasetId, recordDataEncapsulated, oaiHarvestData, stepSize, null, checkpoint -> {
+    });
   }
 
-  private List<RecordInfo> harvestOaiIdentifiers(String datasetId, Record.RecordBuilder recordDataEncapsulated,
-      @NotNull OaiHarvestData oaiHarvestData, Integer stepSize) {
-    List<RecordInfo> recordInfoList = new ArrayList<>();
+  @Override
+  public void harvestFromOaiPmh(String datasetId, RecordBuilder recordDataEncapsulated,
+      @NotNull OaiHarvestData oaiHarvestData, Integer stepSize, HarvestCheckpoint resumeFrom,
+      Consumer<HarvestCheckpoint> checkpointHandler) {
+    if (resumeFrom != null) {
+      LOGGER.info("Resuming harvest of dataset {} from {}", datasetId, resumeFrom);
+    }
+    // A resumed harvest lists again the record headers before the checkpoint only, and not the complete records.
+    if (resumeFrom != null || !listRecordsEnabled || !harvestOaiListRecords(datasetId, recordDataEncapsulated,
+        oaiHarvestData, stepSize, resumeFrom, checkpointHandler, deletedProviderId -> {
+        })) {
+      harvestOaiIdentifiers(datasetId, recordDataEncapsulated, oaiHarvestData, stepSize, resumeFrom, checkpointHandler,
+          deletedProviderId -> {
+          });
+    }
+    // Only now all records are written, so the duplicates among them have released their admission.
+    datasetService.updateNumberOfTotalRecordToAdmitted(datasetId);
+  }
+
+  @Override
+  public void harvestFromOaiPmhIncrementally(String datasetId, RecordBuilder recordDataEncapsulated,
+      @NotNull OaiHarvestData oaiHarvestData, String baselineDatasetId) {
+    LOGGER.info("Harvesting dataset {} incrementally from {} against dataset {}", datasetId, oaiHarvestData.getFrom(),
+        baselineDatasetId);
+    // Records deleted since the baseline was harvested are not copied from it.
+    final Set<String> deletedProviderIds = ConcurrentHashMap.newKeySet();
+    if (!listRecordsEnabled || !harvestOaiListRecords(datasetId, recordDataEncapsulated, oaiHarvestData, null, null,
+        checkpoint -> {
+        }, deletedProviderIds::add)) {
+      harvestOaiIdentifiers(datasetId, recordDataEncapsulated, oaiHarvestData, null, null, checkpoint -> {
+      }, deletedProviderIds::add);
+    }
+    copyUnchangedRecords(datasetId, baselineDatasetId, deletedProviderIds);
+  }
+
+  /**
+   * Copies the processed records of the baseline dataset that were not harvested again into the dataset, as far as the
+   * dataset can hold them.
+   */
+  private void copyUnchangedRecords(String datasetId, String baselineDatasetId, Set<String> deletedProviderIds) {
+    final long admittedRecords = datasetService.getAdmittedRecords(datasetId);
+    final CopiedRecords copiedRecords = recordJdbcRepository.copyProcessedRecords(baselineDatasetId, datasetId,
+        deletedProviderIds, Math.max(0, maxRecords - admittedRecords));
+    LOGGER.info("Copied {} unchanged records from dataset {} to dataset {}", copiedRecords.copied(), baselineDatasetId,
+        datasetId);
+    datasetService.resetAdmittedRecords(datasetId, admittedRecords + copiedRecords.copied());
+    if (copiedRecords.available() > copiedRecords.copied()) {
+      markRecordLimitExceeded(datasetId, new AtomicBoolean(false));
+    }
+    datasetService.updateNumberOfTotalRecordToAdmitted(datasetId);
+  }
 
-    try (HarvestingIterator<OaiRecordHeader, OaiRecordHeader> recordHeaderIterator = oaiHarvester.harvestRecordHeaders(
+  /**
+   * Harvests complete records page by page (ListRecords).
+   *
+   * @return false if the endpoint failed before any record was harvested, in which case the harvest can be retried with
+   * {@link #harvestOaiIdentifiers(String, RecordBuilder, OaiHarvestData, Integer, HarvestCheckpoint, Consumer, Consumer)}
+   */
+  private boolean harvestOaiListRecords(String datasetId, RecordBuilder recordDataEncapsulated,
+      OaiHarvestData oaiHarvestData, Integer stepSize, HarvestCheckpoint resumeFrom,
+      Consumer<HarvestCheckpoint> checkpointHandler, Consumer<String> deletedRecordHandler) {
+    final AtomicBoolean recordHarvested = new AtomicBoolean(false);
+    final HarvestPublishWindow publishWindow = createPublishWindow(datasetId, Step.HARVEST_OAI_PMH);
+    final HarvestRecordBatch recordBatch = createRecordBatch(datasetId, recordDataEncapsulated, Step.HARVEST_OAI_PMH,
+        publishWindow, resumeFrom != null);
+    try (publishWindow; recordBatch; HarvestingIterator<OaiRecord, OaiRecordHeader> recordIterator = oaiHarvester.harvestRecords(
         new OaiHarvest(oaiHarvestData.getUrl(),
             oaiHarvestData.getMetadataformat(),
-            oaiHarvestData.getSetspec()))) {
-
-      List<OaiRecordHeader> filteredIterator = harvestOaiHeaders(recordHeaderIterator, datasetId, stepSize);
+            oaiHarvestData.getSetspec(),
+            oaiHarvestData.getFrom(),
+            null))) {
+
+      harvestFromIterator(recordIterator, datasetId, stepSize, oaiRecord -> {
+        recordHarvested.set(true);
+        final String oaiIdentifier = oaiRecord.getHeader().getOaiIdentifier();
+        try {
+          recordBatch.add(oaiIdentifier, oaiRecord.getContent().readAllBytes());
+        } catch (RuntimeException harvestException) {
+          saveErrorWhileHarvesting(datasetId, recordDataEncapsulated, oaiIdentifier,
+              Step.HARVEST_OAI_PMH,
+              harvestException);
+        }
+        return ReportingIteration.IterationResult.CONTINUE;
+      }, oaiRecord -> isDeleted(oaiRecord.getHeader(), deletedRecordHandler), resumeFrom, () -> {
+        recordBatch.flush();
+        publishWindow.awaitPublished();
+      }, checkpointHandler);
 
-      if(filteredIterator.isEmpty()){
-        return Collections.emptyList();
+    } catch (HarvesterException | IOException e) {
+      if (!recordHarvested.get()) {
+        LOGGER.warn("ListRecords harvesting failed for {}, falling back to GetRecord harvesting", oaiHarvestData.getUrl(), e);
+        return false;
       }
+      throw new ServiceException("Error harvesting OAI-PMH records ", e);
+    }
+    publishWindow.verifyPublished("Error harvesting OAI-PMH records");
+    return true;
+  }
 
-      filteredIterator.forEach(recordHeader -> {
-            try {
-              OaiHarvestData completeOaiHarvestData = new OaiHarvestData(oaiHarvestData.getUrl(),
-                  oaiHarvestData.getSetspec(),
-                  oaiHarvestData.getMetadataformat(),
-                  recordHeader.getOaiIdentifier());
-
-              recordInfoList.add(
-                  harvestOaiRecord(datasetId, completeOaiHarvestData, recordDataEncapsulated));
-
-            } catch (RuntimeException harvestException) {
-              saveErrorWhileHarvesting(recordDataEncapsulated, recordHeader.getOaiIdentifier(),
-                      Step.HARVEST_OAI_PMH,
-                  harvestException);
-            }
-          }
-      );
+  /**
+   * Harvests the record headers (ListIdentifiers) and then each selected record separately (GetRecord).
+   */
+  private void harvestOaiIdentifiers(String datasetId, RecordBuilder recordDataEncapsulated,
+      OaiHarvestData oaiHarvestData, Integer stepSize, HarvestCheckpoint resumeFrom,
+      Consumer<HarvestCheckpoint> checkpointHandler, Consumer<String> deletedRecordHandler) {
+    final HarvestPublishWindow publishWindow = createPublishWindow(datasetId, Step.HARVEST_OAI_PMH);
+    final HarvestRecordBatch recordBatch = createRecordBatch(datasetId, recordDataEncapsulated, Step.HARVEST_OAI_PMH,
+        publishWindow, resumeFrom != null);
+    final FetchSession fetchSession = oaiRecordFetcher.openSession(oaiHarvestData.getUrl(),
+        oaiHarvestData.getMetadataformat());
+    try (publishWindow; recordBatch; fetchSession; HarvestingIterator<OaiRecordHeader, OaiRecordHeader> recordHeaderIterator = oaiHarvester.harvestRecordHeaders(
+        new OaiHarvest(oaiHarvestData.getUrl(),
+            oaiHarvestData.getMetadataformat(),
+            oaiHarvestData.getSetspec(),
+            oaiHarvestData.getFrom(),
+            null))) {
+
+      harvestFromIterator(recordHeaderIterator, datasetId, stepSize, recordHeader -> {
+        final String oaiIdentifier = recordHeader.getOaiIdentifier();
+        try {
+          fetchSession.fetch(oaiIdentifier,
+              oaiRecord -> recordBatch.add(oaiIdentifier, oaiRecord.getContent().readAllBytes()),
+              exception -> handleOaiRecordFailure(datasetId, recordDataEncapsulated, oaiIdentifier, exception));
+        } catch (RuntimeException harvestException) {
+          saveErrorWhileHarvesting(datasetId, recordDataEncapsulated, oaiIdentifier,
+              Step.HARVEST_OAI_PMH,
+              harvestException);
+        }
+        return ReportingIteration.IterationResult.CONTINUE;
+      }, recordHeader -> isDeleted(recordHeader, deletedRecordHandler), resumeFrom, () -> {
+        fetchSession.awaitPending();
+        recordBatch.flush();
+        publishWindow.awaitPublished();
+      }, checkpointHandler);
 
     } catch (HarvesterException | IOException e) {
       throw new ServiceException("Error harvesting OAI-PMH records ", e);
     }
-
-    return recordInfoList.stream()
-                         .filter(Objects::nonNull)
-                         .toList();
+    publishWindow.verifyPublished("Error harvesting OAI-PMH records");
   }
 
-  private List<OaiRecordHeader> harvestOaiHeaders(HarvestingIterator<OaiRecordHeader,
-      OaiRecordHeader> iteratorToFilter, String datasetId, Integer stepSize) throws HarvesterException {
-    final List<OaiRecordHeader> result = new ArrayList<>();
-    harvestFromIterator(iteratorToFilter, datasetId, stepSize, entry -> {
-      result.add(entry);
-      return ReportingIteration.IterationResult.CONTINUE;
-    }, OaiRecordHeader::isDeleted);
-    return result;
+  private static boolean isDeleted(OaiRecordHeader recordHeader, Consumer<String> deletedRecordHandler) {
+    if (recordHeader.isDeleted()) {
+      deletedRecordHandler.accept(recordHeader.getOaiIdentifier());
+      return true;
+    }
+    return false;
   }
 
-  private RecordInfo harvestOaiRecord(String datasetId, OaiHarvestData oaiHarvestData, Record.RecordBuilder recordToHarvest) {
-    RecordInfo recordInfo;
-    List<RecordError> recordErrors = new ArrayList<>();
+  private void reportCheckpoint(String datasetId, int position, int selectedRecords, int nextPositionToSelect,
+      Consumer<HarvestCheckpoint> checkpointHandler) {
     try {
-      OaiRepository oaiRepository = new OaiRepository(oaiHarvestData.getUrl(),
-          oaiHarvestData.getMetadataformat());
-      OaiRecord oaiRecord = oaiHarvester.harvestRecord(oaiRepository,
-          oaiHarvestData.getOaiIdentifier());
-      RecordEntity recordEntity = new RecordEntity(oaiHarvestData.getOaiIdentifier(), datasetId);
-      byte[] recordContent = oaiRecord.getContent().readAllBytes();
-
-      recordEntity = recordRepository.save(recordEntity);
-      Record harvestedRecord = recordToHarvest
-              .providerId(oaiHarvestData.getOaiIdentifier())
-              .content(recordContent)
-              .recordId(recordEntity.getId())
-              .build();
-        recordInfo = new RecordInfo(harvestedRecord, recordErrors);
-
-      return recordInfo;
-    } catch (HarvesterException e) {
-      LOGGER.error("Error harvesting OAI-PMH Record Header: {} with exception {}", oaiHarvestData.getOaiIdentifier(), e);
-      saveErrorWhileHarvesting(recordToHarvest, oaiHarvestData.getOaiIdentifier(),
-              Step.HARVEST_OAI_PMH, new RuntimeException(e));
-      return null;
+      // Read once the records before the checkpoint are drained, so that the duplicates among them are not counted.
+      checkpointHandler.accept(new HarvestCheckpoint(position, selectedRecords, nextPositionToSelect,
+          Math.toIntExact(datasetService.getAdmittedRecords(datasetId))));
+    } catch (RuntimeException e) {
+      LOGGER.warn("Could not save checkpoint at position {} of dataset {}", position, datasetId, e);
+    }
+  }
+
+  private void handleOaiRecordFailure(String datasetId, Record.RecordBuilder recordToHarvest, String oaiIdentifier,
+      Exception exception) {
+    if (exception instanceof HarvesterException) {
+      LOGGER.error("Error harvesting OAI-PMH Record Header: {} with exception {}", oaiIdentifier, exception);
     }
+    final RuntimeException harvestException = exception instanceof RuntimeException runtimeException ? runtimeException
+        : new RuntimeException(exception);
+    saveErrorWhileHarvesting(datasetId, recordToHarvest, oaiIdentifier, Step.HARVEST_OAI_PMH, harvestException);
   }
 
   @Override
@@ -171,20 +301,26 @@ public class HarvestServiceImpl implements HarvestService {
       CompressedFileExtension compressedFileExtension) throws ServiceException {
 
     final List<Pair<String, Exception>> exception = new ArrayList<>(1);
-    final List<RecordInfo> recordInfoList = new ArrayList<>();
-    try (final HarvestingIterator<FullRecord, Path> iterator = httpHarvester.createFullRecordHarvestIterator(inputStream,
-        compressedFileExtension)) {
+    final HarvestPublishWindow publishWindow = createPublishWindow(datasetId, Step.HARVEST_FILE);
+    final HarvestRecordBatch recordBatch = createRecordBatch(datasetId, recordDataEncapsulated, Step.HARVEST_FILE,
+        publishWindow, false);
+    try (publishWindow; recordBatch; final HarvestingIterator<FullRecord, Path> iterator = httpHarvester.createFullRecordHarvestIterator(
+        inputStream, compressedFileExtension)) {
 
       harvestFromIterator(iterator, datasetId, stepSize, entry -> {
         try (final InputStream content = entry.getContent()) {
-          recordInfoList.add(harvestRecordFromInputStream(content, datasetId, recordDataEncapsulated,
-              entry.getHarvestingIdentifier()));
+          harvestRecordFromInputStream(datasetId, content, recordDataEncapsulated, entry.getHarvestingIdentifier(),
+              recordBatch);
           return ReportingIteration.IterationResult.CONTINUE;
         } catch (IOException | RuntimeException e) {
           exception.add(new ImmutablePair<>(entry.getHarvestingIdentifier(), e));
           return ReportingIteration.IterationResult.TERMINATE;
         }
-      }, FullRecord::isDeleted);
+      }, FullRecord::isDeleted, null, () -> {
+        recordBatch.flush();
+        publishWindow.awaitPublished();
+      }, checkpoint -> {
+      });
 
       if (!exception.isEmpty()) {
         throw new HarvesterException("Could not process path " + exception.get(0).getKey() + ".",
@@ -193,48 +329,59 @@ public class HarvestServiceImpl implements HarvestService {
     } catch (HarvesterException | IOException e) {
       throw new ServiceException("Error harvesting records ", e);
     }
-
-    final List<RecordInfo> result = recordInfoList.stream().filter(Objects::nonNull).toList();
-    publishHarvestedRecords(result, datasetId, "Error harvesting file records", Step.HARVEST_FILE);
+    publishWindow.verifyPublished("Error harvesting file records");
+    // Only now all records are written, so the duplicates among them have released their admission.
+    datasetService.updateNumberOfTotalRecordToAdmitted(datasetId);
   }
 
-  private RecordInfo harvestRecordFromInputStream(InputStream inputStream, String datasetId,
-      Record.RecordBuilder recordToHarvest, String tmpProviderId) throws ServiceException {
-    RecordInfo recordInfo;
-    RecordEntity recordEntity = new RecordEntity(tmpProviderId, datasetId);
-
+  private void harvestRecordFromInputStream(String datasetId, InputStream inputStream,
+      Record.RecordBuilder recordToHarvest, String tmpProviderId, HarvestRecordBatch recordBatch) {
     try {
-      recordEntity = recordRepository.save(recordEntity);
-      Record harvestedRecord = recordToHarvest
-              .providerId(tmpProviderId)
-              .content(IOUtils.toByteArray(inputStream))
-              .recordId(recordEntity.getId())
-              .build();
-      recordInfo = new RecordInfo(harvestedRecord, new ArrayList<>());
-
-      return recordInfo;
+      recordBatch.add(tmpProviderId, IOUtils.toByteArray(inputStream));
     } catch (RuntimeException | IOException e) {
-      LOGGER.error("Error harvesting file records: {} with exception {}", recordEntity.getId(), e);
-      saveErrorWhileHarvesting(recordToHarvest, tmpProviderId, Step.HARVEST_FILE, new RuntimeException(e));
-      return null;
+      LOGGER.error("Error harvesting file records: {} with exception {}", tmpProviderId, e);
+      saveErrorWhileHarvesting(datasetId, recordToHarvest, tmpProviderId, Step.HARVEST_FILE, new RuntimeException(e));
     }
   }
 
+  /**
+   * Iterates the harvested entries and selects the records to process given the step size.
+   * <p>
+   * When a checkpoint to resume from is given, the entries before its position are skipped, they were handled by the
+   * interrupted harvest. A checkpoint is taken every {@code checkpointInterval} selected records and at least once per
+   * minute, after the records selected before it are drained.
+   * <p>
+   * The total of records of the dataset is not set here, as records selected by the iteration may still be pending.
+   */
   private <T> void harvestFromIterator(HarvestingIterator<T, ?> iterator, String datasetId,
       Integer stepSize, Function<T, ReportingIteration.IterationResult> processor,
-      Predicate<T> isDeleted) throws HarvesterException {
+      Predicate<T> isDeleted, HarvestCheckpoint resumeFrom, Runnable drainPending,
+      Consumer<HarvestCheckpoint> checkpointHandler)
+      throws HarvesterException {
 
     final int numberOfRecordsToStepInto = stepSize == null ? DEFAULT_STEP_SIZE : stepSize;
-    final AtomicInteger numberOfSelectedHeaders = new AtomicInteger();
+    final int resumePosition = resumeFrom == null ? 0 : resumeFrom.getPosition();
+    final AtomicInteger numberOfSelectedHeaders = new AtomicInteger(
+        resumeFrom == null ? 0 : resumeFrom.getSelectedRecords());
     final AtomicInteger currentIndex = new AtomicInteger();
-    final AtomicInteger nextIndexToSelect = new AtomicInteger(numberOfRecordsToStepInto - 1);
+    final AtomicInteger nextIndexToSelect = new AtomicInteger(
+        resumeFrom == null ? numberOfRecordsToStepInto - 1 : resumeFrom.getNextPositionToSelect());
+    final AtomicInteger selectedAtLastCheckpoint = new AtomicInteger(numberOfSelectedHeaders.get());
+    final AtomicLong lastCheckpointTime = new AtomicLong(System.nanoTime());
+    final AtomicBoolean recordLimitReached = new AtomicBoolean(false);
+    final AtomicBoolean recordLimitExceeded = new AtomicBoolean(false);
+    if (resumeFrom != null) {
+      // Slots admitted by the interrupted harvest after its checkpoint are admitted again.
+      datasetService.resetAdmittedRecords(datasetId, resumeFrom.getAdmittedRecords());
+    }
 
     iterator.forEach(entry -> {
-      if (numberOfSelectedHeaders.get() >= maxRecords) {
-        //TODO: MET-4888 This method currently causes no race condition issues. But if harvesting is to ever happen
-        //TODO: through multiple nodes, then a race condition will surface because of the method bellow.
-        datasetService.setRecordLimitExceeded(datasetId);
-        numberOfSelectedHeaders.set(maxRecords);
+      if (currentIndex.get() < resumePosition) {
+        currentIndex.getAndIncrement();
+        return ReportingIteration.IterationResult.CONTINUE;
+      }
+      if (recordLimitReached.get()) {
+        markRecordLimitExceeded(datasetId, recordLimitExceeded);
         return ReportingIteration.IterationResult.TERMINATE;
       }
 
@@ -243,45 +390,104 @@ public class HarvestServiceImpl implements HarvestService {
         if (isDeleted.test(entry)) {
           nextIndexToSelect.getAndIncrement();
         } else {
+          // The admission is shared by all workers harvesting the dataset, possibly on other nodes.
+          final long admittedRecords = datasetService.admitRecord(datasetId, maxRecords);
+          if (admittedRecords == 0) {
+            recordLimitReached.set(true);
+            markRecordLimitExceeded(datasetId, recordLimitExceeded);
+            return ReportingIteration.IterationResult.TERMINATE;
+          }
+          recordLimitReached.set(admittedRecords >= maxRecords);
+          // Waits here, on the thread of this harvest, and not where the record is published, which may be a thread shared
+          // with other datasets. Records not published give their turn back when they are logged as failed or duplicate.
+          datasetFairShareService.awaitTurn(datasetId, drainPending);
           result = processor.apply(entry);
           nextIndexToSelect.addAndGet(numberOfRecordsToStepInto);
           numberOfSelectedHeaders.getAndIncrement();
         }
       }
       currentIndex.getAndIncrement();
+      if (numberOfSelectedHeaders.get() - selectedAtLastCheckpoint.get() >= checkpointInterval
+          || System.nanoTime() - lastCheckpointTime.get() >= CHECKPOINT_PERIOD_NANOS) {
+        drainPending.run();
+        reportCheckpoint(datasetId, currentIndex.get(), numberOfSelectedHeaders.get(), nextIndexToSelect.get(),
+            checkpointHandler);
+        selectedAtLastCheckpoint.set(numberOfSelectedHeaders.get());
+        lastCheckpointTime.set(System.nanoTime());
+      }
       return Optional.ofNullable(result).orElse(ReportingIteration.IterationResult.CONTINUE);
     });
 
-    //TODO: MET-4888 This method currently causes no race condition issues. But if harvesting is to ever happen
-    //TODO: through multiple nodes, then a race condition will surface because of the method bellow.
-    datasetService.updateNumberOfTotalRecord(datasetId, (long) numberOfSelectedHeaders.get());
-
     if (isStepSizeBiggerThanDatasetSize(numberOfSelectedHeaders.get(), currentIndex.get(),
         nextIndexToSelect.get(), numberOfRecordsToStepInto)) {
+      // Nothing was selected, so no records are pending.
+      datasetService.updateNumberOfTotalRecordToAdmitted(datasetId);
       throw new StepIsTooBigException(currentIndex.get());
     }
   }
 
-  private void publishHarvestedRecords(final List<RecordInfo> recordInfoList,
-      final String datasetId,
-      final String exceptionMessage,
-      final Step processStep) throws ServiceException {
-    try {
-      if (datasetService.isXsltPresent(datasetId)) {
-        recordInfoList.parallelStream()
-                      .forEach(recordInfo ->
-                          recordPublishService.publishToTransformationToEdmExternalQueue(recordInfo, processStep));
-      } else {
-        recordInfoList.parallelStream()
-                      .forEach(recordInfo ->
-                          recordPublishService.publishToHarvestQueue(recordInfo, processStep));
-      }
-    } catch (RuntimeException e) {
-      throw new ServiceException(exceptionMessage, e);
+  private void markRecordLimitExceeded(String datasetId, AtomicBoolean recordLimitExceeded) {
+    if (recordLimitExceeded.compareAndSet(false, true) && datasetService.setRecordLimitExceeded(datasetId)) {
+      LOGGER.info("Dataset {} exceeds the limit of {} records", datasetId, maxRecords);
     }
   }
 
-  private void saveErrorWhileHarvesting(RecordBuilder recordDataEncapsulated,
+  private HarvestRecordBatch createRecordBatch(String datasetId, RecordBuilder recordToHarvest, Step processStep,
+      HarvestPublishWindow publishWindow, boolean resuming) {
+    // When resuming, records written after the last checkpoint of the interrupted harvest are published again. They are
+    // found by the identifier they were harvested with, as their provider id may have been replaced since.
+    final Function<String, Long> existingRecordResolver = resuming
+        ? harvestId -> Optional.ofNullable(recordRepository.findByHarvestIdAndDatasetId(harvestId, datasetId))
+                                .map(RecordEntity::getId).orElse(null)
+        : providerId -> null;
+    return new HarvestRecordBatch(recordJdbcRepository, datasetId, ingestionBatchSize,
+        (recordId, providerId, content) -> {
+          final Record harvestedRecord;
+          // The builder is shared by all records of the harvest.
+          synchronized (recordToHarvest) {
+            harvestedRecord = recordToHarvest
+                .providerId(providerId)
+                .content(content)
+                .recordId(recordId)
+                .build();
+          }
+          publishWindow.publish(new RecordInfo(harvestedRecord, new ArrayList<>()));
+        },
+        (providerId, exception) -> saveErrorWhileHarvesting(datasetId, recordToHarvest, providerId, processStep, exception),
+        existingRecordResolver)
+        .filterDuplicates(new HarvestDuplicateFilter(maxRecords),
+            providerId -> saveDuplicateWhileHarvesting(datasetId, recordToHarvest, providerId, processStep));
+  }
+
+  private HarvestPublishWindow createPublishWindow(String datasetId, Step processStep) {
+    final Consumer<RecordInfo> publisher;
+    if (datasetService.isXsltPresent(datasetId)) {
+      publisher = recordInfo -> recordPublishService.publishToTransformationToEdmExternalQueue(recordInfo, processStep);
+    } else {
+      publisher = recordInfo -> recordPublishService.publishToHarvestQueue(recordInfo, processStep);
+    }
+    return new HarvestPublishWindow(harvestPublishTaskExecutor, publisher, publishWindowSize);
+  }
+
+  /**
+   * Logs a record whose content is identical to a record harvested before as a warning. The record is not published, so its
+   * admission is released and it does not count towards the records of the dataset, and it gives its turn back.
+   */
+  private void saveDuplicateWhileHarvesting(String datasetId, RecordBuilder recordDataEncapsulated,
+      String duplicateProviderId, Step step) {
+    LOGGER.warn("Record {} of dataset {} has the same content as a record harvested before", duplicateProviderId,
+        datasetId);
+    datasetService.releaseAdmittedRecord(datasetId);
+    datasetFairShareService.releaseTurn(datasetId);
+    saveLogWhileHarvesting(recordDataEncapsulated, duplicateProviderId, step, Status.WARN,
+        new RecordError("Duplicate record content: " + duplicateProviderId
+            + " has the same content as a record harvested before and is not processed", ""));
+  }
+
+  /**
+   * Logs a record that failed to be harvested. The record is not published, so it gives its turn back.
+   */
+  private void saveErrorWhileHarvesting(String datasetId, RecordBuilder recordDataEncapsulated,
       String providerIdWithError,
       Step step,
       RuntimeException harvest) {
@@ -289,24 +495,60 @@ public class HarvestServiceImpl implements HarvestService {
     final String causeMessage = "Cause: " + findCause(harvest);
     RecordError recordErrorCreated = new RecordError(errorMessage + " " + providerIdWithError + " " + causeMessage,
         causeMessage);
+    datasetFairShareService.releaseTurn(datasetId);
+    saveLogWhileHarvesting(recordDataEncapsulated, providerIdWithError, step, Status.FAIL, recordErrorCreated);
+  }
+
+  private void saveLogWhileHarvesting(RecordBuilder recordDataEncapsulated,
+      String providerIdWithError,
+      Step step,
+      Status status,
+      RecordError recordErrorCreated) {
+    final String errorMessage = "Error while harvesting ";
     try {
-      RecordEntity recordEntity = new RecordEntity(recordDataEncapsulated
-          .providerId(providerIdWithError)
-          .content((errorMessage + providerIdWithError).getBytes(StandardCharsets.UTF_8))
-          .build());
+      final Record recordWithError;
+      synchronized (recordDataEncapsulated) {
+        recordWithError = recordDataEncapsulated
+            .providerId(providerIdWithError)
+            .content((errorMessage + providerIdWithError).getBytes(StandardCharsets.UTF_8))
+            .build();
+      }
+      saveRecordWithLogs(recordWithError, providerIdWithError, step, status, recordErrorCreated);
+    } catch (RuntimeException ex) {
+      LOGGER.error("Unable to handle error log while harvesting.", ex);
+    }
+  }
+
+  /**
+   * Saves the record with its logs, again if its content was deleted as unreferenced meanwhile, as saving it stores the
+   * content again. The entities are created anew for every attempt, as a failed attempt leaves them with ids that were not
+   * committed.
+   */
+  private void saveRecordWithLogs(Record recordWithError, String providerIdWithError, Step step, Status status,
+      RecordError recordErrorCreated) {
+    for (int attempt = 1; ; attempt++) {
+      RecordEntity recordEntity = new RecordEntity(recordWithError);
+      recordEntity.setHarvestId(providerIdWithError);
 
       RecordLogEntity recordLogEntity = new RecordLogEntity(recordEntity,
           providerIdWithError, step,
-          Status.FAIL);
+          status);
+      recordLogEntity.setContentHash(recordContentJdbcRepository.save(recordLogEntity.getContentBytes()));
 
-      RecordErrorLogEntity recordErrorLogEntity = new RecordErrorLogEntity(recordEntity, step, Status.FAIL,
+      RecordErrorLogEntity recordErrorLogEntity = new RecordErrorLogEntity(recordEntity, step, status,
           recordErrorCreated.getMessage(), recordErrorCreated.getStackTrace());
       recordEntity.setRecordLogEntity(List.of(recordLogEntity));
       recordEntity.setRecordErrorLogEntity(List.of(recordErrorLogEntity));
 
-      recordRepository.save(recordEntity);
-    } catch (RuntimeException ex) {
-      LOGGER.error("Unable to handle error log while harvesting.", ex);
+      try {
+        recordRepository.save(recordEntity);
+        return;
+      } catch (DataAccessException e) {
+        if (attempt >= MAX_SAVE_ATTEMPTS || !RecordContentJdbcRepository.isContentMissing(e)) {
+          throw e;
+        }
+        LOGGER.debug("Record content was removed before the record log referring to it was saved, saving again", e);
+      }
     }
   }
 
@@ -0,0 +1,145 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import eu.europeana.metis.harvesting.HarvesterException;
+import eu.europeana.metis.harvesting.oaipmh.OaiHarvester;
+import eu.europeana.metis.harvesting.oaipmh.OaiRecord;
+import eu.europeana.metis.harvesting.oaipmh.OaiRepository;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fetches OAI-PMH records (GetRecord) concurrently.
+ * <p>
+ * The number of concurrent requests is limited per endpoint (the host of the repository url) and the limit is shared by all
+ * harvests that target the same endpoint. The limit of an endpoint is taken from the configured per endpoint limits, or the
+ * default limit if the endpoint is not configured.
+ */
+@Component
+public class OaiRecordFetcher {
+
+  private final OaiHarvester oaiHarvester;
+  private final Executor oaiRecordFetchTaskExecutor;
+  private final int defaultConcurrency;
+  private final Map<String, Integer> endpointConcurrency;
+  private final Map<String, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor
+   *
+   * @param oaiHarvester the OAI-PMH harvester
+   * @param oaiRecordFetchTaskExecutor the executor that performs the requests
+   * @param defaultConcurrency the maximum number of concurrent requests for endpoints that are not configured
+   * @param endpointConcurrency the maximum number of concurrent requests per endpoint host
+   */
+  @Autowired
+  public OaiRecordFetcher(OaiHarvester oaiHarvester,
+      @Qualifier("oaiRecordFetchTaskExecutor") Executor oaiRecordFetchTaskExecutor,
+      @Value("${sandbox.dataset.harvest.oai.concurrency.default:4}") int defaultConcurrency,
+      @Value("#{${sandbox.dataset.harvest.oai.concurrency.per-endpoint:{:}}}") Map<String, Integer> endpointConcurrency) {
+    this.oaiHarvester = oaiHarvester;
+    this.oaiRecordFetchTaskExecutor = oaiRecordFetchTaskExecutor;
+    this.defaultConcurrency = defaultConcurrency;
+    this.endpointConcurrency = Map.copyOf(endpointConcurrency);
+  }
+
+  /**
+   * Opens a fetch session for one harvest. All records of the session are fetched through the same repository.
+   *
+   * @param url the url of the OAI-PMH repository
+   * @param metadataFormat the metadata format to request
+   * @return the fetch session, which needs to be closed to wait for the pending requests
+   */
+  public FetchSession openSession(String url, String metadataFormat) {
+    final String endpoint = getEndpoint(url);
+    final Semaphore permits = endpointPermits.computeIfAbsent(endpoint,
+        key -> new Semaphore(Math.max(1, endpointConcurrency.getOrDefault(key, defaultConcurrency))));
+    return new FetchSession(new OaiRepository(url, metadataFormat), permits);
+  }
+
+  private static String getEndpoint(String url) {
+    try {
+      return Optional.ofNullable(URI.create(url).getHost()).orElse(url);
+    } catch (IllegalArgumentException e) {
+      return url;
+    }
+  }
+
+  /**
+   * The requests of a single harvest.
+   */
+  public class FetchSession implements AutoCloseable {
+
+    private final OaiRepository oaiRepository;
+    private final Semaphore permits;
+    private final Phaser pendingRequests = new Phaser(1);
+
+    private FetchSession(OaiRepository oaiRepository, Semaphore permits) {
+      this.oaiRepository = oaiRepository;
+      this.permits = permits;
+    }
+
+    /**
+     * Submits a GetRecord request, blocks while the endpoint has no capacity left. The handlers are called from the thread
+     * that performs the request.
+     *
+     * @param oaiIdentifier the identifier of the record
+     * @param recordHandler handles the fetched record
+     * @param failureHandler handles a failure to fetch or handle the record
+     */
+    public void fetch(String oaiIdentifier, Consumer<OaiRecord> recordHandler, Consumer<Exception> failureHandler) {
+      acquirePermit();
+      pendingRequests.register();
+      try {
+        oaiRecordFetchTaskExecutor.execute(() -> {
+          try {
+            recordHandler.accept(oaiHarvester.harvestRecord(oaiRepository, oaiIdentifier));
+          } catch (HarvesterException | RuntimeException e) {
+            failureHandler.accept(e);
+          } finally {
+            permits.release();
+            pendingRequests.arriveAndDeregister();
+          }
+        });
+      } catch (RuntimeException e) {
+        permits.release();
+        pendingRequests.arriveAndDeregister();
+        throw e;
+      }
+    }
+
+    /**
+     * Waits for all pending requests of this session to complete. The session can still be used afterwards.
+     */
+    public void awaitPending() {
+      pendingRequests.arriveAndAwaitAdvance();
+    }
+
+    /**
+     * Waits for all pending requests of this session to complete.
+     */
+    @Override
+    public void close() {
+      awaitPending();
+    }
+
+    private void acquirePermit() {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ServiceException("Interrupted while fetching OAI-PMH records", e);
+      }
+    }
+  }
+}
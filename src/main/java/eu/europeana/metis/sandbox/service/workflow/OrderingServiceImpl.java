@@ -4,26 +4,119 @@ import static java.util.Objects.requireNonNull;
 
 import eu.europeana.metis.transformation.service.TransformationException;
 import eu.europeana.metis.transformation.service.XsltTransformer;
-import org.springframework.beans.factory.ObjectFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Ordering service.
+ * <p>
+ * The EDM sorter is downloaded and compiled once, when the service is created, and its transformers are reused by one record
+ * at a time. Every download is kept in a local file, which is used instead if the sorter cannot be downloaded, so that a
+ * restart does not need the network.
+ */
 @Service
 class OrderingServiceImpl implements OrderingService {
 
-  private final ObjectFactory<XsltTransformer> xsltEdmSorter;
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String EDM_SORTER_KEY = "edm_sorter";
+  private static final Duration DOWNLOAD_TIMEOUT = Duration.ofSeconds(30);
 
-  public OrderingServiceImpl(@Qualifier("xsltEdmSorter") ObjectFactory<XsltTransformer> xsltEdmSorter) {
-    this.xsltEdmSorter = xsltEdmSorter;
+  private final XsltTransformerPool edmSorter;
+
+  @Autowired
+  public OrderingServiceImpl(HttpClient httpClient,
+      @Value("${sandbox.validation.edm-sorter-url}") String edmSorterUrl,
+      @Value("${sandbox.validation.edm-sorter-file:${java.io.tmpdir}/metis-sandbox/edm_sorter.xsl}") Path edmSorterFile)
+      throws TransformationException {
+    this(compileEdmSorter(loadEdmSorter(httpClient, edmSorterUrl, edmSorterFile)));
+  }
+
+  OrderingServiceImpl(XsltTransformerPool edmSorter) {
+    this.edmSorter = edmSorter;
   }
 
   @Override
   public byte[] performOrdering(byte[] recordToOrder) throws TransformationException {
     requireNonNull(recordToOrder, "Record must not be null");
-    return getEdmSorter().transformToBytes(recordToOrder, null);
+    return edmSorter.transform(recordToOrder, null);
+  }
+
+  /**
+   * Downloads the EDM sorter and keeps it in the local file, or reads the local file if the download fails.
+   *
+   * @param httpClient the http client
+   * @param edmSorterUrl the url of the EDM sorter
+   * @param edmSorterFile the local file of the EDM sorter
+   * @return the EDM sorter
+   * @throws IllegalStateException if the EDM sorter can neither be downloaded nor read from the local file
+   */
+  static byte[] loadEdmSorter(HttpClient httpClient, String edmSorterUrl, Path edmSorterFile) {
+    final HttpRequest request = HttpRequest.newBuilder()
+                                           .GET()
+                                           .uri(URI.create(edmSorterUrl))
+                                           .timeout(DOWNLOAD_TIMEOUT)
+                                           .build();
+    try {
+      final HttpResponse<byte[]> response = httpClient.send(request, BodyHandlers.ofByteArray());
+      if (response.statusCode() == 200) {
+        saveEdmSorter(edmSorterFile, response.body());
+        return response.body();
+      }
+      LOGGER.warn("Failed to download EDM sorter from URL: {}, response status code: {}", edmSorterUrl,
+          response.statusCode());
+    } catch (IOException e) {
+      LOGGER.warn("Failed to download EDM sorter from URL: {}", edmSorterUrl, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted while downloading EDM sorter from URL: {}", edmSorterUrl);
+    }
+    try {
+      final byte[] edmSorterContent = Files.readAllBytes(edmSorterFile);
+      LOGGER.info("Using the EDM sorter from file: {}", edmSorterFile);
+      return edmSorterContent;
+    } catch (IOException e) {
+      throw new IllegalStateException(String.format("EDM sorter could not be downloaded from %s nor read from %s",
+          edmSorterUrl, edmSorterFile), e);
+    }
+  }
+
+  private static void saveEdmSorter(Path edmSorterFile, byte[] edmSorterContent) {
+    try {
+      final Path directory = edmSorterFile.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      // Written next to the file and then moved, so that the file is never read half written
+      final Path temporaryFile = Files.createTempFile(directory, edmSorterFile.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temporaryFile, edmSorterContent);
+        Files.move(temporaryFile, edmSorterFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to save EDM sorter to file: {}", edmSorterFile, e);
+    }
   }
 
-  private XsltTransformer getEdmSorter() {
-    return xsltEdmSorter.getObject();
+  private static XsltTransformerPool compileEdmSorter(byte[] edmSorterContent) throws TransformationException {
+    final XsltTransformerPool edmSorter = new XsltTransformerPool(
+        () -> new XsltTransformer(EDM_SORTER_KEY, new ByteArrayInputStream(edmSorterContent)));
+    // Compiles the EDM sorter now, so that records never wait for it
+    edmSorter.release(edmSorter.acquire());
+    return edmSorter;
   }
 }
@@ -40,4 +40,16 @@ public interface TransformationService {
    */
 
   RecordInfo transform(Record recordToTransform);
+
+  /**
+   * Evict the compiled xslt of the dataset from the cache, for example when the dataset is removed
+   *
+   * @param datasetId the id of the dataset
+   */
+  void evictDatasetXslt(String datasetId);
+
+  /**
+   * Read the default xslt again if it changed since it was read, for example after a new version was saved
+   */
+  void refreshDefaultXslt();
 }
@@ -2,6 +2,8 @@ package eu.europeana.metis.sandbox.service.workflow;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
@@ -12,27 +14,61 @@ import eu.europeana.metis.transformation.service.EuropeanaIdCreator;
 import eu.europeana.metis.transformation.service.EuropeanaIdException;
 import eu.europeana.metis.transformation.service.TransformationException;
 import eu.europeana.metis.transformation.service.XsltTransformer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * Transformation service.
+ * <p>
+ * The XSLTs of the datasets are compiled once per dataset and kept in a bounded cache, together with transformers that are
+ * reused by one record at a time. The XSLT of a dataset is fixed when the dataset is created, so a cached XSLT is found by
+ * the dataset id alone, without reading the XSLT again. The compiled stylesheet is named after the dataset id and the hash
+ * of the XSLT, so that a different XSLT is never transformed with a stylesheet compiled before.
+ * <p>
+ * The default XSLT is kept in memory, with transformers reused in the same way per dataset, country and language. It is
+ * read again only when its hash in the database changes, which is checked right after this node saves a new version and
+ * every check interval, so that versions saved by other nodes are used as well.
+ */
 @Service
 class TransformationServiceImpl implements TransformationService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private final DatasetRepository datasetRepository;
   private final TransformXsltRepository transformXsltRepository;
+  private final long xsltCacheMaxSize;
+  private final long xsltCacheExpiry;
+  private final Cache<String, XsltTransformerPool> datasetXsltCache;
+  private volatile DefaultXslt defaultXslt;
 
   public TransformationServiceImpl(
-      DatasetRepository datasetRepository, TransformXsltRepository transformXsltRepository) {
+      DatasetRepository datasetRepository, TransformXsltRepository transformXsltRepository,
+      MeterRegistry meterRegistry,
+      @Value("${sandbox.transformation.dataset-xslt-cache.max-size:100}") long xsltCacheMaxSize,
+      @Value("${sandbox.transformation.dataset-xslt-cache.expire-after-access-minutes:60}") long xsltCacheExpiry) {
     this.datasetRepository = datasetRepository;
     this.transformXsltRepository = transformXsltRepository;
+    this.xsltCacheMaxSize = xsltCacheMaxSize;
+    this.xsltCacheExpiry = xsltCacheExpiry;
+    this.datasetXsltCache = newXsltCache();
+    GuavaCacheMetrics.monitor(meterRegistry, datasetXsltCache, "sandbox.transformation.dataset.xslt");
   }
 
   @Override
@@ -41,12 +77,10 @@ class TransformationServiceImpl implements TransformationService {
 
     final byte[] recordTransformed;
     try {
-      final EuropeanaGeneratedIdsMap europeanaGeneratedIdsMap = new EuropeanaIdCreator()
-          .constructEuropeanaId(recordToTransform.getContentInputStream(), recordToTransform.getDatasetId());
-      XsltTransformer transformer = getTransformer(getJoinDatasetIdDatasetName(recordToTransform),
-          recordToTransform.getCountry().xmlValue(), recordToTransform.getLanguage().name().toLowerCase());
-      recordTransformed = transformer
-          .transformToBytes(recordToTransform.getContent(), europeanaGeneratedIdsMap);
+      final EuropeanaGeneratedIdsMap europeanaGeneratedIdsMap = getEuropeanaGeneratedIds(recordToTransform);
+      recordTransformed = getDefaultXsltTransformers(getJoinDatasetIdDatasetName(recordToTransform),
+          recordToTransform.getCountry().xmlValue(), recordToTransform.getLanguage().name().toLowerCase())
+          .transform(recordToTransform.getContent(), europeanaGeneratedIdsMap);
     } catch (TransformationException | EuropeanaIdException e) {
       throw new RecordProcessingException(recordToTransform.getProviderId(), e);
     }
@@ -54,13 +88,38 @@ class TransformationServiceImpl implements TransformationService {
     return new RecordInfo(Record.from(recordToTransform, recordTransformed));
   }
 
+  private static EuropeanaGeneratedIdsMap getEuropeanaGeneratedIds(Record recordToTransform) throws EuropeanaIdException {
+    // The ids are known if the record passed external validation, which extracted them from the same content. Only then
+    // the europeana id is set and matches the provider id, so that the record does not need to be parsed again for them.
+    final String providerId = recordToTransform.getProviderId();
+    final String europeanaId = recordToTransform.getEuropeanaId();
+    if (providerId != null && europeanaId != null
+        && europeanaId.equals(EuropeanaIdCreator.constructEuropeanaIdString(providerId, recordToTransform.getDatasetId()))) {
+      return new EuropeanaGeneratedIdsMap(providerId, europeanaId);
+    }
+    return new EuropeanaIdCreator().constructEuropeanaId(recordToTransform.getContentInputStream(),
+        recordToTransform.getDatasetId());
+  }
+
   @Override
   public RecordInfo transform(Record recordToTransform) {
-    InputStream xsltContent = new ByteArrayInputStream(
-        datasetRepository.getXsltContentFromDatasetId(Integer.parseInt(recordToTransform.getDatasetId()))
-            .getBytes(StandardCharsets.UTF_8));
-    return new RecordInfo(Record.from(recordToTransform, transform(String.valueOf(recordToTransform.getRecordId()), xsltContent,
-        recordToTransform.getContent())));
+    final String identifier = String.valueOf(recordToTransform.getRecordId());
+    final byte[] resultRecord;
+    try {
+      final XsltTransformerPool datasetXslt = datasetXsltCache.get(recordToTransform.getDatasetId(),
+          () -> compileDatasetXslt(recordToTransform.getDatasetId()));
+      resultRecord = datasetXslt.transform(recordToTransform.getContent(), null);
+    } catch (ExecutionException e) {
+      throw new RecordProcessingException(identifier, e.getCause());
+    } catch (TransformationException e) {
+      throw new RecordProcessingException(identifier, e);
+    }
+    return new RecordInfo(Record.from(recordToTransform, resultRecord));
+  }
+
+  @Override
+  public void evictDatasetXslt(String datasetId) {
+    datasetXsltCache.invalidate(datasetId);
   }
 
   @Override
@@ -90,19 +149,55 @@ class TransformationServiceImpl implements TransformationService {
     }
   }
 
-  private XsltTransformer getTransformer(String datasetName, String edmCountry,
-      String edmLanguage) throws TransformationException {
+  @Override
+  @Scheduled(fixedDelayString = "${sandbox.transformation.default-xslt-check-interval-millis:60000}")
+  public void refreshDefaultXslt() {
+    try {
+      final String xsltHash = transformXsltRepository.findFirstTransformXsltHash().orElse(null);
+      final DefaultXslt currentDefaultXslt = defaultXslt;
+      if (currentDefaultXslt != null && !Objects.equals(currentDefaultXslt.xsltHash(), xsltHash)) {
+        loadDefaultXslt();
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Could not check the default xslt for changes", e);
+    }
+  }
 
-    var xsltTransformEntity = transformXsltRepository.findById(1);
-    final String xsltTransform;
-    InputStream xsltInputStream = null;
-    if (xsltTransformEntity.isPresent()) {
-      xsltTransform = xsltTransformEntity.get().getTransformXslt();
-      xsltInputStream = new ByteArrayInputStream(xsltTransform.getBytes(StandardCharsets.UTF_8));
+  private XsltTransformerPool getDefaultXsltTransformers(String datasetName, String edmCountry, String edmLanguage) {
+    DefaultXslt currentDefaultXslt = defaultXslt;
+    if (currentDefaultXslt == null) {
+      synchronized (this) {
+        currentDefaultXslt = defaultXslt == null ? loadDefaultXslt() : defaultXslt;
+      }
     }
+    final DefaultXslt usedDefaultXslt = currentDefaultXslt;
     // First argument is to be used as cacheKey, it can be any string.
     // Check implementation of constructor in metis-transformation-service module
-    return new XsltTransformer("xsltKey", xsltInputStream, datasetName, edmCountry, edmLanguage);
+    return usedDefaultXslt.transformers().asMap().computeIfAbsent(List.of(datasetName, edmCountry, edmLanguage),
+        key -> new XsltTransformerPool(() -> new XsltTransformer(usedDefaultXslt.xsltKey(),
+            usedDefaultXslt.xsltContent() == null ? null : new ByteArrayInputStream(usedDefaultXslt.xsltContent()),
+            datasetName, edmCountry, edmLanguage)));
+  }
+
+  private synchronized DefaultXslt loadDefaultXslt() {
+    final byte[] xsltContent = transformXsltRepository.findFirstByIdIsNotNullOrderByIdAsc()
+                                                      .map(entity -> entity.getTransformXslt()
+                                                                           .getBytes(StandardCharsets.UTF_8))
+                                                      .orElse(null);
+    final String xsltHash = xsltContent == null ? null : hash(xsltContent);
+    final DefaultXslt loadedDefaultXslt = new DefaultXslt(String.join("_", "default", String.valueOf(xsltHash)), xsltHash,
+        xsltContent, newXsltCache());
+    defaultXslt = loadedDefaultXslt;
+    LOGGER.info("Loaded default xslt with hash {}", xsltHash);
+    return loadedDefaultXslt;
+  }
+
+  private <K> Cache<K, XsltTransformerPool> newXsltCache() {
+    return CacheBuilder.newBuilder()
+                       .maximumSize(xsltCacheMaxSize)
+                       .expireAfterAccess(xsltCacheExpiry, TimeUnit.MINUTES)
+                       .recordStats()
+                       .build();
   }
 
   private String getJoinDatasetIdDatasetName(Record recordToTransform) {
@@ -117,4 +212,32 @@ class TransformationServiceImpl implements TransformationService {
       throws TransformationException {
     return new XsltTransformer(identifier, xsltFile);
   }
+
+  private XsltTransformerPool compileDatasetXslt(String datasetId) throws TransformationException {
+    final byte[] xsltContent = datasetRepository.getXsltContentFromDatasetId(Integer.parseInt(datasetId))
+                                                .getBytes(StandardCharsets.UTF_8);
+    final String xsltKey = String.join("_", "dataset", datasetId, hash(xsltContent));
+    final XsltTransformerPool datasetXslt = new XsltTransformerPool(
+        () -> getNewTransformerObject(xsltKey, new ByteArrayInputStream(xsltContent)));
+    // Compiles the XSLT now, so that an invalid XSLT is not cached
+    datasetXslt.release(datasetXslt.acquire());
+    LOGGER.info("Compiled XSLT of dataset {}", datasetId);
+    return datasetXslt;
+  }
+
+  private static String hash(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * A version of the default XSLT, with the transformers of every dataset name, country and language it was used for.
+   */
+  private record DefaultXslt(String xsltKey, String xsltHash, byte[] xsltContent,
+                             Cache<List<String>, XsltTransformerPool> transformers) {
+
+  }
 }
@@ -0,0 +1,60 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import eu.europeana.metis.transformation.service.EuropeanaGeneratedIdsMap;
+import eu.europeana.metis.transformation.service.TransformationException;
+import eu.europeana.metis.transformation.service.XsltTransformer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The transformers of a compiled XSLT that are not in use. A transformer transforms one record at a time, so there are as many
+ * transformers as records transformed with the XSLT at the same time.
+ */
+class XsltTransformerPool {
+
+  private final XsltTransformerFactory xsltTransformerFactory;
+  private final Queue<XsltTransformer> idleTransformers = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Constructor with required parameters.
+   *
+   * @param xsltTransformerFactory creates a transformer when none is idle
+   */
+  XsltTransformerPool(XsltTransformerFactory xsltTransformerFactory) {
+    this.xsltTransformerFactory = xsltTransformerFactory;
+  }
+
+  /**
+   * Transforms a record with a transformer that is not in use by another thread.
+   *
+   * @param recordContent the record content
+   * @param europeanaGeneratedIdsMap the generated ids, may be null
+   * @return the transformed record content
+   * @throws TransformationException if the transformation fails
+   */
+  byte[] transform(byte[] recordContent, EuropeanaGeneratedIdsMap europeanaGeneratedIdsMap) throws TransformationException {
+    final XsltTransformer transformer = acquire();
+    final byte[] resultRecord = transformer.transformToBytes(recordContent, europeanaGeneratedIdsMap);
+    // A transformer that failed is dropped, as it might not be reusable
+    release(transformer);
+    return resultRecord;
+  }
+
+  XsltTransformer acquire() throws TransformationException {
+    final XsltTransformer transformer = idleTransformers.poll();
+    return transformer == null ? xsltTransformerFactory.create() : transformer;
+  }
+
+  void release(XsltTransformer transformer) {
+    idleTransformers.offer(transformer);
+  }
+
+  /**
+   * Creates the transformers of the pool.
+   */
+  @FunctionalInterface
+  interface XsltTransformerFactory {
+
+    XsltTransformer create() throws TransformationException;
+  }
+}
@@ -9,6 +9,9 @@ CREATE TABLE IF NOT EXISTS dataset
     country                   VARCHAR(35)  NOT NULL,
     language                  VARCHAR(3)   NOT NULL,
     record_limit_exceeded     bool,
+    admitted_records          INTEGER      NOT NULL DEFAULT 0,
+    finished_records          INTEGER      NOT NULL DEFAULT 0,
+    baseline_dataset_id       INTEGER      NULL,
     xslt_edm_external_content TEXT,
     PRIMARY KEY (dataset_id)
 );
@@ -30,6 +33,7 @@ CREATE TABLE IF NOT EXISTS record
     id                                      BIGSERIAL,
     europeana_id                            VARCHAR(255) NULL,
     provider_id                             VARCHAR(255) NULL,
+    harvest_id                              VARCHAR(255) NULL,
     dataset_id                              VARCHAR(100) NOT NULL,
     content_tier                            VARCHAR(3) NULL,
     content_tier_before_license_correction  VARCHAR(3) NULL,
@@ -40,9 +44,20 @@ CREATE TABLE IF NOT EXISTS record
     license                                 VARCHAR(13) NULL,
     PRIMARY KEY (id),
     UNIQUE (europeana_id, dataset_id),
-    UNIQUE (provider_id, dataset_id)
+    UNIQUE (provider_id, dataset_id),
+    UNIQUE (harvest_id, dataset_id)
 );
 
+CREATE TABLE IF NOT EXISTS record_content
+(
+    hash    VARCHAR(64) NOT NULL,
+    codec   VARCHAR(10) NOT NULL,
+    content BYTEA       NOT NULL,
+    PRIMARY KEY (hash)
+);
+-- contents are compressed already, so they are not compressed again when stored out of line
+ALTER TABLE record_content ALTER COLUMN content SET STORAGE EXTERNAL;
+
 CREATE TABLE IF NOT EXISTS record_log
 (
     id           BIGSERIAL,
@@ -50,9 +65,10 @@ CREATE TABLE IF NOT EXISTS record_log
     step         VARCHAR(30) NOT NULL,
     status       VARCHAR(30) NOT NULL,
     created_date TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
-    content      TEXT        NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
     PRIMARY KEY (id),
     FOREIGN KEY (record_id) REFERENCES record (id),
+    FOREIGN KEY (content_hash) REFERENCES record_content (hash),
     UNIQUE (record_id, step)
 );
 
@@ -69,6 +85,17 @@ CREATE TABLE IF NOT EXISTS record_error_log
     FOREIGN KEY (record_id) REFERENCES record (id)
 );
 
+CREATE TABLE IF NOT EXISTS record_claim_check
+(
+    id        BIGSERIAL,
+    record_id BIGINT      NOT NULL,
+    step      VARCHAR(30) NOT NULL,
+    content   BYTEA       NOT NULL,
+    PRIMARY KEY (id),
+    FOREIGN KEY (record_id) REFERENCES record (id),
+    UNIQUE (record_id, step)
+);
+
 CREATE TABLE IF NOT EXISTS thumbnail
 (
     id           BIGSERIAL,
@@ -86,14 +113,21 @@ CREATE TABLE IF NOT EXISTS default_transform_xslt
 
 CREATE TABLE IF NOT EXISTS harvesting_parameter
 (
-    id               BIGSERIAL,
-    dataset_id       BIGINT      NOT NULL,
-    harvest_protocol VARCHAR(10) NOT NULL,
-    file_name        TEXT        NULL,
-    file_type        VARCHAR(9)  NULL,
-    url              TEXT        NULL,
-    set_spec         TEXT        NULL,
-    metadata_format  TEXT        NULL,
+    id                          BIGSERIAL,
+    dataset_id                  BIGINT                   NOT NULL,
+    harvest_protocol            VARCHAR(10)              NOT NULL,
+    file_name                   TEXT                     NULL,
+    file_type                   VARCHAR(9)               NULL,
+    url                         TEXT                     NULL,
+    set_spec                    TEXT                     NULL,
+    metadata_format             TEXT                     NULL,
+    step_size                   INTEGER                  NULL,
+    checkpoint_position         INTEGER                  NULL,
+    checkpoint_selected_records INTEGER                  NULL,
+    checkpoint_next_position    INTEGER                  NULL,
+    checkpoint_admitted_records INTEGER                  NULL,
+    checkpoint_date             TIMESTAMP WITH TIME ZONE NULL,
+    harvest_completed           BOOLEAN                  NOT NULL DEFAULT TRUE,
     PRIMARY KEY (id),
     FOREIGN KEY (dataset_id) REFERENCES dataset (dataset_id)
 );
@@ -138,6 +172,7 @@ CREATE INDEX ON harvesting_parameter (dataset_id);
 CREATE INDEX ON dataset_log (dataset_id);
 CREATE INDEX ON record_log (record_id);
 CREATE INDEX ON record_log (step, status);
+CREATE INDEX ON record_log (content_hash);
 CREATE INDEX ON record_error_log (record_id);
 CREATE INDEX ON record (dataset_id, europeana_id, provider_id);
 CREATE INDEX ON record (dataset_id, content_tier);
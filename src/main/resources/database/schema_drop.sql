@@ -6,7 +6,9 @@ DROP TABLE IF EXISTS dataset_log;
 DROP TABLE IF EXISTS harvesting_parameter;
 DROP TABLE IF EXISTS dataset;
 DROP TABLE IF EXISTS record_log;
+DROP TABLE IF EXISTS record_content;
 DROP TABLE IF EXISTS record_error_log;
+DROP TABLE IF EXISTS record_claim_check;
 DROP TABLE IF EXISTS record;
 DROP TABLE IF EXISTS thumbnail;
 DROP TABLE IF EXISTS default_transform_xslt;
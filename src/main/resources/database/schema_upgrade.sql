@@ -0,0 +1,89 @@
+-- Upgrades a database created by an earlier version of schema.sql, which only creates the tables that do not exist yet.
+-- Every statement can be run again, so the script can be run as a whole on a database upgraded partially already.
+BEGIN;
+
+-- Harvesting checkpoints, to resume interrupted harvests. The existing harvests are not resumed.
+ALTER TABLE harvesting_parameter
+    ADD COLUMN IF NOT EXISTS step_size                   INTEGER                  NULL,
+    ADD COLUMN IF NOT EXISTS checkpoint_position         INTEGER                  NULL,
+    ADD COLUMN IF NOT EXISTS checkpoint_selected_records INTEGER                  NULL,
+    ADD COLUMN IF NOT EXISTS checkpoint_next_position    INTEGER                  NULL,
+    ADD COLUMN IF NOT EXISTS checkpoint_admitted_records INTEGER                  NULL,
+    ADD COLUMN IF NOT EXISTS checkpoint_date             TIMESTAMP WITH TIME ZONE NULL,
+    ADD COLUMN IF NOT EXISTS harvest_completed           BOOLEAN                  NOT NULL DEFAULT TRUE;
+
+-- Counters of the records admitted into and finished by a dataset, shared by all nodes. They are only read while the
+-- dataset is harvested and processed, so the existing datasets start at 0.
+ALTER TABLE dataset
+    ADD COLUMN IF NOT EXISTS admitted_records INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS finished_records INTEGER NOT NULL DEFAULT 0;
+
+-- The identifier a record was harvested with, to match it with the records of a later incremental harvest. The records
+-- harvested before are left without it, which is why their datasets cannot be the baseline of an incremental harvest.
+ALTER TABLE record
+    ADD COLUMN IF NOT EXISTS harvest_id VARCHAR(255) NULL;
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'record_harvest_id_dataset_id_key') THEN
+            ALTER TABLE record ADD CONSTRAINT record_harvest_id_dataset_id_key UNIQUE (harvest_id, dataset_id);
+        END IF;
+    END
+$$;
+
+-- The baseline dataset an incremental dataset was harvested against, which is kept as long as the dataset exists.
+ALTER TABLE dataset
+    ADD COLUMN IF NOT EXISTS baseline_dataset_id INTEGER NULL;
+
+-- Record contents sent by claim check instead of in the messages
+CREATE TABLE IF NOT EXISTS record_claim_check
+(
+    id        BIGSERIAL,
+    record_id BIGINT      NOT NULL,
+    step      VARCHAR(30) NOT NULL,
+    content   BYTEA       NOT NULL,
+    PRIMARY KEY (id),
+    FOREIGN KEY (record_id) REFERENCES record (id),
+    UNIQUE (record_id, step)
+);
+
+-- Record log contents stored once per content hash, in record_content instead of record_log.content. The existing
+-- contents are moved uncompressed, with the lowercase hex SHA-256 of their UTF-8 bytes as hash like the application.
+CREATE TABLE IF NOT EXISTS record_content
+(
+    hash    VARCHAR(64) NOT NULL,
+    codec   VARCHAR(10) NOT NULL,
+    content BYTEA       NOT NULL,
+    PRIMARY KEY (hash)
+);
+ALTER TABLE record_content ALTER COLUMN content SET STORAGE EXTERNAL;
+ALTER TABLE record_log
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64) NULL;
+DO
+$$
+    BEGIN
+        IF EXISTS (SELECT 1
+                   FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = 'record_log'
+                     AND column_name = 'content') THEN
+            INSERT INTO record_content (hash, codec, content)
+            SELECT encode(sha256(convert_to(content, 'UTF8')), 'hex'), 'NONE', convert_to(content, 'UTF8')
+            FROM record_log
+            WHERE content_hash IS NULL
+            ON CONFLICT (hash) DO NOTHING;
+            UPDATE record_log
+            SET content_hash = encode(sha256(convert_to(content, 'UTF8')), 'hex')
+            WHERE content_hash IS NULL;
+            ALTER TABLE record_log DROP COLUMN content;
+        END IF;
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'record_log_content_hash_fkey') THEN
+            ALTER TABLE record_log
+                ADD CONSTRAINT record_log_content_hash_fkey FOREIGN KEY (content_hash) REFERENCES record_content (hash);
+        END IF;
+    END
+$$;
+ALTER TABLE record_log ALTER COLUMN content_hash SET NOT NULL;
+CREATE INDEX IF NOT EXISTS record_log_content_hash_idx ON record_log (content_hash);
+
+COMMIT;
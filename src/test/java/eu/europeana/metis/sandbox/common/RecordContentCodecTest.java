@@ -0,0 +1,41 @@
+package eu.europeana.metis.sandbox.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Unit test for {@link RecordContentCodec}
+ */
+class RecordContentCodecTest {
+
+  private static final byte[] CONTENT = "<rdf:RDF><edm:ProvidedCHO rdf:about=\"/1/1\"/></rdf:RDF>".repeat(100)
+                                                                                               .getBytes(StandardCharsets.UTF_8);
+
+  @ParameterizedTest
+  @EnumSource(RecordContentCodec.class)
+  void decode_encoded_expectContent(RecordContentCodec codec) {
+    assertArrayEquals(CONTENT, codec.decode(codec.encode(CONTENT)));
+  }
+
+  @ParameterizedTest
+  @EnumSource(RecordContentCodec.class)
+  void decode_encodedEmptyContent_expectEmptyContent(RecordContentCodec codec) {
+    assertArrayEquals(new byte[0], codec.decode(codec.encode(new byte[0])));
+  }
+
+  @Test
+  void encode_zstd_expectSmallerContent() {
+    assertTrue(RecordContentCodec.ZSTD.encode(CONTENT).length < CONTENT.length / 10);
+  }
+
+  @Test
+  void encode_none_expectSameContent() {
+    assertSame(CONTENT, RecordContentCodec.NONE.encode(CONTENT));
+  }
+}
@@ -7,6 +7,7 @@ import eu.europeana.metis.harvesting.FullRecordHarvestingIterator;
 import eu.europeana.metis.harvesting.HarvesterException;
 import eu.europeana.metis.harvesting.HarvestingIterator;
 import eu.europeana.metis.harvesting.ReportingIteration;
+import eu.europeana.metis.harvesting.oaipmh.OaiRecord;
 import eu.europeana.metis.harvesting.oaipmh.OaiRecordHeader;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -74,6 +75,41 @@ public class TestUtils {
     }
   }
 
+  public static class TestOaiRecordIterator implements HarvestingIterator<OaiRecord, OaiRecordHeader> {
+
+    private final List<OaiRecord> source;
+
+    public TestOaiRecordIterator(List<OaiRecord> source) {
+      this.source = source;
+    }
+
+    @Override
+    public void forEachFiltered(final ReportingIteration<OaiRecord> action,
+        final Predicate<OaiRecordHeader> filter) throws HarvesterException {
+      for (OaiRecord item : this.source) {
+        try {
+          action.process(item);
+        } catch (IOException e) {
+          throw new HarvesterException(e.getMessage(), e);
+        }
+      }
+    }
+
+    @Override
+    public void forEachNonDeleted(ReportingIteration<OaiRecord> reportingIteration) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Integer countRecords() {
+      return source.size();
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
   public static class TestHttpRecordIterator implements
       FullRecordHarvestingIterator<FullRecord, Path> {
 
@@ -0,0 +1,230 @@
+package eu.europeana.metis.sandbox.common.amqp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.locale.Country;
+import eu.europeana.metis.sandbox.common.locale.Language;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordLogService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate.ConfirmCallback;
+
+@ExtendWith(MockitoExtension.class)
+class RecordEventPublisherTest {
+
+  private static final String ROUTING_KEY = "sandbox.record.transformed";
+
+  @Mock
+  private RabbitTemplate rabbitTemplate;
+
+  @Mock
+  private ConnectionFactory connectionFactory;
+
+  @Mock
+  private RecordLogService recordLogService;
+
+  @Mock
+  private ScheduledExecutorService retryExecutor;
+
+  @Captor
+  private ArgumentCaptor<ConfirmCallback> confirmCallbackCaptor;
+
+  @Captor
+  private ArgumentCaptor<CorrelationData> correlationCaptor;
+
+  @Captor
+  private ArgumentCaptor<Runnable> retryCaptor;
+
+  @Captor
+  private ArgumentCaptor<RecordProcessEvent> logCaptor;
+
+  @BeforeEach
+  void setUp() {
+    when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+  }
+
+  @Test
+  void publish_confirmsEnabled_expectSendWithCorrelation() {
+    final RecordEventPublisher publisher = getPublisher(true, 3, 10);
+    final RecordProcessEvent event = getEvent();
+
+    publisher.publish(ROUTING_KEY, event);
+
+    verify(rabbitTemplate).convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+    verifyNoInteractions(retryExecutor, recordLogService);
+  }
+
+  @Test
+  void publish_confirmsDisabled_expectPlainSend() {
+    final RecordEventPublisher publisher = getPublisher(false, 3, 10);
+    final RecordProcessEvent event = getEvent();
+
+    publisher.publish(ROUTING_KEY, event);
+
+    verify(rabbitTemplate, never()).setConfirmCallback(any());
+    verify(rabbitTemplate, never()).setMandatory(true);
+    verify(rabbitTemplate).convertAndSend(ROUTING_KEY, event);
+  }
+
+  @Test
+  void publish_nack_expectRetry() {
+    final RecordEventPublisher publisher = getPublisher(true, 3, 10);
+    final RecordProcessEvent event = getEvent();
+    publisher.publish(ROUTING_KEY, event);
+    verify(rabbitTemplate).convertAndSend(eq(ROUTING_KEY), eq(event), correlationCaptor.capture());
+
+    confirmCallbackCaptor.getValue().confirm(correlationCaptor.getValue(), false, "nack");
+
+    verify(retryExecutor).schedule(retryCaptor.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+    retryCaptor.getValue().run();
+    verify(rabbitTemplate, times(2)).convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+    verifyNoInteractions(recordLogService);
+  }
+
+  @Test
+  void publish_returned_expectRetry() {
+    final RecordEventPublisher publisher = getPublisher(true, 3, 10);
+    final RecordProcessEvent event = getEvent();
+    publisher.publish(ROUTING_KEY, event);
+    verify(rabbitTemplate).convertAndSend(eq(ROUTING_KEY), eq(event), correlationCaptor.capture());
+
+    correlationCaptor.getValue().setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE",
+        "sandbox", ROUTING_KEY));
+    confirmCallbackCaptor.getValue().confirm(correlationCaptor.getValue(), true, null);
+
+    verify(retryExecutor).schedule(retryCaptor.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+    retryCaptor.getValue().run();
+    verify(rabbitTemplate, times(2)).convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+    verifyNoInteractions(recordLogService);
+  }
+
+  @Test
+  void publish_nackOutOfRetries_expectFailLoggedOnRetryThread() {
+    final RecordEventPublisher publisher = getPublisher(true, 0, 10);
+    final RecordProcessEvent event = getEvent();
+    publisher.publish(ROUTING_KEY, event);
+    verify(rabbitTemplate).convertAndSend(eq(ROUTING_KEY), eq(event), correlationCaptor.capture());
+
+    confirmCallbackCaptor.getValue().confirm(correlationCaptor.getValue(), false, "nack");
+
+    verifyNoInteractions(recordLogService);
+    verify(retryExecutor).execute(retryCaptor.capture());
+    retryCaptor.getValue().run();
+    verify(recordLogService).logRecordEvent(logCaptor.capture());
+    assertFailLogged(event);
+  }
+
+  @Test
+  void publish_ack_expectNoRetry() {
+    final RecordEventPublisher publisher = getPublisher(true, 3, 10);
+    final RecordProcessEvent event = getEvent();
+    publisher.publish(ROUTING_KEY, event);
+    verify(rabbitTemplate).convertAndSend(eq(ROUTING_KEY), eq(event), correlationCaptor.capture());
+
+    confirmCallbackCaptor.getValue().confirm(correlationCaptor.getValue(), true, null);
+
+    verifyNoInteractions(retryExecutor, recordLogService);
+  }
+
+  @Test
+  void publish_sendFailsOutOfRetries_expectFailLogged() {
+    final RecordEventPublisher publisher = getPublisher(true, 1, 10);
+    final RecordProcessEvent event = getEvent();
+    doThrow(new AmqpException("Queue failure")).when(rabbitTemplate)
+                                               .convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+
+    publisher.publish(ROUTING_KEY, event);
+    verify(retryExecutor).schedule(retryCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+    retryCaptor.getValue().run();
+    verify(retryExecutor).execute(retryCaptor.capture());
+    retryCaptor.getValue().run();
+
+    verify(rabbitTemplate, times(2)).convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+    verify(recordLogService).logRecordEvent(logCaptor.capture());
+    assertFailLogged(event);
+  }
+
+  @Test
+  void publish_retryBufferFull_expectFailLoggedWithoutRetry() {
+    final RecordEventPublisher publisher = getPublisher(true, 3, 0);
+    final RecordProcessEvent event = getEvent();
+    doThrow(new AmqpException("Queue failure")).when(rabbitTemplate)
+                                               .convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+
+    publisher.publish(ROUTING_KEY, event);
+
+    verify(retryExecutor, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    verify(retryExecutor).execute(retryCaptor.capture());
+    retryCaptor.getValue().run();
+    verify(recordLogService).logRecordEvent(logCaptor.capture());
+    assertFailLogged(event);
+  }
+
+  @Test
+  void publish_failLoggingFails_expectNoException() {
+    final RecordEventPublisher publisher = getPublisher(true, 0, 10);
+    final RecordProcessEvent event = getEvent();
+    doThrow(new AmqpException("Queue failure")).when(rabbitTemplate)
+                                               .convertAndSend(eq(ROUTING_KEY), eq(event), any(CorrelationData.class));
+    doThrow(new RuntimeException("Database failure")).when(recordLogService).logRecordEvent(any());
+
+    publisher.publish(ROUTING_KEY, event);
+    verify(retryExecutor).execute(retryCaptor.capture());
+    retryCaptor.getValue().run();
+
+    verify(recordLogService).logRecordEvent(any());
+  }
+
+  private void assertFailLogged(RecordProcessEvent event) {
+    final RecordProcessEvent logged = logCaptor.getValue();
+    assertEquals(Step.TRANSFORM, logged.getStep());
+    assertEquals(Status.FAIL, logged.getStatus());
+    assertEquals(event.getRecord(), logged.getRecord());
+    assertEquals(1, logged.getRecordErrors().size());
+  }
+
+  private RecordEventPublisher getPublisher(boolean confirmsEnabled, int maxRetries, int retryBufferSize) {
+    when(connectionFactory.isPublisherConfirms()).thenReturn(confirmsEnabled);
+    final RecordEventPublisher publisher = new RecordEventPublisher(rabbitTemplate, recordLogService, maxRetries, 100L,
+        retryBufferSize, retryExecutor);
+    if (confirmsEnabled) {
+      verify(rabbitTemplate).setConfirmCallback(confirmCallbackCaptor.capture());
+      verify(rabbitTemplate).setMandatory(true);
+      verify(rabbitTemplate).setReturnsCallback(any());
+    }
+    return publisher;
+  }
+
+  private RecordProcessEvent getEvent() {
+    final Record testRecord = Record.builder().recordId(1L).datasetId("1").datasetName("").country(Country.ITALY)
+                                    .language(Language.IT).content("content".getBytes()).build();
+    return new RecordProcessEvent(new RecordInfo(testRecord), Step.TRANSFORM, Status.SUCCESS);
+  }
+}
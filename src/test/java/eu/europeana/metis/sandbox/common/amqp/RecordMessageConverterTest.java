@@ -1,5 +1,6 @@
 package eu.europeana.metis.sandbox.common.amqp;
 
+import static eu.europeana.metis.sandbox.common.amqp.RecordMessageConverter.CLAIM_CHECK;
 import static eu.europeana.metis.sandbox.common.amqp.RecordMessageConverter.COUNTRY;
 import static eu.europeana.metis.sandbox.common.amqp.RecordMessageConverter.DATASET_ID;
 import static eu.europeana.metis.sandbox.common.amqp.RecordMessageConverter.DATASET_NAME;
@@ -12,32 +13,46 @@ import static eu.europeana.metis.sandbox.common.amqp.RecordMessageConverter.STAT
 import static eu.europeana.metis.sandbox.common.amqp.RecordMessageConverter.STEP;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordError;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.MessagePropertiesBuilder;
 import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class RecordMessageConverterTest {
 
+  @Mock
+  private RecordClaimCheckService recordClaimCheckService;
+
   @InjectMocks
   private RecordMessageConverter converter;
 
@@ -136,4 +151,165 @@ class RecordMessageConverterTest {
         ((RecordProcessEvent) result).getRecord().getContent());
     assertEquals("failed", ((RecordProcessEvent) result).getRecordErrors().get(0).getMessage());
   }
+
+  @Test
+  void toMessage_contentAboveCompressionThreshold_expectCompressedAndReadBack() {
+    ReflectionTestUtils.setField(converter, "compressionThreshold", 10);
+    var content = "This is the content".repeat(100).getBytes(StandardCharsets.UTF_8);
+    var testRecord = Record.builder().content(content).country(Country.ITALY)
+                       .language(Language.IT)
+                       .datasetId("1").datasetName("").recordId(1L).europeanaId("").providerId("").build();
+    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.TRANSFORM, Status.SUCCESS);
+
+    var message = converter.toMessage(event, MessagePropertiesBuilder.newInstance().build());
+
+    assertEquals("zstd", message.getMessageProperties().getContentEncoding());
+    assertTrue(message.getBody().length < content.length);
+
+    MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                                                           .setContentEncoding(message.getMessageProperties().getContentEncoding())
+                                                           .setHeaderIfAbsent(RECORD_ID, 1L)
+                                                           .setHeaderIfAbsent(COUNTRY, "ITALY")
+                                                           .setHeaderIfAbsent(LANGUAGE, "IT")
+                                                           .setHeader(STEP, "TRANSFORM")
+                                                           .setHeader(STATUS, "SUCCESS")
+                                                           .build();
+    var result = (RecordProcessEvent) converter.fromMessage(
+        MessageBuilder.withBody(message.getBody()).andProperties(properties).build());
+    assertArrayEquals(content, result.getRecord().getContent());
+  }
+
+  @Test
+  void toMessage_contentBelowCompressionThreshold_expectUncompressed() {
+    ReflectionTestUtils.setField(converter, "compressionThreshold", 1000);
+    var testRecord = Record.builder().content("This is the content".getBytes()).country(Country.ITALY)
+                       .language(Language.IT)
+                       .datasetId("1").datasetName("").recordId(1L).europeanaId("").build();
+    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.TRANSFORM, Status.SUCCESS);
+
+    var message = converter.toMessage(event, MessagePropertiesBuilder.newInstance().build());
+
+    assertNull(message.getMessageProperties().getContentEncoding());
+    assertArrayEquals(testRecord.getContent(), message.getBody());
+  }
+
+  @Test
+  void fromMessage_corruptCompressedContent_expectFail() {
+    MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                                                           .setContentEncoding("gzip")
+                                                           .setHeaderIfAbsent(RECORD_ID, 1L)
+                                                           .setHeaderIfAbsent(COUNTRY, "ITALY")
+                                                           .setHeaderIfAbsent(LANGUAGE, "IT")
+                                                           .setHeader(STEP, "TRANSFORM")
+                                                           .setHeader(STATUS, "SUCCESS")
+                                                           .build();
+    var message = MessageBuilder.withBody("This is the content".getBytes(StandardCharsets.UTF_8))
+                                .andProperties(properties)
+                                .build();
+
+    assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+  }
+
+  @Test
+  void fromMessage_corruptZstdContent_expectFail() {
+    MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                                                           .setContentEncoding("zstd")
+                                                           .setHeaderIfAbsent(RECORD_ID, 1L)
+                                                           .setHeaderIfAbsent(COUNTRY, "ITALY")
+                                                           .setHeaderIfAbsent(LANGUAGE, "IT")
+                                                           .setHeader(STEP, "TRANSFORM")
+                                                           .setHeader(STATUS, "SUCCESS")
+                                                           .build();
+    var message = MessageBuilder.withBody("This is the content".getBytes(StandardCharsets.UTF_8))
+                                .andProperties(properties)
+                                .build();
+
+    assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+  }
+
+  @Test
+  void fromMessage_gzipContentOfEarlierVersion_expectDecompressed() throws IOException {
+    var content = "This is the content".repeat(100).getBytes(StandardCharsets.UTF_8);
+    var compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+      outputStream.write(content);
+    }
+    MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                                                           .setContentEncoding("gzip")
+                                                           .setHeaderIfAbsent(RECORD_ID, 1L)
+                                                           .setHeaderIfAbsent(COUNTRY, "ITALY")
+                                                           .setHeaderIfAbsent(LANGUAGE, "IT")
+                                                           .setHeader(STEP, "TRANSFORM")
+                                                           .setHeader(STATUS, "SUCCESS")
+                                                           .build();
+    var message = MessageBuilder.withBody(compressed.toByteArray()).andProperties(properties).build();
+
+    var result = (RecordProcessEvent) converter.fromMessage(message);
+
+    assertArrayEquals(content, result.getRecord().getContent());
+  }
+
+  @Test
+  void toMessage_contentCheckedIn_expectEmptyBodyWithClaimCheck() {
+    ReflectionTestUtils.setField(converter, "compressionThreshold", 10);
+    var testRecord = Record.builder().content("This is the content".getBytes()).country(Country.ITALY)
+                       .language(Language.IT)
+                       .datasetId("1").datasetName("").recordId(1L).europeanaId("").build();
+    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.TRANSFORM, Status.SUCCESS);
+    when(recordClaimCheckService.shouldCheckIn(event)).thenReturn(true);
+
+    var message = converter.toMessage(event, MessagePropertiesBuilder.newInstance().build());
+
+    verify(recordClaimCheckService).checkIn(event);
+    assertEquals(0, message.getBody().length);
+    assertEquals(true, message.getMessageProperties().getHeader(CLAIM_CHECK));
+    assertNull(message.getMessageProperties().getContentEncoding());
+  }
+
+  @Test
+  void toMessage_checkInFails_expectFail() {
+    var testRecord = Record.builder().content("This is the content".getBytes()).country(Country.ITALY)
+                       .language(Language.IT)
+                       .datasetId("1").datasetName("").recordId(1L).europeanaId("").build();
+    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.TRANSFORM, Status.SUCCESS);
+    when(recordClaimCheckService.shouldCheckIn(event)).thenReturn(true);
+    doThrow(new ServiceException("failed")).when(recordClaimCheckService).checkIn(event);
+
+    var messageProperties = MessagePropertiesBuilder.newInstance().build();
+    assertThrows(MessageConversionException.class, () -> converter.toMessage(event, messageProperties));
+  }
+
+  @Test
+  void fromMessage_claimCheck_expectContentCheckedOut() {
+    MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                                                           .setHeaderIfAbsent(RECORD_ID, 1L)
+                                                           .setHeaderIfAbsent(COUNTRY, "ITALY")
+                                                           .setHeaderIfAbsent(LANGUAGE, "IT")
+                                                           .setHeader(STEP, "TRANSFORM")
+                                                           .setHeader(STATUS, "SUCCESS")
+                                                           .setHeader(CLAIM_CHECK, true)
+                                                           .build();
+    var message = MessageBuilder.withBody(new byte[0]).andProperties(properties).build();
+    when(recordClaimCheckService.checkOut(1L, Step.TRANSFORM)).thenReturn("This is the content".getBytes());
+
+    var result = (RecordProcessEvent) converter.fromMessage(message);
+
+    assertArrayEquals("This is the content".getBytes(), result.getRecord().getContent());
+  }
+
+  @Test
+  void fromMessage_claimCheckMissing_expectFail() {
+    MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                                                           .setHeaderIfAbsent(RECORD_ID, 1L)
+                                                           .setHeaderIfAbsent(COUNTRY, "ITALY")
+                                                           .setHeaderIfAbsent(LANGUAGE, "IT")
+                                                           .setHeader(STEP, "TRANSFORM")
+                                                           .setHeader(STATUS, "SUCCESS")
+                                                           .setHeader(CLAIM_CHECK, true)
+                                                           .build();
+    var message = MessageBuilder.withBody(new byte[0]).andProperties(properties).build();
+    when(recordClaimCheckService.checkOut(1L, Step.TRANSFORM)).thenThrow(new ServiceException("missing"));
+
+    assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+  }
 }
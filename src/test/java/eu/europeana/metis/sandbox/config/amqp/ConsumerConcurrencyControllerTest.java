@@ -0,0 +1,250 @@
+package eu.europeana.metis.sandbox.config.amqp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerConcurrencyControllerTest {
+
+  private static final String QUEUE = "sandbox.record.enriched";
+  private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  @Mock
+  private AmqpAdmin amqpAdmin;
+
+  @Mock
+  private SimpleMessageListenerContainer container;
+
+  @Captor
+  private ArgumentCaptor<ContainerCustomizer<SimpleMessageListenerContainer>> customizerCaptor;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private ConsumerConcurrencyController controller;
+  private MethodInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    controller = new ConsumerConcurrencyController(amqpAdmin, true, 100, 1000, 0.1, 0.05, nanoTime::get);
+    final SimpleRabbitListenerContainerFactory factory = spy(new SimpleRabbitListenerContainerFactory());
+    controller.manage(factory, 2, 4, 5);
+    verify(factory).setMaxConcurrentConsumers(2);
+    verify(factory).setContainerCustomizer(customizerCaptor.capture());
+    customizerCaptor.getValue().configure(container);
+    interceptor = (MethodInterceptor) factory.getAdviceChain()[0];
+  }
+
+  @Test
+  void manage_disabled_expectFactoryUntouched() {
+    final SimpleRabbitListenerContainerFactory factory = mock(SimpleRabbitListenerContainerFactory.class);
+
+    new ConsumerConcurrencyController(amqpAdmin, false, 100, 1000, 0.1, 0.05, nanoTime::get).manage(factory, 2, 4, 5);
+
+    verifyNoInteractions(factory);
+  }
+
+  @Test
+  void adjust_backlog_expectConsumerAdded() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(1000);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+
+    controller.adjust();
+
+    verify(container).setMaxConcurrentConsumers(3);
+    verify(container).setConcurrentConsumers(3);
+  }
+
+  @Test
+  void adjust_growthWithoutThroughputGain_expectGrowthReverted() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(1000);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+    verify(container).setConcurrentConsumers(3);
+
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    verify(container).setConcurrentConsumers(2);
+    verify(container).setMaxConcurrentConsumers(2);
+
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    verify(container, never()).setConcurrentConsumers(4);
+  }
+
+  @Test
+  void adjust_emptyQueue_expectConsumerRemovedNotBelowMinimum() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(1000);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    givenQueueDepth(0);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    verify(container).setConcurrentConsumers(3);
+    verify(container).setConcurrentConsumers(2);
+    verify(container, never()).setConcurrentConsumers(1);
+  }
+
+  @Test
+  void adjust_highErrorRate_expectConsumerRemoved() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(1000);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    process(50, TimeUnit.MILLISECONDS.toNanos(100), false);
+    process(50, TimeUnit.MILLISECONDS.toNanos(100), true);
+    controller.adjust();
+
+    verify(container).setConcurrentConsumers(2);
+  }
+
+  @Test
+  void adjust_batchOfFailedRecords_expectConsumerRemoved() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(1000);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    // The listener catches the failures of the records and reports them, so the invocation itself succeeds.
+    final MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getArguments()).thenReturn(new Object[]{null, List.of(mock(Message.class), mock(Message.class),
+        mock(Message.class), mock(Message.class))});
+    when(invocation.proceed()).thenAnswer(answer -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+      ConsumerConcurrencyController.reportFailedRecord();
+      ConsumerConcurrencyController.reportFailedRecord();
+      return null;
+    });
+    for (int i = 0; i < 25; i++) {
+      interceptor.invoke(invocation);
+    }
+    nanoTime.addAndGet(INTERVAL_NANOS);
+    controller.adjust();
+
+    verify(container).setConcurrentConsumers(2);
+    verify(container).setMaxConcurrentConsumers(2);
+  }
+
+  @Test
+  void reportFailedRecord_outsideListener_expectNotCounted() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(1000);
+    process(100, TimeUnit.MILLISECONDS.toNanos(100), false);
+    controller.adjust();
+
+    ConsumerConcurrencyController.reportFailedRecord();
+    process(100, TimeUnit.MILLISECONDS.toNanos(50), false);
+    controller.adjust();
+
+    verify(container).setConcurrentConsumers(4);
+  }
+
+  @Test
+  void adjust_fastMessages_expectPrefetchRaisedToMaximum() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(10);
+    process(100, TimeUnit.MILLISECONDS.toNanos(1), false);
+
+    controller.adjust();
+
+    verify(container).setPrefetchCount(100);
+  }
+
+  @Test
+  void adjust_slowMessages_expectPrefetchAtMinimum() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(10);
+    process(10, TimeUnit.SECONDS.toNanos(2), false);
+
+    controller.adjust();
+
+    verify(container, never()).setPrefetchCount(anyInt());
+  }
+
+  @Test
+  void adjust_containerNotRunning_expectNoChanges() {
+    when(container.isRunning()).thenReturn(false);
+
+    controller.adjust();
+
+    verifyNoInteractions(amqpAdmin);
+    verify(container, never()).setConcurrentConsumers(anyInt());
+  }
+
+  @Test
+  void invoke_batch_expectAllMessagesCounted() throws Throwable {
+    givenRunningContainer();
+    givenQueueDepth(0);
+    final MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getArguments()).thenReturn(new Object[]{null, List.of(mock(Message.class), mock(Message.class))});
+    when(invocation.proceed()).thenAnswer(answer -> nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(20)));
+
+    interceptor.invoke(invocation);
+    controller.adjust();
+
+    // 20 milliseconds for two messages, so a prefetch of 100 holds one second of work
+    verify(container).setPrefetchCount(100);
+  }
+
+  private void givenRunningContainer() {
+    when(container.isRunning()).thenReturn(true);
+    when(container.getQueueNames()).thenReturn(new String[]{QUEUE});
+  }
+
+  private void givenQueueDepth(int depth) {
+    when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, depth, 2));
+  }
+
+  private void process(int messages, long latencyNanos, boolean fail) throws Throwable {
+    final MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getArguments()).thenReturn(new Object[]{null, mock(Message.class)});
+    when(invocation.proceed()).thenAnswer(answer -> {
+      nanoTime.addAndGet(latencyNanos);
+      if (fail) {
+        throw new IllegalStateException("failed");
+      }
+      return null;
+    });
+    for (int i = 0; i < messages; i++) {
+      try {
+        interceptor.invoke(invocation);
+      } catch (IllegalStateException e) {
+        assertEquals("failed", e.getMessage());
+      }
+    }
+    nanoTime.addAndGet(INTERVAL_NANOS);
+  }
+}
@@ -32,6 +32,7 @@ import eu.europeana.indexing.tiers.view.ContentTierBreakdown;
 import eu.europeana.indexing.tiers.view.RecordTierCalculationSummary;
 import eu.europeana.indexing.tiers.view.RecordTierCalculationView;
 import eu.europeana.indexing.utils.LicenseType;
+import eu.europeana.metis.sandbox.common.HarvestProtocol;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
@@ -53,9 +54,12 @@ import eu.europeana.metis.sandbox.dto.report.ProgressByStepDto;
 import eu.europeana.metis.sandbox.dto.report.ProgressInfoDto;
 import eu.europeana.metis.sandbox.dto.report.TierStatistics;
 import eu.europeana.metis.sandbox.dto.report.TiersZeroInfo;
+import eu.europeana.metis.sandbox.entity.DatasetEntity;
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
 import eu.europeana.metis.sandbox.service.dataset.DatasetLogService;
 import eu.europeana.metis.sandbox.service.dataset.DatasetReportService;
 import eu.europeana.metis.sandbox.service.dataset.DatasetService;
+import eu.europeana.metis.sandbox.service.dataset.HarvestingParameterService;
 import eu.europeana.metis.sandbox.service.record.RecordLogService;
 import eu.europeana.metis.sandbox.service.record.RecordService;
 import eu.europeana.metis.sandbox.service.record.RecordTierCalculationService;
@@ -122,6 +126,9 @@ class DatasetControllerTest {
   @MockBean
   private HarvestPublishService harvestPublishService;
 
+  @MockBean
+  private HarvestingParameterService harvestingParameterService;
+
   @MockBean
   JwtDecoder jwtDecoder;
 
@@ -654,6 +661,114 @@ class DatasetControllerTest {
   }
 
 
+  @Test
+  void processDatasetFromOAIIncrementally_expectSuccess() throws Exception {
+    when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
+    final HarvestingParameterEntity baselineHarvestingParameters = createBaselineHarvestingParameters();
+    when(harvestingParameterService.getDatasetHarvestingParameters("1")).thenReturn(baselineHarvestingParameters);
+    when(datasetReportService.getReport("1")).thenReturn(new ProgressInfoDto("https://metis-sandbox",
+        10L, 10L, List.of(), false, "", emptyList(), null));
+    when(recordService.hasHarvestIds("1")).thenReturn(true);
+    when(datasetService.createEmptyDataset(eq("my-data-set"), anyString(), eq(ITALY), eq(IT),
+        any(ByteArrayInputStream.class)))
+        .thenReturn("12345");
+    when(harvestPublishService.runIncrementalHarvestOaiPmhAsync(any(DatasetMetadata.class),
+        eq(baselineHarvestingParameters))).thenReturn(asyncResult);
+
+    mvc.perform(post("/dataset/{name}/harvestOaiPmhIncremental", "my-data-set")
+           .header("Authorization", BEARER + MOCK_VALID_TOKEN)
+           .param("baselineDatasetId", "1"))
+       .andExpect(status().isAccepted())
+       .andExpect(jsonPath("$.dataset-id", is("12345")));
+
+    verify(harvestPublishService).runIncrementalHarvestOaiPmhAsync(any(DatasetMetadata.class),
+        eq(baselineHarvestingParameters));
+    verify(datasetService).setBaselineDataset("12345", "1");
+  }
+
+  @Test
+  void processDatasetFromOAIIncrementally_baselineNotCompleted_expectFail() throws Exception {
+    when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
+    when(harvestingParameterService.getDatasetHarvestingParameters("1")).thenReturn(createBaselineHarvestingParameters());
+    when(datasetReportService.getReport("1")).thenReturn(new ProgressInfoDto("https://metis-sandbox",
+        10L, 5L, List.of(), false, "", emptyList(), null));
+
+    mvc.perform(post("/dataset/{name}/harvestOaiPmhIncremental", "my-data-set")
+           .header("Authorization", BEARER + MOCK_VALID_TOKEN)
+           .param("baselineDatasetId", "1"))
+       .andExpect(status().isBadRequest())
+       .andExpect(jsonPath("$.message", is("The baseline dataset must be completely processed.")));
+
+    verify(datasetService, never()).createEmptyDataset(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void processDatasetFromOAIIncrementally_baselineNotOaiPmh_expectFail() throws Exception {
+    when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
+    final HarvestingParameterEntity baselineHarvestingParameters = createBaselineHarvestingParameters();
+    baselineHarvestingParameters.setProtocol(HarvestProtocol.HTTP);
+    when(harvestingParameterService.getDatasetHarvestingParameters("1")).thenReturn(baselineHarvestingParameters);
+
+    mvc.perform(post("/dataset/{name}/harvestOaiPmhIncremental", "my-data-set")
+           .header("Authorization", BEARER + MOCK_VALID_TOKEN)
+           .param("baselineDatasetId", "1"))
+       .andExpect(status().isBadRequest())
+       .andExpect(jsonPath("$.message", is("The baseline dataset must be harvested with OAI-PMH.")));
+  }
+
+  @Test
+  void processDatasetFromOAIIncrementally_baselineWithoutHarvestIds_expectFail() throws Exception {
+    when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
+    when(harvestingParameterService.getDatasetHarvestingParameters("1")).thenReturn(createBaselineHarvestingParameters());
+    when(datasetReportService.getReport("1")).thenReturn(new ProgressInfoDto("https://metis-sandbox",
+        10L, 10L, List.of(), false, "", emptyList(), null));
+    when(recordService.hasHarvestIds("1")).thenReturn(false);
+
+    mvc.perform(post("/dataset/{name}/harvestOaiPmhIncremental", "my-data-set")
+           .header("Authorization", BEARER + MOCK_VALID_TOKEN)
+           .param("baselineDatasetId", "1"))
+       .andExpect(status().isBadRequest())
+       .andExpect(jsonPath("$.message", is("The baseline dataset was harvested by an earlier version and cannot be used.")));
+
+    verify(datasetService, never()).createEmptyDataset(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void processDatasetFromOAIIncrementally_baselineOfAnotherUser_expectFail() throws Exception {
+    when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
+    final HarvestingParameterEntity baselineHarvestingParameters = createBaselineHarvestingParameters();
+    baselineHarvestingParameters.getDatasetId().setCreatedById("another-user");
+    when(harvestingParameterService.getDatasetHarvestingParameters("1")).thenReturn(baselineHarvestingParameters);
+
+    mvc.perform(post("/dataset/{name}/harvestOaiPmhIncremental", "my-data-set")
+           .header("Authorization", BEARER + MOCK_VALID_TOKEN)
+           .param("baselineDatasetId", "1"))
+       .andExpect(status().isBadRequest())
+       .andExpect(jsonPath("$.message", is("The baseline dataset belongs to another user.")));
+
+    verify(datasetService, never()).createEmptyDataset(any(), any(), any(), any(), any());
+    verify(harvestPublishService, never()).runIncrementalHarvestOaiPmhAsync(any(), any());
+  }
+
+  @Test
+  void processDatasetFromOAIIncrementally_baselineDoesNotExist_expectFail() throws Exception {
+    when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
+
+    mvc.perform(post("/dataset/{name}/harvestOaiPmhIncremental", "my-data-set")
+           .header("Authorization", BEARER + MOCK_VALID_TOKEN)
+           .param("baselineDatasetId", "1"))
+       .andExpect(status().isBadRequest())
+       .andExpect(jsonPath("$.message", is("Provided dataset id: [1] is not valid. ")));
+  }
+
+  private static HarvestingParameterEntity createBaselineHarvestingParameters() {
+    final DatasetEntity baselineDataset = new DatasetEntity("baseline", null, 10L, IT, ITALY, false);
+    baselineDataset.setDatasetId(1);
+    baselineDataset.setCreatedDate(ZonedDateTime.now(ZoneOffset.UTC));
+    return new HarvestingParameterEntity(baselineDataset, HarvestProtocol.OAI_PMH, null, null,
+        "https://metis-repository-rest.test.eanadev.org/repository/oai", "oai_integration_test", "edm");
+  }
+
   @Test
   void processDatasetFromOAI_differentXsltFileType_expectFail() throws Exception {
     when(jwtDecoder.decode(MOCK_VALID_TOKEN)).thenReturn(jwtUtils.getEmptyRoleJwt());
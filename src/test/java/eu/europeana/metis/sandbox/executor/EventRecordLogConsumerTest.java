@@ -1,19 +1,25 @@
 package eu.europeana.metis.sandbox.executor;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
 import eu.europeana.metis.sandbox.service.record.RecordLogService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -26,24 +32,30 @@ class EventRecordLogConsumerTest {
   @Mock
   private RecordLogService recordLogService;
 
+  @Mock
+  private RecordClaimCheckService recordClaimCheckService;
+
   @InjectMocks
   private EventRecordLogConsumer consumer;
 
   @Test
-  void logRecord_expectSuccess() {
+  void logRecords_expectSuccess() {
     var record = Record.builder()
         .datasetId("1").datasetName("").country(Country.ITALY).language(Language.IT)
         .content("".getBytes())
         .recordId(1L).build();
     var recordEvent = new RecordProcessEvent(new RecordInfo(record), Step.HARVEST_FILE, Status.SUCCESS);
 
-    consumer.logRecord(recordEvent);
+    when(recordLogService.logRecordEvents(List.of(recordEvent))).thenReturn(List.of());
 
-    verify(recordLogService).logRecordEvent(any(RecordProcessEvent.class));
+    consumer.logRecords(List.of(recordEvent));
+
+    verify(recordLogService).logRecordEvents(List.of(recordEvent));
+    verify(recordClaimCheckService).release(1L);
   }
 
   @Test
-  void logRecord_logError_expectFail() {
+  void logRecords_logError_expectFail() {
     var record = Record.builder()
         .datasetId("1").datasetName("").country(Country.ITALY).language(Language.IT)
         .content("".getBytes())
@@ -51,9 +63,30 @@ class EventRecordLogConsumerTest {
     var recordEvent = new RecordProcessEvent(new RecordInfo(record), Step.HARVEST_FILE, Status.SUCCESS);
 
     doThrow(new RecordProcessingException("1", new Exception())).when(recordLogService)
-        .logRecordEvent(any(RecordProcessEvent.class));
-    assertThrows(RecordProcessingException.class, () -> consumer.logRecord(recordEvent));
+        .logRecordEvents(anyList());
+    assertThrows(RecordProcessingException.class, () -> consumer.logRecords(List.of(recordEvent)));
+
+    verify(recordLogService).logRecordEvents(anyList());
+    verifyNoInteractions(recordClaimCheckService);
+  }
+
+  @Test
+  void logRecords_someEventsNotLogged_expectOthersReleasedAndFail() {
+    var record1 = Record.builder()
+        .datasetId("1").datasetName("").country(Country.ITALY).language(Language.IT)
+        .content("".getBytes())
+        .recordId(1L).build();
+    var record2 = Record.builder()
+        .datasetId("1").datasetName("").country(Country.ITALY).language(Language.IT)
+        .content("".getBytes())
+        .recordId(2L).build();
+    var recordEvent1 = new RecordProcessEvent(new RecordInfo(record1), Step.HARVEST_FILE, Status.SUCCESS);
+    var recordEvent2 = new RecordProcessEvent(new RecordInfo(record2), Step.HARVEST_FILE, Status.SUCCESS);
+    when(recordLogService.logRecordEvents(List.of(recordEvent1, recordEvent2))).thenReturn(List.of(recordEvent2));
+
+    assertThrows(ServiceException.class, () -> consumer.logRecords(List.of(recordEvent1, recordEvent2)));
 
-    verify(recordLogService).logRecordEvent(any(RecordProcessEvent.class));
+    verify(recordClaimCheckService).release(1L);
+    verify(recordClaimCheckService, never()).release(2L);
   }
 }
@@ -9,11 +9,13 @@ import static org.mockito.Mockito.verify;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,13 +24,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.core.AmqpTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class CloseExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Captor
   private ArgumentCaptor<RecordProcessEvent> captor;
@@ -41,8 +42,8 @@ class CloseExecutorTest {
     var testRecord = getTestRecord();
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
 
-    consumer.close(recordEvent);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    consumer.close(List.of(recordEvent));
+    verify(recordEventPublisher).publish(any(), captor.capture());
     assertEquals(Step.CLOSE, captor.getValue().getStep());
   }
 
@@ -51,8 +52,8 @@ class CloseExecutorTest {
     var testRecord = getTestRecord();
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.FAIL);
 
-    consumer.close(recordEvent);
-    verify(amqpTemplate, never()).convertAndSend(any(), any(RecordProcessEvent.class));
+    consumer.close(List.of(recordEvent));
+    verify(recordEventPublisher, never()).publish(any(), any(RecordProcessEvent.class));
   }
 
   @Test
@@ -60,9 +61,9 @@ class CloseExecutorTest {
     var testRecord = getTestRecord();
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
     final RuntimeException runtimeException = new AmqpException("Queue Failure");
-    doThrow(runtimeException).when(amqpTemplate).convertAndSend(any(), any(Object.class));
+    doThrow(runtimeException).when(recordEventPublisher).publish(any(), any(RecordProcessEvent.class));
 
-    assertDoesNotThrow(() -> consumer.close(recordEvent));
+    assertDoesNotThrow(() -> consumer.close(List.of(recordEvent)));
   }
 
   private Record getTestRecord() {
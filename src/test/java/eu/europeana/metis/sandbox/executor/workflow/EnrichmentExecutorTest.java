@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
@@ -15,6 +16,7 @@ import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.EnrichmentService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,13 +24,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.AmqpTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class EnrichmentExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Mock
   private EnrichmentService service;
@@ -48,10 +49,10 @@ class EnrichmentExecutorTest {
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.NORMALIZE, Status.SUCCESS);
 
     when(service.enrich(testRecord)).thenReturn(new RecordInfo(testRecord));
-    consumer.enrich(recordEvent);
+    consumer.enrich(List.of(recordEvent));
 
     verify(service).enrich(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Step.ENRICH, captor.getValue().getStep());
   }
@@ -64,10 +65,10 @@ class EnrichmentExecutorTest {
         .recordId(1L).build();
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.NORMALIZE, Status.FAIL);
 
-    consumer.enrich(recordEvent);
+    consumer.enrich(List.of(recordEvent));
 
     verify(service, never()).enrich(testRecord);
-    verify(amqpTemplate, never()).convertAndSend(any(), any(RecordProcessEvent.class));
+    verify(recordEventPublisher, never()).publish(any(), any(RecordProcessEvent.class));
   }
 
   @Test
@@ -80,10 +81,10 @@ class EnrichmentExecutorTest {
 
     when(service.enrich(record)).thenThrow(new RecordProcessingException("1", new Exception()));
 
-    consumer.enrich(recordEvent);
+    consumer.enrich(List.of(recordEvent));
 
     verify(service).enrich(record);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Status.FAIL, captor.getValue().getStatus());
   }
@@ -0,0 +1,145 @@
+package eu.europeana.metis.sandbox.executor.workflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
+import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
+import eu.europeana.metis.sandbox.common.locale.Country;
+import eu.europeana.metis.sandbox.common.locale.Language;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordError;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.workflow.EnrichmentService;
+import eu.europeana.metis.sandbox.service.workflow.ExternalValidationService;
+import eu.europeana.metis.sandbox.service.workflow.IndexingService;
+import eu.europeana.metis.sandbox.service.workflow.InternalValidationService;
+import eu.europeana.metis.sandbox.service.workflow.MediaProcessingService;
+import eu.europeana.metis.sandbox.service.workflow.NormalizationService;
+import eu.europeana.metis.sandbox.service.workflow.TransformationService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class FusedPipelineExecutorTest {
+
+  private static final String FUSED_ROUTING_KEY = "sandbox.record.fused";
+  private static final String CLOSED_ROUTING_KEY = "sandbox.record.closed";
+
+  @Mock
+  private RecordEventPublisher recordEventPublisher;
+
+  @Mock
+  private ExternalValidationService externalValidationService;
+
+  @Mock
+  private TransformationService transformationService;
+
+  @Mock
+  private InternalValidationService internalValidationService;
+
+  @Mock
+  private NormalizationService normalizationService;
+
+  @Mock
+  private EnrichmentService enrichmentService;
+
+  @Mock
+  private MediaProcessingService mediaProcessingService;
+
+  @Mock
+  private IndexingService indexingService;
+
+  @Captor
+  private ArgumentCaptor<RecordProcessEvent> captor;
+
+  @InjectMocks
+  private FusedPipelineExecutor consumer;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(consumer, "routingKey", FUSED_ROUTING_KEY);
+    ReflectionTestUtils.setField(consumer, "closedRoutingKey", CLOSED_ROUTING_KEY);
+  }
+
+  @Test
+  void process_expectAllStepsAndClose() {
+    final Record created = getTestRecord("created");
+    final Record validatedExternal = getTestRecord("validated external");
+    final Record transformed = getTestRecord("transformed");
+    final Record validatedInternal = getTestRecord("validated internal");
+    final Record normalized = getTestRecord("normalized");
+    final Record enriched = getTestRecord("enriched");
+    final Record media = getTestRecord("media");
+    final Record published = getTestRecord("published");
+    when(externalValidationService.validate(created)).thenReturn(new RecordInfo(validatedExternal));
+    when(transformationService.transformToEdmInternal(validatedExternal)).thenReturn(new RecordInfo(transformed));
+    when(internalValidationService.validate(transformed)).thenReturn(new RecordInfo(validatedInternal));
+    when(normalizationService.normalize(validatedInternal)).thenReturn(new RecordInfo(normalized));
+    when(enrichmentService.enrich(normalized)).thenReturn(
+        new RecordInfo(enriched, List.of(new RecordError("warning", "stack"))));
+    when(mediaProcessingService.processMedia(enriched)).thenReturn(new RecordInfo(media));
+    when(indexingService.index(media)).thenReturn(new RecordInfo(published));
+
+    consumer.process(List.of(new RecordProcessEvent(new RecordInfo(created), Step.HARVEST_FILE, Status.SUCCESS)));
+
+    verify(recordEventPublisher, times(7)).publish(eq(FUSED_ROUTING_KEY), captor.capture());
+    final List<RecordProcessEvent> events = captor.getAllValues();
+    assertEquals(List.of(Step.VALIDATE_EXTERNAL, Step.TRANSFORM, Step.VALIDATE_INTERNAL, Step.NORMALIZE, Step.ENRICH,
+        Step.MEDIA_PROCESS, Step.PUBLISH), events.stream().map(RecordProcessEvent::getStep).toList());
+    assertEquals(Status.WARN, events.get(4).getStatus());
+    assertEquals(published, events.get(6).getRecord());
+
+    verify(recordEventPublisher).publish(eq(CLOSED_ROUTING_KEY), captor.capture());
+    assertEquals(Step.CLOSE, captor.getValue().getStep());
+    assertEquals(Status.SUCCESS, captor.getValue().getStatus());
+    assertEquals(published, captor.getValue().getRecord());
+  }
+
+  @Test
+  void process_stepFails_expectStopAtFailedStep() {
+    final Record created = getTestRecord("created");
+    final Record validatedExternal = getTestRecord("validated external");
+    when(externalValidationService.validate(created)).thenReturn(new RecordInfo(validatedExternal));
+    when(transformationService.transformToEdmInternal(validatedExternal)).thenThrow(
+        new RecordProcessingException("1", new Exception("failed")));
+
+    consumer.process(List.of(new RecordProcessEvent(new RecordInfo(created), Step.HARVEST_FILE, Status.SUCCESS)));
+
+    verify(recordEventPublisher, times(2)).publish(eq(FUSED_ROUTING_KEY), captor.capture());
+    assertEquals(Step.TRANSFORM, captor.getValue().getStep());
+    assertEquals(Status.FAIL, captor.getValue().getStatus());
+    verify(recordEventPublisher, never()).publish(eq(CLOSED_ROUTING_KEY), any(RecordProcessEvent.class));
+    verifyNoInteractions(internalValidationService, normalizationService, enrichmentService, mediaProcessingService,
+        indexingService);
+  }
+
+  @Test
+  void process_inputMessageWithFailStatus_expectNoInteractions() {
+    consumer.process(List.of(new RecordProcessEvent(new RecordInfo(getTestRecord("created")), Step.HARVEST_FILE, Status.FAIL)));
+
+    verifyNoInteractions(recordEventPublisher, externalValidationService, transformationService);
+  }
+
+  private Record getTestRecord(String content) {
+    return Record.builder().datasetId("1").datasetName("").country(Country.ITALY).language(Language.IT)
+                 .content(content.getBytes()).recordId(1L).build();
+  }
+}
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
@@ -15,6 +16,7 @@ import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.InternalValidationService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,14 +24,13 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.AmqpTemplate;
 
 
 @ExtendWith(MockitoExtension.class)
 class InternalValidationExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Mock
   private InternalValidationService service;
@@ -50,10 +51,10 @@ class InternalValidationExecutorTest {
         Status.SUCCESS);
 
     when(service.validate(testRecord)).thenReturn(new RecordInfo(testRecord));
-    consumer.validateInternal(recordEvent);
+    consumer.validateInternal(List.of(recordEvent));
 
     verify(service).validate(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Step.VALIDATE_INTERNAL, captor.getValue().getStep());
   }
@@ -67,10 +68,10 @@ class InternalValidationExecutorTest {
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.VALIDATE_INTERNAL,
         Status.FAIL);
 
-    consumer.validateInternal(recordEvent);
+    consumer.validateInternal(List.of(recordEvent));
 
     verify(service, never()).validate(testRecord);
-    verify(amqpTemplate, never()).convertAndSend(any(), any(RecordProcessEvent.class));
+    verify(recordEventPublisher, never()).publish(any(), any(RecordProcessEvent.class));
   }
 
   @Test
@@ -84,10 +85,10 @@ class InternalValidationExecutorTest {
 
     when(service.validate(testRecord)).thenThrow(new RecordProcessingException("1", new Exception()));
 
-    consumer.validateInternal(recordEvent);
+    consumer.validateInternal(List.of(recordEvent));
 
     verify(service).validate(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Status.FAIL, captor.getValue().getStatus());
   }
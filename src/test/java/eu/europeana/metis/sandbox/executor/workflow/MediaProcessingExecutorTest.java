@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
@@ -14,6 +15,7 @@ import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.MediaProcessingService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -21,13 +23,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.AmqpTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class MediaProcessingExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Mock
   private MediaProcessingService service;
@@ -47,10 +48,10 @@ class MediaProcessingExecutorTest {
     RecordProcessEvent recordRecordProcessEvent = new RecordProcessEvent(new RecordInfo(testRecord),
             Step.ENRICH, Status.SUCCESS);
     when(service.processMedia(testRecord)).thenReturn(new RecordInfo(testRecord));
-    consumer.processMedia(recordRecordProcessEvent);
+    consumer.processMedia(List.of(recordRecordProcessEvent));
 
     verify(service).processMedia(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Step.MEDIA_PROCESS, captor.getValue().getStep());
   }
@@ -67,10 +68,10 @@ class MediaProcessingExecutorTest {
     when(service.processMedia(testRecord))
         .thenThrow(new RecordProcessingException("1", new Exception()));
 
-    consumer.processMedia(recordRecordProcessEvent);
+    consumer.processMedia(List.of(recordRecordProcessEvent));
 
     verify(service).processMedia(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Status.FAIL, captor.getValue().getStatus());
   }
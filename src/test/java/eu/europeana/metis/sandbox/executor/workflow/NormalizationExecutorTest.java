@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
@@ -15,6 +16,7 @@ import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.NormalizationService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,13 +24,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.AmqpTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class NormalizationExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Mock
   private NormalizationService service;
@@ -48,10 +49,10 @@ class NormalizationExecutorTest {
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
 
     when(service.normalize(testRecord)).thenReturn(new RecordInfo(testRecord));
-    consumer.normalize(recordEvent);
+    consumer.normalize(List.of(recordEvent));
 
     verify(service).normalize(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Step.NORMALIZE, captor.getValue().getStep());
   }
@@ -64,10 +65,10 @@ class NormalizationExecutorTest {
         .recordId(1L).build();
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.FAIL);
 
-    consumer.normalize(recordEvent);
+    consumer.normalize(List.of(recordEvent));
 
     verify(service, never()).normalize(testRecord);
-    verify(amqpTemplate, never()).convertAndSend(any(), any(RecordProcessEvent.class));
+    verify(recordEventPublisher, never()).publish(any(), any(RecordProcessEvent.class));
   }
 
   @Test
@@ -80,10 +81,10 @@ class NormalizationExecutorTest {
 
     when(service.normalize(testRecord)).thenThrow(new RecordProcessingException("1", new Exception()));
 
-    consumer.normalize(recordEvent);
+    consumer.normalize(List.of(recordEvent));
 
     verify(service).normalize(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Status.FAIL, captor.getValue().getStatus());
   }
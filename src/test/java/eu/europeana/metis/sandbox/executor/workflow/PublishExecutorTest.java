@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
@@ -15,6 +16,7 @@ import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.IndexingService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,13 +24,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.AmqpTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class PublishExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Mock
   private IndexingService service;
@@ -48,10 +49,10 @@ class PublishExecutorTest {
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
 
     when(service.index(testRecord)).thenReturn(new RecordInfo(testRecord));
-    consumer.publish(recordEvent);
+    consumer.publish(List.of(recordEvent));
 
     verify(service).index(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Step.PUBLISH, captor.getValue().getStep());
   }
@@ -64,10 +65,10 @@ class PublishExecutorTest {
         .recordId(1L).build();
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord),Step.HARVEST_FILE, Status.FAIL);
 
-    consumer.publish(recordEvent);
+    consumer.publish(List.of(recordEvent));
 
     verify(service, never()).index(testRecord);
-    verify(amqpTemplate, never()).convertAndSend(any(), any(RecordProcessEvent.class));
+    verify(recordEventPublisher, never()).publish(any(), any(RecordProcessEvent.class));
   }
 
   @Test
@@ -81,10 +82,10 @@ class PublishExecutorTest {
     when(service.index(testRecord))
         .thenThrow(new RecordProcessingException("1", new Exception()));
 
-    consumer.publish(recordEvent);
+    consumer.publish(List.of(recordEvent));
 
     verify(service).index(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Status.FAIL, captor.getValue().getStatus());
   }
@@ -7,16 +7,19 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,7 +30,6 @@ import org.mockito.Mock;
 import org.mockito.exceptions.base.MockitoException;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.core.AmqpTemplate;
 
 /**
  * Unit test for {@link StepExecutor}
@@ -39,7 +41,7 @@ import org.springframework.amqp.core.AmqpTemplate;
 class StepExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Captor
   private ArgumentCaptor<RecordProcessEvent> captor;
@@ -55,7 +57,7 @@ class StepExecutorTest {
 
     stepExecutor.consume(routingKey, myEvent, Step.HARVEST_FILE, this::getRecordInfo);
 
-    verify(amqpTemplate).convertAndSend(eq(routingKey), captor.capture());
+    verify(recordEventPublisher).publish(eq(routingKey), captor.capture());
 
     assertRecordId_CreatedStepAndStatus(getRecordInfo().getRecordValue().getRecordId(), Status.SUCCESS);
   }
@@ -68,7 +70,7 @@ class StepExecutorTest {
 
     stepExecutor.consume(routingKey, myEvent, Step.HARVEST_FILE, this::getRecordInfo);
 
-    verify(amqpTemplate, never()).convertAndSend(eq(routingKey), captor.capture());
+    verify(recordEventPublisher, never()).publish(eq(routingKey), captor.capture());
 
     assertThrows(MockitoException.class, () -> captor.getValue());
   }
@@ -85,7 +87,7 @@ class StepExecutorTest {
       throw new RuntimeException("General Failure");
     });
 
-    verify(amqpTemplate).convertAndSend(eq(routingKey), captor.capture());
+    verify(recordEventPublisher).publish(eq(routingKey), captor.capture());
 
     assertRecordId_CreatedStepAndStatus(expectedRecordId, Status.FAIL);
   }
@@ -102,7 +104,7 @@ class StepExecutorTest {
       throw new RecordProcessingException("2", new Throwable("Record failure"));
     });
 
-    verify(amqpTemplate).convertAndSend(eq(routingKey), captor.capture());
+    verify(recordEventPublisher).publish(eq(routingKey), captor.capture());
 
     assertRecordId_CreatedStepAndStatus(expectedRecordId, Status.FAIL);
   }
@@ -115,12 +117,36 @@ class StepExecutorTest {
     final RecordProcessEvent myEvent = new RecordProcessEvent(new RecordInfo(myTestRecord), Step.HARVEST_FILE, Status.SUCCESS);
     final RuntimeException runtimeException = new AmqpException("Queue Failure");
     doThrow(runtimeException)
-        .when(amqpTemplate)
-        .convertAndSend(eq(routingKey), any(Object.class));
+        .when(recordEventPublisher)
+        .publish(eq(routingKey), any(RecordProcessEvent.class));
 
     assertDoesNotThrow(() -> stepExecutor.consume(routingKey, myEvent, Step.HARVEST_FILE, this::getRecordInfo));
   }
 
+  @Test
+  void consumeBatchOneRecordThrowsException_expectOtherRecordsUnaffected() {
+    final String routingKey = "routingKey";
+    final RecordProcessEvent failingEvent = new RecordProcessEvent(new RecordInfo(getTestRecord(1L)), Step.HARVEST_FILE,
+        Status.SUCCESS);
+    final RecordProcessEvent failedEvent = new RecordProcessEvent(new RecordInfo(getTestRecord(2L)), Step.HARVEST_FILE,
+        Status.FAIL);
+    final RecordProcessEvent succeedingEvent = new RecordProcessEvent(new RecordInfo(getTestRecord(3L)), Step.HARVEST_FILE,
+        Status.SUCCESS);
+
+    stepExecutor.consume(routingKey, List.of(failingEvent, failedEvent, succeedingEvent), Step.HARVEST_FILE, record -> {
+      if (record.getRecordId() == 1L) {
+        throw new RuntimeException("General Failure");
+      }
+      return new RecordInfo(record);
+    });
+
+    verify(recordEventPublisher, times(2)).publish(eq(routingKey), captor.capture());
+    assertEquals(1L, captor.getAllValues().get(0).getRecord().getRecordId());
+    assertEquals(Status.FAIL, captor.getAllValues().get(0).getStatus());
+    assertEquals(3L, captor.getAllValues().get(1).getRecord().getRecordId());
+    assertEquals(Status.SUCCESS, captor.getAllValues().get(1).getStatus());
+  }
+
   private void assertRecordId_CreatedStepAndStatus(final Long RecordId, final Status status) {
     assertEquals(RecordId, captor.getValue().getRecord().getRecordId());
     assertEquals(Step.HARVEST_FILE, captor.getValue().getStep());
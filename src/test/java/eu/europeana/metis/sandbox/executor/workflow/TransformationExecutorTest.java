@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.amqp.RecordEventPublisher;
 import eu.europeana.metis.sandbox.common.exception.RecordProcessingException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
@@ -15,6 +16,7 @@ import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
 import eu.europeana.metis.sandbox.service.workflow.TransformationService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -22,13 +24,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.AmqpTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class TransformationExecutorTest {
 
   @Mock
-  private AmqpTemplate amqpTemplate;
+  private RecordEventPublisher recordEventPublisher;
 
   @Mock
   private TransformationService service;
@@ -49,10 +50,10 @@ class TransformationExecutorTest {
         Status.SUCCESS);
 
     when(service.transformToEdmInternal(testRecord)).thenReturn(new RecordInfo(testRecord));
-    consumer.transform(recordEvent);
+    consumer.transform(List.of(recordEvent));
 
     verify(service).transformToEdmInternal(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Step.TRANSFORM, captor.getValue().getStep());
   }
@@ -66,10 +67,10 @@ class TransformationExecutorTest {
     var recordEvent = new RecordProcessEvent(new RecordInfo(testRecord), Step.VALIDATE_EXTERNAL,
         Status.FAIL);
 
-    consumer.transform(recordEvent);
+    consumer.transform(List.of(recordEvent));
 
     verify(service, never()).transformToEdmInternal(testRecord);
-    verify(amqpTemplate, never()).convertAndSend(any(), any(RecordProcessEvent.class));
+    verify(recordEventPublisher, never()).publish(any(), any(RecordProcessEvent.class));
   }
 
   @Test
@@ -84,10 +85,10 @@ class TransformationExecutorTest {
     when(service.transformToEdmInternal(testRecord)).thenThrow(
         new RecordProcessingException("1", new Exception()));
 
-    consumer.transform(recordEvent);
+    consumer.transform(List.of(recordEvent));
 
     verify(service).transformToEdmInternal(testRecord);
-    verify(amqpTemplate).convertAndSend(any(), captor.capture());
+    verify(recordEventPublisher).publish(any(), captor.capture());
 
     assertEquals(Status.FAIL, captor.getValue().getStatus());
   }
@@ -14,6 +14,7 @@ import eu.europeana.metis.sandbox.config.amqp.AmqpConfiguration;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
 import eu.europeana.metis.sandbox.integration.testcontainers.RabbitMQTestContainersConfiguration;
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -32,6 +33,7 @@ import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -54,6 +56,8 @@ class AmqpConfigurationIT {
   private AmqpTemplate amqpTemplate;
   @Autowired
   private AmqpAdmin amqpAdmin;
+  @MockBean
+  private RecordClaimCheckService recordClaimCheckService;
 
   @BeforeAll
   static void beforeAll() {
@@ -0,0 +1,85 @@
+package eu.europeana.metis.sandbox.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.jdbc.JdbcTestUtils.deleteFromTables;
+
+import eu.europeana.metis.sandbox.integration.testcontainers.PostgresTestContainersConfiguration;
+import eu.europeana.metis.sandbox.integration.testcontainers.SandboxIntegrationConfiguration;
+import eu.europeana.metis.sandbox.repository.RecordContentJdbcRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@ExtendWith(SpringExtension.class)
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE) //Do not allow JdbcTest to replace the Datasource
+@ContextConfiguration(classes = RecordContentJdbcRepository.class)
+@Import({PostgresTestContainersConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) //Every batch of the deletion is committed on its own
+class RecordContentJdbcRepositoryIT {
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private RecordContentJdbcRepository recordContentJdbcRepository;
+
+  @BeforeAll
+  static void beforeAll() {
+    SandboxIntegrationConfiguration.testContainersPostgresConfiguration();
+  }
+
+  @AfterEach
+  void cleanup() {
+    deleteFromTables(jdbcTemplate, "record_log", "record", "record_content");
+  }
+
+  @Test
+  void deleteUnreferenced_moreThanOneBatch_expectOnlyUnreferencedDeleted() {
+    final List<String> hashes = recordContentJdbcRepository.saveAll(IntStream.range(0, 2500)
+                                                                             .mapToObj(i -> content("content " + i))
+                                                                             .toList());
+    insertRecordLog(hashes.getFirst());
+
+    assertEquals(2499, recordContentJdbcRepository.deleteUnreferenced());
+    assertEquals(List.of(hashes.getFirst()), jdbcTemplate.queryForList("SELECT hash FROM record_content", String.class));
+  }
+
+  @Test
+  void isContentMissing_recordLogOfDeletedContent_expectTrue() {
+    final String hash = recordContentJdbcRepository.save(content("content"));
+    assertEquals(1, recordContentJdbcRepository.deleteUnreferenced());
+
+    final DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+        () -> insertRecordLog(hash));
+
+    assertTrue(RecordContentJdbcRepository.isContentMissing(exception));
+  }
+
+  private void insertRecordLog(String contentHash) {
+    final Long recordId = jdbcTemplate.queryForObject(
+        "INSERT INTO record (europeana_id, provider_id, dataset_id) VALUES ('/1/id', 'id', '1') RETURNING id", Long.class);
+    jdbcTemplate.update("INSERT INTO record_log (record_id, step, status, content_hash) VALUES (?, 'CLOSE', 'SUCCESS', ?)",
+        recordId, contentHash);
+  }
+
+  private static byte[] content(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+}
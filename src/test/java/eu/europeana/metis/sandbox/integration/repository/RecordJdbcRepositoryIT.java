@@ -0,0 +1,112 @@
+package eu.europeana.metis.sandbox.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.jdbc.JdbcTestUtils.deleteFromTables;
+
+import eu.europeana.metis.sandbox.entity.RecordEntity;
+import eu.europeana.metis.sandbox.integration.testcontainers.PostgresTestContainersConfiguration;
+import eu.europeana.metis.sandbox.integration.testcontainers.SandboxIntegrationConfiguration;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository.CopiedRecords;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE) //Do not allow JdbcTest to replace the Datasource
+@ContextConfiguration(classes = RecordJdbcRepository.class)
+@Import({PostgresTestContainersConfiguration.class})
+class RecordJdbcRepositoryIT {
+
+  private static final String BASELINE_DATASET_ID = "1";
+  private static final String DATASET_ID = "2";
+  private static final String CONTENT_HASH = "hash";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private RecordJdbcRepository recordJdbcRepository;
+
+  @BeforeAll
+  static void beforeAll() {
+    SandboxIntegrationConfiguration.testContainersPostgresConfiguration();
+  }
+
+  @AfterEach
+  void cleanup() {
+    deleteFromTables(jdbcTemplate, "record_error_log", "record_log", "record", "record_content");
+  }
+
+  @Test
+  void copyProcessedRecords_changedDeletedAndUnchangedRecords() {
+    jdbcTemplate.update("INSERT INTO record_content (hash, codec, content) VALUES (?, 'NONE', ?)", CONTENT_HASH,
+        new byte[]{1});
+    // The provider ids of the baseline were replaced by the rdf:about during processing
+    final long changed = insertProcessedRecord(BASELINE_DATASET_ID, "oai:changed", "about:changed");
+    insertProcessedRecord(BASELINE_DATASET_ID, "oai:deleted", "about:deleted");
+    final long unchanged = insertProcessedRecord(BASELINE_DATASET_ID, "oai:unchanged", "about:unchanged");
+    jdbcTemplate.update("INSERT INTO record_error_log (record_id, step, status, message, stack_trace) "
+        + "VALUES (?, 'VALIDATE_INTERNAL', 'WARN', 'message', 'stack trace')", unchanged);
+
+    // The changed record was harvested again, and its provider id replaced again
+    final RecordEntity harvestedRecord = new RecordEntity("oai:changed", DATASET_ID);
+    final Set<Long> insertedIds = recordJdbcRepository.insertRecords(List.of(harvestedRecord));
+    assertEquals(Set.of(harvestedRecord.getId()), insertedIds);
+    assertEquals(1, recordJdbcRepository.updateRecord(harvestedRecord.getId(), "/2/changed", "about:changed", DATASET_ID));
+
+    final CopiedRecords copiedRecords = recordJdbcRepository.copyProcessedRecords(BASELINE_DATASET_ID, DATASET_ID,
+        List.of("oai:deleted"), 10);
+
+    assertEquals(new CopiedRecords(1, 1), copiedRecords);
+    assertEquals(List.of("oai:changed", "oai:unchanged"), jdbcTemplate.queryForList(
+        "SELECT harvest_id FROM record WHERE dataset_id = ? ORDER BY harvest_id", String.class, DATASET_ID));
+    assertEquals(List.of("about:changed", "about:unchanged"), jdbcTemplate.queryForList(
+        "SELECT provider_id FROM record WHERE dataset_id = ? ORDER BY harvest_id", String.class, DATASET_ID));
+    assertEquals(List.of("CLOSE"), jdbcTemplate.queryForList(
+        "SELECT log.step FROM record_log log JOIN record rec ON rec.id = log.record_id "
+            + "WHERE rec.dataset_id = ? AND rec.harvest_id = 'oai:unchanged'", String.class, DATASET_ID));
+    assertEquals(List.of("VALIDATE_INTERNAL"), jdbcTemplate.queryForList(
+        "SELECT error.step FROM record_error_log error JOIN record rec ON rec.id = error.record_id "
+            + "WHERE rec.dataset_id = ? AND rec.harvest_id = 'oai:unchanged'", String.class, DATASET_ID));
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM record_log WHERE record_id = ?", Integer.class,
+        harvestedRecord.getId()));
+    assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM record_log WHERE record_id = ?", Integer.class,
+        changed));
+  }
+
+  @Test
+  void copyProcessedRecords_recordLimit() {
+    jdbcTemplate.update("INSERT INTO record_content (hash, codec, content) VALUES (?, 'NONE', ?)", CONTENT_HASH,
+        new byte[]{1});
+    insertProcessedRecord(BASELINE_DATASET_ID, "oai:first", "about:first");
+    insertProcessedRecord(BASELINE_DATASET_ID, "oai:second", "about:second");
+
+    final CopiedRecords copiedRecords = recordJdbcRepository.copyProcessedRecords(BASELINE_DATASET_ID, DATASET_ID,
+        List.of(), 1);
+
+    assertEquals(new CopiedRecords(1, 2), copiedRecords);
+    assertEquals(List.of("oai:first"), jdbcTemplate.queryForList(
+        "SELECT harvest_id FROM record WHERE dataset_id = ?", String.class, DATASET_ID));
+  }
+
+  private long insertProcessedRecord(String datasetId, String harvestId, String providerId) {
+    final Long recordId = jdbcTemplate.queryForObject(
+        "INSERT INTO record (europeana_id, provider_id, harvest_id, dataset_id) VALUES (?, ?, ?, ?) RETURNING id",
+        Long.class, "/" + datasetId + "/" + providerId, providerId, harvestId, datasetId);
+    jdbcTemplate.update("INSERT INTO record_log (record_id, step, status, content_hash) VALUES (?, 'CLOSE', 'SUCCESS', ?)",
+        recordId, CONTENT_HASH);
+    return recordId;
+  }
+}
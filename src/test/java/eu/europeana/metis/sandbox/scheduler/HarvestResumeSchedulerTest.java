@@ -0,0 +1,83 @@
+package eu.europeana.metis.sandbox.scheduler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import eu.europeana.metis.sandbox.common.HarvestProtocol;
+import eu.europeana.metis.sandbox.entity.DatasetEntity;
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
+import eu.europeana.metis.sandbox.service.dataset.HarvestingParameterService;
+import eu.europeana.metis.sandbox.service.workflow.HarvestPublishService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HarvestResumeSchedulerTest {
+
+  @Mock
+  private HarvestingParameterService harvestingParameterService;
+
+  @Mock
+  private HarvestPublishService harvestPublishService;
+
+  @InjectMocks
+  private HarvestResumeScheduler harvestResumeScheduler;
+
+  @BeforeEach
+  void init() {
+    setField(harvestResumeScheduler, "staleAfterMinutes", 10);
+  }
+
+  @Test
+  void resumeInterruptedHarvests_expectSuccess() {
+    final DatasetEntity datasetEntity = new DatasetEntity();
+    datasetEntity.setDatasetId(1);
+    final HarvestingParameterEntity interruptedHarvest = new HarvestingParameterEntity(datasetEntity,
+        HarvestProtocol.OAI_PMH, null, null, "url", "setSpec", "metadataFormat");
+    when(harvestPublishService.getRunningHarvests()).thenReturn(Set.of("2"));
+    when(harvestingParameterService.claimInterruptedHarvests(Duration.ofMinutes(10), Set.of("2")))
+        .thenReturn(List.of(interruptedHarvest));
+
+    harvestResumeScheduler.resumeInterruptedHarvests();
+
+    verify(harvestPublishService).resumeHarvestOaiPmhAsync(interruptedHarvest);
+  }
+
+  @Test
+  void resumeInterruptedHarvests_nothingInterrupted_expectNothingResumed() {
+    when(harvestingParameterService.claimInterruptedHarvests(Duration.ofMinutes(10), Set.of())).thenReturn(List.of());
+
+    harvestResumeScheduler.resumeInterruptedHarvests();
+
+    verify(harvestPublishService, never()).resumeHarvestOaiPmhAsync(any());
+  }
+
+  @Test
+  void reportRunningHarvests_expectTouched() {
+    when(harvestPublishService.getRunningHarvests()).thenReturn(Set.of("1", "2"));
+
+    harvestResumeScheduler.reportRunningHarvests();
+
+    verify(harvestingParameterService).touchHarvests(Set.of("1", "2"));
+  }
+
+  @Test
+  void reportRunningHarvests_nothingRunning_expectNothingTouched() {
+    when(harvestPublishService.getRunningHarvests()).thenReturn(Set.of());
+
+    harvestResumeScheduler.reportRunningHarvests();
+
+    verifyNoInteractions(harvestingParameterService);
+  }
+}
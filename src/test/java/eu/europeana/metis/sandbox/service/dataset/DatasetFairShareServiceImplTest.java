@@ -0,0 +1,158 @@
+package eu.europeana.metis.sandbox.service.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.locale.Country;
+import eu.europeana.metis.sandbox.common.locale.Language;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.repository.DatasetJdbcRepository;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetFairShareServiceImplTest {
+
+  private static final Runnable NOTHING_HELD_BACK = () -> {
+  };
+
+  @Mock
+  private DatasetJdbcRepository datasetJdbcRepository;
+
+  @Test
+  void awaitTurn_disabled_expectNoInteractions() {
+    final DatasetFairShareServiceImpl service = getService(0, 60000);
+
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.recordLogged(getEvent(Step.CLOSE, Status.SUCCESS));
+    service.saveFinishedRecords();
+
+    verifyNoInteractions(datasetJdbcRepository);
+  }
+
+  @Test
+  void awaitTurn_belowMaximum_expectNoWait() {
+    final DatasetFairShareServiceImpl service = getService(3, 60000);
+    when(datasetJdbcRepository.getFinishedRecords(1)).thenReturn(10L);
+
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+
+    verify(datasetJdbcRepository).getFinishedRecords(1);
+  }
+
+  @Test
+  void awaitTurn_atMaximum_expectWaitForFinishedRecord() {
+    final DatasetFairShareServiceImpl service = getService(2, 60000);
+    when(datasetJdbcRepository.getFinishedRecords(1)).thenReturn(10L, 10L, 11L);
+
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+
+    verify(datasetJdbcRepository, times(3)).getFinishedRecords(1);
+  }
+
+  @Test
+  void awaitTurn_waitedTooLong_expectNotLimitedAnymore() {
+    // the clock stands still, so the finished records are read only once
+    final DatasetFairShareServiceImpl service = new DatasetFairShareServiceImpl(datasetJdbcRepository, 1, 1, 0, () -> 0L);
+    when(datasetJdbcRepository.getFinishedRecords(1)).thenReturn(10L);
+
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+
+    verify(datasetJdbcRepository).getFinishedRecords(1);
+  }
+
+  @Test
+  void awaitTurn_readFails_expectNoWait() {
+    final DatasetFairShareServiceImpl service = getService(1, 60000);
+    when(datasetJdbcRepository.getFinishedRecords(1)).thenThrow(new RuntimeException("failed"));
+
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+  }
+
+  @Test
+  void awaitTurn_atMaximum_expectHeldBackRecordsPublishedBeforeWaiting() {
+    // the clock stands still, so the finished records are read only once
+    final DatasetFairShareServiceImpl service = new DatasetFairShareServiceImpl(datasetJdbcRepository, 1, 1, 0, () -> 0L);
+    when(datasetJdbcRepository.getFinishedRecords(1)).thenReturn(10L);
+    final AtomicInteger publishedHeldBackRecords = new AtomicInteger();
+
+    service.awaitTurn("1", publishedHeldBackRecords::incrementAndGet);
+    assertEquals(0, publishedHeldBackRecords.get());
+    service.awaitTurn("1", publishedHeldBackRecords::incrementAndGet);
+    assertEquals(1, publishedHeldBackRecords.get());
+  }
+
+  @Test
+  void releaseTurn_expectTurnAvailableAgain() {
+    final DatasetFairShareServiceImpl service = getService(1, 60000);
+    when(datasetJdbcRepository.getFinishedRecords(1)).thenReturn(10L);
+
+    service.awaitTurn("1", NOTHING_HELD_BACK);
+    service.releaseTurn("1");
+    service.awaitTurn("1", () -> fail("The released turn is not available"));
+
+    verify(datasetJdbcRepository).getFinishedRecords(1);
+  }
+
+  @Test
+  void recordLogged_expectLastEventsOfRecordsSaved() {
+    final DatasetFairShareServiceImpl service = getService(2, 60000);
+
+    service.recordLogged(getEvent(Step.CLOSE, Status.SUCCESS));
+    service.recordLogged(getEvent(Step.ENRICH, Status.FAIL));
+    service.recordLogged(getEvent(Step.ENRICH, Status.SUCCESS));
+    service.recordLogged(getEvent(Step.HARVEST_FILE, Status.FAIL));
+    service.recordLogged(getEvent(Step.DEBIAS, Status.FAIL));
+    service.saveFinishedRecords();
+    service.saveFinishedRecords();
+
+    verify(datasetJdbcRepository).addFinishedRecords(1, 2L);
+  }
+
+  @Test
+  void saveFinishedRecords_saveFails_expectRetried() {
+    final DatasetFairShareServiceImpl service = getService(2, 60000);
+    doThrow(new RuntimeException("failed")).doNothing().when(datasetJdbcRepository).addFinishedRecords(anyInt(), anyLong());
+
+    service.recordLogged(getEvent(Step.CLOSE, Status.SUCCESS));
+    service.saveFinishedRecords();
+    service.recordLogged(getEvent(Step.CLOSE, Status.SUCCESS));
+    service.saveFinishedRecords();
+
+    verify(datasetJdbcRepository).addFinishedRecords(1, 1L);
+    verify(datasetJdbcRepository).addFinishedRecords(1, 2L);
+    verify(datasetJdbcRepository, never()).addFinishedRecords(1, 3L);
+  }
+
+  private DatasetFairShareServiceImpl getService(long maxInFlight, long maxWaitMillis) {
+    return new DatasetFairShareServiceImpl(datasetJdbcRepository, maxInFlight, 1, maxWaitMillis, System::currentTimeMillis);
+  }
+
+  private RecordProcessEvent getEvent(Step step, Status status) {
+    final Record testRecord = Record.builder().recordId(1L).datasetId("1").datasetName("").country(Country.ITALY)
+                                    .language(Language.IT).content("content".getBytes()).build();
+    return new RecordProcessEvent(new RecordInfo(testRecord), step, status);
+  }
+}
@@ -3,6 +3,7 @@ package eu.europeana.metis.sandbox.service.dataset;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,12 +11,15 @@ import static org.mockito.Mockito.when;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.service.debias.DeBiasStateService;
 import eu.europeana.metis.sandbox.service.problempatterns.ProblemPatternDataRemover;
+import eu.europeana.metis.sandbox.service.record.RecordClaimCheckService;
 import eu.europeana.metis.sandbox.service.record.RecordLogService;
 import eu.europeana.metis.sandbox.service.record.RecordService;
 import eu.europeana.metis.sandbox.service.util.ThumbnailStoreService;
 import eu.europeana.metis.sandbox.service.util.VacuumService;
 import eu.europeana.metis.sandbox.service.workflow.IndexingService;
+import eu.europeana.metis.sandbox.service.workflow.TransformationService;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -43,6 +47,9 @@ class DatasetRemoverServiceImplTest {
   @Mock
   private RecordService recordService;
 
+  @Mock
+  private RecordClaimCheckService recordClaimCheckService;
+
   @Mock
   private ProblemPatternDataRemover problemPatternDataRemover;
 
@@ -55,6 +62,9 @@ class DatasetRemoverServiceImplTest {
   @Mock
   private VacuumService vacuumService;
 
+  @Mock
+  private TransformationService transformationService;
+
   @InjectMocks
   private DatasetRemoverServiceImpl service;
 
@@ -71,9 +81,12 @@ class DatasetRemoverServiceImplTest {
     verify(harvestingParameterService, times(4)).remove(anyString());
     verify(datasetService, times(4)).remove(anyString());
     verify(datasetLogService, times(4)).remove(anyString());
+    verify(recordClaimCheckService, times(4)).remove(anyString());
     verify(recordService, times(4)).remove(anyString());
     verify(problemPatternDataRemover, times(4)).removeProblemPatternDataFromDatasetId(anyString());
     verify(deBiasStateService, times(4)).cleanDeBiasReport(anyInt());
+    verify(transformationService, times(4)).evictDatasetXslt(anyString());
+    verify(recordLogService, times(1)).removeUnreferencedContents();
     verify(vacuumService, times(1)).vacuum();
   }
 
@@ -94,6 +107,7 @@ class DatasetRemoverServiceImplTest {
     verify(harvestingParameterService, times(3)).remove(anyString());
     verify(datasetService, times(3)).remove(anyString());
     verify(datasetLogService, times(3)).remove(anyString());
+    verify(recordClaimCheckService, times(3)).remove(anyString());
     verify(recordService, times(3)).remove(anyString());
     verify(problemPatternDataRemover, times(3)).removeProblemPatternDataFromDatasetId(anyString());
     verify(deBiasStateService, times(3)).cleanDeBiasReport(anyInt());
@@ -116,10 +130,46 @@ class DatasetRemoverServiceImplTest {
     verify(harvestingParameterService, times(3)).remove(anyString());
     verify(datasetService, times(3)).remove(anyString());
     verify(datasetLogService, times(3)).remove(anyString());
+    verify(recordClaimCheckService, times(3)).remove(anyString());
     verify(recordService, times(3)).remove(anyString());
     verify(problemPatternDataRemover, times(3)).removeProblemPatternDataFromDatasetId(anyString());
   }
 
+  @Test
+  void remove_baselineOfKeptDataset_expectBaselineKept() {
+    when(datasetService.getDatasetIdsCreatedBefore(7))
+        .thenReturn(List.of("1", "2", "3", "4"));
+    // 5 is kept and is harvested against 3, which is harvested against 2; 4 is removed with its baseline 1
+    when(datasetService.getBaselineDatasetIds())
+        .thenReturn(Map.of("5", "3", "3", "2", "4", "1"));
+
+    service.remove(7);
+
+    verify(datasetService, times(1)).remove("1");
+    verify(datasetService, times(1)).remove("4");
+    verify(datasetService, never()).remove("2");
+    verify(datasetService, never()).remove("3");
+    verify(indexingService, never()).remove("2");
+    verify(indexingService, never()).remove("3");
+    verify(thumbnailStoreService, never()).remove("2");
+    verify(thumbnailStoreService, never()).remove("3");
+    verify(vacuumService, times(1)).vacuum();
+  }
+
+  @Test
+  void remove_failToRemoveUnreferencedContents_expectVacuum() {
+    when(datasetService.getDatasetIdsCreatedBefore(7))
+        .thenReturn(List.of("1"));
+    doThrow(new ServiceException("Error removing contents", new RuntimeException()))
+        .when(recordLogService)
+        .removeUnreferencedContents();
+
+    service.remove(7);
+
+    verify(recordLogService, times(1)).remove("1");
+    verify(vacuumService, times(1)).vacuum();
+  }
+
   @Test
   void remove_failToRemoveThrowException_expectLogError() {
     doThrow(new ServiceException("Error getting ids", new RuntimeException()))
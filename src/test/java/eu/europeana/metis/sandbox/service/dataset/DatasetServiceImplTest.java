@@ -21,13 +21,17 @@ import eu.europeana.metis.sandbox.dto.HttpHarvestingDto;
 import eu.europeana.metis.sandbox.dto.OAIPmhHarvestingDto;
 import eu.europeana.metis.sandbox.entity.DatasetEntity;
 import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
+import eu.europeana.metis.sandbox.entity.projection.DatasetBaselineView;
 import eu.europeana.metis.sandbox.entity.projection.DatasetIdView;
+import eu.europeana.metis.sandbox.repository.DatasetJdbcRepository;
 import eu.europeana.metis.sandbox.repository.DatasetRepository;
 import eu.europeana.metis.sandbox.repository.HarvestingParameterRepository;
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +47,9 @@ class DatasetServiceImplTest {
   @Mock
   private DatasetRepository datasetRepository;
 
+  @Mock
+  private DatasetJdbcRepository datasetJdbcRepository;
+
   @Mock
   private HarvestingParameterRepository harvestingParameterRepository;
 
@@ -66,6 +73,27 @@ class DatasetServiceImplTest {
     }
   }
 
+  private static class DatasetBaselineViewImpl implements DatasetBaselineView {
+
+    private final Integer datasetId;
+    private final Integer baselineDatasetId;
+
+    public DatasetBaselineViewImpl(Integer datasetId, Integer baselineDatasetId) {
+      this.datasetId = datasetId;
+      this.baselineDatasetId = baselineDatasetId;
+    }
+
+    @Override
+    public Integer getDatasetId() {
+      return datasetId;
+    }
+
+    @Override
+    public Integer getBaselineDatasetId() {
+      return baselineDatasetId;
+    }
+  }
+
   @Test
   void remove_expectSuccess() {
     service.remove("1");
@@ -101,6 +129,29 @@ class DatasetServiceImplTest {
     assertThrows(ServiceException.class, () -> service.getDatasetIdsCreatedBefore(7));
   }
 
+  @Test
+  void getBaselineDatasetIds_expectSuccess() {
+    when(datasetRepository.getByBaselineDatasetIdIsNotNull())
+        .thenReturn(List.of(new DatasetBaselineViewImpl(2, 1), new DatasetBaselineViewImpl(3, 2)));
+
+    var result = service.getBaselineDatasetIds();
+
+    assertEquals(Map.of("2", "1", "3", "2"), result);
+  }
+
+  @Test
+  void getBaselineDatasetIds_failToGetIds_expectFail() {
+    when(datasetRepository.getByBaselineDatasetIdIsNotNull()).thenThrow(new RuntimeException("Issue"));
+
+    assertThrows(ServiceException.class, () -> service.getBaselineDatasetIds());
+  }
+
+  @Test
+  void setBaselineDataset_expectSuccess() {
+    service.setBaselineDataset("2", "1");
+    verify(datasetRepository).updateBaselineDatasetId(2, 1);
+  }
+
   @Test
   void createEmptyDataset_withoutXslt_expectSuccess() {
     DatasetEntity datasetEntity = new DatasetEntity();
@@ -163,10 +214,43 @@ class DatasetServiceImplTest {
 
   @Test
   void updateRecordsLimitExceededToTrue_expectSuccess() {
-    service.setRecordLimitExceeded("1");
+    when(datasetRepository.setRecordLimitExceeded(1)).thenReturn(1);
+    assertTrue(service.setRecordLimitExceeded("1"));
     verify(datasetRepository).setRecordLimitExceeded(1);
   }
 
+  @Test
+  void updateRecordsLimitExceededToTrue_alreadySet_expectFalse() {
+    when(datasetRepository.setRecordLimitExceeded(1)).thenReturn(0);
+    assertFalse(service.setRecordLimitExceeded("1"));
+  }
+
+  @Test
+  void admitRecord_expectSuccess() {
+    when(datasetJdbcRepository.admitRecord(1, 10)).thenReturn(3L);
+    assertEquals(3L, service.admitRecord("1", 10));
+  }
+
+  @Test
+  void getAdmittedRecords_expectSuccess() {
+    final DatasetEntity datasetEntity = new DatasetEntity();
+    datasetEntity.setAdmittedRecords(7L);
+    when(datasetRepository.findById(1)).thenReturn(Optional.of(datasetEntity));
+    assertEquals(7L, service.getAdmittedRecords("1"));
+  }
+
+  @Test
+  void releaseAdmittedRecord_expectSuccess() {
+    service.releaseAdmittedRecord("1");
+    verify(datasetRepository).releaseAdmittedRecord(1);
+  }
+
+  @Test
+  void updateNumberOfTotalRecordToAdmitted_expectSuccess() {
+    service.updateNumberOfTotalRecordToAdmitted("1");
+    verify(datasetRepository).updateRecordsQuantityToAdmittedRecords(1);
+  }
+
   @Test
   void updateRecordsLimitExceededToTrue_expectTrue() {
     when(datasetRepository.isXsltPresent(1)).thenReturn(1);
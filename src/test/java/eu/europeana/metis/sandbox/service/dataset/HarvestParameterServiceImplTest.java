@@ -2,6 +2,7 @@ package eu.europeana.metis.sandbox.service.dataset;
 
 import eu.europeana.metis.sandbox.common.HarvestProtocol;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.dto.FileHarvestingDto;
 import eu.europeana.metis.sandbox.dto.HarvestingParametricDto;
 import eu.europeana.metis.sandbox.dto.HttpHarvestingDto;
@@ -18,13 +19,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -150,4 +157,55 @@ class HarvestParameterServiceImplTest {
         assertThrows(ServiceException.class, () -> harvestingParameterService.remove("1"));
     }
 
+    @Test
+    void saveHarvestCheckpoint_expectSuccess(){
+        harvestingParameterService.saveHarvestCheckpoint("1", new HarvestCheckpoint(10, 2, 14, 1));
+        verify(harvestingParameterRepository).updateCheckpoint(1, 10, 2, 14, 1);
+    }
+
+    @Test
+    void claimInterruptedHarvests_onlyClaimedOaiHarvests_expectSuccess(){
+        HarvestingParameterEntity oaiEntity = new HarvestingParameterEntity(createDatasetEntity(1), HarvestProtocol.OAI_PMH,
+                null, null, "url", "setSpec", "metadataFormat");
+        oaiEntity.setId(1L);
+        HarvestingParameterEntity claimedElsewhereEntity = new HarvestingParameterEntity(createDatasetEntity(2),
+                HarvestProtocol.OAI_PMH, null, null, "url", "setSpec", "metadataFormat");
+        claimedElsewhereEntity.setId(2L);
+        HarvestingParameterEntity fileEntity = new HarvestingParameterEntity(createDatasetEntity(3), HarvestProtocol.FILE,
+                "fileName", "fileType", null, null, null);
+        fileEntity.setId(3L);
+        HarvestingParameterEntity runningEntity = new HarvestingParameterEntity(createDatasetEntity(4),
+                HarvestProtocol.OAI_PMH, null, null, "url", "setSpec", "metadataFormat");
+        runningEntity.setId(4L);
+        when(harvestingParameterRepository.findInterruptedHarvests(any(ZonedDateTime.class)))
+                .thenReturn(List.of(oaiEntity, claimedElsewhereEntity, fileEntity, runningEntity));
+        when(harvestingParameterRepository.claimInterruptedHarvest(eq(1L), any(ZonedDateTime.class))).thenReturn(1);
+        when(harvestingParameterRepository.claimInterruptedHarvest(eq(2L), any(ZonedDateTime.class))).thenReturn(0);
+
+        List<HarvestingParameterEntity> claimedEntities = harvestingParameterService.claimInterruptedHarvests(
+                Duration.ofMinutes(10), Set.of("4"));
+
+        assertEquals(List.of(oaiEntity), claimedEntities);
+        verify(harvestingParameterRepository, never()).claimInterruptedHarvest(eq(3L), any(ZonedDateTime.class));
+        verify(harvestingParameterRepository, never()).claimInterruptedHarvest(eq(4L), any(ZonedDateTime.class));
+    }
+
+    @Test
+    void touchHarvests_expectSuccess(){
+        harvestingParameterService.touchHarvests(List.of("1", "2"));
+        verify(harvestingParameterRepository).touchHarvests(List.of(1, 2));
+    }
+
+    @Test
+    void touchHarvests_nothingRunning_expectNothingTouched(){
+        harvestingParameterService.touchHarvests(List.of());
+        verify(harvestingParameterRepository, never()).touchHarvests(any());
+    }
+
+    private static DatasetEntity createDatasetEntity(int datasetId){
+        DatasetEntity datasetEntity = new DatasetEntity();
+        datasetEntity.setDatasetId(datasetId);
+        return datasetEntity;
+    }
+
 }
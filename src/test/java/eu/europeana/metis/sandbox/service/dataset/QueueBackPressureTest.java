@@ -0,0 +1,66 @@
+package eu.europeana.metis.sandbox.service.dataset;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+
+@ExtendWith(MockitoExtension.class)
+class QueueBackPressureTest {
+
+  @Mock
+  private AmqpAdmin amqpAdmin;
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void awaitCapacity_belowHighWaterMark_expectNoWait() {
+    when(amqpAdmin.getQueueInfo("queue")).thenReturn(new QueueInformation("queue", 99, 1));
+    final QueueBackPressure queueBackPressure = new QueueBackPressure(amqpAdmin, 100, 50, 10, clock::get);
+
+    queueBackPressure.awaitCapacity("queue");
+    queueBackPressure.awaitCapacity("queue");
+
+    // The depth is read once per check interval.
+    verify(amqpAdmin, times(1)).getQueueInfo("queue");
+  }
+
+  @Test
+  void awaitCapacity_aboveHighWaterMark_expectWaitUntilLowWaterMark() {
+    when(amqpAdmin.getQueueInfo("queue")).thenReturn(new QueueInformation("queue", 100, 1),
+        new QueueInformation("queue", 51, 1), new QueueInformation("queue", 50, 1));
+    final QueueBackPressure queueBackPressure = new QueueBackPressure(amqpAdmin, 100, 50, 1,
+        () -> clock.addAndGet(1));
+
+    queueBackPressure.awaitCapacity("queue");
+
+    verify(amqpAdmin, times(3)).getQueueInfo("queue");
+  }
+
+  @Test
+  void awaitCapacity_unknownQueue_expectNoWait() {
+    when(amqpAdmin.getQueueInfo("queue")).thenReturn(null);
+    final QueueBackPressure queueBackPressure = new QueueBackPressure(amqpAdmin, 100, 50, 10, clock::get);
+
+    queueBackPressure.awaitCapacity("queue");
+
+    verify(amqpAdmin, times(1)).getQueueInfo("queue");
+  }
+
+  @Test
+  void awaitCapacity_disabled_expectQueueNotRead() {
+    final QueueBackPressure queueBackPressure = new QueueBackPressure(amqpAdmin, 0, 0, 10, clock::get);
+
+    queueBackPressure.awaitCapacity("queue");
+
+    verify(amqpAdmin, never()).getQueueInfo("queue");
+  }
+}
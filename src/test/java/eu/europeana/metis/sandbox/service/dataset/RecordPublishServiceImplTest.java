@@ -29,13 +29,16 @@ class RecordPublishServiceImplTest {
   @Mock
   private AmqpTemplate amqpTemplate;
 
+  @Mock
+  private QueueBackPressure queueBackPressure;
+
   private RecordPublishService service;
 
 
   @BeforeEach
   void setUp() {
     service = new RecordPublishServiceImpl(amqpTemplate, "createdQueue",
-        "transformationEdmExternalQueue");
+        "transformationEdmExternalQueue", queueBackPressure);
   }
 
   @Test
@@ -50,6 +53,7 @@ class RecordPublishServiceImplTest {
 
     dataset.getRecords().forEach(testRecord -> service.publishToHarvestQueue(new RecordInfo(testRecord), Step.HARVEST_FILE));
 
+    verify(queueBackPressure, times(2)).awaitCapacity("createdQueue");
     verify(amqpTemplate, times(2)).convertAndSend(eq("createdQueue"), any(RecordProcessEvent.class));
   }
 
@@ -83,6 +87,7 @@ class RecordPublishServiceImplTest {
 
     dataset.getRecords().forEach(testRecord -> service.publishToTransformationToEdmExternalQueue(new RecordInfo(testRecord), Step.HARVEST_FILE));
 
+    verify(queueBackPressure, times(2)).awaitCapacity("transformationEdmExternalQueue");
     verify(amqpTemplate, times(2)).convertAndSend(eq("transformationEdmExternalQueue"), any(RecordProcessEvent.class));
   }
 
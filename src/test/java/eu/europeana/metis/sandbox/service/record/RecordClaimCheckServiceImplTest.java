@@ -0,0 +1,133 @@
+package eu.europeana.metis.sandbox.service.record;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import eu.europeana.metis.sandbox.common.Status;
+import eu.europeana.metis.sandbox.common.Step;
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.common.locale.Country;
+import eu.europeana.metis.sandbox.common.locale.Language;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.repository.RecordClaimCheckJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class RecordClaimCheckServiceImplTest {
+
+  @Mock
+  private RecordClaimCheckJdbcRepository recordClaimCheckJdbcRepository;
+
+  @InjectMocks
+  private RecordClaimCheckServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(service, "claimCheckThreshold", 10);
+  }
+
+  @Test
+  void shouldCheckIn_contentAboveThreshold_expectTrue() {
+    assertTrue(service.shouldCheckIn(getEvent("This is the content", Step.TRANSFORM, Status.SUCCESS)));
+  }
+
+  @Test
+  void shouldCheckIn_contentBelowThreshold_expectFalse() {
+    assertFalse(service.shouldCheckIn(getEvent("content", Step.TRANSFORM, Status.SUCCESS)));
+  }
+
+  @Test
+  void shouldCheckIn_failOrDeBiasEvent_expectFalse() {
+    assertFalse(service.shouldCheckIn(getEvent("This is the content", Step.TRANSFORM, Status.FAIL)));
+    assertFalse(service.shouldCheckIn(getEvent("This is the content", Step.DEBIAS, Status.PENDING)));
+  }
+
+  @Test
+  void shouldCheckIn_disabled_expectFalse() {
+    ReflectionTestUtils.setField(service, "claimCheckThreshold", 0);
+
+    assertFalse(service.shouldCheckIn(getEvent("This is the content", Step.TRANSFORM, Status.SUCCESS)));
+  }
+
+  @Test
+  void checkIn_expectSuccess() {
+    final RecordProcessEvent event = getEvent("This is the content", Step.TRANSFORM, Status.SUCCESS);
+
+    service.checkIn(event);
+
+    verify(recordClaimCheckJdbcRepository).save(1L, Step.TRANSFORM, event.getRecord().getContent());
+  }
+
+  @Test
+  void checkIn_saveFails_expectFail() {
+    final RecordProcessEvent event = getEvent("This is the content", Step.TRANSFORM, Status.SUCCESS);
+    doThrow(new RuntimeException("failed")).when(recordClaimCheckJdbcRepository).save(any(Long.class), any(), any());
+
+    assertThrows(ServiceException.class, () -> service.checkIn(event));
+  }
+
+  @Test
+  void checkOut_expectSuccess() {
+    when(recordClaimCheckJdbcRepository.findContent(1L, Step.TRANSFORM)).thenReturn("content".getBytes());
+
+    assertArrayEquals("content".getBytes(), service.checkOut(1L, Step.TRANSFORM));
+  }
+
+  @Test
+  void checkOut_noContent_expectFail() {
+    when(recordClaimCheckJdbcRepository.findContent(1L, Step.TRANSFORM)).thenReturn(null);
+
+    assertThrows(ServiceException.class, () -> service.checkOut(1L, Step.TRANSFORM));
+  }
+
+  @Test
+  void release_expectSuccess() {
+    service.release(1L);
+
+    verify(recordClaimCheckJdbcRepository).deleteLoggedOfFinishedRecord(1L);
+  }
+
+  @Test
+  void release_disabled_expectNoInteractions() {
+    ReflectionTestUtils.setField(service, "claimCheckThreshold", 0);
+
+    service.release(1L);
+
+    verifyNoInteractions(recordClaimCheckJdbcRepository);
+  }
+
+  @Test
+  void remove_expectSuccess() {
+    service.remove("1");
+
+    verify(recordClaimCheckJdbcRepository).deleteByDatasetId("1");
+  }
+
+  @Test
+  void remove_deleteFails_expectFail() {
+    doThrow(new RuntimeException("failed")).when(recordClaimCheckJdbcRepository).deleteByDatasetId("1");
+
+    assertThrows(ServiceException.class, () -> service.remove("1"));
+  }
+
+  private RecordProcessEvent getEvent(String content, Step step, Status status) {
+    final Record testRecord = Record.builder().recordId(1L).datasetId("1").datasetName("").country(Country.ITALY)
+                                    .language(Language.IT).content(content.getBytes()).build();
+    return new RecordProcessEvent(new RecordInfo(testRecord), step, status);
+  }
+}
@@ -5,9 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,13 +21,19 @@ import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordError;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.domain.RecordProcessEvent;
+import eu.europeana.metis.sandbox.entity.RecordErrorLogEntity;
 import eu.europeana.metis.sandbox.entity.RecordLogEntity;
+import eu.europeana.metis.sandbox.repository.RecordContentJdbcRepository;
 import eu.europeana.metis.sandbox.repository.RecordErrorLogRepository;
+import eu.europeana.metis.sandbox.repository.RecordLogJdbcRepository;
 import eu.europeana.metis.sandbox.repository.RecordLogRepository;
-import eu.europeana.metis.sandbox.repository.RecordRepository;
+import eu.europeana.metis.sandbox.service.dataset.DatasetFairShareService;
+import java.sql.SQLException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +41,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 @ExtendWith(MockitoExtension.class)
 class RecordLogServiceImplTest {
@@ -39,9 +49,13 @@ class RecordLogServiceImplTest {
   @Mock
   RecordErrorLogRepository errorLogRepository;
   @Mock
-  RecordRepository recordRepository;
-  @Mock
   private RecordLogRepository recordLogRepository;
+  @Mock
+  private RecordLogJdbcRepository recordLogJdbcRepository;
+  @Mock
+  private RecordContentJdbcRepository recordContentJdbcRepository;
+  @Mock
+  private DatasetFairShareService datasetFairShareService;
   @InjectMocks
   private RecordLogServiceImpl service;
 
@@ -53,15 +67,25 @@ class RecordLogServiceImplTest {
 
   @Test
   void logRecord_expectSuccess() {
-    var testRecord = Record.builder().recordId(1L).content("".getBytes()).datasetId("1")
-        .language(Language.IT).country(Country.ITALY).datasetName("").build();
+    var event = getEvent(1L, List.of(new RecordError("error", "stack trace")));
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenAnswer(answer -> answer.getArgument(0));
+
+    service.logRecordEvent(event);
 
-    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
+    verify(recordLogJdbcRepository).insertRecordLogs(
+        argThat((List<RecordLogEntity> logs) -> logs.size() == 1 && logs.getFirst().getRecordId().getId() == 1L),
+        argThat((List<RecordErrorLogEntity> errors) -> errors.size() == 1 && errors.getFirst().getRecordId().getId() == 1L));
+    verify(datasetFairShareService).recordLogged(event);
+  }
+
+  @Test
+  void logRecord_alreadyLogged_expectNotCountedAgain() {
+    var event = getEvent(1L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenReturn(List.of());
 
     service.logRecordEvent(event);
 
-    verify(recordLogRepository).save(any(RecordLogEntity.class));
-    verify(errorLogRepository).saveAll(anyList());
+    verify(datasetFairShareService, never()).recordLogged(any());
   }
 
   @Test
@@ -71,28 +95,113 @@ class RecordLogServiceImplTest {
 
   @Test
   void logRecord_unableToSaveRecord_expectFail() {
-    var testRecord = Record.builder().recordId(1L).content("".getBytes()).datasetId("1")
-        .language(Language.IT).country(Country.ITALY).datasetName("").build();
-
-    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
-
-    when(recordLogRepository.save(any(RecordLogEntity.class)))
+    var event = getEvent(1L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList()))
         .thenThrow(new RuntimeException("Exception saving"));
 
     assertThrows(ServiceException.class, () -> service.logRecordEvent(event));
+    verify(datasetFairShareService, never()).recordLogged(any());
   }
 
   @Test
-  void logRecord_unableToSaveRecordErrors_expectFail() {
-    var testRecord = Record.builder().recordId(1L).content("".getBytes()).datasetId("1")
-        .language(Language.IT).country(Country.ITALY).datasetName("").build();
+  void logRecord_contentRemovedMeanwhile_expectInsertedAgain() {
+    var event = getEvent(1L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList()))
+        .thenThrow(contentMissing())
+        .thenAnswer(answer -> answer.getArgument(0));
 
-    var event = new RecordProcessEvent(new RecordInfo(testRecord), Step.HARVEST_FILE, Status.SUCCESS);
+    service.logRecordEvent(event);
 
-    when(errorLogRepository.saveAll(anyList()))
-        .thenThrow(new RuntimeException("Exception saving"));
+    verify(recordLogJdbcRepository, times(2)).insertRecordLogs(anyList(), anyList());
+    verify(datasetFairShareService).recordLogged(event);
+  }
+
+  @Test
+  void logRecord_contentKeepsBeingRemoved_expectFail() {
+    var event = getEvent(1L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenThrow(contentMissing());
+
+    assertThrows(ServiceException.class, () -> service.logRecordEvent(event));
+    verify(recordLogJdbcRepository, times(3)).insertRecordLogs(anyList(), anyList());
+  }
+
+  @Test
+  void logRecord_otherIntegrityViolation_expectNotInsertedAgain() {
+    var event = getEvent(1L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenThrow(new DataIntegrityViolationException(
+        "Failed", new SQLException("insert or update on table \"record_log\" violates foreign key constraint "
+        + "\"record_log_record_id_fkey\"", "23503")));
 
     assertThrows(ServiceException.class, () -> service.logRecordEvent(event));
+    verify(recordLogJdbcRepository).insertRecordLogs(anyList(), anyList());
+  }
+
+  @Test
+  void logRecords_expectSuccess() {
+    var event1 = getEvent(1L, List.of());
+    var event2 = getEvent(2L, List.of(new RecordError("error", "stack trace")));
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenAnswer(answer -> answer.getArgument(0));
+
+    var failedEvents = service.logRecordEvents(List.of(event1, event2));
+
+    assertEquals(List.of(), failedEvents);
+    verify(recordLogJdbcRepository).insertRecordLogs(argThat(logs -> logs.size() == 2),
+        argThat((List<RecordErrorLogEntity> errors) -> errors.size() == 1 && errors.getFirst().getRecordId().getId() == 2L));
+    verify(datasetFairShareService).recordLogged(event1);
+    verify(datasetFairShareService).recordLogged(event2);
+  }
+
+  @Test
+  void logRecords_alreadyLogged_expectNotCountedAgain() {
+    var event = getEvent(1L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenReturn(List.of());
+
+    var failedEvents = service.logRecordEvents(List.of(event));
+
+    assertEquals(List.of(), failedEvents);
+    verify(datasetFairShareService, never()).recordLogged(any());
+  }
+
+  @Test
+  void logRecords_unableToSaveOneRecord_expectOthersSaved() {
+    var event1 = getEvent(1L, List.of());
+    var event2 = getEvent(2L, List.of());
+    var event3 = getEvent(3L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList())).thenAnswer(answer -> {
+      final List<RecordLogEntity> recordLogs = answer.getArgument(0);
+      if (recordLogs.stream().anyMatch(log -> log.getRecordId().getId() == 2L)) {
+        throw new RuntimeException("Exception saving");
+      }
+      return recordLogs;
+    });
+
+    var failedEvents = service.logRecordEvents(List.of(event1, event2, event3));
+
+    assertEquals(List.of(event2), failedEvents);
+    verify(datasetFairShareService).recordLogged(event1);
+    verify(datasetFairShareService).recordLogged(event3);
+    verify(datasetFairShareService, never()).recordLogged(event2);
+  }
+
+  @Test
+  void logRecords_contentRemovedMeanwhile_expectInsertedAgain() {
+    var event1 = getEvent(1L, List.of());
+    var event2 = getEvent(2L, List.of());
+    when(recordLogJdbcRepository.insertRecordLogs(anyList(), anyList()))
+        .thenThrow(contentMissing())
+        .thenAnswer(answer -> answer.getArgument(0));
+
+    var failedEvents = service.logRecordEvents(List.of(event1, event2));
+
+    assertEquals(List.of(), failedEvents);
+    verify(recordLogJdbcRepository, times(2)).insertRecordLogs(argThat(logs -> logs.size() == 2), anyList());
+    verify(datasetFairShareService).recordLogged(event1);
+    verify(datasetFairShareService).recordLogged(event2);
+  }
+
+  @Test
+  void logRecords_nullEvents_expectFail() {
+    assertThrows(NullPointerException.class, () -> service.logRecordEvents(null));
   }
 
   @Test
@@ -109,6 +218,18 @@ class RecordLogServiceImplTest {
     assertThrows(ServiceException.class, () -> service.remove("1"));
   }
 
+  @Test
+  void removeUnreferencedContents_expectSuccess() {
+    service.removeUnreferencedContents();
+    verify(recordContentJdbcRepository).deleteUnreferenced();
+  }
+
+  @Test
+  void removeUnreferencedContents_errorOnDelete_expectFail() {
+    when(recordContentJdbcRepository.deleteUnreferenced()).thenThrow(new RuntimeException("Exception deleting"));
+    assertThrows(ServiceException.class, () -> service.removeUnreferencedContents());
+  }
+
   @Test
   void remove_nullInput_expectFail() {
     assertThrows(NullPointerException.class, () -> service.remove(null));
@@ -154,4 +275,14 @@ class RecordLogServiceImplTest {
         Step.MEDIA_PROCESS);
   }
 
+  private RecordProcessEvent getEvent(long recordId, List<RecordError> recordErrors) {
+    var testRecord = Record.builder().recordId(recordId).content("".getBytes()).datasetId("1")
+        .language(Language.IT).country(Country.ITALY).datasetName("").build();
+    return new RecordProcessEvent(new RecordInfo(testRecord, recordErrors), Step.HARVEST_FILE, Status.SUCCESS);
+  }
+
+  private static DataIntegrityViolationException contentMissing() {
+    return new DataIntegrityViolationException("Failed", new SQLException("insert or update on table \"record_log\" "
+        + "violates foreign key constraint \"record_log_content_hash_fkey\"", "23503"));
+  }
 }
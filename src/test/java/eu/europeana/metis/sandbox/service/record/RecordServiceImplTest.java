@@ -1,8 +1,10 @@
 package eu.europeana.metis.sandbox.service.record;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
@@ -166,6 +168,18 @@ class RecordServiceImplTest {
     assertNull(testRecord.getEuropeanaId());
   }
 
+  @Test
+  void hasHarvestIds_recordsWithoutHarvestId_expectFalse() {
+    when(recordRepository.existsByDatasetIdAndHarvestIdIsNull("1")).thenReturn(true);
+    assertFalse(recordService.hasHarvestIds("1"));
+  }
+
+  @Test
+  void hasHarvestIds_allRecordsWithHarvestId_expectTrue() {
+    when(recordRepository.existsByDatasetIdAndHarvestIdIsNull("1")).thenReturn(false);
+    assertTrue(recordService.hasHarvestIds("1"));
+  }
+
   @Test
   void remove() {
     recordService.remove("1");
@@ -3,48 +3,42 @@ package eu.europeana.metis.sandbox.service.util;
 import eu.europeana.metis.sandbox.common.TestUtils;
 import eu.europeana.metis.sandbox.common.exception.RecordParsingException;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.Spy;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.ObjectFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.xml.sax.InputSource;
 
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class XmlRecordProcessorServiceImplTest {
 
-  private final TestUtils utils = new TestUtils();
-
-  @Mock
-  private ObjectFactory<XPathFactory> objectFactory;
+  private static final String RECORD_ID_EXPRESSION = "//*[namespace-uri()=\"http://www.europeana.eu/schemas/edm/\" and local-name()='ProvidedCHO']/@*[namespace-uri()=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" and local-name()='about']";
+  private static final String RDF_START = "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" "
+      + "xmlns:edm=\"http://www.europeana.eu/schemas/edm/\">";
+  private static final String RDF_END = "</rdf:RDF>";
 
-  @Mock
-  private XPath xPath;
-
-  @Spy
-  private final XPathFactory xPathFactory = XPathFactory.newDefaultInstance();
+  private final TestUtils utils = new TestUtils();
 
-  @InjectMocks
-  private XmlRecordProcessorServiceImpl service;
+  private final XmlRecordProcessorServiceImpl service = new XmlRecordProcessorServiceImpl();
 
   @Test
   void getRecordId_expectSuccess() throws Exception {
 
     var xmlRecord = utils.readFileToBytes("record"+File.separator+"valid-record.xml");
 
-    when(objectFactory.getObject()).thenReturn(xPathFactory);
-
     final String recordId = service.getProviderId(xmlRecord);
 
     assertEquals("URN:NBN:SI:doc-35SZSOCF", recordId);
@@ -56,13 +50,8 @@ class XmlRecordProcessorServiceImplTest {
   }
 
   @Test
-  void getRecordId_recordParsingException_expectFail() throws Exception {
-    var xmlRecord = utils.readFileToBytes("record"+File.separator+"valid-record.xml");
-
-    when(objectFactory.getObject()).thenReturn(xPathFactory);
-    when(xPathFactory.newXPath()).thenReturn(xPath);
-    when(xPath.evaluate(any(String.class), any(InputSource.class)))
-        .thenThrow(new XPathExpressionException("Fail here"));
+  void getRecordId_recordParsingException_expectFail() {
+    var xmlRecord = (RDF_START + "<edm:ProvidedCHO rdf:about=\"id\"" + RDF_END).getBytes(StandardCharsets.UTF_8);
 
     assertThrows(RecordParsingException.class, () -> service.getProviderId(xmlRecord));
   }
@@ -71,8 +60,76 @@ class XmlRecordProcessorServiceImplTest {
   void getRecordId_recordMissingId_expectFail() throws Exception {
     var xmlRecord = utils.readFileToBytes("record"+File.separator+"record-missing-id.xml");
 
-    when(objectFactory.getObject()).thenReturn(xPathFactory);
-
     assertThrows(IllegalArgumentException.class, () -> service.getProviderId(xmlRecord));
   }
-}
\ No newline at end of file
+
+  @ParameterizedTest
+  @MethodSource("records")
+  void getRecordId_sameAsXPath(String name, byte[] xmlRecord) {
+    assertEquals(getProviderIdWithXPath(xmlRecord), getProviderIdOrException(xmlRecord), name);
+  }
+
+  private static Stream<Object[]> records() throws IOException {
+    final List<Object[]> handWritten = List.of(
+        record("prefixed", RDF_START + "<edm:ProvidedCHO rdf:about=\"id\"/>" + RDF_END),
+        record("default namespace", RDF_START + "<ProvidedCHO xmlns=\"http://www.europeana.eu/schemas/edm/\" "
+            + "rdf:about=\"id\"/>" + RDF_END),
+        record("other prefixes", "<r:RDF xmlns:r=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" "
+            + "xmlns:e=\"http://www.europeana.eu/schemas/edm/\"><e:ProvidedCHO r:about=\"id\"/></r:RDF>"),
+        record("first without about", RDF_START + "<edm:ProvidedCHO/><edm:ProvidedCHO rdf:about=\"second\"/>" + RDF_END),
+        record("two with about", RDF_START + "<edm:ProvidedCHO rdf:about=\"first\"/><edm:ProvidedCHO rdf:about=\"second\"/>"
+            + RDF_END),
+        record("empty about", RDF_START + "<edm:ProvidedCHO rdf:about=\"\"/><edm:ProvidedCHO rdf:about=\"second\"/>"
+            + RDF_END),
+        record("nested", RDF_START + "<edm:ProvidedCHO><edm:ProvidedCHO rdf:about=\"inner\"/></edm:ProvidedCHO>" + RDF_END),
+        record("about without namespace", RDF_START + "<edm:ProvidedCHO about=\"id\"/>" + RDF_END),
+        record("other namespace", RDF_START + "<o:ProvidedCHO xmlns:o=\"http://other/\" rdf:about=\"id\"/>" + RDF_END),
+        record("whitespace and entities", RDF_START + "<edm:ProvidedCHO rdf:about=\" a&amp;b\tc&#10;d \"/>" + RDF_END),
+        record("non ascii", RDF_START + "<edm:ProvidedCHO rdf:about=\"é中\"/>" + RDF_END),
+        record("no record", RDF_START + RDF_END),
+        record("malformed before id", RDF_START + "<edm:Other></edm:Wrong><edm:ProvidedCHO rdf:about=\"id\"/>" + RDF_END),
+        record("not xml", "not xml"));
+    final Stream<Object[]> resources;
+    try (Stream<Path> paths = Files.walk(Paths.get("src", "test", "resources", "record"))) {
+      resources = paths.filter(path -> path.toString().endsWith(".xml")).toList().stream()
+                       .map(path -> new Object[]{path.toString(), readAllBytes(path)});
+    }
+    final Object[] utf16 = {"utf-16 encoded", ("<?xml version=\"1.0\" encoding=\"UTF-16\"?>" + RDF_START
+        + "<edm:ProvidedCHO rdf:about=\"é中\"/>" + RDF_END).getBytes(StandardCharsets.UTF_16)};
+    return Stream.concat(Stream.concat(handWritten.stream(), Stream.<Object[]>of(utf16)), resources);
+  }
+
+  private static Object[] record(String name, String xmlRecord) {
+    return new Object[]{name, xmlRecord.getBytes(StandardCharsets.UTF_8)};
+  }
+
+  private static byte[] readAllBytes(Path path) {
+    try {
+      return Files.readAllBytes(path);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private String getProviderIdOrException(byte[] xmlRecord) {
+    try {
+      return service.getProviderId(xmlRecord);
+    } catch (RuntimeException e) {
+      return e.getClass().getName();
+    }
+  }
+
+  /**
+   * The extraction with a DOM and XPath that the streaming extraction replaced.
+   */
+  private static String getProviderIdWithXPath(byte[] xmlRecord) {
+    final String recordId;
+    try {
+      recordId = XPathFactory.newDefaultInstance().newXPath()
+                             .evaluate(RECORD_ID_EXPRESSION, new InputSource(new ByteArrayInputStream(xmlRecord)));
+    } catch (XPathExpressionException e) {
+      return RecordParsingException.class.getName();
+    }
+    return isEmpty(recordId) ? IllegalArgumentException.class.getName() : recordId;
+  }
+}
@@ -10,6 +10,7 @@ import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.entity.TransformXsltEntity;
 import eu.europeana.metis.sandbox.repository.TransformXsltRepository;
+import eu.europeana.metis.sandbox.service.workflow.TransformationService;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -39,6 +40,9 @@ class XsltUrlUpdateServiceImplTest {
   @Mock
   private LockRegistry lockRegistry;
 
+  @Mock
+  private TransformationService transformationService;
+
   @InjectMocks
   private XsltUrlUpdateServiceImpl xsltUrlUpdateService;
 
@@ -56,6 +60,7 @@ class XsltUrlUpdateServiceImplTest {
     xsltUrlUpdateService.updateXslt("http://document.domain:12345/xslt");
     // then
     Mockito.verify(transformXsltRepository, times(1)).save(any());
+    Mockito.verify(transformationService, times(1)).refreshDefaultXslt();
   }
 
   @Test
@@ -73,6 +78,7 @@ class XsltUrlUpdateServiceImplTest {
     xsltUrlUpdateService.updateXslt("http://document.domain:12345/xslt");
     //then
     Mockito.verify(transformXsltRepository, times(1)).save(any());
+    Mockito.verify(transformationService, times(1)).refreshDefaultXslt();
   }
 
   @Test
@@ -108,6 +114,7 @@ class XsltUrlUpdateServiceImplTest {
     // then
     assertThrows(RuntimeException.class, () -> transformXsltRepository.findFirstByIdIsNotNullOrderByIdAsc());
     Mockito.verify(transformXsltRepository, never()).save(any());
+    Mockito.verify(transformationService, never()).refreshDefaultXslt();
   }
 
   @Test
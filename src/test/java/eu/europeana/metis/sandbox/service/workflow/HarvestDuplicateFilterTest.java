@@ -0,0 +1,29 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class HarvestDuplicateFilterTest {
+
+    @Test
+    void isDuplicate_sameContent_expectDuplicate() {
+        final HarvestDuplicateFilter duplicateFilter = new HarvestDuplicateFilter(10);
+
+        assertFalse(duplicateFilter.isDuplicate("record1".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(duplicateFilter.isDuplicate("record2".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(duplicateFilter.isDuplicate("record1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void isDuplicate_capacityReached_expectNoMoreContentRemembered() {
+        final HarvestDuplicateFilter duplicateFilter = new HarvestDuplicateFilter(1);
+
+        assertFalse(duplicateFilter.isDuplicate("record1".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(duplicateFilter.isDuplicate("record2".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(duplicateFilter.isDuplicate("record2".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(duplicateFilter.isDuplicate("record1".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,34 +1,50 @@
 package eu.europeana.metis.sandbox.service.workflow;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.harvesting.HarvesterException;
+import eu.europeana.metis.sandbox.common.HarvestProtocol;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
 import eu.europeana.metis.sandbox.domain.DatasetMetadata;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.dto.OAIPmhHarvestingDto;
+import eu.europeana.metis.sandbox.entity.DatasetEntity;
+import eu.europeana.metis.sandbox.entity.HarvestingParameterEntity;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import eu.europeana.metis.sandbox.service.dataset.HarvestingParameterService;
 import eu.europeana.metis.utils.CompressedFileExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
@@ -133,7 +149,102 @@ class HarvestPublishServiceImplTest {
                                                      .build();
     asyncHarvestPublishService.runHarvestOaiPmhAsync(datasetMetadata,
         new OaiHarvestData("url", "setspec", "metadataformat", "oaiIdentifier"));
+    verify(harvestingParameterService, times(1)).startHarvest("datasetId", 5);
     verify(harvestService, times(1)).harvestFromOaiPmh(eq("datasetId"), any(Record.RecordBuilder.class), any(OaiHarvestData.class),
-        eq(5));
+        eq(5), isNull(), any());
+    verify(harvestingParameterService, times(1)).completeHarvest("datasetId");
+  }
+
+  @Test
+  void runHarvestOaiAsync_checkpointReported_expectCheckpointSaved() {
+    DatasetMetadata datasetMetadata = DatasetMetadata.builder()
+                                                     .withDatasetId("datasetId")
+                                                     .withDatasetName("datasetName")
+                                                     .withCountry(Country.NETHERLANDS)
+                                                     .withLanguage(Language.NL)
+                                                     .withStepSize(5)
+                                                     .build();
+    final HarvestCheckpoint harvestCheckpoint = new HarvestCheckpoint(10, 2, 14, 1);
+    doAnswer(invocation -> {
+      final Consumer<HarvestCheckpoint> checkpointHandler = invocation.getArgument(5);
+      checkpointHandler.accept(harvestCheckpoint);
+      return null;
+    }).when(harvestService).harvestFromOaiPmh(eq("datasetId"), any(Record.RecordBuilder.class), any(OaiHarvestData.class),
+        eq(5), isNull(), any());
+
+    asyncHarvestPublishService.runHarvestOaiPmhAsync(datasetMetadata,
+        new OaiHarvestData("url", "setspec", "metadataformat", "oaiIdentifier"));
+
+    verify(harvestingParameterService, times(1)).saveHarvestCheckpoint("datasetId", harvestCheckpoint);
+  }
+
+  @Test
+  void resumeHarvestOaiAsync_expectResumedFromCheckpoint() {
+    final DatasetEntity datasetEntity = new DatasetEntity("datasetName", null, 10L, Language.NL, Country.NETHERLANDS, false);
+    datasetEntity.setDatasetId(1);
+    final HarvestingParameterEntity harvestingParameterEntity = new HarvestingParameterEntity(datasetEntity,
+        HarvestProtocol.OAI_PMH, null, null, "url", "setspec", "metadataformat");
+    harvestingParameterEntity.setStepSize(5);
+    harvestingParameterEntity.setCheckpointPosition(10);
+    harvestingParameterEntity.setCheckpointSelectedRecords(2);
+    harvestingParameterEntity.setCheckpointNextPosition(14);
+    harvestingParameterEntity.setCheckpointAdmittedRecords(1);
+    final ArgumentCaptor<HarvestCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(HarvestCheckpoint.class);
+
+    asyncHarvestPublishService.resumeHarvestOaiPmhAsync(harvestingParameterEntity);
+
+    verify(harvestService, times(1)).harvestFromOaiPmh(eq("1"), any(Record.RecordBuilder.class), any(OaiHarvestData.class),
+        eq(5), checkpointCaptor.capture(), any());
+    assertEquals(10, checkpointCaptor.getValue().getPosition());
+    assertEquals(2, checkpointCaptor.getValue().getSelectedRecords());
+    assertEquals(14, checkpointCaptor.getValue().getNextPositionToSelect());
+    assertEquals(1, checkpointCaptor.getValue().getAdmittedRecords());
+    verify(harvestingParameterService, times(1)).completeHarvest("1");
+  }
+
+  @Test
+  void resumeHarvestOaiAsync_expectRunningUntilCompleted() {
+    final DatasetEntity datasetEntity = new DatasetEntity("datasetName", null, 10L, Language.NL, Country.NETHERLANDS, false);
+    datasetEntity.setDatasetId(1);
+    final HarvestingParameterEntity harvestingParameterEntity = new HarvestingParameterEntity(datasetEntity,
+        HarvestProtocol.OAI_PMH, null, null, "url", "setspec", "metadataformat");
+    final Set<String> runningHarvests = new HashSet<>();
+    doAnswer(invocation -> {
+      runningHarvests.addAll(asyncHarvestPublishService.getRunningHarvests());
+      return null;
+    }).when(harvestService).harvestFromOaiPmh(eq("1"), any(Record.RecordBuilder.class), any(OaiHarvestData.class),
+        isNull(), any(HarvestCheckpoint.class), any());
+
+    asyncHarvestPublishService.resumeHarvestOaiPmhAsync(harvestingParameterEntity);
+
+    assertEquals(Set.of("1"), runningHarvests);
+    assertTrue(asyncHarvestPublishService.getRunningHarvests().isEmpty());
+  }
+
+  @Test
+  void runIncrementalHarvestOaiAsync_expectHarvestFromBaselineCreation() {
+    final DatasetEntity baselineDataset = new DatasetEntity("datasetName", null, 10L, Language.NL, Country.NETHERLANDS, false);
+    baselineDataset.setDatasetId(1);
+    baselineDataset.setCreatedDate(ZonedDateTime.of(2024, 3, 5, 14, 30, 0, 0, ZoneOffset.UTC));
+    final HarvestingParameterEntity baselineHarvestingParameters = new HarvestingParameterEntity(baselineDataset,
+        HarvestProtocol.OAI_PMH, null, null, "url", "setspec", "metadataformat");
+    final DatasetMetadata datasetMetadata = DatasetMetadata.builder()
+                                                           .withDatasetId("2")
+                                                           .withDatasetName("datasetName")
+                                                           .withCountry(Country.NETHERLANDS)
+                                                           .withLanguage(Language.NL)
+                                                           .build();
+    final ArgumentCaptor<OaiHarvestData> oaiHarvestDataCaptor = ArgumentCaptor.forClass(OaiHarvestData.class);
+
+    asyncHarvestPublishService.runIncrementalHarvestOaiPmhAsync(datasetMetadata, baselineHarvestingParameters);
+
+    verify(harvestingParameterService, times(1)).createDatasetHarvestingParameters(eq("2"), any(OAIPmhHarvestingDto.class));
+    verify(harvestService, times(1)).harvestFromOaiPmhIncrementally(eq("2"), any(Record.RecordBuilder.class),
+        oaiHarvestDataCaptor.capture(), eq("1"));
+    assertEquals("url", oaiHarvestDataCaptor.getValue().getUrl());
+    assertEquals("setspec", oaiHarvestDataCaptor.getValue().getSetspec());
+    assertEquals("metadataformat", oaiHarvestDataCaptor.getValue().getMetadataformat());
+    assertEquals(Instant.parse("2024-03-05T00:00:00Z"), oaiHarvestDataCaptor.getValue().getFrom());
+    verify(harvestingParameterService, never()).startHarvest(any(), any());
   }
 }
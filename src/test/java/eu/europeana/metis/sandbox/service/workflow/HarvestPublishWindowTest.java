@@ -0,0 +1,73 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import eu.europeana.metis.sandbox.common.exception.ServiceException;
+import eu.europeana.metis.sandbox.common.locale.Country;
+import eu.europeana.metis.sandbox.common.locale.Language;
+import eu.europeana.metis.sandbox.domain.Record;
+import eu.europeana.metis.sandbox.domain.RecordInfo;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class HarvestPublishWindowTest {
+
+    @Test
+    void publish_waitsForAllRecordsOnClose_expectSuccess() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final AtomicInteger published = new AtomicInteger();
+        try {
+            final HarvestPublishWindow publishWindow = new HarvestPublishWindow(executor, recordInfo -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                published.incrementAndGet();
+            }, 2);
+            try (publishWindow) {
+                for (long i = 1; i <= 20; i++) {
+                    publishWindow.publish(createRecordInfo(i));
+                }
+            }
+            assertDoesNotThrow(() -> publishWindow.verifyPublished("error"));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(20, published.get());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void publish_publisherFails_expectFail() {
+        final HarvestPublishWindow publishWindow = new HarvestPublishWindow(Runnable::run, recordInfo -> {
+            if (recordInfo.getRecordValue().getRecordId() == 2L) {
+                throw new IllegalStateException("broker unavailable");
+            }
+        }, 5);
+        try (publishWindow) {
+            for (long i = 1; i <= 3; i++) {
+                publishWindow.publish(createRecordInfo(i));
+            }
+        }
+        final ServiceException exception = assertThrows(ServiceException.class,
+                () -> publishWindow.verifyPublished("error"));
+        assertEquals(IllegalStateException.class, exception.getCause().getClass());
+    }
+
+    private static RecordInfo createRecordInfo(long recordId) {
+        return new RecordInfo(Record.builder().recordId(recordId).providerId("providerId" + recordId)
+                .datasetId("1").datasetName("datasetName").country(Country.NETHERLANDS).language(Language.NL)
+                .content("content".getBytes(StandardCharsets.UTF_8)).build());
+    }
+}
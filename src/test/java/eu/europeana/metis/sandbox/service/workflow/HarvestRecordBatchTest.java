@@ -0,0 +1,111 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import eu.europeana.metis.sandbox.entity.RecordEntity;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+class HarvestRecordBatchTest {
+
+    @Mock
+    private RecordJdbcRepository recordJdbcRepository;
+
+    @Test
+    void add_writesFullBatchesAndRemainderOnClose_expectSuccess() {
+        when(recordJdbcRepository.insertRecords(anyList())).thenAnswer(invocation -> {
+            final List<RecordEntity> recordEntities = invocation.getArgument(0);
+            recordEntities.forEach(recordEntity -> recordEntity.setId(Long.valueOf(recordEntity.getProviderId())));
+            return Set.of(1L, 2L, 4L, 5L);
+        });
+        final List<Long> ingestedIds = new ArrayList<>();
+        final List<String> failedProviderIds = new ArrayList<>();
+
+        try (HarvestRecordBatch recordBatch = new HarvestRecordBatch(recordJdbcRepository, "datasetId", 2,
+                (recordId, providerId, content) -> ingestedIds.add(recordId),
+                (providerId, exception) -> failedProviderIds.add(providerId))) {
+            for (int i = 1; i <= 5; i++) {
+                recordBatch.add(String.valueOf(i), "record".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        verify(recordJdbcRepository, times(3)).insertRecords(anyList());
+        assertEquals(List.of(1L, 2L, 4L, 5L), ingestedIds);
+        assertEquals(List.of("3"), failedProviderIds);
+    }
+
+    @Test
+    void flush_existingRecordResolved_expectExistingRecordIngested() {
+        when(recordJdbcRepository.insertRecords(anyList())).thenAnswer(invocation -> {
+            final List<RecordEntity> recordEntities = invocation.getArgument(0);
+            recordEntities.forEach(recordEntity -> recordEntity.setId(Long.valueOf(recordEntity.getProviderId())));
+            return Set.of(1L);
+        });
+        final List<Long> ingestedIds = new ArrayList<>();
+        final List<String> failedProviderIds = new ArrayList<>();
+
+        try (HarvestRecordBatch recordBatch = new HarvestRecordBatch(recordJdbcRepository, "datasetId", 10,
+                (recordId, providerId, content) -> ingestedIds.add(recordId),
+                (providerId, exception) -> failedProviderIds.add(providerId),
+                providerId -> "2".equals(providerId) ? 20L : null)) {
+            for (int i = 1; i <= 3; i++) {
+                recordBatch.add(String.valueOf(i), "record".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(List.of(1L, 20L), ingestedIds);
+        assertEquals(List.of("3"), failedProviderIds);
+    }
+
+    @Test
+    void add_duplicateContent_expectDuplicateNotWritten() {
+        when(recordJdbcRepository.insertRecords(anyList())).thenAnswer(invocation -> {
+            final List<RecordEntity> recordEntities = invocation.getArgument(0);
+            recordEntities.forEach(recordEntity -> recordEntity.setId(Long.valueOf(recordEntity.getProviderId())));
+            return Set.of(1L, 2L);
+        });
+        final List<Long> ingestedIds = new ArrayList<>();
+        final List<String> duplicateProviderIds = new ArrayList<>();
+
+        try (HarvestRecordBatch recordBatch = new HarvestRecordBatch(recordJdbcRepository, "datasetId", 10,
+                (recordId, providerId, content) -> ingestedIds.add(recordId),
+                (providerId, exception) -> {
+                }).filterDuplicates(new HarvestDuplicateFilter(10), duplicateProviderIds::add)) {
+            recordBatch.add("1", "record1".getBytes(StandardCharsets.UTF_8));
+            recordBatch.add("2", "record2".getBytes(StandardCharsets.UTF_8));
+            recordBatch.add("3", "record1".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(List.of(1L, 2L), ingestedIds);
+        assertEquals(List.of("3"), duplicateProviderIds);
+    }
+
+    @Test
+    void flush_databaseFailure_expectAllRecordsFailed() {
+        when(recordJdbcRepository.insertRecords(anyList())).thenThrow(new DataAccessResourceFailureException("failure"));
+        final List<String> failedProviderIds = new ArrayList<>();
+
+        final HarvestRecordBatch recordBatch = new HarvestRecordBatch(recordJdbcRepository, "datasetId", 10,
+                (recordId, providerId, content) -> {
+                },
+                (providerId, exception) -> failedProviderIds.add(providerId));
+        recordBatch.add("providerId1", "record".getBytes(StandardCharsets.UTF_8));
+        recordBatch.add("providerId2", "record".getBytes(StandardCharsets.UTF_8));
+        recordBatch.flush();
+
+        assertEquals(List.of("providerId1", "providerId2"), failedProviderIds);
+    }
+}
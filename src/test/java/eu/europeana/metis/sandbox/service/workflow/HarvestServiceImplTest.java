@@ -4,8 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -21,16 +27,22 @@ import eu.europeana.metis.harvesting.oaipmh.OaiRecord;
 import eu.europeana.metis.harvesting.oaipmh.OaiRecordHeader;
 import eu.europeana.metis.harvesting.oaipmh.OaiRepository;
 import eu.europeana.metis.sandbox.common.OaiHarvestData;
+import eu.europeana.metis.sandbox.common.Status;
 import eu.europeana.metis.sandbox.common.Step;
 import eu.europeana.metis.sandbox.common.TestUtils;
 import eu.europeana.metis.sandbox.common.exception.ServiceException;
 import eu.europeana.metis.sandbox.common.exception.StepIsTooBigException;
 import eu.europeana.metis.sandbox.common.locale.Country;
 import eu.europeana.metis.sandbox.common.locale.Language;
+import eu.europeana.metis.sandbox.domain.HarvestCheckpoint;
 import eu.europeana.metis.sandbox.domain.Record;
 import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.entity.RecordEntity;
+import eu.europeana.metis.sandbox.repository.RecordContentJdbcRepository;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository;
+import eu.europeana.metis.sandbox.repository.RecordJdbcRepository.CopiedRecords;
 import eu.europeana.metis.sandbox.repository.RecordRepository;
+import eu.europeana.metis.sandbox.service.dataset.DatasetFairShareService;
 import eu.europeana.metis.sandbox.service.dataset.DatasetService;
 import eu.europeana.metis.sandbox.service.dataset.RecordPublishService;
 import eu.europeana.metis.utils.CompressedFileExtension;
@@ -39,20 +51,30 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 @ExtendWith(SpringExtension.class)
@@ -70,6 +92,9 @@ class HarvestServiceImplTest {
     @Mock
     private DatasetService datasetService;
 
+    @Mock
+    private DatasetFairShareService datasetFairShareService;
+
     private HarvestService harvestService;
 
     @Captor
@@ -78,30 +103,40 @@ class HarvestServiceImplTest {
     @Mock
     private RecordRepository recordRepository;
 
+    @Mock
+    private RecordJdbcRepository recordJdbcRepository;
+
+    @Mock
+    private RecordContentJdbcRepository recordContentJdbcRepository;
+
+    private final AtomicLong admittedRecords = new AtomicLong();
+
     @BeforeEach
     void setUp() {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 1000,
-                recordRepository);
+        when(datasetService.admitRecord(anyString(), anyInt())).thenAnswer(
+                invocation -> admittedRecords.get() < (int) invocation.getArgument(1) ? admittedRecords.incrementAndGet() : 0L);
+        doAnswer(invocation -> {
+            admittedRecords.set(invocation.getArgument(1));
+            return null;
+        }).when(datasetService).resetAdmittedRecords(anyString(), anyLong());
+        doAnswer(invocation -> admittedRecords.decrementAndGet()).when(datasetService).releaseAdmittedRecord(anyString());
+        final AtomicLong recordIds = new AtomicLong();
+        when(recordJdbcRepository.insertRecords(anyList())).thenAnswer(invocation -> {
+            final List<RecordEntity> recordEntities = invocation.getArgument(0);
+            recordEntities.forEach(recordEntity -> recordEntity.setId(recordIds.incrementAndGet()));
+            return recordEntities.stream().map(RecordEntity::getId).collect(Collectors.toSet());
+        });
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
     }
 
     @Test
     void harvest_notExceedingRecordLimitWithoutXslt_expectSuccess() throws HarvesterException {
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIterator());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2);
 
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), null,
                 CompressedFileExtension.ZIP);
@@ -111,20 +146,14 @@ class HarvestServiceImplTest {
 
     @Test
     void harvest_exceedingRecordLimitWithoutXslt_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 1,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
 
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIterator());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1);
 
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), null,
                 CompressedFileExtension.ZIP);
@@ -136,30 +165,9 @@ class HarvestServiceImplTest {
     void harvest_withStepSize_expectSuccess() throws HarvesterException {
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIteratorStepSizeTest());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), 2,
                 CompressedFileExtension.ZIP);
@@ -171,30 +179,9 @@ class HarvestServiceImplTest {
     void harvest_withStepSize_expectFail() throws HarvesterException {
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIteratorStepSizeTest());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         assertThrows(StepIsTooBigException.class, ()->
             harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), 10,
@@ -205,30 +192,9 @@ class HarvestServiceImplTest {
     void harvest_notExceedingRecordLimitWithXslt_expectSuccess() throws HarvesterException {
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIterator());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), null,
                 CompressedFileExtension.ZIP);
@@ -240,30 +206,9 @@ class HarvestServiceImplTest {
     void harvest_withStepSizeAndWithXslt_expectSuccess() throws HarvesterException {
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIteratorStepSizeTest());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), 2,
                 CompressedFileExtension.ZIP);
@@ -273,20 +218,14 @@ class HarvestServiceImplTest {
 
     @Test
     void harvest_exceedingRecordLimitWithXslt_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 1,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
 
         var httpIterator = new TestUtils.TestHttpRecordIterator(prepareMockListForHttpIterator());
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1);
 
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), null,
                 CompressedFileExtension.ZIP);
@@ -302,14 +241,8 @@ class HarvestServiceImplTest {
 
         var httpRecordIterator = new TestUtils.TestHttpRecordIterator(pathList);
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpRecordIterator);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1);
 
         Record.RecordBuilder recordBuilderToTest = spy(Record.builder().datasetName("datasetName").datasetId("datasetId")
                 .language(Language.NL).country(Country.NETHERLANDS));
@@ -321,7 +254,8 @@ class HarvestServiceImplTest {
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream("inputStream".getBytes(StandardCharsets.UTF_8)), "datasetId",
                 recordBuilderToTest, null, CompressedFileExtension.ZIP);
         verify(recordPublishService, times(0)).publishToHarvestQueue(captorRecordInfo.capture(), any(Step.class));
-        verify(recordRepository, times(2)).save(any(RecordEntity.class));
+        verify(recordJdbcRepository, times(1)).insertRecords(anyList());
+        verify(recordRepository, times(1)).save(any(RecordEntity.class));
     }
 
     @Test
@@ -339,10 +273,6 @@ class HarvestServiceImplTest {
         var httpIterator = new TestUtils.TestHttpRecordIterator(
                 addDuplicatedRecordsToHttpIterator(prepareMockListForHttpIterator()));
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
         RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
                 .setDatasetId("datasetId")
                 .build();
@@ -351,8 +281,6 @@ class HarvestServiceImplTest {
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2);
         when(recordRepository.findByProviderIdAndDatasetId(
                 generateHarvestProviderIdFromTemporaryPath("src/test/resources/zip/Record2.xml"), "datasetId"))
                 .thenReturn(null)
@@ -361,7 +289,7 @@ class HarvestServiceImplTest {
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), null,
                 CompressedFileExtension.ZIP);
 
-        assertHarvestProcessWithoutXslt(recordPublishService, 3, Step.HARVEST_FILE, 3L);
+        assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_FILE, 2L);
     }
 
     @Test
@@ -369,10 +297,6 @@ class HarvestServiceImplTest {
         var httpIterator = new TestUtils.TestHttpRecordIterator(
                 addDuplicatedRecordsToHttpIterator(prepareMockListForHttpIterator()));
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
         RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
                 .setDatasetId("datasetId")
                 .build();
@@ -381,8 +305,6 @@ class HarvestServiceImplTest {
         when(httpHarvester.createFullRecordHarvestIterator(any(InputStream.class), any(CompressedFileExtension.class))).thenReturn(
                 httpIterator);
         when(datasetService.isXsltPresent("datasetId")).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1)
-                .thenReturn(recordEntity2);
         when(recordRepository.findByProviderIdAndDatasetId(eq(
                 generateHarvestProviderIdFromTemporaryPath("src/test/resources/zip/Record2.xml")
         ), eq("datasetId")))
@@ -392,7 +314,10 @@ class HarvestServiceImplTest {
         harvestService.harvestFromCompressedArchive(new ByteArrayInputStream(new byte[0]), "datasetId", createMockEncapsulatedRecord(), null,
                 CompressedFileExtension.ZIP);
 
-        assertHarvestProcessWithoutXslt(recordPublishService, 3, Step.HARVEST_FILE, 3L);
+        assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_FILE, 2L);
+        verify(datasetService).releaseAdmittedRecord("datasetId");
+        verify(recordRepository).save(argThat(recordEntity ->
+                recordEntity.getRecordLogEntity().getFirst().getStatus() == Status.WARN));
     }
 
     @Test
@@ -402,20 +327,11 @@ class HarvestServiceImplTest {
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1).thenReturn(recordEntity2);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
@@ -424,23 +340,18 @@ class HarvestServiceImplTest {
 
     @Test
     void harvestOaiPmh_exceedingLimitWithoutXslt_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 1,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity.setId(1L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
@@ -454,32 +365,11 @@ class HarvestServiceImplTest {
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIteratorStepSizeTest());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class)))
-                .thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, 2);
 
@@ -493,32 +383,11 @@ class HarvestServiceImplTest {
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIteratorStepSizeTest());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class)))
-                .thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         assertThrows(StepIsTooBigException.class, () ->
             harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, 10));
@@ -531,20 +400,11 @@ class HarvestServiceImplTest {
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1).thenReturn(recordEntity2);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
@@ -553,23 +413,18 @@ class HarvestServiceImplTest {
 
     @Test
     void harvestOaiPmh_exceedingLimitWithXslt_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 1,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity.setId(1L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
@@ -583,32 +438,11 @@ class HarvestServiceImplTest {
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIteratorStepSizeTest());
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
-        RecordEntity recordEntity3 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity3.setId(3L);
-        RecordEntity recordEntity4 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity4.setId(4L);
 
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
         when(datasetService.isXsltPresent(anyString())).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class)))
-                .thenReturn(recordEntity1)
-                .thenReturn(recordEntity2)
-                .thenReturn(recordEntity3)
-                .thenReturn(recordEntity4);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, 2);
 
@@ -625,13 +459,7 @@ class HarvestServiceImplTest {
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(iteratorList);
 
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1);
 
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenThrow(HarvesterException.class);
         Record.RecordBuilder recordBuilderToTest = spy(Record.builder().datasetName("datasetName").datasetId("datasetId")
@@ -645,8 +473,8 @@ class HarvestServiceImplTest {
 
     @Test
     void runHarvestOaiAsync_withoutXsltSkipDeletedRecords_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 2,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 2,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(
@@ -654,14 +482,9 @@ class HarvestServiceImplTest {
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
-        RecordEntity recordEntity = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity.setId(1L);
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(datasetService.isXsltPresent(anyString())).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
@@ -670,10 +493,29 @@ class HarvestServiceImplTest {
         assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_OAI_PMH, 2L);
     }
 
+    @Test
+    void harvestOaiPmh_limitReachedByOtherWorker_expectNothingPublished() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 2,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+        admittedRecords.set(2);
+
+        var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
+        when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
+
+        verify(datasetService, times(1)).setRecordLimitExceeded("datasetId");
+        verify(oaiHarvester, times(0)).harvestRecord(any(OaiRepository.class), anyString());
+        verify(recordPublishService, times(0)).publishToHarvestQueue(any(RecordInfo.class), any(Step.class));
+        verify(datasetService).updateNumberOfTotalRecordToAdmitted("datasetId");
+    }
+
     @Test
     void runHarvestOaiAsync_withoutXsltSkipDeletedRecordsWithStepSize_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 2,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 2,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(addDeletedRecordToListOaiRecordIterator(
@@ -681,20 +523,9 @@ class HarvestServiceImplTest {
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(datasetService.isXsltPresent(anyString())).thenReturn(false);
-        when(recordRepository.save(any(RecordEntity.class)))
-                .thenReturn(recordEntity1)
-                .thenReturn(recordEntity2);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, 2);
 
@@ -705,8 +536,8 @@ class HarvestServiceImplTest {
 
     @Test
     void runHarvestOaiAsync_withXsltSkipDeletedRecords_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 2,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 2,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(addDeletedRecordToListOaiRecordIterator(
@@ -714,14 +545,9 @@ class HarvestServiceImplTest {
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
-        RecordEntity recordEntity = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity.setId(1L);
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(datasetService.isXsltPresent(anyString())).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
@@ -732,8 +558,8 @@ class HarvestServiceImplTest {
 
     @Test
     void runHarvestOaiAsync_withXsltSkipDeletedRecordsAndStepSize_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 2,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 2,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(addDeletedRecordToListOaiRecordIterator(
@@ -741,18 +567,9 @@ class HarvestServiceImplTest {
 
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
-        RecordEntity recordEntity1 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity1.setId(1L);
-        RecordEntity recordEntity2 = new RecordEntity.RecordEntityBuilder()
-                .setDatasetId("datasetId")
-                .build();
-        recordEntity2.setId(2L);
         when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
         when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
         when(datasetService.isXsltPresent(anyString())).thenReturn(true);
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity1).thenReturn(recordEntity2);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, 2);
 
@@ -763,8 +580,8 @@ class HarvestServiceImplTest {
 
     @Test
     void harvestOaiPmh_duplicatedById_expectSuccess() throws HarvesterException {
-        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, 5,
-                recordRepository);
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 5,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), false, Runnable::run, 10);
         OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
 
         var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(addDuplicatedRecordsToListOaiRecordIterator(prepareListForOaiRecordIterator()));
@@ -772,8 +589,8 @@ class HarvestServiceImplTest {
         OaiRecord mockOaiRecord = mock(OaiRecord.class);
         when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record1".getBytes(StandardCharsets.UTF_8)))
                 .thenReturn(new ByteArrayInputStream("record2".getBytes(StandardCharsets.UTF_8)))
-                .thenReturn(new ByteArrayInputStream("record1".getBytes(StandardCharsets.UTF_8)))
-                .thenReturn(new ByteArrayInputStream("record2".getBytes(StandardCharsets.UTF_8)))
+                .thenReturn(new ByteArrayInputStream("record1 updated".getBytes(StandardCharsets.UTF_8)))
+                .thenReturn(new ByteArrayInputStream("record2 updated".getBytes(StandardCharsets.UTF_8)))
                 .thenReturn(new ByteArrayInputStream("record3".getBytes(StandardCharsets.UTF_8)));
         RecordEntity recordEntity = new RecordEntity.RecordEntityBuilder()
                 .setDatasetId("datasetId")
@@ -791,18 +608,291 @@ class HarvestServiceImplTest {
         when(recordRepository.findByProviderIdAndDatasetId("oaiIdentifier3", "datasetId"))
                 .thenReturn(null);
 
-        when(recordRepository.save(any(RecordEntity.class))).thenReturn(recordEntity);
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
+
+        verify(datasetService, times(0)).setRecordLimitExceeded("datasetId");
+
+        assertHarvestProcessWithoutXslt(recordPublishService, 5, Step.HARVEST_OAI_PMH, 5L);
+    }
+
+    @Test
+    void harvestOaiPmhListRecords_duplicatedByContent_expectDuplicatesNotPublished() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+        final List<OaiRecord> oaiRecords = new ArrayList<>(IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> mockOaiRecord(new OaiRecordHeader("oaiIdentifier" + i, false, Instant.now())))
+                .toList());
+        final OaiRecord duplicateOaiRecord = mockOaiRecord(new OaiRecordHeader("oaiIdentifier4", false, Instant.now()));
+        when(duplicateOaiRecord.getContent()).thenReturn(
+                new ByteArrayInputStream("record oaiIdentifier2".getBytes(StandardCharsets.UTF_8)));
+        oaiRecords.add(duplicateOaiRecord);
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(new TestUtils.TestOaiRecordIterator(oaiRecords));
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
 
         harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
 
+        assertHarvestProcessWithoutXslt(recordPublishService, 3, Step.HARVEST_OAI_PMH, 3L);
+        assertEquals(List.of("oaiIdentifier1", "oaiIdentifier2", "oaiIdentifier3"),
+                captorRecordInfo.getAllValues().stream().map(x -> x.getRecordValue().getProviderId()).toList());
+        // The total is set once the duplicate released its admission.
+        final InOrder inOrder = inOrder(datasetService);
+        inOrder.verify(datasetService).releaseAdmittedRecord("datasetId");
+        inOrder.verify(datasetService).updateNumberOfTotalRecordToAdmitted("datasetId");
+        verify(datasetFairShareService, times(4)).awaitTurn(eq("datasetId"), any(Runnable.class));
+        verify(datasetFairShareService).releaseTurn("datasetId");
+        verify(recordRepository).save(argThat(recordEntity ->
+                recordEntity.getProviderId().equals("oaiIdentifier4")
+                        && recordEntity.getRecordLogEntity().getFirst().getStatus() == Status.WARN
+                        && recordEntity.getRecordErrorLogEntity().getFirst().getStatus() == Status.WARN));
+    }
+
+    @Test
+    void harvestOaiPmhListRecords_contentRemovedWhileSavingFailure_expectFailureSavedAgain() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+        final OaiRecord failingOaiRecord = mockOaiRecord(new OaiRecordHeader("oaiIdentifier2", false, Instant.now()));
+        when(failingOaiRecord.getContent()).thenThrow(new IllegalStateException("Unreadable record"));
+        final List<OaiRecord> oaiRecords = List.of(
+                mockOaiRecord(new OaiRecordHeader("oaiIdentifier1", false, Instant.now())), failingOaiRecord);
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(new TestUtils.TestOaiRecordIterator(oaiRecords));
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+        // The content of the failure is deleted as unreferenced before the record log referring to it is saved.
+        when(recordRepository.save(any(RecordEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("Failed", new SQLException("insert or update on table "
+                        + "\"record_log\" violates foreign key constraint \"record_log_content_hash_fkey\"", "23503")))
+                .thenReturn(null);
+
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
+
+        assertHarvestProcessWithoutXslt(recordPublishService, 1, Step.HARVEST_OAI_PMH, 2L);
+        verify(recordContentJdbcRepository, times(2)).save(any(byte[].class));
+        verify(recordRepository, times(2)).save(argThat(recordEntity ->
+                recordEntity.getProviderId().equals("oaiIdentifier2")
+                        && recordEntity.getRecordLogEntity().getFirst().getStatus() == Status.FAIL));
+    }
+
+    @Test
+    void harvestOaiPmh_fetchedOnSharedExecutor_expectTurnAwaitedOnHarvestingThread() throws HarvesterException {
+        final ExecutorService fetchExecutor = Executors.newSingleThreadExecutor();
+        try {
+            harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                    recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, fetchExecutor, 1, Map.of()), false, Runnable::run, 10);
+            OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+            var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
+            when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
+            when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenAnswer(invocation -> {
+                final OaiRecord oaiRecord = mock(OaiRecord.class);
+                when(oaiRecord.getContent()).thenReturn(new ByteArrayInputStream(
+                        ("record " + invocation.getArgument(1)).getBytes(StandardCharsets.UTF_8)));
+                return oaiRecord;
+            });
+            when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+            final Set<Thread> awaitingThreads = ConcurrentHashMap.newKeySet();
+            doAnswer(invocation -> awaitingThreads.add(Thread.currentThread()))
+                    .when(datasetFairShareService).awaitTurn(eq("datasetId"), any(Runnable.class));
+
+            harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
+
+            assertEquals(Set.of(Thread.currentThread()), awaitingThreads);
+            verify(datasetFairShareService, times(2)).awaitTurn(eq("datasetId"), any(Runnable.class));
+            assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_OAI_PMH, 2L);
+        } finally {
+            fetchExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void harvestOaiPmhIncrementally_expectChangedRecordsPublishedAndUnchangedRecordsCopied() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "", Instant.parse("2024-03-05T00:00:00Z"));
+        final List<OaiRecordHeader> headers = addDeletedRecordToListOaiRecordIterator(
+                new ArrayList<>(List.of(new OaiRecordHeader("oaiIdentifier1", false, Instant.now()))), "oaiIdentifier2");
+        headers.add(new OaiRecordHeader("oaiIdentifier3", false, Instant.now()));
+        var oaiRecordIterator = new TestUtils.TestOaiRecordIterator(headers.stream().map(this::mockOaiRecord).toList());
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(oaiRecordIterator);
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+        when(datasetService.getAdmittedRecords("datasetId")).thenAnswer(invocation -> admittedRecords.get());
+        when(recordJdbcRepository.copyProcessedRecords("baselineDatasetId", "datasetId", Set.of("oaiIdentifier2"), 998))
+                .thenReturn(new CopiedRecords(5, 5));
+
+        harvestService.harvestFromOaiPmhIncrementally("datasetId", createMockEncapsulatedRecord(), oaiHarvestData,
+                "baselineDatasetId");
+
+        verify(recordPublishService, times(2)).publishToHarvestQueue(captorRecordInfo.capture(), eq(Step.HARVEST_OAI_PMH));
+        assertEquals(List.of("oaiIdentifier1", "oaiIdentifier3"),
+                captorRecordInfo.getAllValues().stream().map(x -> x.getRecordValue().getProviderId()).toList());
+        assertEquals(7L, admittedRecords.get());
+        verify(datasetService, times(1)).updateNumberOfTotalRecordToAdmitted("datasetId");
         verify(datasetService, times(0)).setRecordLimitExceeded("datasetId");
+    }
+
+    @Test
+    void harvestOaiPmhIncrementally_baselineExceedsLimit_expectRecordLimitExceeded() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 3,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "", Instant.parse("2024-03-05T00:00:00Z"));
+        var oaiRecordIterator = new TestUtils.TestOaiRecordIterator(
+                List.of(mockOaiRecord(new OaiRecordHeader("oaiIdentifier1", false, Instant.now()))));
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(oaiRecordIterator);
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+        when(datasetService.getAdmittedRecords("datasetId")).thenAnswer(invocation -> admittedRecords.get());
+        when(recordJdbcRepository.copyProcessedRecords("baselineDatasetId", "datasetId", Set.of(), 2))
+                .thenReturn(new CopiedRecords(2, 4));
+
+        harvestService.harvestFromOaiPmhIncrementally("datasetId", createMockEncapsulatedRecord(), oaiHarvestData,
+                "baselineDatasetId");
+
+        assertEquals(3L, admittedRecords.get());
+        verify(datasetService).setRecordLimitExceeded("datasetId");
+    }
+
+    @Test
+    void harvestOaiPmhListRecords_withStepSizeAndDeleted_expectSuccess() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+
+        final List<OaiRecordHeader> headers = addDeletedRecordToListOaiRecordIterator(
+                new ArrayList<>(List.of(new OaiRecordHeader("oaiIdentifier1", false, Instant.now()))), "oaiIdentifier2");
+        headers.addAll(List.of(new OaiRecordHeader("oaiIdentifier3", false, Instant.now()),
+                new OaiRecordHeader("oaiIdentifier4", false, Instant.now()),
+                new OaiRecordHeader("oaiIdentifier5", false, Instant.now())));
+        var oaiRecordIterator = new TestUtils.TestOaiRecordIterator(headers.stream().map(this::mockOaiRecord).toList());
+
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(oaiRecordIterator);
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, 2);
+
+        assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_OAI_PMH, 2L);
+        assertEquals(List.of("oaiIdentifier3", "oaiIdentifier5"),
+                captorRecordInfo.getAllValues().stream().map(x -> x.getRecordValue().getProviderId()).toList());
+        verify(oaiHarvester, times(0)).harvestRecordHeaders(any(OaiHarvest.class));
+        verify(oaiHarvester, times(0)).harvestRecord(any(OaiRepository.class), anyString());
+    }
+
+    @Test
+    void harvestOaiPmhListRecords_endpointFails_expectFallbackToGetRecord() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+
+        var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(prepareListForOaiRecordIterator());
+
+        OaiRecord mockOaiRecord = mock(OaiRecord.class);
 
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenThrow(HarvesterException.class);
+        when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
+        when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenReturn(mockOaiRecord);
+        when(mockOaiRecord.getContent()).thenReturn(new ByteArrayInputStream("record".getBytes(StandardCharsets.UTF_8)));
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null);
+
+        assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_OAI_PMH, 2L);
+    }
+
+    @Test
+    void harvestOaiPmhListRecords_withCheckpointInterval_expectCheckpointsReported() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 2, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+        var oaiRecordIterator = new TestUtils.TestOaiRecordIterator(IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> mockOaiRecord(new OaiRecordHeader("oaiIdentifier" + i, false, Instant.now())))
+                .toList());
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(oaiRecordIterator);
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+        when(datasetService.getAdmittedRecords("datasetId")).thenAnswer(invocation -> admittedRecords.get());
+        final List<HarvestCheckpoint> checkpoints = new ArrayList<>();
+
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null, null,
+                checkpoint -> {
+                    // All records selected before the checkpoint are published when it is reported.
+                    verify(recordPublishService, times(checkpoint.getSelectedRecords()))
+                            .publishToHarvestQueue(any(RecordInfo.class), eq(Step.HARVEST_OAI_PMH));
+                    checkpoints.add(checkpoint);
+                });
+
+        assertEquals(List.of(2, 4), checkpoints.stream().map(HarvestCheckpoint::getPosition).toList());
+        assertEquals(List.of(2, 4), checkpoints.stream().map(HarvestCheckpoint::getSelectedRecords).toList());
+        assertEquals(List.of(2, 4), checkpoints.stream().map(HarvestCheckpoint::getAdmittedRecords).toList());
         assertHarvestProcessWithoutXslt(recordPublishService, 5, Step.HARVEST_OAI_PMH, 5L);
     }
 
+    @Test
+    void harvestOaiPmhListRecords_duplicateBeforeCheckpoint_expectDuplicateNotAdmittedInCheckpoint() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 2, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+        final OaiRecord duplicateOaiRecord = mockOaiRecord(new OaiRecordHeader("oaiIdentifier2", false, Instant.now()));
+        when(duplicateOaiRecord.getContent()).thenReturn(
+                new ByteArrayInputStream("record oaiIdentifier1".getBytes(StandardCharsets.UTF_8)));
+        final List<OaiRecord> oaiRecords = List.of(
+                mockOaiRecord(new OaiRecordHeader("oaiIdentifier1", false, Instant.now())), duplicateOaiRecord,
+                mockOaiRecord(new OaiRecordHeader("oaiIdentifier3", false, Instant.now())));
+        when(oaiHarvester.harvestRecords(any(OaiHarvest.class))).thenReturn(new TestUtils.TestOaiRecordIterator(oaiRecords));
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+        when(datasetService.getAdmittedRecords("datasetId")).thenAnswer(invocation -> admittedRecords.get());
+        final List<HarvestCheckpoint> checkpoints = new ArrayList<>();
+
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null, null,
+                checkpoints::add);
+
+        assertEquals(1, checkpoints.size());
+        assertEquals(2, checkpoints.getFirst().getSelectedRecords());
+        assertEquals(1, checkpoints.getFirst().getAdmittedRecords());
+        assertHarvestProcessWithoutXslt(recordPublishService, 2, Step.HARVEST_OAI_PMH, 2L);
+    }
+
+    @Test
+    void harvestOaiPmh_resumeFromCheckpoint_expectRemainingRecordsPublished() throws HarvesterException {
+        harvestService = new HarvestServiceImpl(httpHarvester, oaiHarvester, recordPublishService, datasetService, datasetFairShareService, 1000,
+                recordRepository, recordJdbcRepository, recordContentJdbcRepository, 10, 500, new OaiRecordFetcher(oaiHarvester, Runnable::run, 1, Map.of()), true, Runnable::run, 10);
+        OaiHarvestData oaiHarvestData = new OaiHarvestData("url", "setspec", "metadaformat", "oaiIdentifier");
+        var oaiRecordHeaderIterator = new TestUtils.TestHeaderIterator(IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new OaiRecordHeader("oaiIdentifier" + i, false, Instant.now()))
+                .toList());
+        when(oaiHarvester.harvestRecordHeaders(any(OaiHarvest.class))).thenReturn(oaiRecordHeaderIterator);
+        when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenAnswer(invocation ->
+                mockOaiRecord(new OaiRecordHeader(invocation.getArgument(1), false, Instant.now())));
+        when(datasetService.isXsltPresent(anyString())).thenReturn(false);
+        // The record after the checkpoint was already written by the interrupted harvest.
+        when(recordJdbcRepository.insertRecords(anyList())).thenAnswer(invocation -> {
+            final List<RecordEntity> recordEntities = invocation.getArgument(0);
+            recordEntities.forEach(recordEntity -> recordEntity.setId(Long.valueOf(recordEntity.getProviderId().substring(13))));
+            return Set.of(4L, 5L);
+        });
+        RecordEntity existingRecord = new RecordEntity.RecordEntityBuilder()
+                .setDatasetId("datasetId")
+                .build();
+        existingRecord.setId(3L);
+        when(recordRepository.findByHarvestIdAndDatasetId("oaiIdentifier3", "datasetId")).thenReturn(existingRecord);
+
+        // One of the records before the checkpoint was a duplicate that released its admission.
+        harvestService.harvestFromOaiPmh("datasetId", createMockEncapsulatedRecord(), oaiHarvestData, null,
+                new HarvestCheckpoint(2, 2, 2, 1), checkpoint -> {
+                });
+
+        verify(datasetService).resetAdmittedRecords("datasetId", 1L);
+        assertHarvestProcessWithoutXslt(recordPublishService, 3, Step.HARVEST_OAI_PMH, 4L);
+        assertEquals(List.of("oaiIdentifier3", "oaiIdentifier4", "oaiIdentifier5"),
+                captorRecordInfo.getAllValues().stream().map(x -> x.getRecordValue().getProviderId()).toList());
+        assertEquals(List.of(3L, 4L, 5L),
+                captorRecordInfo.getAllValues().stream().map(x -> x.getRecordValue().getRecordId()).toList());
+        // The complete records are not listed again, and only the records after the checkpoint are downloaded.
+        verify(oaiHarvester, times(0)).harvestRecords(any(OaiHarvest.class));
+        verify(oaiHarvester, times(3)).harvestRecord(any(OaiRepository.class), anyString());
+        verify(oaiHarvester, times(0)).harvestRecord(any(OaiRepository.class), eq("oaiIdentifier1"));
+        verify(oaiHarvester, times(0)).harvestRecord(any(OaiRepository.class), eq("oaiIdentifier2"));
+    }
+
     private void assertHarvestProcess(RecordPublishService recordPublishService, int times, Step step,
                                       Long numberOfRecords) {
-        verify(datasetService).updateNumberOfTotalRecord(eq("datasetId"), eq(numberOfRecords));
+        verify(datasetService).updateNumberOfTotalRecordToAdmitted("datasetId");
+        assertEquals(numberOfRecords, admittedRecords.get());
         assertTrue(captorRecordInfo.getAllValues().stream().allMatch(x -> x.getRecordValue().getDatasetId().equals("datasetId")));
         assertTrue(captorRecordInfo.getAllValues().stream().allMatch(x -> x.getRecordValue().getContent() != null));
         assertEquals(Country.NETHERLANDS, captorRecordInfo.getValue().getRecordValue().getCountry());
@@ -852,6 +942,15 @@ class HarvestServiceImplTest {
         }).collect(Collectors.toList());
     }
 
+    private OaiRecord mockOaiRecord(OaiRecordHeader header) {
+        OaiRecord oaiRecord = mock(OaiRecord.class);
+        when(oaiRecord.getHeader()).thenReturn(header);
+        when(oaiRecord.isDeleted()).thenReturn(header.isDeleted());
+        when(oaiRecord.getContent()).thenReturn(
+                new ByteArrayInputStream(("record " + header.getOaiIdentifier()).getBytes(StandardCharsets.UTF_8)));
+        return oaiRecord;
+    }
+
     private List<FullRecord> prepareMockListForHttpIterator() {
         Path record1Path = Paths.get("src", "test", "resources", "zip", "Record1.xml");
         assertTrue(Files.exists(record1Path));
@@ -0,0 +1,79 @@
+package eu.europeana.metis.sandbox.service.workflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import eu.europeana.metis.harvesting.HarvesterException;
+import eu.europeana.metis.harvesting.oaipmh.OaiHarvester;
+import eu.europeana.metis.harvesting.oaipmh.OaiRecord;
+import eu.europeana.metis.harvesting.oaipmh.OaiRepository;
+import eu.europeana.metis.sandbox.service.workflow.OaiRecordFetcher.FetchSession;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+class OaiRecordFetcherTest {
+
+    @Mock
+    private OaiHarvester oaiHarvester;
+
+    @Test
+    void fetch_limitsConcurrencyPerEndpoint_expectSuccess() throws HarvesterException {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        when(oaiHarvester.harvestRecord(any(OaiRepository.class), anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return mock(OaiRecord.class);
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<OaiRecord> fetchedRecords = new CopyOnWriteArrayList<>();
+        try {
+            final OaiRecordFetcher oaiRecordFetcher = new OaiRecordFetcher(oaiHarvester, executor, 8,
+                    Map.of("oai.example.org", 3));
+            try (FetchSession fetchSession = oaiRecordFetcher.openSession("https://oai.example.org/oai", "edm")) {
+                for (int i = 0; i < 30; i++) {
+                    fetchSession.fetch("oaiIdentifier" + i, fetchedRecords::add, exception -> {
+                    });
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(30, fetchedRecords.size());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    void fetch_recordFails_expectFailureHandled() throws HarvesterException {
+        final OaiRecord oaiRecord = mock(OaiRecord.class);
+        when(oaiHarvester.harvestRecord(any(OaiRepository.class), eq("oaiIdentifier1"))).thenReturn(oaiRecord);
+        when(oaiHarvester.harvestRecord(any(OaiRepository.class), eq("oaiIdentifier2"))).thenThrow(HarvesterException.class);
+        final List<OaiRecord> fetchedRecords = new CopyOnWriteArrayList<>();
+        final List<Exception> failures = new CopyOnWriteArrayList<>();
+
+        final OaiRecordFetcher oaiRecordFetcher = new OaiRecordFetcher(oaiHarvester, Runnable::run, 2, Map.of());
+        try (FetchSession fetchSession = oaiRecordFetcher.openSession("https://oai.example.org/oai", "edm")) {
+            fetchSession.fetch("oaiIdentifier1", fetchedRecords::add, failures::add);
+            fetchSession.fetch("oaiIdentifier2", fetchedRecords::add, failures::add);
+        }
+
+        assertEquals(List.of(oaiRecord), fetchedRecords);
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof HarvesterException);
+    }
+}
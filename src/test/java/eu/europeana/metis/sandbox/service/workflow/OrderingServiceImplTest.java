@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.TestUtils;
@@ -13,33 +16,47 @@ import eu.europeana.metis.transformation.service.XsltTransformer;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.ObjectFactory;
 
 @ExtendWith(MockitoExtension.class)
 class OrderingServiceImplTest {
 
+  private static final String EDM_SORTER_URL = "http://document.domain:12345/edm_sorter.xsl";
+  private static final byte[] EDM_SORTER = "<xsl:stylesheet/>".getBytes();
+
   private final TestUtils testUtils = new TestUtils();
 
   @Mock
-  private ObjectFactory<XsltTransformer> orderObjectFactory;
+  private XsltTransformer xsltSorter;
 
   @Mock
-  private XsltTransformer xsltSorter;
+  private HttpClient httpClient;
+
+  @TempDir
+  private Path tempDir;
 
-  @InjectMocks
   private OrderingServiceImpl service;
 
+  @BeforeEach
+  void setUp() {
+    service = new OrderingServiceImpl(new XsltTransformerPool(() -> xsltSorter));
+  }
+
   @Test
   void performOrdering_expectSuccess() throws IOException, TransformationException {
     var input = testUtils.readFileToString("record"+File.separator+"bad-order"+File.separator+"record-input.xml");
     var expected = testUtils.readFileToString("record"+File.separator+"bad-order"+File.separator+"record-expected.xml");
 
-    when(orderObjectFactory.getObject()).thenReturn(xsltSorter);
     when(xsltSorter.transformToBytes(any(byte[].class), nullable(EuropeanaGeneratedIdsMap.class)))
         .thenReturn(expected.getBytes());
 
@@ -57,10 +74,53 @@ class OrderingServiceImplTest {
   void performOrdering_invalidXml_expectFail() throws IOException, TransformationException {
     var input = testUtils.readFileToString("record"+ File.separator+"bad-order"+File.separator+"record-input.xml");
 
-    when(orderObjectFactory.getObject()).thenReturn(xsltSorter);
     when(xsltSorter.transformToBytes(any(byte[].class), nullable(EuropeanaGeneratedIdsMap.class)))
         .thenThrow(new TransformationException(new Exception("Failing here")));
 
     assertThrows(TransformationException.class, () -> service.performOrdering(input.getBytes()));
   }
-}
\ No newline at end of file
+
+  @Test
+  void performOrdering_reusesSorter() throws TransformationException {
+    final XsltTransformerPool.XsltTransformerFactory factory = mock(XsltTransformerPool.XsltTransformerFactory.class);
+    when(factory.create()).thenReturn(xsltSorter);
+    final OrderingServiceImpl reusingService = new OrderingServiceImpl(new XsltTransformerPool(factory));
+
+    reusingService.performOrdering(EDM_SORTER);
+    reusingService.performOrdering(EDM_SORTER);
+
+    verify(factory, times(1)).create();
+  }
+
+  @Test
+  void loadEdmSorter_downloaded_expectSavedToFile() throws Exception {
+    final Path edmSorterFile = tempDir.resolve("sorter").resolve("edm_sorter.xsl");
+    HttpResponse httpResponse = mock(HttpResponse.class);
+    when(httpResponse.statusCode()).thenReturn(200);
+    when(httpResponse.body()).thenReturn(EDM_SORTER);
+    when(httpClient.send(any(HttpRequest.class), any())).thenReturn(httpResponse);
+
+    assertArrayEquals(EDM_SORTER, OrderingServiceImpl.loadEdmSorter(httpClient, EDM_SORTER_URL, edmSorterFile));
+    assertArrayEquals(EDM_SORTER, Files.readAllBytes(edmSorterFile));
+  }
+
+  @Test
+  void loadEdmSorter_downloadFails_expectReadFromFile() throws Exception {
+    final Path edmSorterFile = tempDir.resolve("edm_sorter.xsl");
+    Files.write(edmSorterFile, EDM_SORTER);
+    when(httpClient.send(any(HttpRequest.class), any())).thenThrow(new IOException("Failing here"));
+
+    assertArrayEquals(EDM_SORTER, OrderingServiceImpl.loadEdmSorter(httpClient, EDM_SORTER_URL, edmSorterFile));
+  }
+
+  @Test
+  void loadEdmSorter_notFoundAndNoFile_expectFail() throws Exception {
+    final Path edmSorterFile = tempDir.resolve("edm_sorter.xsl");
+    HttpResponse httpResponse = mock(HttpResponse.class);
+    when(httpResponse.statusCode()).thenReturn(404);
+    when(httpClient.send(any(HttpRequest.class), any())).thenReturn(httpResponse);
+
+    assertThrows(IllegalStateException.class,
+        () -> OrderingServiceImpl.loadEdmSorter(httpClient, EDM_SORTER_URL, edmSorterFile));
+  }
+}
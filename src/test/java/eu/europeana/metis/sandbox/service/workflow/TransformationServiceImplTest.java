@@ -3,7 +3,6 @@ package eu.europeana.metis.sandbox.service.workflow;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 
 import eu.europeana.metis.sandbox.common.TestUtils;
@@ -15,6 +14,8 @@ import eu.europeana.metis.sandbox.domain.RecordInfo;
 import eu.europeana.metis.sandbox.entity.TransformXsltEntity;
 import eu.europeana.metis.sandbox.repository.DatasetRepository;
 import eu.europeana.metis.sandbox.repository.TransformXsltRepository;
+import eu.europeana.metis.transformation.service.EuropeanaIdCreator;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -41,6 +42,9 @@ class TransformationServiceImplTest {
   @Mock
   DatasetRepository datasetRepositoryMock;
 
+  @Mock
+  MeterRegistry meterRegistry;
+
   @Spy
   @InjectMocks
   TransformationServiceImpl transformationService;
@@ -113,7 +117,7 @@ class TransformationServiceImplTest {
     var expectedRecordInfo = new RecordInfo(expectedRecord, Collections.emptyList());
 
     TransformXsltEntity transformXsltEntity = new TransformXsltEntity(transformFile);
-    when(transformXsltRepository.findById(anyInt())).thenReturn(Optional.of(transformXsltEntity));
+    when(transformXsltRepository.findFirstByIdIsNotNullOrderByIdAsc()).thenReturn(Optional.of(transformXsltEntity));
 
     var result = transformationService.transformToEdmInternal(inputRecord);
 
@@ -121,6 +125,33 @@ class TransformationServiceImplTest {
 
   }
 
+  @Test
+  void transformToEdmInternal_idsKnownFromExternalValidation_expectSuccess() throws IOException {
+
+    var input = testUtils.readFileToString(
+        "record" + File.separator + "transform" + File.separator + "record-input.xml");
+    var expected = testUtils.readFileToString(
+        "record" + File.separator + "transform" + File.separator + "record-expected.xml");
+    var transformFile = testUtils.readFileToString(
+        "record" + File.separator + "defaultTransform.xslt");
+
+    var inputRecord = createRecord(input);
+    var providerId = "URN:NBN:SI:doc-35SZSOCF";
+    inputRecord.setProviderId(providerId);
+    inputRecord.setEuropeanaId(EuropeanaIdCreator.constructEuropeanaIdString(providerId, inputRecord.getDatasetId()));
+    var expectedRecord = createRecord(expected);
+
+    var expectedRecordInfo = new RecordInfo(expectedRecord, Collections.emptyList());
+
+    TransformXsltEntity transformXsltEntity = new TransformXsltEntity(transformFile);
+    when(transformXsltRepository.findFirstByIdIsNotNullOrderByIdAsc()).thenReturn(Optional.of(transformXsltEntity));
+
+    var result = transformationService.transformToEdmInternal(inputRecord);
+
+    assertEquals(expectedRecordInfo, result);
+    assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), result.getRecordValue().getContent());
+  }
+
   @Test
   void transformToEdmInternal_invalidXml_expectRecordProcessingException() throws IOException {
 